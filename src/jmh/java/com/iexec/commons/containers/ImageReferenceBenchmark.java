@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers;
+
+import com.github.dockerjava.api.model.AuthConfig;
+import com.github.dockerjava.core.NameParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the previous image name handling (regex sanitization and repeated
+ * {@link NameParser} calls) with {@link ImageReference}.
+ * <p>
+ * Each benchmark resolves what a worker needs for one task image: the sanitized
+ * name used by {@code getImageId}, the repository and tag used by {@code pullImage}
+ * and the registry address.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageReferenceBenchmark {
+
+    @Param({
+            "alpine:latest",
+            "docker.io/library/alpine:latest",
+            "docker.io/alpine/socat:latest",
+            "nexus.iex.ec/some-app:1.0.0"
+    })
+    public String imageName;
+
+    @Benchmark
+    public void legacyParsing(Blackhole blackhole) {
+        blackhole.consume(legacySanitizeImageName(imageName));
+        NameParser.ReposTag reposTag = NameParser.parseRepositoryTag(imageName);
+        blackhole.consume(reposTag.repos);
+        blackhole.consume(reposTag.tag);
+        blackhole.consume(legacyParseRegistryAddress(imageName));
+    }
+
+    @Benchmark
+    public void cachedImageReference(Blackhole blackhole) {
+        ImageReference reference = ImageReference.of(imageName);
+        blackhole.consume(reference.getFamiliarName());
+        blackhole.consume(reference.getFamiliarRepository());
+        blackhole.consume(reference.getTag());
+        blackhole.consume(reference.getRegistry());
+    }
+
+    @Benchmark
+    public void uncachedImageReference(Blackhole blackhole) {
+        ImageReference reference = ImageReference.parse(imageName);
+        blackhole.consume(reference.getFamiliarName());
+        blackhole.consume(reference.getFamiliarRepository());
+        blackhole.consume(reference.getTag());
+        blackhole.consume(reference.getRegistry());
+    }
+
+    private static String legacySanitizeImageName(String image) {
+        List<String> regexList = Arrays.asList(
+                "docker.io/library/(.*)",
+                "library/(.*)",
+                "docker.io/(.*)");
+        for (String regex : regexList) {
+            Matcher m = Pattern.compile(regex).matcher(image);
+            if (m.find()) {
+                return m.group(1);
+            }
+        }
+        return image;
+    }
+
+    private static String legacyParseRegistryAddress(String imageName) {
+        NameParser.ReposTag reposTag = NameParser.parseRepositoryTag(imageName);
+        NameParser.HostnameReposName hostnameReposName = NameParser.resolveRepositoryName(reposTag.repos);
+        String registry = hostnameReposName.hostname;
+        return AuthConfig.DEFAULT_SERVER_ADDRESS.equals(registry) ? "docker.io" : registry;
+    }
+}
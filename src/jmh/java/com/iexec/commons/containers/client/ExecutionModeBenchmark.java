@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.github.dockerjava.api.model.HostConfig;
+import com.iexec.commons.containers.DockerRunRequest;
+import com.iexec.commons.containers.DockerRunResponse;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Load test of concurrent {@link DockerClientInstance#runAsync(DockerRunRequest)}
+ * calls with platform and virtual threads.
+ * <p>
+ * Each invocation starts {@code concurrentRuns} containers sleeping 5 seconds and
+ * waits for all of them, so that the score is the time to sustain that many
+ * concurrent runs. The peak number of live platform threads is printed after each
+ * iteration. Requires a reachable Docker daemon, e.g.
+ * {@code gradle jmh --args="ExecutionModeBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ExecutionModeBenchmark {
+
+    private static final String IMAGE = "alpine:latest";
+    private static final String NETWORK = "iexec-execution-mode-benchmark";
+
+    @Param({"PLATFORM_THREADS", "VIRTUAL_THREADS"})
+    public ExecutionMode executionMode;
+
+    @Param({"100", "500", "1000"})
+    public int concurrentRuns;
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private DockerClientInstance dockerClientInstance;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        dockerClientInstance = new DockerClientInstance();
+        dockerClientInstance.setExecutionMode(executionMode);
+        dockerClientInstance.pullImage(IMAGE);
+        dockerClientInstance.createNetwork(NETWORK);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpIteration() {
+        threadMXBean.resetPeakThreadCount();
+    }
+
+    @Benchmark
+    public long runConcurrently() {
+        List<CompletableFuture<DockerRunResponse>> runs = IntStream.range(0, concurrentRuns)
+                .mapToObj(i -> dockerClientInstance.runAsync(getRequest()))
+                .toList();
+        return runs.stream()
+                .map(CompletableFuture::join)
+                .filter(DockerRunResponse::isSuccessful)
+                .count();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDownIteration() {
+        System.out.printf("%n[mode:%s, concurrentRuns:%d, peakPlatformThreads:%d]%n",
+                executionMode, concurrentRuns, threadMXBean.getPeakThreadCount());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        dockerClientInstance.removeNetwork(NETWORK);
+    }
+
+    private DockerRunRequest getRequest() {
+        return DockerRunRequest.builder()
+                .hostConfig(HostConfig.newHostConfig().withNetworkMode(NETWORK))
+                .containerName("benchmark-" + RandomStringUtils.insecure().nextAlphanumeric(16))
+                .imageUri(IMAGE)
+                .cmd("sh -c 'sleep 5'")
+                .maxExecutionTime(60_000)
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+/**
+ * Cost of tracking run deadlines while 10k of them are pending, with the
+ * {@link TimingWheel} and with a {@link ScheduledThreadPoolExecutor}.
+ * <p>
+ * Each operation cancels the deadline of a run finishing before its
+ * maxExecutionTime and schedules the deadline of a new run, so that 10k deadlines
+ * between 1 and 60 minutes away stay pending.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimingWheelBenchmark {
+
+    private static final int DEADLINES = 10_000;
+    private static final Runnable NOOP = () -> { };
+
+    @Param({"timingWheel", "scheduledExecutor"})
+    public String scheduler;
+
+    private final long[] delaysMillis = new long[DEADLINES];
+    private TimingWheel wheel;
+    private TimingWheel.Timeout[] timeouts;
+    private ScheduledThreadPoolExecutor executor;
+    private ScheduledFuture<?>[] futures;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < DEADLINES; i++) {
+            delaysMillis[i] = random.nextLong(Duration.ofMinutes(1).toMillis(), Duration.ofMinutes(60).toMillis());
+        }
+        wheel = new TimingWheel(Duration.ofMillis(100), 512, "benchmark-deadline-wheel");
+        timeouts = new TimingWheel.Timeout[DEADLINES];
+        executor = new ScheduledThreadPoolExecutor(1);
+        executor.setRemoveOnCancelPolicy(true);
+        futures = new ScheduledFuture<?>[DEADLINES];
+        for (int i = 0; i < DEADLINES; i++) {
+            if ("timingWheel".equals(scheduler)) {
+                timeouts[i] = wheel.schedule(NOOP, delaysMillis[i], TimeUnit.MILLISECONDS);
+            } else {
+                futures[i] = executor.schedule(NOOP, delaysMillis[i], TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        wheel.close();
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public boolean replaceDeadline() {
+        int i = index;
+        index = (i + 1) % DEADLINES;
+        if ("timingWheel".equals(scheduler)) {
+            boolean cancelled = timeouts[i].cancel();
+            timeouts[i] = wheel.schedule(NOOP, delaysMillis[i], TimeUnit.MILLISECONDS);
+            return cancelled;
+        }
+        boolean cancelled = futures[i].cancel(false);
+        futures[i] = executor.schedule(NOOP, delaysMillis[i], TimeUnit.MILLISECONDS);
+        return cancelled;
+    }
+}
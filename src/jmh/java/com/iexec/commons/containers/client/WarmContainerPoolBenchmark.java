@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.github.dockerjava.api.model.HostConfig;
+import com.iexec.commons.containers.DockerRunRequest;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Start latency of a container with and without a {@link WarmContainerPool}.
+ * <p>
+ * Measures the time between the run request and the started container, in sample
+ * time mode so that JMH reports p50 and p99 percentiles. Requires a reachable Docker
+ * daemon, e.g. {@code gradle jmh --args="WarmContainerPoolBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Fork(1)
+public class WarmContainerPoolBenchmark {
+
+    private static final String IMAGE = "alpine:latest";
+    private static final String NETWORK = "iexec-warm-pool-benchmark";
+
+    @Param({"false", "true"})
+    public boolean usePool;
+
+    private DockerClientInstance dockerClientInstance;
+    private WarmContainerPool pool;
+    private String containerName;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        dockerClientInstance = new DockerClientInstance();
+        dockerClientInstance.pullImage(IMAGE);
+        dockerClientInstance.createNetwork(NETWORK);
+        if (usePool) {
+            pool = new WarmContainerPool(dockerClientInstance, WarmPoolConfig.builder()
+                    .poolSize(4)
+                    .ttl(Duration.ofMinutes(5))
+                    .build());
+            pool.warm(getRequest("template"));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        containerName = "benchmark-" + RandomStringUtils.insecure().nextAlphanumeric(16);
+    }
+
+    @Benchmark
+    public boolean createAndStart() {
+        DockerRunRequest request = getRequest(containerName);
+        boolean isCreated = (pool != null && pool.acquire(request).isPresent())
+                || !dockerClientInstance.createContainer(request).isEmpty();
+        return isCreated && dockerClientInstance.startContainer(containerName);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownInvocation() {
+        dockerClientInstance.stopAndRemoveContainer(containerName);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        if (pool != null) {
+            pool.close();
+        }
+        dockerClientInstance.removeNetwork(NETWORK);
+    }
+
+    private DockerRunRequest getRequest(String name) {
+        return DockerRunRequest.builder()
+                .hostConfig(HostConfig.newHostConfig().withNetworkMode(NETWORK))
+                .containerName(name)
+                .imageUri(IMAGE)
+                .cmd("sh -c 'sleep 30'")
+                .build();
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2023-2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2023-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,10 +22,11 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class DockerRunRequest {
@@ -36,10 +37,30 @@ public class DockerRunRequest {
     private String containerName;
     private int containerPort;
     private String imageUri;
+    /**
+     * Optional image ID resolved from {@link #imageUri}. When set, the container
+     * is created from this ID instead of letting the daemon resolve the tag.
+     */
+    private String imageId;
     private String entrypoint;
     private String cmd;
     private List<String> env;
     private long maxExecutionTime;
+    /**
+     * Optional date by which the task must be completed, e.g. its on-chain deadline.
+     * Used to order queued runs, see {@code RunScheduler}.
+     */
+    private Instant deadline;
+    /**
+     * Optional identity of the requester of the task, queued runs of requesters are
+     * scheduled fairly, see {@code RunScheduler}.
+     */
+    private String requester;
+    /**
+     * Priority of the run, higher is more urgent. Running runs of lower priority may
+     * be paused to admit it, see {@code RunScheduler}.
+     */
+    private int priority;
     private SgxDriverMode sgxDriverMode;
     private String workingDir;
     private boolean shouldDisplayLogs;
@@ -52,6 +73,15 @@ public class DockerRunRequest {
         return ArgsUtils.stringArgsToArrayArgs(this.cmd);
     }
 
+    /**
+     * Get the image the container should be created from.
+     *
+     * @return the resolved image ID if any, the image URI otherwise
+     */
+    public String getImageToCreate() {
+        return imageId != null && !imageId.isBlank() ? imageId : imageUri;
+    }
+
     public SgxDriverMode getSgxDriverMode() {
         return sgxDriverMode != null ? sgxDriverMode : SgxDriverMode.NONE;
     }
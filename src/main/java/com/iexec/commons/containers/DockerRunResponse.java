@@ -1,5 +1,5 @@
 /*
- * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ * Copyright 2023-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -33,6 +33,16 @@ public class DockerRunResponse {
     private DockerLogs dockerLogs;
     private int containerExitCode;
     private Duration executionDuration;
+    /**
+     * Time the container spent paused to free its CPUs for a more urgent run. It does
+     * not count in the max execution time of the run.
+     */
+    private Duration pausedDuration;
+    /**
+     * Host port publishing the {@code containerPort} of the run, 0 if it is not
+     * published.
+     */
+    private int hostPort;
 
     public boolean isSuccessful() {
         return finalStatus == DockerRunFinalStatus.SUCCESS;
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Essentials of a Docker image inspection, as required to run containers from it.
+ */
+@Value
+@Builder
+public class ImageMetadata {
+
+    String id;
+    @Builder.Default
+    List<String> repoTags = List.of();
+    @Builder.Default
+    List<String> repoDigests = List.of();
+    @Builder.Default
+    List<String> entrypoint = List.of();
+    @Builder.Default
+    List<String> cmd = List.of();
+    @Builder.Default
+    List<String> env = List.of();
+    String workingDir;
+    long size;
+    String created;
+
+}
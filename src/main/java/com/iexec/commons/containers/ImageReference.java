@@ -0,0 +1,206 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable and normalized Docker image reference.
+ * <p>
+ * A reference is parsed once into its registry, namespace, repository, tag and digest
+ * components. Parsed references are interned in a bounded map so that hot paths
+ * ({@code getImageId}, {@code pullImage}, ...) do not parse the same name again.
+ * <p>
+ * e.g.:
+ * <pre>
+ * alpine:latest                          - docker.io / library / alpine    / latest
+ * docker.io/alpine/socat:latest          - docker.io / alpine  / socat     / latest
+ * nexus.iex.ec/some-app:1.0.0            - nexus.iex.ec /      / some-app  / 1.0.0
+ * alpine@sha256:0123...                  - docker.io / library / alpine    / (none) @ sha256:0123...
+ * </pre>
+ */
+@Getter
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ImageReference {
+
+    public static final String DEFAULT_REGISTRY = "docker.io";
+    public static final String DEFAULT_NAMESPACE = "library";
+
+    static final int MAX_CACHED_REFERENCES = 1024;
+    private static final Map<String, ImageReference> CACHE = new ConcurrentHashMap<>();
+    private static final String LEGACY_DEFAULT_REGISTRY = "index.docker.io";
+    private static final String DIGEST_SEPARATOR = "@";
+
+    @EqualsAndHashCode.Include
+    private final String registry;
+    @EqualsAndHashCode.Include
+    private final String namespace;
+    @EqualsAndHashCode.Include
+    private final String repository;
+    @EqualsAndHashCode.Include
+    private final String tag;
+    @EqualsAndHashCode.Include
+    private final String digest;
+    /**
+     * Short name as displayed by the Docker daemon in {@code RepoTags},
+     * e.g. {@code alpine:latest} or {@code alpine/socat:latest}.
+     */
+    private final String familiarName;
+
+    /**
+     * Get the parsed reference of an image name, reusing a previously parsed
+     * instance when available.
+     *
+     * @param imageName name of the docker image
+     * @return the parsed reference
+     * @throws IllegalArgumentException if the name is not a valid image reference
+     */
+    public static ImageReference of(String imageName) {
+        ImageReference cached = CACHE.get(imageName == null ? "" : imageName);
+        if (cached != null) {
+            return cached;
+        }
+        ImageReference reference = parse(imageName);
+        // bounded: once full, new names are parsed on each call instead of growing the map
+        if (CACHE.size() < MAX_CACHED_REFERENCES) {
+            CACHE.putIfAbsent(imageName, reference);
+        }
+        return reference;
+    }
+
+    /**
+     * Used at least in unit tests.
+     */
+    static void purgeCache() {
+        CACHE.clear();
+    }
+
+    static int cacheSize() {
+        return CACHE.size();
+    }
+
+    static ImageReference parse(String imageName) {
+        if (StringUtils.isBlank(imageName)) {
+            throw new IllegalArgumentException("Image name must not be blank");
+        }
+        String remainder = imageName.trim();
+        String digest = null;
+        int digestIndex = remainder.indexOf(DIGEST_SEPARATOR);
+        if (digestIndex >= 0) {
+            digest = remainder.substring(digestIndex + 1);
+            remainder = remainder.substring(0, digestIndex);
+            if (!digest.contains(":") || digest.endsWith(":")) {
+                throw new IllegalArgumentException("Invalid image digest [name:" + imageName + "]");
+            }
+        }
+        String tag = null;
+        int tagIndex = remainder.lastIndexOf(':');
+        if (tagIndex > remainder.lastIndexOf('/')) {
+            tag = remainder.substring(tagIndex + 1);
+            remainder = remainder.substring(0, tagIndex);
+            if (tag.isEmpty()) {
+                throw new IllegalArgumentException("Invalid image tag [name:" + imageName + "]");
+            }
+        }
+        if (remainder.isEmpty() || remainder.startsWith("/") || remainder.endsWith("/")) {
+            throw new IllegalArgumentException("Invalid image repository [name:" + imageName + "]");
+        }
+        String registry = DEFAULT_REGISTRY;
+        String path = remainder;
+        int firstSlash = remainder.indexOf('/');
+        if (firstSlash > 0) {
+            String firstComponent = remainder.substring(0, firstSlash);
+            if (isRegistry(firstComponent)) {
+                registry = LEGACY_DEFAULT_REGISTRY.equals(firstComponent) ? DEFAULT_REGISTRY : firstComponent;
+                path = remainder.substring(firstSlash + 1);
+            }
+        }
+        int lastSlash = path.lastIndexOf('/');
+        String namespace = lastSlash > 0 ? path.substring(0, lastSlash) : "";
+        String repository = path.substring(lastSlash + 1);
+        boolean isDefaultRegistry = DEFAULT_REGISTRY.equals(registry);
+        if (isDefaultRegistry && namespace.isEmpty()) {
+            namespace = DEFAULT_NAMESPACE;
+        }
+        String familiarRepository = isDefaultRegistry
+                ? (DEFAULT_NAMESPACE.equals(namespace) ? repository : namespace + "/" + repository)
+                : registry + "/" + path;
+        String familiarName = familiarRepository
+                + (tag != null ? ":" + tag : "")
+                + (digest != null ? DIGEST_SEPARATOR + digest : "");
+        return new ImageReference(registry, namespace, repository, tag, digest, familiarName);
+    }
+
+    private static boolean isRegistry(String component) {
+        return component.contains(".") || component.contains(":") || "localhost".equals(component);
+    }
+
+    public boolean hasTag() {
+        return tag != null;
+    }
+
+    public boolean hasDigest() {
+        return digest != null;
+    }
+
+    public boolean isDefaultRegistry() {
+        return DEFAULT_REGISTRY.equals(registry);
+    }
+
+    /**
+     * Get the repository as expected by the Docker API, without tag nor digest,
+     * e.g. {@code alpine}, {@code alpine/socat} or {@code nexus.iex.ec/some-app}.
+     *
+     * @return familiar repository name
+     */
+    public String getFamiliarRepository() {
+        int end = familiarName.length();
+        if (digest != null) {
+            end -= digest.length() + DIGEST_SEPARATOR.length();
+        }
+        if (tag != null) {
+            end -= tag.length() + 1;
+        }
+        return familiarName.substring(0, end);
+    }
+
+    /**
+     * Get the fully qualified name, e.g. {@code docker.io/library/alpine:latest}.
+     *
+     * @return canonical name
+     */
+    public String getCanonicalName() {
+        return registry + "/"
+                + (namespace.isEmpty() ? "" : namespace + "/")
+                + repository
+                + (tag != null ? ":" + tag : "")
+                + (digest != null ? DIGEST_SEPARATOR + digest : "");
+    }
+
+    @Override
+    public String toString() {
+        return familiarName;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Related containers of a task run together, e.g. a pre-compute, an app, a
+ * post-compute and a sidecar, sharing a network and volumes.
+ * <p>
+ * The network and volumes are created once for the group and removed with it.
+ * Members without {@link TaskGroupMember#getDependsOn() dependencies} are started
+ * concurrently.
+ */
+@Value
+@Builder
+public class TaskGroup {
+
+    String name;
+    /**
+     * Network of the group, used by members without network mode. Not created if blank.
+     */
+    String networkName;
+    /**
+     * Named volumes shared by members, mounted through the binds of their host config.
+     */
+    @Singular
+    List<String> volumes;
+    @Singular
+    List<TaskGroupMember> members;
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * A container of a {@link TaskGroup}, started once its dependencies are met.
+ */
+@Value
+@Builder
+public class TaskGroupMember {
+
+    public enum Condition {
+        /**
+         * The dependency container is started, e.g. a sidecar serving the member.
+         */
+        STARTED,
+        /**
+         * The dependency container exited successfully, e.g. a pre-compute
+         * producing the inputs of the member.
+         */
+        COMPLETED_SUCCESSFULLY
+    }
+
+    DockerRunRequest dockerRunRequest;
+    /**
+     * Conditions to meet before starting the member, by container name of the
+     * members it depends on. The member is not run if a condition can no longer be met.
+     */
+    @Builder.Default
+    Map<String, Condition> dependsOn = Map.of();
+
+    public String getContainerName() {
+        return dockerRunRequest.getContainerName();
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers;
+
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregated result of a {@link TaskGroup}.
+ */
+@Value
+public class TaskGroupResult {
+
+    String name;
+    /**
+     * Response of each member by container name, in member order. A member which
+     * was not run has a failed response.
+     */
+    Map<String, DockerRunResponse> responses;
+    /**
+     * Time from the start of the group to the start of its last started member.
+     */
+    Duration setupDuration;
+    Duration totalDuration;
+
+    public boolean isSuccessful() {
+        return !responses.isEmpty() && responses.values().stream().allMatch(DockerRunResponse::isSuccessful);
+    }
+
+    public List<String> getFailedMembers() {
+        return responses.entrySet().stream()
+                .filter(entry -> !entry.getValue().isSuccessful())
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission control of the calls sent to the Docker daemon.
+ * <p>
+ * Mutating calls and reads have separate budgets, each bounding the calls in flight
+ * and optionally the calls started per second. Calls over budget wait in FIFO order,
+ * so that a burst is spread at the pace the daemon sustains instead of being sent
+ * at once.
+ */
+public final class AdmissionLimiter {
+
+    public enum CallType {
+        MUTATING,
+        READ
+    }
+
+    private final Budget mutatingBudget = new Budget();
+    private final Budget readBudget = new Budget();
+    private volatile AdmissionLimits limits;
+
+    public AdmissionLimiter(AdmissionLimits limits) {
+        setLimits(limits);
+    }
+
+    /**
+     * Change the budgets, calls in flight keep their permits.
+     */
+    public void setLimits(AdmissionLimits limits) {
+        Objects.requireNonNull(limits, "Admission limits must not be null");
+        if (limits.getMaxConcurrentMutatingCalls() <= 0 || limits.getMaxConcurrentReadCalls() <= 0
+                || limits.getMaxMutatingCallsPerSecond() < 0 || limits.getMaxReadCallsPerSecond() < 0) {
+            throw new IllegalArgumentException("Invalid admission limits " + limits);
+        }
+        mutatingBudget.configure(limits.getMaxConcurrentMutatingCalls(), limits.getMaxMutatingCallsPerSecond());
+        readBudget.configure(limits.getMaxConcurrentReadCalls(), limits.getMaxReadCallsPerSecond());
+        this.limits = limits;
+    }
+
+    public AdmissionLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * Wait until a call of this type is admitted.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void acquire(CallType callType) throws InterruptedException {
+        getBudget(callType).acquire();
+    }
+
+    /**
+     * Give back the permit of an admitted call once it completed.
+     */
+    void release(CallType callType) {
+        getBudget(callType).release();
+    }
+
+    public Stats getStats(CallType callType) {
+        return getBudget(callType).getStats();
+    }
+
+    private Budget getBudget(CallType callType) {
+        return callType == CallType.MUTATING ? mutatingBudget : readBudget;
+    }
+
+    /**
+     * Snapshot of the activity of a budget.
+     */
+    @Value
+    public static class Stats {
+        /**
+         * Calls currently waiting for admission.
+         */
+        int queueDepth;
+        /**
+         * Admitted calls not completed yet.
+         */
+        int inFlight;
+        long admittedCalls;
+        Duration totalWait;
+        Duration maxWait;
+
+        public Duration getAverageWait() {
+            return admittedCalls == 0 ? Duration.ZERO : totalWait.dividedBy(admittedCalls);
+        }
+    }
+
+    private static class Budget {
+        private final ResizableSemaphore concurrency = new ResizableSemaphore();
+        private final ReentrantLock rateLock = new ReentrantLock();
+        private final AtomicInteger queueDepth = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong admittedCalls = new AtomicLong();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+        private int maxConcurrentCalls;
+        // 0 when rate limiting is disabled
+        private volatile long intervalNanos;
+        private volatile long burstNanos;
+        private long nextFreeSlotNanos = System.nanoTime();
+
+        private void configure(int maxConcurrentCalls, int maxCallsPerSecond) {
+            rateLock.lock();
+            try {
+                int delta = maxConcurrentCalls - this.maxConcurrentCalls;
+                if (delta > 0) {
+                    concurrency.release(delta);
+                } else if (delta < 0) {
+                    concurrency.reducePermits(-delta);
+                }
+                this.maxConcurrentCalls = maxConcurrentCalls;
+                intervalNanos = maxCallsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / maxCallsPerSecond : 0;
+                // up to one second of calls can start at once after an idle period
+                burstNanos = intervalNanos * Math.max(0, maxCallsPerSecond - 1);
+            } finally {
+                rateLock.unlock();
+            }
+        }
+
+        private void acquire() throws InterruptedException {
+            long start = System.nanoTime();
+            queueDepth.incrementAndGet();
+            try {
+                waitForRateSlot();
+                concurrency.acquire();
+            } finally {
+                queueDepth.decrementAndGet();
+            }
+            inFlight.incrementAndGet();
+            long waitNanos = System.nanoTime() - start;
+            admittedCalls.incrementAndGet();
+            totalWaitNanos.addAndGet(waitNanos);
+            maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        }
+
+        private void release() {
+            inFlight.decrementAndGet();
+            concurrency.release();
+        }
+
+        /**
+         * Reserve the next start slot of the rate limit and sleep until it comes.
+         * Slots are reserved in arrival order, which keeps the queue fair.
+         */
+        private void waitForRateSlot() throws InterruptedException {
+            if (intervalNanos == 0) {
+                return;
+            }
+            long slotNanos;
+            rateLock.lock();
+            try {
+                long now = System.nanoTime();
+                slotNanos = Math.max(nextFreeSlotNanos, now - burstNanos);
+                nextFreeSlotNanos = slotNanos + intervalNanos;
+            } finally {
+                rateLock.unlock();
+            }
+            long sleepNanos = slotNanos - System.nanoTime();
+            if (sleepNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            }
+        }
+
+        private Stats getStats() {
+            return new Stats(queueDepth.get(), inFlight.get(), admittedCalls.get(),
+                    Duration.ofNanos(totalWaitNanos.get()), Duration.ofNanos(maxWaitNanos.get()));
+        }
+    }
+
+    /**
+     * Fair semaphore whose number of permits can be reduced while permits are held.
+     */
+    private static class ResizableSemaphore extends Semaphore {
+        private static final long serialVersionUID = 1L;
+
+        private ResizableSemaphore() {
+            super(0, true);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Budgets of an {@link AdmissionLimiter}.
+ * <p>
+ * Mutating calls create, start, stop or remove resources and pull images, reads
+ * only inspect or list them. A rate of 0 disables rate limiting of a call type.
+ */
+@Value
+@Builder
+public class AdmissionLimits {
+
+    /**
+     * Maximum number of mutating calls in flight.
+     */
+    @Builder.Default
+    int maxConcurrentMutatingCalls = 16;
+    /**
+     * Maximum number of mutating calls started per second, 0 for no limit.
+     */
+    @Builder.Default
+    int maxMutatingCallsPerSecond = 0;
+    /**
+     * Maximum number of read calls in flight.
+     */
+    @Builder.Default
+    int maxConcurrentReadCalls = 64;
+    /**
+     * Maximum number of read calls started per second, 0 for no limit.
+     */
+    @Builder.Default
+    int maxReadCallsPerSecond = 0;
+
+}
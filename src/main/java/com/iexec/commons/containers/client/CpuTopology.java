@@ -0,0 +1,179 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Online CPUs of a host grouped by NUMA node, as exposed by sysfs under
+ * {@code /sys/devices/system/node} and {@code /sys/devices/system/cpu}.
+ */
+@Slf4j
+@Value
+public class CpuTopology {
+
+    public static final Path DEFAULT_SYSFS_ROOT = Path.of("/sys");
+
+    private static final Pattern NODE_DIRECTORY = Pattern.compile("node(\\d+)");
+
+    /**
+     * CPUs of each NUMA node, by node ID.
+     */
+    SortedMap<Integer, BitSet> cpusByNode;
+
+    /**
+     * @param cpusByNode CPUs of each NUMA node, by node ID
+     */
+    public CpuTopology(SortedMap<Integer, BitSet> cpusByNode) {
+        SortedMap<Integer, BitSet> copy = new TreeMap<>();
+        cpusByNode.forEach((node, cpus) -> copy.put(node, (BitSet) cpus.clone()));
+        this.cpusByNode = Collections.unmodifiableSortedMap(copy);
+    }
+
+    /**
+     * Read the topology of the host from {@link #DEFAULT_SYSFS_ROOT}.
+     *
+     * @return the topology, empty if sysfs cannot be read
+     */
+    public static Optional<CpuTopology> read() {
+        return read(DEFAULT_SYSFS_ROOT);
+    }
+
+    /**
+     * Read the topology of a host from a sysfs tree. CPUs of each node are read from
+     * {@code devices/system/node/node<N>/cpulist}. Without NUMA information, all
+     * online CPUs of {@code devices/system/cpu/online} are on node 0.
+     *
+     * @param sysfsRoot root of the sysfs tree, e.g. {@code /sys}
+     * @return the topology, empty if no CPU is found
+     */
+    public static Optional<CpuTopology> read(Path sysfsRoot) {
+        Optional<BitSet> onlineCpus = readCpuList(sysfsRoot.resolve("devices/system/cpu/online"));
+        SortedMap<Integer, BitSet> cpusByNode = new TreeMap<>();
+        Path nodesDirectory = sysfsRoot.resolve("devices/system/node");
+        if (Files.isDirectory(nodesDirectory)) {
+            try (DirectoryStream<Path> nodeDirectories = Files.newDirectoryStream(nodesDirectory)) {
+                for (Path nodeDirectory : nodeDirectories) {
+                    Matcher matcher = NODE_DIRECTORY.matcher(nodeDirectory.getFileName().toString());
+                    if (!matcher.matches()) {
+                        continue;
+                    }
+                    readCpuList(nodeDirectory.resolve("cpulist")).ifPresent(cpus -> {
+                        onlineCpus.ifPresent(cpus::and);
+                        if (!cpus.isEmpty()) {
+                            cpusByNode.put(Integer.parseInt(matcher.group(1)), cpus);
+                        }
+                    });
+                }
+            } catch (IOException e) {
+                log.warn("Failed to list NUMA nodes [directory:{}]", nodesDirectory, e);
+            }
+        }
+        if (cpusByNode.isEmpty() && onlineCpus.isPresent() && !onlineCpus.get().isEmpty()) {
+            cpusByNode.put(0, onlineCpus.get());
+        }
+        if (cpusByNode.isEmpty()) {
+            log.warn("No CPU found in sysfs [root:{}]", sysfsRoot);
+            return Optional.empty();
+        }
+        CpuTopology topology = new CpuTopology(cpusByNode);
+        log.info("Read CPU topology [nodes:{}, cpus:{}]", cpusByNode.size(), topology.getCpuCount());
+        return Optional.of(topology);
+    }
+
+    public int getCpuCount() {
+        return cpusByNode.values().stream().mapToInt(BitSet::cardinality).sum();
+    }
+
+    /**
+     * Parse a CPU or node list of the kernel, e.g. {@code 0-3,8,10-11}.
+     *
+     * @param cpuList list to parse
+     * @return the listed IDs
+     * @throws IllegalArgumentException if the list is malformed
+     */
+    static BitSet parseCpuList(String cpuList) {
+        BitSet cpus = new BitSet();
+        String trimmed = cpuList.trim();
+        if (trimmed.isEmpty()) {
+            return cpus;
+        }
+        for (String range : trimmed.split(",")) {
+            String[] bounds = range.trim().split("-", -1);
+            try {
+                int from = Integer.parseInt(bounds[0].trim());
+                int to = bounds.length == 2 ? Integer.parseInt(bounds[1].trim()) : from;
+                if (bounds.length > 2 || from < 0 || to < from) {
+                    throw new IllegalArgumentException("Invalid CPU range: " + range);
+                }
+                cpus.set(from, to + 1);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid CPU range: " + range, e);
+            }
+        }
+        return cpus;
+    }
+
+    /**
+     * Format IDs as a list of the kernel, e.g. {@code 0-3,8,10-11}, as expected by
+     * {@code HostConfig#withCpusetCpus} and {@code HostConfig#withCpusetMems}.
+     *
+     * @param cpus IDs to format
+     * @return the list
+     */
+    static String toCpuList(BitSet cpus) {
+        StringBuilder cpuList = new StringBuilder();
+        int from = cpus.nextSetBit(0);
+        while (from >= 0) {
+            int to = cpus.nextClearBit(from) - 1;
+            if (!cpuList.isEmpty()) {
+                cpuList.append(',');
+            }
+            cpuList.append(from);
+            if (to > from) {
+                cpuList.append('-').append(to);
+            }
+            from = cpus.nextSetBit(to + 1);
+        }
+        return cpuList.toString();
+    }
+
+    private static Optional<BitSet> readCpuList(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(parseCpuList(Files.readString(file)));
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Failed to read CPU list [file:{}]", file, e);
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.github.dockerjava.api.model.HostConfig;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Allocation of dedicated CPUs to containers, so that concurrent CPU-heavy
+ * containers do not share cores nor cross NUMA nodes.
+ * <p>
+ * Free CPUs of each NUMA node are kept in a bitmap. A container gets CPUs of a
+ * single node when possible, from the node with the fewest free CPUs still fitting
+ * it (best fit), so that large free nodes are kept for large containers. Otherwise
+ * its CPUs are spread over the nodes with the most free CPUs. Its memory nodes are
+ * the nodes of its CPUs.
+ */
+@Slf4j
+public class CpusetAllocator {
+
+    private final CpuTopology topology;
+    // guards the fields below
+    private final ReentrantLock lock = new ReentrantLock();
+    private final SortedMap<Integer, BitSet> freeCpusByNode = new TreeMap<>();
+    private final Map<String, Cpuset> allocations = new HashMap<>();
+
+    public CpusetAllocator(CpuTopology topology) {
+        this.topology = Objects.requireNonNull(topology);
+        topology.getCpusByNode().forEach((node, cpus) -> freeCpusByNode.put(node, (BitSet) cpus.clone()));
+    }
+
+    public CpuTopology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Number of dedicated CPUs for a container: its CPU limit, rounded up.
+     *
+     * @param hostConfig host config of the container
+     * @return the number of CPUs, 0 if the container has no CPU limit
+     */
+    public static int getRequestedCpus(HostConfig hostConfig) {
+        long nanoCpus = RunResources.of(hostConfig, RunResources.NONE).getNanoCpus();
+        return (int) ((nanoCpus + RunResources.NANO_CPUS_PER_CPU - 1) / RunResources.NANO_CPUS_PER_CPU);
+    }
+
+    /**
+     * Allocate dedicated CPUs to a container, replacing its previous allocation.
+     *
+     * @param containerName name of the container
+     * @param cpuCount      number of CPUs
+     * @return the allocated CPUs and memory nodes, empty if not enough CPUs are free
+     */
+    public Optional<Cpuset> allocate(String containerName, int cpuCount) {
+        if (cpuCount <= 0) {
+            return Optional.empty();
+        }
+        lock.lock();
+        try {
+            releaseAllocation(containerName);
+            BitSet cpus = pickCpus(cpuCount);
+            if (cpus.cardinality() < cpuCount) {
+                log.warn("Not enough free CPUs to pin container [name:{}, requested:{}, free:{}]",
+                        containerName, cpuCount, getFreeCpuCount());
+                return Optional.empty();
+            }
+            BitSet mems = new BitSet();
+            freeCpusByNode.forEach((node, freeCpus) -> {
+                if (freeCpus.intersects(cpus)) {
+                    mems.set(node);
+                    freeCpus.andNot(cpus);
+                }
+            });
+            Cpuset cpuset = new Cpuset(CpuTopology.toCpuList(cpus), CpuTopology.toCpuList(mems));
+            allocations.put(containerName, cpuset);
+            log.info("Pinned container to CPUs [name:{}, cpus:{}, mems:{}]",
+                    containerName, cpuset.getCpus(), cpuset.getMems());
+            return Optional.of(cpuset);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Give back the CPUs of a container, once it is stopped.
+     *
+     * @param containerName name of the container
+     * @return true if CPUs were allocated to the container, false otherwise
+     */
+    public boolean release(String containerName) {
+        lock.lock();
+        try {
+            return releaseAllocation(containerName);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Optional<Cpuset> getAllocation(String containerName) {
+        lock.lock();
+        try {
+            return Optional.ofNullable(allocations.get(containerName));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getFreeCpuCount() {
+        lock.lock();
+        try {
+            return freeCpusByNode.values().stream().mapToInt(BitSet::cardinality).sum();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Must be called with the lock held.
+     */
+    private BitSet pickCpus(int cpuCount) {
+        Optional<BitSet> bestFit = freeCpusByNode.values().stream()
+                .filter(freeCpus -> freeCpus.cardinality() >= cpuCount)
+                .min(Comparator.comparingInt(BitSet::cardinality));
+        if (bestFit.isPresent()) {
+            return takeLowest(bestFit.get(), cpuCount);
+        }
+        BitSet cpus = new BitSet();
+        List<BitSet> nodesByFreeCpus = freeCpusByNode.values().stream()
+                .sorted(Comparator.comparingInt(BitSet::cardinality).reversed())
+                .toList();
+        for (BitSet freeCpus : nodesByFreeCpus) {
+            cpus.or(takeLowest(freeCpus, cpuCount - cpus.cardinality()));
+            if (cpus.cardinality() == cpuCount) {
+                break;
+            }
+        }
+        return cpus;
+    }
+
+    private static BitSet takeLowest(BitSet freeCpus, int cpuCount) {
+        BitSet cpus = new BitSet();
+        int cpu = freeCpus.nextSetBit(0);
+        for (int taken = 0; cpu >= 0 && taken < cpuCount; taken++) {
+            cpus.set(cpu);
+            cpu = freeCpus.nextSetBit(cpu + 1);
+        }
+        return cpus;
+    }
+
+    /**
+     * Must be called with the lock held.
+     */
+    private boolean releaseAllocation(String containerName) {
+        Cpuset cpuset = allocations.remove(containerName);
+        if (cpuset == null) {
+            return false;
+        }
+        BitSet cpus = CpuTopology.parseCpuList(cpuset.getCpus());
+        topology.getCpusByNode().forEach((node, nodeCpus) -> {
+            BitSet released = (BitSet) nodeCpus.clone();
+            released.and(cpus);
+            freeCpusByNode.get(node).or(released);
+        });
+        log.debug("Released pinned CPUs [name:{}, cpus:{}]", containerName, cpuset.getCpus());
+        return true;
+    }
+
+    /**
+     * CPUs and memory nodes of a container, in the list format of
+     * {@link HostConfig#withCpusetCpus(String)} and {@link HostConfig#withCpusetMems(String)}.
+     */
+    @Value
+    public static class Cpuset {
+        String cpus;
+        String mems;
+    }
+}
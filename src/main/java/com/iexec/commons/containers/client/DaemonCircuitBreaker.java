@@ -0,0 +1,166 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Circuit breaker on the health of a Docker daemon.
+ * <p>
+ * After {@code failureThreshold} consecutive requests failed without reaching the
+ * daemon, the circuit opens and requests fail immediately with a
+ * {@link DockerDaemonUnavailableException}. Every {@code openDuration}, the circuit
+ * becomes half-open and a probe (a ping of the daemon) is sent in the background.
+ * The circuit closes when the probe succeeds and stays open otherwise.
+ */
+@Slf4j
+public final class DaemonCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Runnable probe;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final List<DaemonHealthListener> listeners = new CopyOnWriteArrayList<>();
+    // only the probe is sent while the circuit is half-open
+    private volatile Thread probeThread;
+    // its thread is only started by the first probe
+    private final ScheduledExecutorService prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "docker-daemon-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param failureThreshold consecutive failures opening the circuit
+     * @param openDuration     delay before probing an open circuit
+     * @param probe            request checking the daemon, throwing if it is unreachable
+     */
+    public DaemonCircuitBreaker(int failureThreshold, Duration openDuration, Runnable probe) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("Failure threshold must be positive");
+        }
+        if (openDuration == null || openDuration.isNegative() || openDuration.isZero()) {
+            throw new IllegalArgumentException("Open duration must be positive");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.probe = Objects.requireNonNull(probe);
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public void addListener(DaemonHealthListener listener) {
+        listeners.add(Objects.requireNonNull(listener));
+    }
+
+    public void removeListener(DaemonHealthListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @throws DockerDaemonUnavailableException if the circuit is not closed
+     */
+    void checkAvailable() {
+        State currentState = state.get();
+        if (currentState == State.CLOSED || Thread.currentThread() == probeThread) {
+            return;
+        }
+        throw new DockerDaemonUnavailableException("Docker daemon is unavailable [circuit:" + currentState + "]");
+    }
+
+    void recordSuccess() {
+        consecutiveFailures.set(0);
+    }
+
+    void recordFailure() {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold
+                && state.compareAndSet(State.CLOSED, State.OPEN)) {
+            log.error("Docker daemon is unreachable, failing fast [consecutiveFailures:{}, nextProbeIn:{}]",
+                    consecutiveFailures.get(), openDuration);
+            notifyListeners(DaemonHealthListener::onDaemonUnavailable);
+            scheduleProbe();
+        }
+    }
+
+    /**
+     * Stop probing the daemon, an open circuit then stays open.
+     */
+    void close() {
+        prober.shutdownNow();
+    }
+
+    private void scheduleProbe() {
+        try {
+            prober.schedule(this::runProbe, openDuration.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.warn("Cannot schedule Docker daemon probe");
+        }
+    }
+
+    private void runProbe() {
+        if (!state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+            return;
+        }
+        probeThread = Thread.currentThread();
+        boolean isAvailable;
+        try {
+            probe.run();
+            isAvailable = true;
+        } catch (Exception e) {
+            log.warn("Docker daemon probe failed [nextProbeIn:{}, error:{}]", openDuration, e.getMessage());
+            isAvailable = false;
+        } finally {
+            probeThread = null;
+        }
+        if (isAvailable) {
+            consecutiveFailures.set(0);
+            state.set(State.CLOSED);
+            log.info("Docker daemon is reachable again");
+            notifyListeners(DaemonHealthListener::onDaemonAvailable);
+        } else {
+            state.set(State.OPEN);
+            scheduleProbe();
+        }
+    }
+
+    private void notifyListeners(Consumer<DaemonHealthListener> notification) {
+        for (DaemonHealthListener listener : listeners) {
+            try {
+                notification.accept(listener);
+            } catch (Exception e) {
+                log.error("Docker daemon health listener failed", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+/**
+ * Notified by a {@link DaemonCircuitBreaker} when the Docker daemon becomes
+ * unreachable and once it answers again, e.g. to stop accepting tasks meanwhile.
+ * Methods are called on the thread detecting the change and must return quickly.
+ */
+public interface DaemonHealthListener {
+
+    default void onDaemonUnavailable() {
+    }
+
+    default void onDaemonAvailable() {
+    }
+}
@@ -0,0 +1,419 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.github.dockerjava.api.model.AccessMode;
+import com.github.dockerjava.api.model.Bind;
+import com.github.dockerjava.api.model.HostConfig;
+import com.github.dockerjava.api.model.Volume;
+import com.iexec.commons.containers.DockerRunRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Cache of dataset volumes shared by the tasks of a host.
+ * <p>
+ * A dataset is copied once to a volume named after its content hash, and the volume
+ * is then mounted read-only by every run using the dataset instead of copying it
+ * again. A volume is in use from {@link #attach} to {@link #release}. Volumes not in
+ * use are kept while the total size of the cache is within its disk budget, the
+ * least recently used ones are removed first to make room for new datasets.
+ * <p>
+ * Concurrent seeds of the same dataset copy it once, the other callers wait for the
+ * copy to be over. A seed of an evicted dataset waits for its volume to be removed
+ * before creating it again.
+ * <p>
+ * The volumes of a cache are named after its owner, so that several caches, e.g. of
+ * several workers, share a daemon without removing the volumes of one another.
+ * Dataset volumes left on the daemon by a previous cache of the same owner are
+ * removed when the cache is created: their size is unknown and their copy may have
+ * been interrupted, so they are seeded again when needed. Volumes still mounted by
+ * a container cannot be removed and are overwritten by the next seed of their
+ * dataset.
+ */
+@Slf4j
+public class DatasetVolumeCache {
+
+    public static final String VOLUME_PREFIX = "iexec-dataset-";
+    private static final Pattern CONTENT_HASH_PATTERN = Pattern.compile("^(0x)?[a-fA-F0-9]{16,128}$");
+    private static final Pattern NORMALIZED_HASH_PATTERN = Pattern.compile("^[a-f0-9]{16,128}$");
+    // characters allowed in Docker volume names
+    private static final Pattern OWNER_PATTERN = Pattern.compile("^[a-zA-Z0-9][a-zA-Z0-9_.-]*$");
+
+    private final DockerClientInstance dockerClientInstance;
+    // VOLUME_PREFIX followed by the owner of the cache
+    private final String volumePrefix;
+    private final String helperImage;
+    private final long diskBudget;
+    // guards the fields below
+    private final ReentrantLock lock = new ReentrantLock();
+    // access order, least recently used first
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // volumes being removed outside of the lock, by name, see removeVolumes
+    private final Map<String, CompletableFuture<Void>> removals = new HashMap<>();
+    private long usedBytes;
+
+    /**
+     * Create a cache with a random owner, which does not find the volumes left by a
+     * previous cache.
+     *
+     * @param dockerClientInstance client of the daemon hosting the volumes
+     * @param helperImage          image of the containers copying datasets to volumes
+     * @param diskBudget           maximum total size in bytes of the cached datasets
+     */
+    public DatasetVolumeCache(DockerClientInstance dockerClientInstance, String helperImage, long diskBudget) {
+        this(dockerClientInstance, helperImage, diskBudget, UUID.randomUUID().toString());
+    }
+
+    /**
+     * @param dockerClientInstance client of the daemon hosting the volumes
+     * @param helperImage          image of the containers copying datasets to volumes
+     * @param diskBudget           maximum total size in bytes of the cached datasets
+     * @param owner                identifier of the cache on the daemon, stable across
+     *                             restarts, e.g. the name of the worker
+     */
+    public DatasetVolumeCache(DockerClientInstance dockerClientInstance, String helperImage, long diskBudget,
+                              String owner) {
+        if (owner == null || !OWNER_PATTERN.matcher(owner).matches()) {
+            throw new IllegalArgumentException("Owner must be a valid volume name");
+        }
+        if (StringUtils.isBlank(helperImage)) {
+            throw new IllegalArgumentException("Helper image must not be blank");
+        }
+        if (diskBudget <= 0) {
+            throw new IllegalArgumentException("Disk budget must be positive");
+        }
+        this.dockerClientInstance = Objects.requireNonNull(dockerClientInstance);
+        this.helperImage = helperImage;
+        this.diskBudget = diskBudget;
+        this.volumePrefix = VOLUME_PREFIX + owner + "-";
+        removeStaleVolumes();
+    }
+
+    public String getVolumeName(String contentHash) {
+        return volumePrefix + normalize(contentHash);
+    }
+
+    /**
+     * Seed the volume of a dataset from a tar archive, unless it is already cached.
+     *
+     * @param contentHash hash of the dataset content
+     * @param tarStream   tar archive of the dataset
+     * @param size        size in bytes of the extracted dataset
+     * @return true if the dataset is cached, false otherwise
+     */
+    public boolean seedFromTar(String contentHash, InputStream tarStream, long size) {
+        return seed(contentHash, size, () -> dockerClientInstance.copyArchiveToVolume(
+                getVolumeName(contentHash), helperImage, tarStream));
+    }
+
+    /**
+     * Seed the volume of a dataset from the content of a host directory, unless it is
+     * already cached.
+     *
+     * @param contentHash hash of the dataset content
+     * @param directory   directory holding the dataset
+     * @return true if the dataset is cached, false otherwise
+     */
+    public boolean seedFromDirectory(String contentHash, Path directory) {
+        if (directory == null || !Files.isDirectory(directory)) {
+            log.error("Invalid dataset directory [hash:{}, directory:{}]", contentHash, directory);
+            return false;
+        }
+        long size;
+        try (Stream<Path> files = Files.walk(directory)) {
+            size = files.filter(Files::isRegularFile)
+                    .mapToLong(DatasetVolumeCache::getFileSize)
+                    .sum();
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Cannot read dataset directory [hash:{}, directory:{}]", contentHash, directory, e);
+            return false;
+        }
+        return seed(contentHash, size, () -> dockerClientInstance.copyDirectoryToVolume(
+                getVolumeName(contentHash), helperImage, directory));
+    }
+
+    /**
+     * Mount the cached volume of a dataset read-only in the container of a run, and
+     * mark it in use until {@link #release(String)} is called.
+     *
+     * @param contentHash      hash of the dataset content
+     * @param dockerRunRequest run using the dataset
+     * @param mountPath        path of the dataset in the container
+     * @return true if the dataset is cached and mounted, false otherwise
+     */
+    public boolean attach(String contentHash, DockerRunRequest dockerRunRequest, String mountPath) {
+        if (!isValid(contentHash) || StringUtils.isBlank(mountPath)
+                || dockerRunRequest == null || dockerRunRequest.getHostConfig() == null) {
+            log.error("Cannot attach dataset volume [hash:{}, mountPath:{}]", contentHash, mountPath);
+            return false;
+        }
+        HostConfig hostConfig = dockerRunRequest.getHostConfig();
+        lock.lock();
+        try {
+            Entry entry = entries.get(normalize(contentHash));
+            if (entry == null || !entry.isSeeded) {
+                return false;
+            }
+            List<Bind> binds = new ArrayList<>();
+            if (hostConfig.getBinds() != null) {
+                binds.addAll(Arrays.asList(hostConfig.getBinds()));
+            }
+            binds.add(new Bind(entry.volumeName, new Volume(mountPath), AccessMode.ro));
+            hostConfig.withBinds(binds);
+            entry.references++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Mark a dataset volume attached by {@link #attach} as no longer used by a run,
+     * once the container of the run is removed.
+     *
+     * @param contentHash hash of the dataset content
+     */
+    public void release(String contentHash) {
+        List<String> evictedVolumes;
+        lock.lock();
+        try {
+            Entry entry = isValid(contentHash) ? entries.get(normalize(contentHash)) : null;
+            if (entry == null || entry.references == 0) {
+                log.warn("No dataset volume to release [hash:{}]", contentHash);
+                return;
+            }
+            entry.references--;
+            evictedVolumes = evict(0);
+        } finally {
+            lock.unlock();
+        }
+        removeVolumes(evictedVolumes);
+    }
+
+    public boolean isCached(String contentHash) {
+        lock.lock();
+        try {
+            Entry entry = isValid(contentHash) ? entries.get(normalize(contentHash)) : null;
+            return entry != null && entry.isSeeded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getReferences(String contentHash) {
+        lock.lock();
+        try {
+            Entry entry = isValid(contentHash) ? entries.get(normalize(contentHash)) : null;
+            return entry != null ? entry.references : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getUsedBytes() {
+        lock.lock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getDiskBudget() {
+        return diskBudget;
+    }
+
+    private void removeStaleVolumes() {
+        // the prefix of an owner may be the start of the prefix of another owner
+        List<String> staleVolumes = dockerClientInstance.getVolumeNames(volumePrefix).stream()
+                .filter(volumeName -> NORMALIZED_HASH_PATTERN.matcher(
+                        volumeName.substring(volumePrefix.length())).matches())
+                .toList();
+        if (staleVolumes.isEmpty()) {
+            return;
+        }
+        long removed = staleVolumes.stream()
+                .filter(dockerClientInstance::removeVolume)
+                .count();
+        log.info("Removed dataset volumes of a previous cache [found:{}, removed:{}]",
+                staleVolumes.size(), removed);
+    }
+
+    private boolean seed(String contentHash, long size, BooleanSupplier copy) {
+        if (!isValid(contentHash) || size < 0) {
+            log.error("Cannot seed dataset volume [hash:{}, size:{}]", contentHash, size);
+            return false;
+        }
+        String key = normalize(contentHash);
+        String volumeName = getVolumeName(key);
+        Entry entry = null;
+        CompletableFuture<Boolean> seeding = null;
+        List<String> evictedVolumes = List.of();
+        while (seeding == null) {
+            CompletableFuture<Void> removal;
+            lock.lock();
+            try {
+                // the volume of an evicted dataset must not be reused while it is removed
+                removal = removals.get(volumeName);
+                Entry cached = entries.get(key);
+                if (removal == null && cached != null) {
+                    seeding = cached.seeding;
+                } else if (removal == null) {
+                    entry = new Entry(volumeName, size);
+                    seeding = entry.seeding;
+                    evictedVolumes = evict(size);
+                    entries.put(key, entry);
+                    usedBytes += size;
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (removal != null) {
+                removal.join();
+            }
+        }
+        if (entry == null) {
+            return seeding.join();
+        }
+        removeVolumes(evictedVolumes);
+        if (usedBytesExceedBudget()) {
+            log.warn("Dataset volume cache over budget, all cached datasets are in use "
+                    + "[hash:{}, usedBytes:{}, diskBudget:{}]", key, getUsedBytes(), diskBudget);
+        }
+        boolean isSeeded = false;
+        try {
+            isSeeded = dockerClientInstance.createVolume(entry.volumeName) && copy.getAsBoolean();
+        } finally {
+            completeSeeding(key, entry, isSeeded);
+        }
+        if (isSeeded) {
+            log.info("Seeded dataset volume [hash:{}, volume:{}, size:{}]", key, entry.volumeName, size);
+        } else {
+            log.error("Cannot seed dataset volume [hash:{}, volume:{}]", key, entry.volumeName);
+        }
+        return isSeeded;
+    }
+
+    private void completeSeeding(String key, Entry entry, boolean isSeeded) {
+        lock.lock();
+        try {
+            if (isSeeded) {
+                entry.isSeeded = true;
+            } else {
+                entries.remove(key);
+                usedBytes -= entry.size;
+                removals.put(entry.volumeName, new CompletableFuture<>());
+            }
+        } finally {
+            lock.unlock();
+        }
+        entry.seeding.complete(isSeeded);
+        if (!isSeeded) {
+            removeVolumes(List.of(entry.volumeName));
+        }
+    }
+
+    /**
+     * Remove volumes registered in {@link #removals} by the caller, then let the seeds
+     * waiting for them create them again.
+     */
+    private void removeVolumes(List<String> volumeNames) {
+        for (String volumeName : volumeNames) {
+            try {
+                dockerClientInstance.removeVolume(volumeName);
+            } finally {
+                CompletableFuture<Void> removal;
+                lock.lock();
+                try {
+                    removal = removals.remove(volumeName);
+                } finally {
+                    lock.unlock();
+                }
+                removal.complete(null);
+            }
+        }
+    }
+
+    /**
+     * Remove the least recently used datasets not in use, until the cache has room
+     * for the given size. Must be called with the lock held, the returned volumes are
+     * registered in {@link #removals} and removed once it is released.
+     *
+     * @return names of the volumes to remove
+     */
+    private List<String> evict(long neededBytes) {
+        List<String> evictedVolumes = new ArrayList<>();
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (usedBytes + neededBytes > diskBudget && iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            if (entry.isSeeded && entry.references == 0) {
+                iterator.remove();
+                usedBytes -= entry.size;
+                evictedVolumes.add(entry.volumeName);
+                removals.put(entry.volumeName, new CompletableFuture<>());
+                log.info("Evicting dataset volume [volume:{}, size:{}]", entry.volumeName, entry.size);
+            }
+        }
+        return evictedVolumes;
+    }
+
+    private boolean usedBytesExceedBudget() {
+        return getUsedBytes() > diskBudget;
+    }
+
+    private static boolean isValid(String contentHash) {
+        return contentHash != null && CONTENT_HASH_PATTERN.matcher(contentHash).matches();
+    }
+
+    private static String normalize(String contentHash) {
+        return StringUtils.removeStart(contentHash, "0x").toLowerCase(Locale.ROOT);
+    }
+
+    private static long getFileSize(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static class Entry {
+        private final String volumeName;
+        private final long size;
+        private final CompletableFuture<Boolean> seeding = new CompletableFuture<>();
+        private int references;
+        private boolean isSeeded;
+
+        private Entry(String volumeName, long size) {
+            this.volumeName = volumeName;
+            this.size = size;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ * Copyright 2023-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,11 +23,14 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public abstract class DockerClientFactory {
 
     private static final Map<String, DockerClientInstance> clientsMap = new HashMap<>();
+    // not synchronized so that callers on virtual threads do not pin their carrier during authentication
+    private static final ReentrantLock lock = new ReentrantLock();
 
     /**
      * Get an unauthenticated Docker client instance connected to the default Docker
@@ -35,7 +38,7 @@ public abstract class DockerClientFactory {
      * 
      * @return unauthenticated client
      */
-    public static synchronized DockerClientInstance getDockerClientInstance() {
+    public static DockerClientInstance getDockerClientInstance() {
         try {
             return getOrCreateInstance(DockerClientInstance.DEFAULT_DOCKER_REGISTRY, "", "");
         } catch (Exception e) {
@@ -48,7 +51,7 @@ public abstract class DockerClientFactory {
      * 
      * @return unauthenticated client
      */
-    public static synchronized DockerClientInstance
+    public static DockerClientInstance
             getDockerClientInstance(String registryAddress) {
         try {
             return getOrCreateInstance(registryAddress, "", "");
@@ -68,7 +71,7 @@ public abstract class DockerClientFactory {
      * @param password
      * @throws DockerException if the authentication fails
      */
-    public static synchronized DockerClientInstance getDockerClientInstance(
+    public static DockerClientInstance getDockerClientInstance(
             String registryUrl, String username, String password) {
         return getOrCreateInstance(registryUrl, username, password);
     }
@@ -77,21 +80,31 @@ public abstract class DockerClientFactory {
      * Used at least in unit tests.
      */
     static void purgeClients() {
-        clientsMap.clear();
+        lock.lock();
+        try {
+            clientsMap.clear();
+        } finally {
+            lock.unlock();
+        }
     }
 
     private static DockerClientInstance getOrCreateInstance(
             String registryUrl, String username, String password) {
         String id = getClientIdentifier(registryUrl, username);
-        if (clientsMap.get(id) == null) {
-            boolean shouldAuthenticate = StringUtils.isNotBlank(username)
-                    && StringUtils.isNotBlank(password);
-            DockerClientInstance instance = shouldAuthenticate
-                ? new DockerClientInstance(registryUrl, username, password)
-                : new DockerClientInstance(registryUrl);
-            clientsMap.put(id, instance);
+        lock.lock();
+        try {
+            if (clientsMap.get(id) == null) {
+                boolean shouldAuthenticate = StringUtils.isNotBlank(username)
+                        && StringUtils.isNotBlank(password);
+                DockerClientInstance instance = shouldAuthenticate
+                    ? new DockerClientInstance(registryUrl, username, password)
+                    : new DockerClientInstance(registryUrl);
+                clientsMap.put(id, instance);
+            }
+            return clientsMap.get(id);
+        } finally {
+            lock.unlock();
         }
-        return clientsMap.get(id);
     }
 
     private static String getClientIdentifier(String registryUrl, String username) {
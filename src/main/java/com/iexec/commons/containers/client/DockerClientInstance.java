@@ -1,5 +1,5 @@
 /*
- * Copyright 2023-2025 IEXEC BLOCKCHAIN TECH
+ * Copyright 2023-2026 IEXEC BLOCKCHAIN TECH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,37 +16,53 @@
 
 package com.iexec.commons.containers.client;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.dockerjava.api.DockerClient;
 import com.github.dockerjava.api.async.ResultCallback;
 import com.github.dockerjava.api.command.*;
+import com.github.dockerjava.api.exception.ConflictException;
 import com.github.dockerjava.api.exception.DockerException;
 import com.github.dockerjava.api.exception.NotFoundException;
 import com.github.dockerjava.api.exception.NotModifiedException;
 import com.github.dockerjava.api.model.*;
 import com.github.dockerjava.core.DefaultDockerClientConfig;
 import com.github.dockerjava.core.DockerClientImpl;
-import com.github.dockerjava.core.NameParser;
 import com.github.dockerjava.transport.DockerHttpClient;
 import com.github.dockerjava.zerodep.ZerodepDockerHttpClient;
 import com.iexec.commons.containers.*;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
-public class DockerClientInstance {
+public class DockerClientInstance implements AutoCloseable {
 
     // default docker registry address
     public static final String DEFAULT_DOCKER_REGISTRY = "docker.io";
@@ -56,13 +72,80 @@ public class DockerClientInstance {
     public static final String RESTARTING_STATUS = "restarting";
     public static final String EXITED_STATUS = "exited";
 
+    public static final String LOCAL_VOLUME_DRIVER = "local";
+
+    // local repository of images committed by createWarmSnapshot
+    public static final String WARM_SNAPSHOT_REPOSITORY = "iexec-warm-snapshot";
+    static final String WARM_SNAPSHOT_BASE_IMAGE_LABEL = "com.iexec.warm-snapshot.base-image";
+    static final Duration MIN_PHASE_TIMEOUT = Duration.ofSeconds(30);
+    static final Duration MAX_PHASE_TIMEOUT = Duration.ofMinutes(5);
+    private static final String VOLUME_COPY_PATH = "/volume";
+    // serializes host configs as sent to the daemon, see withHostConfigCopy
+    private static final ObjectMapper HOST_CONFIG_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
     private final DockerClient client;
+    // null for the daemon of the environment, see DefaultDockerClientConfig
+    private final URI dockerHost;
+    // applied to every daemon request of the client, see getAdmissionLimiter and getDaemonCircuitBreaker
+    private final AdmissionLimiter admissionLimiter = new AdmissionLimiter(AdmissionLimits.builder().build());
+    private final DaemonCircuitBreaker daemonCircuitBreaker =
+            new DaemonCircuitBreaker(5, Duration.ofSeconds(5), this::pingDaemon);
+    // retries of transient daemon errors under the lock, see setRetryPolicy
+    private final OperationRetrier retrier = new OperationRetrier(RetryPolicy.builder().build());
+    // guards mutating calls, not synchronized so that virtual threads do not pin their carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    // optional, see enableImageMetadataCache
+    private volatile ImageMetadataCache imageMetadataCache;
+    // optional, see setWarmContainerPool
+    private volatile WarmContainerPool warmContainerPool;
+    // optional, see enableExecutionHistory
+    private volatile ExecutionHistory executionHistory;
+    // optional, see setCpusetAllocator
+    private volatile CpusetAllocator cpusetAllocator;
+    // optional, see setHostPortAllocator
+    private volatile HostPortAllocator hostPortAllocator;
+    // optional, see setNetworkManager
+    private volatile NetworkManager networkManager;
+    // snapshots of initialized images, see createWarmSnapshot
+    private final Map<ImageReference, WarmSnapshot> warmSnapshots = new ConcurrentHashMap<>();
+    // runs the *Async methods, see setExecutionMode
+    private volatile ExecutionMode executionMode = ExecutionMode.PLATFORM_THREADS;
+    private volatile ExecutorService asyncExecutor = newAsyncExecutor(ExecutionMode.PLATFORM_THREADS);
+    // no asynchronous call nor deadline is accepted once closed, see close
+    private boolean isClosed;
+    // coalesced idempotent reads, see setReadCoalescingTtl
+    private final SingleFlight<String, String> containerStatusReads = new SingleFlight<>();
+    private final SingleFlight<String, String> networkIdReads = new SingleFlight<>();
+    private final SingleFlight<ImageReference, String> imageIdReads = new SingleFlight<>();
+    // paused time of containers, see pauseContainer
+    private final Map<String, PauseClock> pauseClocks = new ConcurrentHashMap<>();
+    // run and operation deadlines, its thread is only started by the first deadline
+    private final TimingWheel deadlineWheel =
+            new TimingWheel(Duration.ofMillis(100), 512, "docker-deadline-wheel");
 
     /**
      * Create a new unauthenticated Docker client instance with the default Docker registry
      * {@link DockerClientInstance#DEFAULT_DOCKER_REGISTRY}.
      */
     DockerClientInstance() {
+        this.dockerHost = null;
+        this.client = createClient(DEFAULT_DOCKER_REGISTRY, "", "");
+    }
+
+    /**
+     * Create a new unauthenticated Docker client instance with the default Docker registry
+     * {@link DockerClientInstance#DEFAULT_DOCKER_REGISTRY}, connected to the given daemon
+     * instead of the daemon of the environment.
+     *
+     * @param dockerHost Docker daemon endpoint, e.g. unix:///var/run/docker.sock or tcp://10.0.0.2:2375
+     * @throws IllegalArgumentException if docker host is null
+     */
+    DockerClientInstance(URI dockerHost) {
+        if (dockerHost == null) {
+            throw new IllegalArgumentException("Docker host must not be null");
+        }
+        this.dockerHost = dockerHost;
         this.client = createClient(DEFAULT_DOCKER_REGISTRY, "", "");
     }
 
@@ -77,6 +160,7 @@ public class DockerClientInstance {
         if (StringUtils.isBlank(registryAddress)) {
             throw new IllegalArgumentException("Docker registry address must not be blank");
         }
+        this.dockerHost = null;
         this.client = createClient(registryAddress, "", "");
     }
 
@@ -98,6 +182,7 @@ public class DockerClientInstance {
         if (StringUtils.isBlank(password)) {
             throw new IllegalArgumentException("Docker registry password must not be blank");
         }
+        this.dockerHost = null;
         this.client = createClient(registryAddress, username, password);
     }
 
@@ -105,29 +190,323 @@ public class DockerClientInstance {
         return this.client;
     }
 
+    /**
+     * @return the endpoint of the daemon of this instance, empty for the daemon of
+     * the environment
+     */
+    public Optional<URI> getDockerHost() {
+        return Optional.ofNullable(dockerHost);
+    }
+
+    /**
+     * Admission control of the requests sent to the daemon, with separate budgets
+     * for mutating calls and reads. Calls over budget are queued in FIFO order.
+     *
+     * @return the limiter to read queue statistics from or to change the budgets of
+     */
+    public AdmissionLimiter getAdmissionLimiter() {
+        return admissionLimiter;
+    }
+
+    /**
+     * Health of the daemon as seen by the requests of this instance. While the daemon
+     * is unreachable, requests fail immediately with a
+     * {@link DockerDaemonUnavailableException} and the daemon is pinged in background.
+     *
+     * @return the circuit breaker to register {@link DaemonHealthListener}s on
+     */
+    public DaemonCircuitBreaker getDaemonCircuitBreaker() {
+        return daemonCircuitBreaker;
+    }
+
+    /**
+     * Set the retries of operations failing with a transient daemon error, such as
+     * a 500 response under heavy I/O or a connection reset by a busy daemon.
+     * <p>
+     * Reads, starts, stops and removals are retried. Container and network
+     * creations are only retried after checking that the previous attempt did not
+     * create the resource, which is then returned instead of being created twice.
+     *
+     * @param retryPolicy retries to apply, {@code maxAttempts} of 1 disables them
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        retrier.setPolicy(retryPolicy);
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retrier.getPolicy();
+    }
+
+    /**
+     * @return the number of retries by operation name, e.g. "startContainer"
+     */
+    public Map<String, Long> getRetryCounts() {
+        return retrier.getRetryCounts();
+    }
+
+    /**
+     * Run an operation of this instance which must complete within the given
+     * timeout. Every Docker request sent by the operation, including nested
+     * operations, is aborted once the timeout is reached and its connection is
+     * released. The operation then reports a failure as it does for any other
+     * Docker error.
+     * <p>
+     * e.g. {@code callWithTimeout(Duration.ofSeconds(30), () -> removeImage(imageName))}
+     *
+     * @param timeout   time budget of the operation, no deadline if null
+     * @param operation operation to run on the current thread
+     * @return the result of the operation
+     */
+    public <T> T callWithTimeout(Duration timeout, Supplier<T> operation) {
+        return OperationDeadline.callWithin(timeout, operation);
+    }
+
+    private void pingDaemon() {
+        try (PingCmd pingCmd = getClient().pingCmd()) {
+            pingCmd.exec();
+        }
+    }
+
+    /**
+     * Serve {@link #run(DockerRunRequest)} calls from a pool of already created
+     * containers when the request matches a warmed profile. Only runs without env,
+     * and without container port to publish on a host port, are served from the pool.
+     *
+     * @param warmContainerPool pool to use, null to always create containers
+     */
+    public void setWarmContainerPool(WarmContainerPool warmContainerPool) {
+        this.warmContainerPool = warmContainerPool;
+    }
+
+    /**
+     * Pin the containers created by {@link #run(DockerRunRequest)} to dedicated CPUs
+     * and memory nodes, see {@link CpusetAllocator}. The CPUs of a detached run are
+     * given back when its container is removed.
+     *
+     * @param cpusetAllocator allocator to use, null to not pin containers
+     */
+    public void setCpusetAllocator(CpusetAllocator cpusetAllocator) {
+        this.cpusetAllocator = cpusetAllocator;
+    }
+
+    /**
+     * Publish the {@code containerPort} of the runs started by
+     * {@link #run(DockerRunRequest)} on a host port allocated by the given allocator,
+     * unless their host config already binds it. The host port is reported in the
+     * response of the run and given back when its container is removed.
+     *
+     * @param hostPortAllocator allocator to use, null to not publish container ports
+     */
+    public void setHostPortAllocator(HostPortAllocator hostPortAllocator) {
+        this.hostPortAllocator = hostPortAllocator;
+    }
+
+    /**
+     * Skip the creation of networks acquired from a {@link NetworkManager} when
+     * creating containers: they are known to be present until released.
+     *
+     * @param networkManager manager of the networks, null to check every network
+     */
+    public void setNetworkManager(NetworkManager networkManager) {
+        this.networkManager = networkManager;
+    }
+
+    /**
+     * Choose the threads running the asynchronous methods of this instance. Tasks
+     * already submitted complete on the threads of the previous mode.
+     *
+     * @param executionMode mode of the next asynchronous calls
+     */
+    public void setExecutionMode(ExecutionMode executionMode) {
+        Objects.requireNonNull(executionMode, "Execution mode must not be null");
+        lock.lock();
+        try {
+            if (isClosed) {
+                log.error("Docker client is closed, execution mode not changed [mode:{}]", executionMode);
+                return;
+            }
+            if (this.executionMode == executionMode) {
+                return;
+            }
+            ExecutorService previousExecutor = asyncExecutor;
+            asyncExecutor = newAsyncExecutor(executionMode);
+            this.executionMode = executionMode;
+            previousExecutor.shutdown();
+            log.info("Docker client execution mode changed [mode:{}]", executionMode);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * Release the threads and files of this instance: the executor of the
+     * asynchronous methods, the deadline wheel, the daemon probe, the execution
+     * history and the connection to the daemon. Tasks already submitted complete,
+     * but their pending deadlines never fire. Allocators, pools and managers set on
+     * this instance are left to their owner.
+     * <p>
+     * Instances returned by {@link DockerClientFactory} are shared and must not be closed.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (isClosed) {
+                return;
+            }
+            isClosed = true;
+            asyncExecutor.shutdown();
+        } finally {
+            lock.unlock();
+        }
+        deadlineWheel.close();
+        daemonCircuitBreaker.close();
+        ExecutionHistory history = executionHistory;
+        if (history != null) {
+            try {
+                history.close();
+            } catch (IOException e) {
+                log.error("Error closing execution history", e);
+            }
+        }
+        try {
+            client.close();
+        } catch (IOException e) {
+            log.error("Error closing Docker client", e);
+        }
+        log.info("Docker client closed [host:{}]", dockerHost);
+    }
+
+    /**
+     * Concurrent identical calls of {@link #getContainerStatus(String)},
+     * {@link #getNetworkId(String)} and {@link #getImageId(ImageReference)} always
+     * share a single daemon request. With a positive TTL, their result is also reused
+     * by identical calls during that duration, unless a write of this instance
+     * invalidates it.
+     *
+     * @param ttl duration a result is reused for, zero (default) to only share in-flight calls
+     */
+    public void setReadCoalescingTtl(Duration ttl) {
+        containerStatusReads.setTtl(ttl);
+        networkIdReads.setTtl(ttl);
+        imageIdReads.setTtl(ttl);
+    }
+
+    /**
+     * Run a task on the executor of the current execution mode, read on each call so
+     * that long-lived callers such as task groups follow {@link #setExecutionMode}.
+     */
+    private void executeAsync(Runnable task) {
+        ExecutorService executor = asyncExecutor;
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            ExecutorService currentExecutor = asyncExecutor;
+            if (currentExecutor == executor) {
+                throw e;
+            }
+            // shut down by a change of mode after it was read
+            currentExecutor.execute(task);
+        }
+    }
+
+    private static ExecutorService newAsyncExecutor(ExecutionMode executionMode) {
+        if (executionMode == ExecutionMode.VIRTUAL_THREADS) {
+            return Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("docker-client-virtual-", 0).factory());
+        }
+        return Executors.newCachedThreadPool(
+                Thread.ofPlatform().name("docker-client-", 0).daemon().factory());
+    }
+
     //region volume
-    public synchronized boolean createVolume(String volumeName) {
-        if (StringUtils.isBlank(volumeName)) {
-            logInvalidVolumeNameError(volumeName);
+    public boolean createVolume(String volumeName) {
+        return createVolume(volumeName, null);
+    }
+
+    /**
+     * Create a volume with a given driver, driver options and labels.
+     * <p>
+     * A volume already present with the same name is reused only if it has the same
+     * driver and driver options, and at least the given labels.
+     *
+     * @param volumeName name of the volume
+     * @param driver     volume driver, the local driver if null
+     * @param driverOpts options of the driver
+     * @param labels     labels of the volume
+     * @return true if the volume is present with these options, false otherwise
+     */
+    public boolean createVolume(String volumeName, String driver,
+                                Map<String, String> driverOpts, Map<String, String> labels) {
+        return createVolume(volumeName, new VolumeOptions(
+                Objects.requireNonNullElse(driver, LOCAL_VOLUME_DRIVER),
+                Objects.requireNonNullElse(driverOpts, Map.of()),
+                Objects.requireNonNullElse(labels, Map.of())));
+    }
+
+    /**
+     * Create a volume held in memory, for scratch and intermediate files of tasks
+     * writing many small files.
+     *
+     * @param volumeName name of the volume
+     * @param size       maximum size of the volume, in bytes or with a k, m or g suffix
+     * @return true if the volume is present with this size, false otherwise
+     * @see #createVolume(String, String, Map, Map)
+     */
+    public boolean createTmpfsVolume(String volumeName, String size) {
+        if (StringUtils.isBlank(size)) {
+            log.error("Invalid tmpfs volume size [name:{}, size:{}]", volumeName, size);
             return false;
         }
-        if (isVolumePresent(volumeName)) {
-            log.info("Docker volume already present [name:{}]", volumeName);
-            return true;
-        }
-        try (CreateVolumeCmd createVolumeCmd = getClient().createVolumeCmd()) {
-            String name = createVolumeCmd
-                    .withName(volumeName)
-                    .exec()
-                    .getName();
-            if (name == null || !name.equals(volumeName)) {
+        return createVolume(volumeName, LOCAL_VOLUME_DRIVER,
+                Map.of("type", "tmpfs", "device", "tmpfs", "o", "size=" + size), Map.of());
+    }
+
+    /**
+     * @param options options the volume must have, any present volume is reused if null
+     */
+    private boolean createVolume(String volumeName, VolumeOptions options) {
+        lock.lock();
+        try {
+            if (StringUtils.isBlank(volumeName)) {
+                logInvalidVolumeNameError(volumeName);
                 return false;
             }
-            log.info("Created docker volume [name:{}]", volumeName);
-            return true;
-        } catch (Exception e) {
-            log.error("Error creating docker volume [name:{}]", volumeName, e);
-            return false;
+            Optional<InspectVolumeResponse> presentVolume = getVolume(volumeName);
+            if (presentVolume.isPresent()) {
+                if (options != null && !options.isSatisfiedBy(presentVolume.get())) {
+                    log.error("Docker volume already present with other options [name:{}, driver:{}, options:{}]",
+                            volumeName, presentVolume.get().getDriver(), presentVolume.get().getOptions());
+                    return false;
+                }
+                log.info("Docker volume already present [name:{}]", volumeName);
+                return true;
+            }
+            try (CreateVolumeCmd createVolumeCmd = getClient().createVolumeCmd()) {
+                createVolumeCmd.withName(volumeName);
+                if (options != null) {
+                    createVolumeCmd.withDriver(options.getDriver())
+                            .withDriverOpts(options.getDriverOpts())
+                            .withLabels(options.getLabels());
+                }
+                String name = createVolumeCmd
+                        .exec()
+                        .getName();
+                if (name == null || !name.equals(volumeName)) {
+                    return false;
+                }
+                log.info("Created docker volume [name:{}]", volumeName);
+                return true;
+            } catch (Exception e) {
+                log.error("Error creating docker volume [name:{}]", volumeName, e);
+                return false;
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -155,52 +534,174 @@ public class DockerClientInstance {
         }
     }
 
-    public synchronized boolean removeVolume(String volumeName) {
+    /**
+     * List the volumes whose name starts with a prefix, e.g. to find the volumes left
+     * by a previous process.
+     *
+     * @param namePrefix prefix of the volume names
+     * @return names of the matching volumes, empty if none or on error
+     */
+    public List<String> getVolumeNames(String namePrefix) {
+        if (StringUtils.isBlank(namePrefix)) {
+            logInvalidVolumeNameError(namePrefix);
+            return List.of();
+        }
+        // the name filter of the daemon matches substrings
+        try (ListVolumesCmd listVolumesCmd = getClient().listVolumesCmd()) {
+            List<InspectVolumeResponse> volumes = listVolumesCmd
+                    .withFilter("name", Collections.singletonList(namePrefix))
+                    .exec()
+                    .getVolumes();
+            return volumes == null ? List.of() : volumes.stream()
+                    .map(InspectVolumeResponse::getName)
+                    .filter(name -> name != null && name.startsWith(namePrefix))
+                    .toList();
+        } catch (Exception e) {
+            log.error("Error listing docker volumes [prefix:{}]", namePrefix, e);
+            return List.of();
+        }
+    }
+
+    public boolean removeVolume(String volumeName) {
+        lock.lock();
+        try {
+            if (StringUtils.isBlank(volumeName)) {
+                logInvalidVolumeNameError(volumeName);
+                return false;
+            }
+            try (RemoveVolumeCmd removeVolumeCmd = getClient().removeVolumeCmd(volumeName)) {
+                removeVolumeCmd.exec();
+                log.info("Removed docker volume [name:{}]", volumeName);
+                return true;
+            } catch (NotFoundException e) {
+                log.warn("No docker volume to remove [name:{}]", volumeName);
+            } catch (Exception e) {
+                log.error("Error removing docker volume [name:{}]", volumeName, e);
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copy a tar archive to the root of a volume.
+     * <p>
+     * The archive is extracted through a helper container mounting the volume, which
+     * is created but never started and removed once the copy is over.
+     *
+     * @param volumeName  name of an existing volume
+     * @param helperImage image of the helper container, pulled if missing
+     * @param tarStream   tar archive to extract in the volume
+     * @return true if the archive was copied, false otherwise
+     */
+    public boolean copyArchiveToVolume(String volumeName, String helperImage, InputStream tarStream) {
+        return copyToVolume(volumeName, helperImage, copyCmd -> copyCmd.withTarInputStream(tarStream));
+    }
+
+    /**
+     * Copy the content of a host directory to the root of a volume.
+     *
+     * @see #copyArchiveToVolume(String, String, InputStream)
+     */
+    public boolean copyDirectoryToVolume(String volumeName, String helperImage, Path directory) {
+        return copyToVolume(volumeName, helperImage, copyCmd -> copyCmd
+                .withHostResource(directory.toString())
+                .withDirChildrenOnly(true));
+    }
+
+    private boolean copyToVolume(String volumeName, String helperImage,
+                                 Consumer<CopyArchiveToContainerCmd> source) {
         if (StringUtils.isBlank(volumeName)) {
             logInvalidVolumeNameError(volumeName);
             return false;
         }
-        try (RemoveVolumeCmd removeVolumeCmd = getClient().removeVolumeCmd(volumeName)) {
-            removeVolumeCmd.exec();
-            log.info("Removed docker volume [name:{}]", volumeName);
+        if (!isImagePresent(helperImage) && !pullImage(helperImage)) {
+            log.error("Cannot copy to docker volume without helper image [name:{}, image:{}]",
+                    volumeName, helperImage);
+            return false;
+        }
+        String helperId;
+        try (CreateContainerCmd createContainerCmd = getClient().createContainerCmd(helperImage)) {
+            helperId = createContainerCmd
+                    .withName(volumeName + "-copy-" + UUID.randomUUID())
+                    .withHostConfig(HostConfig.newHostConfig()
+                            .withBinds(new Bind(volumeName, new Volume(VOLUME_COPY_PATH))))
+                    .exec()
+                    .getId();
+        } catch (Exception e) {
+            log.error("Error creating docker volume copy container [name:{}]", volumeName, e);
+            return false;
+        }
+        try (CopyArchiveToContainerCmd copyArchiveCmd = getClient().copyArchiveToContainerCmd(helperId)) {
+            source.accept(copyArchiveCmd.withRemotePath(VOLUME_COPY_PATH));
+            copyArchiveCmd.exec();
+            log.info("Copied archive to docker volume [name:{}]", volumeName);
             return true;
-        } catch (NotFoundException e) {
-            log.warn("No docker volume to remove [name:{}]", volumeName);
         } catch (Exception e) {
-            log.error("Error removing docker volume [name:{}]", volumeName, e);
+            log.error("Error copying archive to docker volume [name:{}]", volumeName, e);
+            return false;
+        } finally {
+            try (RemoveContainerCmd removeContainerCmd = getClient().removeContainerCmd(helperId)) {
+                removeContainerCmd.withForce(true).exec();
+            } catch (Exception e) {
+                log.warn("Cannot remove docker volume copy container [name:{}, id:{}]", volumeName, helperId);
+            }
         }
-        return false;
     }
 
     private void logInvalidVolumeNameError(String volumeName) {
         log.error("Invalid docker volume name [name:{}]", volumeName);
     }
+
+    @Value
+    private static class VolumeOptions {
+        String driver;
+        Map<String, String> driverOpts;
+        Map<String, String> labels;
+
+        private boolean isSatisfiedBy(InspectVolumeResponse volume) {
+            Map<String, String> volumeOpts = Objects.requireNonNullElse(volume.getOptions(), Map.of());
+            Map<String, String> volumeLabels = Objects.requireNonNullElse(volume.getLabels(), Map.of());
+            return driver.equals(volume.getDriver())
+                    && driverOpts.equals(volumeOpts)
+                    && volumeLabels.entrySet().containsAll(labels.entrySet());
+        }
+    }
     //endregion
 
     //region network
-    public synchronized String createNetwork(String networkName) {
-        if (StringUtils.isBlank(networkName)) {
-            logInvalidNetworkNameError(networkName);
-            return "";
-        }
-        if (isNetworkPresent(networkName)) {
-            log.info("Docker network already present [name:{}]", networkName);
-            return getNetworkId(networkName);
-        }
-        try (CreateNetworkCmd networkCmd = getClient().createNetworkCmd()) {
-            String id = networkCmd
-                    .withName(networkName)
-                    .withDriver("bridge")
-                    .exec()
-                    .getId();
-            if (id == null) {
+    public String createNetwork(String networkName) {
+        lock.lock();
+        try {
+            if (StringUtils.isBlank(networkName)) {
+                logInvalidNetworkNameError(networkName);
                 return "";
             }
-            log.info("Created docker network [name:{}]", networkName);
-            return id;
-        } catch (Exception e) {
-            log.error("Error creating docker network [name:{}]", networkName, e);
-            return "";
+            String presentId = getNetworkId(networkName);
+            if (!presentId.isEmpty()) {
+                log.info("Docker network already present [name:{}]", networkName);
+                return presentId;
+            }
+            try (CreateNetworkCmd networkCmd = getClient().createNetworkCmd()) {
+                networkCmd
+                        .withName(networkName)
+                        .withDriver("bridge");
+                String id = retrier.call("createNetwork",
+                        () -> networkCmd.exec().getId(),
+                        () -> Optional.of(fetchNetworkId(networkName)).filter(StringUtils::isNotEmpty));
+                if (id == null) {
+                    return "";
+                }
+                log.info("Created docker network [name:{}]", networkName);
+                return id;
+            } catch (Exception e) {
+                log.error("Error creating docker network [name:{}]", networkName, e);
+                return "";
+            }
+        } finally {
+            networkIdReads.invalidate(networkName);
+            lock.unlock();
         }
     }
 
@@ -209,10 +710,13 @@ public class DockerClientInstance {
             logInvalidNetworkNameError(networkName);
             return "";
         }
+        return networkIdReads.execute(networkName, () -> fetchNetworkId(networkName));
+    }
+
+    private String fetchNetworkId(String networkName) {
         try (ListNetworksCmd listNetworksCmd = getClient().listNetworksCmd()) {
-            return listNetworksCmd
-                    .withNameFilter(networkName)
-                    .exec()
+            listNetworksCmd.withNameFilter(networkName);
+            return retrier.call("getNetworkId", listNetworksCmd::exec)
                     .stream()
                     .filter(network -> StringUtils.isNotBlank(network.getName()))
                     .filter(network -> network.getName().equals(networkName))
@@ -229,22 +733,44 @@ public class DockerClientInstance {
         return !getNetworkId(networkName).isEmpty();
     }
 
-    public synchronized boolean removeNetwork(String networkName) {
-        if (StringUtils.isBlank(networkName)) {
-            logInvalidNetworkNameError(networkName);
+    public boolean removeNetwork(String networkName) {
+        lock.lock();
+        try {
+            if (StringUtils.isBlank(networkName)) {
+                logInvalidNetworkNameError(networkName);
+                return false;
+            }
+            try (RemoveNetworkCmd removeNetworkCmd =
+                         getClient().removeNetworkCmd(networkName)) {
+                retrier.run("removeNetwork", removeNetworkCmd::exec, () -> isNetworkRemoved(networkName));
+                log.info("Removed docker network [name:{}]", networkName);
+                return true;
+            } catch (NotFoundException e) {
+                log.warn("No docker network to remove [name:{}]", networkName);
+            } catch (Exception e) {
+                log.error("Error removing docker network [name:{}]", networkName, e);
+            }
             return false;
+        } finally {
+            networkIdReads.invalidate(networkName);
+            lock.unlock();
         }
-        try (RemoveNetworkCmd removeNetworkCmd =
-                     getClient().removeNetworkCmd(networkName)) {
-            removeNetworkCmd.exec();
-            log.info("Removed docker network [name:{}]", networkName);
-            return true;
+    }
+
+    private boolean isNetworkRemoved(String networkName) {
+        try (InspectNetworkCmd inspectNetworkCmd = getClient().inspectNetworkCmd()) {
+            inspectNetworkCmd.withNetworkId(networkName).exec();
+            return false;
         } catch (NotFoundException e) {
-            log.warn("No docker network to remove [name:{}]", networkName);
+            return true;
         } catch (Exception e) {
-            log.error("Error removing docker network [name:{}]", networkName, e);
+            return false;
         }
-        return false;
+    }
+
+    private boolean isManagedNetwork(String networkName) {
+        NetworkManager manager = networkManager;
+        return manager != null && manager.getNetworkId(networkName).isPresent();
     }
 
     private void logInvalidNetworkNameError(String networkName) {
@@ -265,6 +791,17 @@ public class DockerClientInstance {
         return pullImage(imageName, Duration.of(1, ChronoUnit.MINUTES));
     }
 
+    /**
+     * Pull docker image and timeout after 1 minute.
+     *
+     * @param imageReference Reference of the image to pull
+     * @return true if image is pulled successfully,
+     * false otherwise.
+     */
+    public boolean pullImage(ImageReference imageReference) {
+        return pullImage(imageReference, Duration.of(1, ChronoUnit.MINUTES));
+    }
+
     /**
      * Pull docker image and timeout after given duration.
      *
@@ -277,33 +814,58 @@ public class DockerClientInstance {
             log.error("Invalid docker image name [name:{}]", imageName);
             return false;
         }
-        NameParser.ReposTag repoAndTag = NameParser.parseRepositoryTag(imageName);
-        if (StringUtils.isBlank(repoAndTag.repos)
-                || StringUtils.isBlank(repoAndTag.tag)) {
-            log.error("Error parsing docker image name [name:{}, repo:{}, tag:{}]",
-                    imageName, repoAndTag.repos, repoAndTag.tag);
+        return parseImageReference(imageName)
+                .map(imageReference -> pullImage(imageReference, timeout))
+                .orElse(false);
+    }
+
+    /**
+     * Pull docker image and timeout after given duration.
+     * The image reference must contain a tag or a digest.
+     *
+     * @param imageReference Reference of the image to pull
+     * @param timeout        Duration to wait before timeout
+     * @return true if image is pulled successfully, false otherwise.
+     */
+    public boolean pullImage(ImageReference imageReference, Duration timeout) {
+        if (imageReference == null) {
+            log.error("Invalid docker image reference [reference:null]");
+            return false;
+        }
+        if (!imageReference.hasTag() && !imageReference.hasDigest()) {
+            log.error("Error parsing docker image name, no tag nor digest [name:{}]", imageReference);
             return false;
         }
-        PullImageResultCallback callback = new PullImageResultCallback();
+        // the Docker API accepts a digest in place of the tag
+        String tagOrDigest = imageReference.hasDigest()
+                ? imageReference.getDigest()
+                : imageReference.getTag();
         try (PullImageCmd pullImageCmd =
-                     getClient().pullImageCmd(repoAndTag.repos)) {
-            log.info("Pulling docker image [name:{}]", imageName);
-            boolean isPulledBeforeTimeout = pullImageCmd
-                    .withTag(repoAndTag.tag)
-                    .exec(callback)
-                    .awaitCompletion(timeout.toSeconds(), TimeUnit.SECONDS);
+                     getClient().pullImageCmd(imageReference.getFamiliarRepository())) {
+            log.info("Pulling docker image [name:{}]", imageReference);
+            PullImageResultCallback callback = pullImageCmd
+                    .withTag(tagOrDigest)
+                    .exec(new PullImageResultCallback());
+            boolean isPulledBeforeTimeout = callback.awaitCompletion(timeout.toSeconds(), TimeUnit.SECONDS);
             if (!isPulledBeforeTimeout) {
+                // stops the pull, which holds a mutating admission permit until then
+                closeStream(callback);
                 log.error("Docker image has not been pulled (timeout) [name:{}, timeout:{}s]",
-                        imageName, timeout.toSeconds());
+                        imageReference, timeout.toSeconds());
                 return false;
             }
-            log.info("Pulled docker image [name:{}]", imageName);
+            log.info("Pulled docker image [name:{}]", imageReference);
+            // the tag may now point to another image
+            imageIdReads.invalidate(imageReference);
+            if (imageMetadataCache != null) {
+                inspectImage(imageReference).ifPresent(imageMetadataCache::put);
+            }
             return true;
         } catch (InterruptedException e) {
-            log.error("Docker pull command was interrupted [name:{}]", imageName, e);
+            log.error("Docker pull command was interrupted [name:{}]", imageReference, e);
             Thread.currentThread().interrupt();
         } catch (Exception e) {
-            log.error("Error pulling docker image [name:{}]", imageName, e);
+            log.error("Error pulling docker image [name:{}]", imageReference, e);
         }
         return false;
     }
@@ -313,21 +875,47 @@ public class DockerClientInstance {
             log.error("Invalid docker image name [name:{}]", imageName);
             return "";
         }
-        String sanitizedImageName = sanitizeImageName(imageName);
+        return parseImageReference(imageName)
+                .map(this::getImageId)
+                .orElse("");
+    }
 
+    /**
+     * Get the ID of a local image. When the reference contains a digest, the image
+     * is matched against its repository digests, otherwise against its repository tags.
+     *
+     * @param imageReference Reference of the image
+     * @return the image ID if found, an empty string otherwise
+     */
+    public String getImageId(ImageReference imageReference) {
+        if (imageReference == null) {
+            log.error("Invalid docker image reference [reference:null]");
+            return "";
+        }
+        return imageIdReads.execute(imageReference, () -> fetchImageId(imageReference));
+    }
+
+    private String fetchImageId(ImageReference imageReference) {
+        String familiarName = imageReference.getFamiliarName();
+        String expectedRepoDigest = imageReference.hasDigest()
+                ? imageReference.getFamiliarRepository() + "@" + imageReference.getDigest()
+                : null;
         try (ListImagesCmd listImagesCmd = getClient().listImagesCmd()) {
-            return listImagesCmd
+            listImagesCmd
                     .withDanglingFilter(false)
-                    .withImageNameFilter(sanitizedImageName)
-                    .exec()
+                    .withImageNameFilter(familiarName);
+            return retrier.call("getImageId", listImagesCmd::exec)
                     .stream()
-                    .filter(image -> image.getRepoTags() != null && image.getRepoTags().length > 0)
-                    .filter(image -> Arrays.asList(image.getRepoTags()).contains(sanitizedImageName))
+                    .filter(image -> expectedRepoDigest != null
+                            ? image.getRepoDigests() != null
+                            && Arrays.asList(image.getRepoDigests()).contains(expectedRepoDigest)
+                            : image.getRepoTags() != null
+                            && Arrays.asList(image.getRepoTags()).contains(familiarName))
                     .map(Image::getId)
                     .findFirst()
                     .orElse("");
         } catch (Exception e) {
-            log.error("Error getting docker image id [name:{}]", imageName, e);
+            log.error("Error getting docker image id [name:{}]", imageReference, e);
             return "";
         }
     }
@@ -339,39 +927,283 @@ public class DockerClientInstance {
      * @return
      */
     public String sanitizeImageName(String image) {
-        List<String> regexList = Arrays.asList( // order matters
-                "docker.io/library/(.*)", // docker.io/library/alpine:latest
-                "library/(.*)", // library/alpine:latest
-                "docker.io/(.*)"); // docker.io/repo/image:latest
-
-        for (String regex : regexList) {
-            Matcher m = Pattern.compile(regex).matcher(image);
-            if (m.find()) {
-                return m.group(1);
-            }
+        try {
+            return ImageReference.of(image).getFamiliarName();
+        } catch (IllegalArgumentException e) {
+            return image;
         }
-        return image;
     }
 
     public boolean isImagePresent(String imageName) {
         return !getImageId(imageName).isEmpty();
     }
 
-    public synchronized boolean removeImage(String imageName) {
+    public boolean isImagePresent(ImageReference imageReference) {
+        return !getImageId(imageReference).isEmpty();
+    }
+
+    public boolean removeImage(String imageName) {
+        lock.lock();
+        try {
+            if (StringUtils.isBlank(imageName)) {
+                log.error("Docker image name cannot be blank");
+                return false;
+            }
+            try (RemoveImageCmd removeImageCmd = client.removeImageCmd(imageName)) {
+                removeImageCmd.exec();
+                parseImageReference(imageName).ifPresent(imageReference -> {
+                    imageIdReads.invalidate(imageReference);
+                    if (imageMetadataCache != null) {
+                        imageMetadataCache.remove(imageReference);
+                    }
+                });
+                log.info("Removed docker image [name:{}]", imageName);
+                return true;
+            } catch (NotFoundException e) {
+                log.info("No docker image to remove [name:{}]", imageName);
+            } catch (Exception e) {
+                log.error("Error removing docker image [name:{}]", imageName, e);
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean removeImage(ImageReference imageReference) {
+        if (imageReference == null) {
+            log.error("Docker image reference cannot be null");
+            return false;
+        }
+        return removeImage(imageReference.getFamiliarName());
+    }
+
+    /**
+     * Resolve an image name to the ID of the local image it currently points to.
+     * The image is inspected on each call, the tag may have been moved by another
+     * client. To create several containers from the same image, resolve their
+     * requests together with {@link #resolveImageIds(Collection)}.
+     *
+     * @param imageName Name of the image to resolve
+     * @return the image ID if found, an empty string otherwise
+     */
+    public String resolveImageId(String imageName) {
         if (StringUtils.isBlank(imageName)) {
-            log.error("Docker image name cannot be blank");
+            log.error("Invalid docker image name [name:{}]", imageName);
+            return "";
+        }
+        return parseImageReference(imageName)
+                .map(this::resolveImageId)
+                .orElse("");
+    }
+
+    /**
+     * Resolve an image reference to the ID of the local image it currently points to.
+     *
+     * @param imageReference Reference of the image to resolve
+     * @return the image ID if found, an empty string otherwise
+     * @see #resolveImageId(String)
+     */
+    public String resolveImageId(ImageReference imageReference) {
+        if (imageReference == null) {
+            log.error("Invalid docker image reference [reference:null]");
+            return "";
+        }
+        try (InspectImageCmd inspectImageCmd =
+                     getClient().inspectImageCmd(imageReference.getFamiliarName())) {
+            String imageId = inspectImageCmd.exec().getId();
+            if (StringUtils.isBlank(imageId)) {
+                return "";
+            }
+            log.info("Resolved docker image [name:{}, id:{}]", imageReference, imageId);
+            return imageId;
+        } catch (NotFoundException e) {
+            log.error("No docker image to resolve [name:{}]", imageReference);
+        } catch (Exception e) {
+            log.error("Error resolving docker image [name:{}]", imageReference, e);
+        }
+        return "";
+    }
+
+    /**
+     * Resolve the images of a batch of run requests to image IDs. Each distinct image
+     * is resolved once and its ID is set on every request using it, so that all
+     * containers of the batch are created from the same image. The mapping lives as
+     * long as the batch: the next batch resolves the images again.
+     *
+     * @param dockerRunRequests Batch of run requests
+     * @return true if all images have been resolved, false otherwise.
+     */
+    public boolean resolveImageIds(Collection<DockerRunRequest> dockerRunRequests) {
+        if (dockerRunRequests == null) {
+            return false;
+        }
+        Map<ImageReference, String> batchImageIds = new HashMap<>();
+        boolean allResolved = true;
+        for (DockerRunRequest dockerRunRequest : dockerRunRequests) {
+            String imageId = StringUtils.isBlank(dockerRunRequest.getImageUri())
+                    ? ""
+                    : parseImageReference(dockerRunRequest.getImageUri())
+                    .map(imageReference -> batchImageIds.computeIfAbsent(imageReference, this::resolveImageId))
+                    .orElse("");
+            if (imageId.isEmpty()) {
+                allResolved = false;
+                continue;
+            }
+            dockerRunRequest.setImageId(imageId);
+        }
+        return allResolved;
+    }
+
+    /**
+     * Enable a persistent cache of image metadata backed by the provided file.
+     * Entries stored by a previous run are validated against the images listed by
+     * the daemon, so that startup does not need to inspect every image again.
+     * The cache is kept up to date on pulls and removals made through this client.
+     *
+     * @param file Path of the cache file, created if missing
+     * @return true if the cache is enabled, false otherwise.
+     */
+    public boolean enableImageMetadataCache(Path file) {
+        if (file == null) {
+            log.error("Invalid image metadata cache file [file:null]");
             return false;
         }
-        try (RemoveImageCmd removeImageCmd = client.removeImageCmd(imageName)) {
-            removeImageCmd.exec();
-            log.info("Removed docker image [name:{}]", imageName);
+        try (ListImagesCmd listImagesCmd = getClient().listImagesCmd()) {
+            ImageMetadataCache cache = new ImageMetadataCache(file);
+            cache.load(listImagesCmd.exec());
+            imageMetadataCache = cache;
             return true;
+        } catch (Exception e) {
+            log.error("Error enabling image metadata cache [file:{}]", file, e);
+            return false;
+        }
+    }
+
+    /**
+     * Enable the recording of the runs of this client in an append-only file. The
+     * duration, final status and reserved resources of each attached run are recorded
+     * by image ID and command, see {@link #predictExecution(DockerRunRequest)}.
+     *
+     * @param file Path of the history file, created if missing
+     * @return true if the history is enabled, false otherwise.
+     */
+    public boolean enableExecutionHistory(Path file) {
+        if (file == null) {
+            log.error("Invalid execution history file [file:null]");
+            return false;
+        }
+        try {
+            ExecutionHistory history = new ExecutionHistory(file);
+            history.load();
+            executionHistory = history;
+            return true;
+        } catch (Exception e) {
+            log.error("Error enabling execution history [file:{}]", file, e);
+            return false;
+        }
+    }
+
+    /**
+     * Predict the execution of a run from the recorded runs of the same command in
+     * the same image, e.g. to choose its max execution time or to place it.
+     *
+     * @param dockerRunRequest config of the run
+     * @return the prediction, empty if the history is not enabled or no successful
+     * run of the command in the image is recorded
+     */
+    public Optional<ExecutionPrediction> predictExecution(DockerRunRequest dockerRunRequest) {
+        ExecutionHistory history = executionHistory;
+        if (history == null || dockerRunRequest == null) {
+            return Optional.empty();
+        }
+        String imageId = getHistoryImageId(dockerRunRequest);
+        return imageId.isEmpty()
+                ? Optional.empty()
+                : history.predict(imageId, dockerRunRequest.getCmd());
+    }
+
+    private void recordExecution(DockerRunRequest dockerRunRequest, DockerRunResponse dockerRunResponse) {
+        ExecutionHistory history = executionHistory;
+        if (history == null || dockerRunResponse.getExecutionDuration() == null) {
+            return;
+        }
+        String imageId = getHistoryImageId(dockerRunRequest);
+        if (imageId.isEmpty()) {
+            log.warn("Cannot record execution without image ID [name:{}]", dockerRunRequest.getContainerName());
+            return;
+        }
+        history.record(imageId, dockerRunRequest.getCmd(), dockerRunResponse.getFinalStatus(),
+                dockerRunResponse.getContainerExitCode(), dockerRunResponse.getExecutionDuration(),
+                RunResources.of(dockerRunRequest.getHostConfig(), RunResources.NONE));
+    }
+
+    /**
+     * Runs are recorded by image ID rather than name, so that a moved tag does not
+     * mix the executions of different images.
+     */
+    private String getHistoryImageId(DockerRunRequest dockerRunRequest) {
+        if (StringUtils.isNotBlank(dockerRunRequest.getImageId())) {
+            return dockerRunRequest.getImageId();
+        }
+        return StringUtils.isNotBlank(dockerRunRequest.getImageUri())
+                ? resolveImageId(dockerRunRequest.getImageUri())
+                : "";
+    }
+
+    public Optional<ImageMetadata> getImageMetadata(String imageName) {
+        if (StringUtils.isBlank(imageName)) {
+            log.error("Invalid docker image name [name:{}]", imageName);
+            return Optional.empty();
+        }
+        return parseImageReference(imageName)
+                .flatMap(this::getImageMetadata);
+    }
+
+    /**
+     * Get metadata of a local image, from the image metadata cache when enabled
+     * or through an image inspection otherwise.
+     *
+     * @param imageReference Reference of the image
+     * @return metadata of the image if found, {@link Optional#empty()} otherwise.
+     */
+    public Optional<ImageMetadata> getImageMetadata(ImageReference imageReference) {
+        if (imageReference == null) {
+            log.error("Invalid docker image reference [reference:null]");
+            return Optional.empty();
+        }
+        ImageMetadataCache cache = imageMetadataCache;
+        if (cache == null) {
+            return inspectImage(imageReference);
+        }
+        Optional<ImageMetadata> cachedMetadata = cache.get(imageReference);
+        if (cachedMetadata.isPresent()) {
+            return cachedMetadata;
+        }
+        Optional<ImageMetadata> metadata = inspectImage(imageReference);
+        metadata.ifPresent(cache::put);
+        return metadata;
+    }
+
+    private Optional<ImageMetadata> inspectImage(ImageReference imageReference) {
+        try (InspectImageCmd inspectImageCmd =
+                     getClient().inspectImageCmd(imageReference.getFamiliarName())) {
+            return Optional.of(ImageMetadataCache.toImageMetadata(inspectImageCmd.exec()));
         } catch (NotFoundException e) {
-            log.info("No docker image to remove [name:{}]", imageName);
+            log.error("No docker image to inspect [name:{}]", imageReference);
         } catch (Exception e) {
-            log.error("Error removing docker image [name:{}]", imageName, e);
+            log.error("Error inspecting docker image [name:{}]", imageReference, e);
+        }
+        return Optional.empty();
+    }
+
+    private Optional<ImageReference> parseImageReference(String imageName) {
+        try {
+            return Optional.of(ImageReference.of(imageName));
+        } catch (IllegalArgumentException e) {
+            log.error("Error parsing docker image name [name:{}, error:{}]", imageName, e.getMessage());
+            return Optional.empty();
         }
-        return false;
     }
     //endregion
 
@@ -391,26 +1223,190 @@ public class DockerClientInstance {
         log.info("Running docker container [name:{}, image:{}, cmd:{}]",
                 dockerRunRequest.getContainerName(), dockerRunRequest.getImageUri(),
                 dockerRunRequest.getArrayArgsCmd());
-        DockerRunResponse dockerRunResponse = DockerRunResponse.builder()
+        PreparedRun preparedRun = createRunContainer(dockerRunRequest);
+        DockerRunResponse dockerRunResponse = getFailedRunResponse();
+        if (preparedRun.isPrepared() && startAndWait(preparedRun, dockerRunResponse, () -> { })) {
+            tearDown(preparedRun, dockerRunResponse);
+        }
+        return dockerRunResponse;
+    }
+
+    /**
+     * Prepare a run ahead of its execution, e.g. while the previous run of a worker
+     * is executing: pull its image if missing, create its named volumes, its network
+     * and its container. {@link #runPrepared(PreparedRun)} then only starts the
+     * container and waits for it.
+     * <p>
+     * A prepared run which is not run must be given to {@link #discard(PreparedRun)}.
+     *
+     * @param dockerRunRequest config of the run
+     * @return the prepared run, not prepared if a step failed
+     */
+    public PreparedRun prepare(DockerRunRequest dockerRunRequest) {
+        log.info("Preparing docker container [name:{}, image:{}]",
+                dockerRunRequest.getContainerName(), dockerRunRequest.getImageUri());
+        String containerName = dockerRunRequest.getContainerName();
+        if (StringUtils.isBlank(dockerRunRequest.getImageId())
+                && StringUtils.isNotBlank(dockerRunRequest.getImageUri())
+                && !isImagePresent(dockerRunRequest.getImageUri())
+                && !pullImage(dockerRunRequest.getImageUri())) {
+            log.error("Failed to pull image for docker run [name:{}, image:{}]",
+                    containerName, dockerRunRequest.getImageUri());
+            return new PreparedRun(dockerRunRequest, false, null, false);
+        }
+        for (String volumeName : getNamedVolumes(dockerRunRequest.getHostConfig())) {
+            if (!createVolume(volumeName)) {
+                log.error("Failed to create volume for docker run [name:{}, volume:{}]",
+                        containerName, volumeName);
+                return new PreparedRun(dockerRunRequest, false, null, false);
+            }
+        }
+        return createRunContainer(dockerRunRequest);
+    }
+
+    /**
+     * Start the container of a prepared run and wait for it on the calling thread.
+     * Once it exits, its logs are collected and it is removed in the background, so
+     * that the caller can start its next prepared run at once.
+     *
+     * @param preparedRun run prepared by {@link #prepare(DockerRunRequest)}
+     * @return the response of the run, completed once its container is torn down
+     * @see #run(DockerRunRequest)
+     */
+    public CompletableFuture<DockerRunResponse> runPrepared(PreparedRun preparedRun) {
+        return runPrepared(preparedRun, () -> { });
+    }
+
+    /**
+     * @param onStarted called once the container is started
+     * @see #runPrepared(PreparedRun)
+     */
+    CompletableFuture<DockerRunResponse> runPrepared(PreparedRun preparedRun, Runnable onStarted) {
+        DockerRunResponse dockerRunResponse = getFailedRunResponse();
+        if (!preparedRun.isPrepared() || !startAndWait(preparedRun, dockerRunResponse, onStarted)) {
+            return CompletableFuture.completedFuture(dockerRunResponse);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            tearDown(preparedRun, dockerRunResponse);
+            return dockerRunResponse;
+        }, this::executeAsync);
+    }
+
+    /**
+     * Run the containers of a task group with a shared network and shared volumes.
+     * Members are prepared concurrently and each one is started as soon as its
+     * dependencies are met, so that setting up the group takes as long as its
+     * slowest member. Detached members, the network and the volumes are removed
+     * once every member is over.
+     *
+     * @param taskGroup containers to run
+     * @return the responses of all members, failed for members which could not run
+     */
+    public TaskGroupResult runTaskGroup(TaskGroup taskGroup) {
+        return new TaskGroupRunner(this, this::executeAsync).run(taskGroup);
+    }
+
+    /**
+     * Remove the container of a prepared run which will not be run.
+     *
+     * @param preparedRun run prepared by {@link #prepare(DockerRunRequest)}
+     * @return true if nothing is left of the prepared run, false otherwise
+     */
+    public boolean discard(PreparedRun preparedRun) {
+        if (!preparedRun.isPrepared()) {
+            return true;
+        }
+        boolean isRemoved = removeContainer(preparedRun.getContainerName());
+        unpinCpuset(preparedRun.getDockerRunRequest(), preparedRun.isPinned);
+        unbindHostPort(preparedRun.getDockerRunRequest(), preparedRun.getHostPort());
+        return isRemoved;
+    }
+
+    private static DockerRunResponse getFailedRunResponse() {
+        return DockerRunResponse.builder()
                 .finalStatus(DockerRunFinalStatus.FAILED)
                 .containerExitCode(-1)
                 .build();
+    }
+
+    /**
+     * Named volumes mounted by a container, which Docker would otherwise create
+     * implicitly when creating the container.
+     */
+    private static List<String> getNamedVolumes(HostConfig hostConfig) {
+        if (hostConfig == null || hostConfig.getBinds() == null) {
+            return List.of();
+        }
+        return Arrays.stream(hostConfig.getBinds())
+                .map(Bind::getPath)
+                .filter(path -> StringUtils.isNotBlank(path) && !path.startsWith("/"))
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * Create the container of a run, or take it from the warm container pool.
+     */
+    private PreparedRun createRunContainer(DockerRunRequest dockerRunRequest) {
         String containerName = dockerRunRequest.getContainerName();
+        // no deadline for the phases of a detached run
+        Duration phaseTimeout = dockerRunRequest.getMaxExecutionTime() > 0
+                ? getPhaseTimeout(dockerRunRequest.getMaxExecutionTime())
+                : null;
+        WarmContainerPool pool = warmContainerPool;
+        // a warm container is created without the host port the run must be published on
+        boolean needsHostPort = hostPortAllocator != null && dockerRunRequest.getContainerPort() > 0;
+        boolean isAcquired = pool != null && !needsHostPort && pool.acquire(dockerRunRequest).isPresent();
+        DockerRunRequest createRequest = dockerRunRequest;
+        boolean isPinned = false;
+        int hostPort = 0;
+        // a warm container is already created with its own host config
+        if (!isAcquired && (cpusetAllocator != null || hostPortAllocator != null)) {
+            // allocations are released by container name, so removing a duplicate
+            // container once they are made would release them
+            callWithTimeout(phaseTimeout, () -> removeDuplicateContainer(containerName));
+            // allocations are written to a copy, the request may be shared or run again
+            createRequest = withHostConfigCopy(dockerRunRequest);
+            isPinned = pinCpuset(createRequest);
+            hostPort = bindHostPort(createRequest);
+        }
+        DockerRunRequest containerRequest = createRequest;
         // TODO choose to remove duplicate containers or not
-        if (createContainer(dockerRunRequest).isEmpty()) {
+        boolean isCreated = isAcquired
+                || !callWithTimeout(phaseTimeout, () -> createContainer(containerRequest)).isEmpty();
+        if (!isCreated) {
             log.error("Failed to create container for docker run [name:{}]", containerName);
-            return dockerRunResponse;
+            unpinCpuset(dockerRunRequest, isPinned);
+            unbindHostPort(dockerRunRequest, hostPort);
+            hostPort = 0;
         }
-        if (!startContainer(containerName)) {
+        return new PreparedRun(dockerRunRequest, isCreated, phaseTimeout, isPinned, hostPort);
+    }
+
+    /**
+     * Start the container of a run and wait for its exit.
+     *
+     * @return true if the container has exited and must be torn down, false if the
+     * run is over: it failed to start, it is detached or it cannot be stopped
+     */
+    private boolean startAndWait(PreparedRun preparedRun, DockerRunResponse dockerRunResponse, Runnable onStarted) {
+        DockerRunRequest dockerRunRequest = preparedRun.getDockerRunRequest();
+        String containerName = dockerRunRequest.getContainerName();
+        Duration phaseTimeout = preparedRun.phaseTimeout;
+        if (!callWithTimeout(phaseTimeout, () -> startContainer(containerName))) {
             log.error("Failed to start container for docker run [name:{}]", containerName);
-            removeContainer(containerName);
-            return dockerRunResponse;
+            callWithTimeout(phaseTimeout, () -> removeContainer(containerName));
+            unpinCpuset(dockerRunRequest, preparedRun.isPinned);
+            unbindHostPort(dockerRunRequest, preparedRun.getHostPort());
+            return false;
         }
+        dockerRunResponse.setHostPort(preparedRun.getHostPort());
+        onStarted.run();
         if (dockerRunRequest.getMaxExecutionTime() <= 0) {
             // container will run until self-exited or explicitly-stopped
             log.info("Docker container will run in detached mode [name:{}]", containerName);
             dockerRunResponse.setFinalStatus(DockerRunFinalStatus.SUCCESS);
-            return dockerRunResponse;
+            return false;
         }
         Instant timeoutDate = Instant.now()
                 .plusMillis(dockerRunRequest.getMaxExecutionTime());
@@ -429,21 +1425,158 @@ public class DockerClientInstance {
         } catch (TimeoutException e) {
             log.error(e.getMessage());
             dockerRunResponse.setFinalStatus(DockerRunFinalStatus.TIMEOUT);
-            if (!stopContainer(containerName)) {
-                getContainerLogs(containerName).ifPresent(dockerRunResponse::setDockerLogs);
+            if (!callWithTimeout(phaseTimeout, () -> stopContainer(containerName))) {
+                callWithTimeout(phaseTimeout, () -> getContainerLogs(containerName))
+                        .ifPresent(dockerRunResponse::setDockerLogs);
                 log.error("Failed to force-stop container after timeout [name:{}]", containerName);
-                return dockerRunResponse;
+                return false;
             }
         } catch (IllegalArgumentException e) {
             log.error(e.getMessage());
+        } finally {
+            dockerRunResponse.setPausedDuration(getPausedDuration(containerName));
         }
+        return true;
+    }
 
-        getContainerLogs(containerName).ifPresent(dockerRunResponse::setDockerLogs);
-        getContainerExecutionDuration(containerName).ifPresent(dockerRunResponse::setExecutionDuration);
-        if (!removeContainer(containerName)) {
+    /**
+     * Collect the logs and the execution duration of an exited container, then
+     * remove it.
+     */
+    private void tearDown(PreparedRun preparedRun, DockerRunResponse dockerRunResponse) {
+        DockerRunRequest dockerRunRequest = preparedRun.getDockerRunRequest();
+        String containerName = dockerRunRequest.getContainerName();
+        Duration phaseTimeout = preparedRun.phaseTimeout;
+        callWithTimeout(phaseTimeout, () -> getContainerLogs(containerName))
+                .ifPresent(dockerRunResponse::setDockerLogs);
+        callWithTimeout(phaseTimeout, () -> getContainerExecutionDuration(containerName))
+                .ifPresent(dockerRunResponse::setExecutionDuration);
+        recordExecution(dockerRunRequest, dockerRunResponse);
+        if (!callWithTimeout(phaseTimeout, () -> removeContainer(containerName))) {
             log.warn("Failed to remove container after run [name:{}]", containerName);
         }
-        return dockerRunResponse;
+        // the container has exited, its CPUs and host port are free even if it is not removed
+        unpinCpuset(dockerRunRequest, preparedRun.isPinned);
+        unbindHostPort(dockerRunRequest, preparedRun.getHostPort());
+    }
+
+    /**
+     * @return a copy of the request with a copy of its host config, which can be
+     * changed without changing the request
+     */
+    static DockerRunRequest withHostConfigCopy(DockerRunRequest dockerRunRequest) {
+        HostConfig hostConfig = dockerRunRequest.getHostConfig();
+        return dockerRunRequest.toBuilder()
+                .hostConfig(hostConfig != null ? HOST_CONFIG_MAPPER.convertValue(hostConfig, HostConfig.class) : null)
+                .build();
+    }
+
+    private boolean removeDuplicateContainer(String containerName) {
+        if (!isContainerPresent(containerName)) {
+            return true;
+        }
+        log.info("Removing duplicate container before allocating its resources [name:{}]", containerName);
+        stopContainer(containerName);
+        return removeContainer(containerName);
+    }
+
+    /**
+     * Pin the container of a run to dedicated CPUs and memory nodes, written in the
+     * host config of the given copy of the request. Nothing is pinned without a
+     * cpuset allocator, when the run has no CPU limit or when its host config
+     * already sets its CPUs.
+     *
+     * @param createRequest copy of the request creating the container
+     * @return true if the container is pinned, false otherwise
+     */
+    private boolean pinCpuset(DockerRunRequest createRequest) {
+        CpusetAllocator allocator = cpusetAllocator;
+        HostConfig hostConfig = createRequest.getHostConfig();
+        if (allocator == null || hostConfig == null || StringUtils.isNotBlank(hostConfig.getCpusetCpus())) {
+            return false;
+        }
+        Optional<CpusetAllocator.Cpuset> cpuset = allocator.allocate(createRequest.getContainerName(),
+                CpusetAllocator.getRequestedCpus(hostConfig));
+        cpuset.ifPresent(allocated -> hostConfig
+                .withCpusetCpus(allocated.getCpus())
+                .withCpusetMems(allocated.getMems()));
+        return cpuset.isPresent();
+    }
+
+    /**
+     * Give back the CPUs of a run pinned by {@link #pinCpuset(DockerRunRequest)}.
+     */
+    private void unpinCpuset(DockerRunRequest dockerRunRequest, boolean isPinned) {
+        CpusetAllocator allocator = cpusetAllocator;
+        if (!isPinned || allocator == null) {
+            return;
+        }
+        allocator.release(dockerRunRequest.getContainerName());
+    }
+
+    /**
+     * Publish the container port of a run on an allocated host port, written in the
+     * host config of the given copy of the request. Nothing is published without a
+     * host port allocator, when the run has no container port or when its host
+     * config already binds it.
+     *
+     * @param createRequest copy of the request creating the container
+     * @return the host port, 0 if the container port is not published
+     */
+    private int bindHostPort(DockerRunRequest createRequest) {
+        HostPortAllocator allocator = hostPortAllocator;
+        HostConfig hostConfig = createRequest.getHostConfig();
+        int containerPort = createRequest.getContainerPort();
+        if (allocator == null || hostConfig == null || containerPort <= 0) {
+            return 0;
+        }
+        ExposedPort exposedPort = new ExposedPort(containerPort);
+        if (hostConfig.getPortBindings() != null
+                && hostConfig.getPortBindings().getBindings().containsKey(exposedPort)) {
+            return 0;
+        }
+        OptionalInt hostPort = allocator.allocate(createRequest.getContainerName());
+        if (hostPort.isEmpty()) {
+            return 0;
+        }
+        Ports portBindings = hostConfig.getPortBindings() != null ? hostConfig.getPortBindings() : new Ports();
+        portBindings.bind(exposedPort, Ports.Binding.bindPort(hostPort.getAsInt()));
+        hostConfig.withPortBindings(portBindings);
+        log.info("Published container port [name:{}, containerPort:{}, hostPort:{}]",
+                createRequest.getContainerName(), containerPort, hostPort.getAsInt());
+        return hostPort.getAsInt();
+    }
+
+    /**
+     * Give back the host port of a run published by
+     * {@link #bindHostPort(DockerRunRequest)}.
+     */
+    private void unbindHostPort(DockerRunRequest dockerRunRequest, int hostPort) {
+        HostPortAllocator allocator = hostPortAllocator;
+        if (hostPort == 0 || allocator == null) {
+            return;
+        }
+        allocator.release(dockerRunRequest.getContainerName());
+    }
+
+    /**
+     * Time budget of each phase of a run around the execution of the container:
+     * creation, start, stop, logs retrieval and removal.
+     * It is a tenth of the execution time, within [{@link #MIN_PHASE_TIMEOUT},
+     * {@link #MAX_PHASE_TIMEOUT}].
+     *
+     * @param maxExecutionTime max execution time of the container in milliseconds
+     * @return the timeout of a phase
+     */
+    static Duration getPhaseTimeout(long maxExecutionTime) {
+        Duration phaseTimeout = Duration.ofMillis(maxExecutionTime / 10);
+        if (phaseTimeout.compareTo(MIN_PHASE_TIMEOUT) < 0) {
+            return MIN_PHASE_TIMEOUT;
+        }
+        if (phaseTimeout.compareTo(MAX_PHASE_TIMEOUT) > 0) {
+            return MAX_PHASE_TIMEOUT;
+        }
+        return phaseTimeout;
     }
 
     public boolean stopAndRemoveContainer(String containerName) {
@@ -462,6 +1595,17 @@ public class DockerClientInstance {
         return createContainer(dockerRunRequest, true);
     }
 
+    /**
+     * Same as {@link #createContainer(DockerRunRequest)}, aborted after the given timeout.
+     *
+     * @param dockerRunRequest Container creation parameters
+     * @param timeout          Duration to wait before timeout
+     * @return A container ID if a container was successfully created or an empty string otherwise
+     */
+    public String createContainer(DockerRunRequest dockerRunRequest, Duration timeout) {
+        return callWithTimeout(timeout, () -> createContainer(dockerRunRequest));
+    }
+
     /**
      * Create docker container and choose whether to
      * remove existing duplicate container (if found)
@@ -471,48 +1615,74 @@ public class DockerClientInstance {
      * @param removeDuplicate  Whether to remove or not an existing container with the same name
      * @return A container ID if a container was successfully created or an empty string otherwise
      */
-    public synchronized String createContainer(DockerRunRequest dockerRunRequest, boolean removeDuplicate) {
-        if (dockerRunRequest == null
-                || StringUtils.isBlank(dockerRunRequest.getImageUri())
-                || StringUtils.isBlank(dockerRunRequest.getContainerName())) {
-            log.error("Invalid docker run request [dockerRunRequest:{}]", dockerRunRequest);
-            return "";
-        }
-        String containerName = dockerRunRequest.getContainerName();
-        // clean duplicate if present
-        if (isContainerPresent(containerName)) {
-            log.info("Found duplicate container [name:{}, oldContainerId:{}, removeDuplicate:{}]",
-                    containerName, getContainerId(containerName), removeDuplicate);
-            if (!removeDuplicate) {
+    public String createContainer(DockerRunRequest dockerRunRequest, boolean removeDuplicate) {
+        lock.lock();
+        try {
+            if (dockerRunRequest == null
+                    || StringUtils.isBlank(dockerRunRequest.getImageUri())
+                    || StringUtils.isBlank(dockerRunRequest.getContainerName())) {
+                log.error("Invalid docker run request [dockerRunRequest:{}]", dockerRunRequest);
                 return "";
             }
-            stopContainer(containerName);
-            removeContainer(containerName);
-        }
-        // create network if needed
-        String networkName = dockerRunRequest.getHostConfig().getNetworkMode();
-        if (StringUtils.isNotBlank(networkName)
-                && StringUtils.isBlank(createNetwork(networkName))) {
-            log.error("Failed to create network for the container [name:{}, networkName:{}]",
-                    containerName, networkName);
-            return "";
+            String containerName = dockerRunRequest.getContainerName();
+            // clean duplicate if present
+            if (isContainerPresent(containerName)) {
+                log.info("Found duplicate container [name:{}, oldContainerId:{}, removeDuplicate:{}]",
+                        containerName, getContainerId(containerName), removeDuplicate);
+                if (!removeDuplicate) {
+                    return "";
+                }
+                stopContainer(containerName);
+                removeContainer(containerName);
+            }
+            // create network if needed
+            String networkName = dockerRunRequest.getHostConfig().getNetworkMode();
+            if (StringUtils.isNotBlank(networkName)
+                    && !isManagedNetwork(networkName)
+                    && StringUtils.isBlank(createNetwork(networkName))) {
+                log.error("Failed to create network for the container [name:{}, networkName:{}]",
+                        containerName, networkName);
+                return "";
+            }
+            // create container
+            String image = getImageToCreate(dockerRunRequest);
+            try (CreateContainerCmd createContainerCmd = getClient().createContainerCmd(image)) {
+                String containerId =
+                        buildCreateContainerCmdFromRunRequest(dockerRunRequest, createContainerCmd)
+                                .map(cmd -> retrier.call("createContainer",
+                                        () -> cmd.exec().getId(),
+                                        () -> getCreatedContainerId(containerName, image)))
+                                .orElse("");
+                if (StringUtils.isNotBlank(containerId)) {
+                    log.info("Created docker container [name:{}, id:{}]",
+                            containerName, containerId);
+                }
+                return containerId;
+            } catch (Exception e) {
+                log.error("Error creating docker container [name:{}]", containerName, e);
+                return "";
+            }
+        } finally {
+            if (dockerRunRequest != null) {
+                containerStatusReads.invalidate(dockerRunRequest.getContainerName());
+            }
+            lock.unlock();
         }
-        // create container
-        try (CreateContainerCmd createContainerCmd = getClient()
-                .createContainerCmd(dockerRunRequest.getImageUri())) {
-            String containerId =
-                    buildCreateContainerCmdFromRunRequest(dockerRunRequest, createContainerCmd)
-                            .map(CreateContainerCmd::exec)
-                            .map(CreateContainerResponse::getId)
-                            .orElse("");
-            if (StringUtils.isNotBlank(containerId)) {
-                log.info("Created docker container [name:{}, id:{}]",
-                        containerName, containerId);
-            }
-            return containerId;
+    }
+
+    /**
+     * Conflict check of a container creation: a container with the same name and
+     * image found after a failed attempt has been created by this attempt, since
+     * duplicates are removed beforehand.
+     */
+    private Optional<String> getCreatedContainerId(String containerName, String image) {
+        try (InspectContainerCmd inspectContainerCmd = getClient().inspectContainerCmd(containerName)) {
+            InspectContainerResponse container = inspectContainerCmd.exec();
+            return container.getConfig() != null && image.equals(container.getConfig().getImage())
+                    ? Optional.ofNullable(container.getId())
+                    : Optional.empty();
         } catch (Exception e) {
-            log.error("Error creating docker container [name:{}]", containerName, e);
-            return "";
+            return Optional.empty();
         }
     }
 
@@ -596,10 +1766,10 @@ public class DockerClientInstance {
             return "";
         }
         try (ListContainersCmd listContainersCmd = getClient().listContainersCmd()) {
-            return listContainersCmd
+            listContainersCmd
                     .withShowAll(true)
-                    .withNameFilter(Collections.singleton(containerName))
-                    .exec()
+                    .withNameFilter(Collections.singleton(containerName));
+            return retrier.call("getContainerId", listContainersCmd::exec)
                     .stream()
                     .findFirst()
                     .map(Container::getId)
@@ -614,9 +1784,13 @@ public class DockerClientInstance {
         if (StringUtils.isBlank(containerName)) {
             return "";
         }
+        return containerStatusReads.execute(containerName, () -> fetchContainerStatus(containerName));
+    }
+
+    private String fetchContainerStatus(String containerName) {
         try (InspectContainerCmd inspectContainerCmd =
                      getClient().inspectContainerCmd(containerName)) {
-            return inspectContainerCmd.exec()
+            return retrier.call("getContainerStatus", inspectContainerCmd::exec)
                     .getState()
                     .getStatus();
         } catch (Exception e) {
@@ -625,27 +1799,81 @@ public class DockerClientInstance {
         return "";
     }
 
-    public synchronized boolean startContainer(String containerName) {
-        if (StringUtils.isBlank(containerName)) {
+    /**
+     * Rename an existing docker container.
+     *
+     * @param containerName    current name of the container
+     * @param newContainerName new name of the container
+     * @return true if the container was renamed, false otherwise.
+     */
+    public boolean renameContainer(String containerName, String newContainerName) {
+        lock.lock();
+        try {
+            if (StringUtils.isBlank(containerName) || StringUtils.isBlank(newContainerName)) {
+                log.error("Invalid docker container names [name:{}, newName:{}]",
+                        containerName, newContainerName);
+                return false;
+            }
+            try (RenameContainerCmd renameContainerCmd =
+                         getClient().renameContainerCmd(containerName)) {
+                renameContainerCmd
+                        .withName(newContainerName)
+                        .exec();
+                log.info("Renamed docker container [name:{}, newName:{}]", containerName, newContainerName);
+                return true;
+            } catch (NotFoundException e) {
+                log.error("No docker container to rename [name:{}]", containerName);
+            } catch (Exception e) {
+                log.error("Error renaming docker container [name:{}, newName:{}]",
+                        containerName, newContainerName, e);
+            }
             return false;
+        } finally {
+            containerStatusReads.invalidate(containerName);
+            containerStatusReads.invalidate(newContainerName);
+            lock.unlock();
         }
-        try (StartContainerCmd startContainerCmd =
-                     getClient().startContainerCmd(containerName)) {
-            startContainerCmd.exec();
-            log.info("Started docker container [name:{}]", containerName);
-            return true;
-        } catch (Exception e) {
-            log.error("Error starting docker container [name:{}]", containerName, e);
-            return false;
+    }
+
+    public boolean startContainer(String containerName) {
+        lock.lock();
+        try {
+            if (StringUtils.isBlank(containerName)) {
+                return false;
+            }
+            try (StartContainerCmd startContainerCmd =
+                         getClient().startContainerCmd(containerName)) {
+                retrier.run("startContainer", startContainerCmd::exec);
+                log.info("Started docker container [name:{}]", containerName);
+                return true;
+            } catch (NotModifiedException e) {
+                // also when a failed attempt has started it
+                log.info("Docker container is already started [name:{}]", containerName);
+                return true;
+            } catch (Exception e) {
+                log.error("Error starting docker container [name:{}]", containerName, e);
+                return false;
+            }
+        } finally {
+            containerStatusReads.invalidate(containerName);
+            lock.unlock();
         }
     }
 
     /**
      * Waits for full execution of a container (and stops waiting after a
      * particular date)
+     * <p>
+     * The exit of the container is notified by the Docker daemon and the deadline
+     * is tracked on the monotonic clock by the timing wheel of this instance, so
+     * that no thread polls the container status.
+     * <p>
+     * The time the container spends paused by {@link #pauseContainer(String)} does
+     * not count: the timeout date is postponed by the paused duration.
      *
      * @param containerName name of the container to wait for
-     * @param timeoutDate   waiting is aborted once this date is reached
+     * @param timeoutDate   waiting is aborted once this date, postponed by the
+     *                      paused duration, is reached
      * @return container's exit code (when relevant)
      */
     public int waitContainerUntilExitOrTimeout(
@@ -658,30 +1886,99 @@ public class DockerClientInstance {
         if (timeoutDate == null) {
             throw new IllegalArgumentException("Timeout date cannot be null");
         }
-        boolean isExited = false;
-        boolean isTimeout = false;
-        int seconds = 0;
-        while (!isExited && !isTimeout) {
-            if (seconds % 60 == 0) { // don't display logs too often
-                log.info("Container is running [name:{}]", containerName);
+        log.info("Container is running [name:{}]", containerName);
+        CompletableFuture<Integer> exitCodeFuture = new CompletableFuture<>();
+        ResultCallback.Adapter<WaitResponse> callback = new ResultCallback.Adapter<>() {
+            @Override
+            public void onNext(WaitResponse waitResponse) {
+                exitCodeFuture.complete(waitResponse.getStatusCode());
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                exitCodeFuture.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                exitCodeFuture.completeExceptionally(
+                        new IllegalStateException("Wait stream completed without status code"));
+            }
+        };
+        AtomicReference<TimingWheel.Timeout> deadline = new AtomicReference<>();
+        // the wall clock is only read once, the deadline is then on the monotonic clock
+        long deadlineNanos = System.nanoTime() + toSaturatedNanos(Duration.between(Instant.now(), timeoutDate));
+        try (WaitContainerCmd waitContainerCmd = getClient().waitContainerCmd(containerName)) {
+            // throws once this instance is closed
+            scheduleWaitDeadline(containerName, deadlineNanos, exitCodeFuture, deadline);
+            waitContainerCmd.exec(callback);
+            int containerExitCode = exitCodeFuture.get();
+            log.info("Container exited by itself [name:{}, exitCode:{}]",
+                    containerName, containerExitCode);
+            return containerExitCode;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException(String.format("Container wait was interrupted [name:%s]", containerName));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException timeoutException) {
+                throw timeoutException;
+            }
+            log.error("Error waiting for docker container [name:{}]", containerName, e.getCause());
+            return -1;
+        } catch (Exception e) {
+            log.error("Error waiting for docker container [name:{}]", containerName, e);
+            return -1;
+        } finally {
+            // stops rescheduling the deadline
+            exitCodeFuture.cancel(false);
+            TimingWheel.Timeout timeout = deadline.get();
+            if (timeout != null) {
+                timeout.cancel();
             }
             try {
-                TimeUnit.SECONDS.sleep(1);
-            } catch (InterruptedException e) {
-                log.error("Sleep was interrupted [exception:{}]", e.getMessage());
-                Thread.currentThread().interrupt();
+                callback.close();
+            } catch (IOException e) {
+                log.warn("Failed to close wait stream [name:{}]", containerName);
             }
-            isExited = getContainerStatus(containerName).equals(EXITED_STATUS);
-            isTimeout = Instant.now().isAfter(timeoutDate);
-            seconds++;
         }
-        if (!isExited) {
-            throw new TimeoutException(String.format("Container reached timeout [name:%s]", containerName));
+    }
+
+    /**
+     * Schedule the deadline of a wait, rescheduled while the container has been
+     * paused long enough to postpone it.
+     *
+     * @param deadlineNanos deadline on the {@link System#nanoTime()} clock, before
+     *                      the paused time of the container
+     */
+    private void scheduleWaitDeadline(String containerName, long deadlineNanos,
+                                      CompletableFuture<Integer> exitCodeFuture,
+                                      AtomicReference<TimingWheel.Timeout> deadline) {
+        Duration remaining = getRemainingWaitTime(containerName, deadlineNanos);
+        Runnable onDeadline = () -> {
+            if (getRemainingWaitTime(containerName, deadlineNanos).isPositive() || isPaused(containerName)) {
+                if (!exitCodeFuture.isDone()) {
+                    scheduleWaitDeadline(containerName, deadlineNanos, exitCodeFuture, deadline);
+                }
+                return;
+            }
+            exitCodeFuture.completeExceptionally(new TimeoutException(
+                    String.format("Container reached timeout [name:%s]", containerName)));
+        };
+        // paused at the deadline, check it again later
+        deadline.set(deadlineWheel.schedule(onDeadline,
+                remaining.isPositive() ? remaining : Duration.ofMillis(100)));
+    }
+
+    private Duration getRemainingWaitTime(String containerName, long deadlineNanos) {
+        return Duration.ofNanos(deadlineNanos - System.nanoTime()).plus(getPausedDuration(containerName));
+    }
+
+    private static long toSaturatedNanos(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException e) {
+            return duration.isNegative() ? Long.MIN_VALUE / 2 : Long.MAX_VALUE / 2;
         }
-        int containerExitCode = getContainerExitCode(containerName);
-        log.info("Container exited by itself [name:{}, exitCode:{}]",
-                containerName, containerExitCode);
-        return containerExitCode;
     }
 
     public int getContainerExitCode(String containerName) {
@@ -699,6 +1996,17 @@ public class DockerClientInstance {
         }
     }
 
+    /**
+     * Same as {@link #getContainerLogs(String)}, aborted after the given timeout.
+     *
+     * @param containerName name of the container
+     * @param timeout       Duration to wait before timeout
+     * @return the logs of the container, empty if they could not be retrieved in time
+     */
+    public Optional<DockerLogs> getContainerLogs(String containerName, Duration timeout) {
+        return callWithTimeout(timeout, () -> getContainerLogs(containerName));
+    }
+
     public Optional<DockerLogs> getContainerLogs(String containerName) {
         if (StringUtils.isBlank(containerName)) {
             log.error("Invalid docker container name [name:{}]", containerName);
@@ -711,11 +2019,14 @@ public class DockerClientInstance {
         FrameResultCallback callback = new FrameResultCallback();
         try (LogContainerCmd logContainerCmd =
                      getClient().logContainerCmd(containerName)) {
-            logContainerCmd
+            boolean isCompleted = awaitCompletion(logContainerCmd
                     .withStdOut(true)
                     .withStdErr(true)
-                    .exec(callback)
-                    .awaitCompletion();
+                    .exec(callback));
+            if (!isCompleted) {
+                log.error("Docker logs command reached timeout [name:{}]", containerName);
+                return Optional.empty();
+            }
         } catch (InterruptedException e) {
             log.error("Docker logs command was interrupted [name:{}]", containerName, e);
             Thread.currentThread().interrupt();
@@ -729,6 +2040,17 @@ public class DockerClientInstance {
                 .build());
     }
 
+    /**
+     * Same as {@link #stopContainer(String)}, aborted after the given timeout.
+     *
+     * @param containerName name of the container to stop
+     * @param timeout       Duration to wait before timeout
+     * @return true if the container was stopped in time or is not running, false otherwise
+     */
+    public boolean stopContainer(String containerName, Duration timeout) {
+        return callWithTimeout(timeout, () -> stopContainer(containerName));
+    }
+
     /**
      * Stop a running docker container.
      *
@@ -736,43 +2058,176 @@ public class DockerClientInstance {
      * @return true if the container was successfully stopped or its status
      * is not "running" or "restarting", false otherwise.
      */
-    public synchronized boolean stopContainer(String containerName) {
-        if (StringUtils.isEmpty(containerName)) {
-            log.info("Invalid docker container name [name:{}]", containerName);
+    public boolean stopContainer(String containerName) {
+        lock.lock();
+        try {
+            if (StringUtils.isEmpty(containerName)) {
+                log.info("Invalid docker container name [name:{}]", containerName);
+                return false;
+            }
+            try (StopContainerCmd stopContainerCmd = client.stopContainerCmd(containerName)) {
+                stopContainerCmd.withTimeout(0); // don't wait
+                retrier.run("stopContainer", stopContainerCmd::exec);
+                log.info("Stopped docker container [name:{}]", containerName);
+                return true;
+            } catch (NotFoundException e) {
+                log.error("No docker container to stop [name:{}]", containerName);
+            } catch (NotModifiedException e) {
+                log.info("Docker container is already stopped [name:{}]", containerName);
+                return true;
+            } catch (Exception e) {
+                log.error("Error stopping docker container [name:{}]", containerName, e);
+            }
             return false;
+        } finally {
+            containerStatusReads.invalidate(containerName);
+            lock.unlock();
         }
-        try (StopContainerCmd stopContainerCmd = client.stopContainerCmd(containerName)) {
-            stopContainerCmd
-                    .withTimeout(0) // don't wait
-                    .exec();
-            log.info("Stopped docker container [name:{}]", containerName);
-            return true;
-        } catch (NotFoundException e) {
-            log.error("No docker container to stop [name:{}]", containerName);
-        } catch (NotModifiedException e) {
-            log.info("Docker container is already stopped [name:{}]", containerName);
-            return true;
-        } catch (Exception e) {
-            log.error("Error stopping docker container [name:{}]", containerName, e);
+    }
+
+    /**
+     * Same as {@link #removeContainer(String)}, aborted after the given timeout.
+     *
+     * @param containerName name of the container to remove
+     * @param timeout       Duration to wait before timeout
+     * @return true if the container was removed, false otherwise
+     */
+    public boolean removeContainer(String containerName, Duration timeout) {
+        return callWithTimeout(timeout, () -> removeContainer(containerName));
+    }
+
+    /**
+     * Pause all processes of a running container, e.g. to free its CPUs for a more
+     * urgent container. The paused time does not count in the max execution time of
+     * the run of the container and is reported in its {@link DockerRunResponse}.
+     *
+     * @param containerName name of the container to pause
+     * @return true if the container is paused, false otherwise
+     */
+    public boolean pauseContainer(String containerName) {
+        lock.lock();
+        try {
+            if (StringUtils.isBlank(containerName)) {
+                log.error("Invalid docker container name [name:{}]", containerName);
+                return false;
+            }
+            try (PauseContainerCmd pauseContainerCmd = getClient().pauseContainerCmd(containerName)) {
+                pauseContainerCmd.exec();
+                pauseClocks.computeIfAbsent(containerName, name -> new PauseClock()).pause();
+                log.info("Paused docker container [name:{}]", containerName);
+                return true;
+            } catch (Exception e) {
+                log.error("Error pausing docker container [name:{}]", containerName, e);
+                return false;
+            }
+        } finally {
+            containerStatusReads.invalidate(containerName);
+            lock.unlock();
         }
-        return false;
     }
 
-    public synchronized boolean removeContainer(String containerName) {
-        if (StringUtils.isBlank(containerName)) {
-            log.error("Invalid docker container name [name:{}]", containerName);
+    /**
+     * Resume a container paused by {@link #pauseContainer(String)}.
+     *
+     * @param containerName name of the container to resume
+     * @return true if the container is resumed, false otherwise
+     */
+    public boolean unpauseContainer(String containerName) {
+        lock.lock();
+        try {
+            if (StringUtils.isBlank(containerName)) {
+                log.error("Invalid docker container name [name:{}]", containerName);
+                return false;
+            }
+            try (UnpauseContainerCmd unpauseContainerCmd = getClient().unpauseContainerCmd(containerName)) {
+                unpauseContainerCmd.exec();
+                resumePauseClock(containerName);
+                log.info("Resumed docker container [name:{}]", containerName);
+                return true;
+            } catch (NotModifiedException | ConflictException e) {
+                // not paused anymore, e.g. resumed by another client
+                resumePauseClock(containerName);
+                log.info("Docker container is not paused [name:{}]", containerName);
+                return true;
+            } catch (Exception e) {
+                log.error("Error resuming docker container [name:{}]", containerName, e);
+                return false;
+            }
+        } finally {
+            containerStatusReads.invalidate(containerName);
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param containerName name of the container
+     * @return the time the container has spent paused by {@link #pauseContainer(String)}
+     * since its creation, including the current pause
+     */
+    public Duration getPausedDuration(String containerName) {
+        PauseClock pauseClock = containerName != null ? pauseClocks.get(containerName) : null;
+        return pauseClock != null ? pauseClock.getPausedDuration() : Duration.ZERO;
+    }
+
+    private boolean isPaused(String containerName) {
+        PauseClock pauseClock = pauseClocks.get(containerName);
+        return pauseClock != null && pauseClock.isPaused();
+    }
+
+    private void resumePauseClock(String containerName) {
+        PauseClock pauseClock = pauseClocks.get(containerName);
+        if (pauseClock != null) {
+            pauseClock.resume();
+        }
+    }
+
+    public boolean removeContainer(String containerName) {
+        lock.lock();
+        try {
+            if (StringUtils.isBlank(containerName)) {
+                log.error("Invalid docker container name [name:{}]", containerName);
+                return false;
+            }
+            try (RemoveContainerCmd removeContainerCmd = client.removeContainerCmd(containerName)) {
+                retrier.run("removeContainer", removeContainerCmd::exec,
+                        () -> isContainerRemoved(containerName));
+                releaseContainerResources(containerName);
+                log.info("Removed docker container [name:{}]", containerName);
+                return true;
+            } catch (NotFoundException e) {
+                releaseContainerResources(containerName);
+                log.info("No docker container to remove [name:{}]", containerName);
+            } catch (Exception e) {
+                log.error("Error removing docker container [name:{}]", containerName, e);
+            }
             return false;
+        } finally {
+            containerStatusReads.invalidate(containerName);
+            lock.unlock();
         }
-        try (RemoveContainerCmd removeContainerCmd = client.removeContainerCmd(containerName)) {
-            removeContainerCmd.exec();
-            log.info("Removed docker container [name:{}]", containerName);
-            return true;
+    }
+
+    private void releaseContainerResources(String containerName) {
+        pauseClocks.remove(containerName);
+        CpusetAllocator allocator = cpusetAllocator;
+        if (allocator != null) {
+            allocator.release(containerName);
+        }
+        HostPortAllocator portAllocator = hostPortAllocator;
+        if (portAllocator != null) {
+            portAllocator.release(containerName);
+        }
+    }
+
+    private boolean isContainerRemoved(String containerName) {
+        try (InspectContainerCmd inspectContainerCmd = getClient().inspectContainerCmd(containerName)) {
+            inspectContainerCmd.exec();
+            return false;
         } catch (NotFoundException e) {
-            log.info("No docker container to remove [name:{}]", containerName);
+            return true;
         } catch (Exception e) {
-            log.error("Error removing docker container [name:{}]", containerName, e);
+            return false;
         }
-        return false;
     }
 
     /**
@@ -826,7 +2281,62 @@ public class DockerClientInstance {
 
     //endregion
 
+    //region async
+    /**
+     * Same as {@link #run(DockerRunRequest)}, on a thread of the current
+     * {@link ExecutionMode}.
+     */
+    public CompletableFuture<DockerRunResponse> runAsync(DockerRunRequest dockerRunRequest) {
+        return CompletableFuture.supplyAsync(() -> run(dockerRunRequest), this::executeAsync);
+    }
+
+    /**
+     * Same as {@link #prepare(DockerRunRequest)}, on a thread of the current
+     * {@link ExecutionMode}, e.g. to prepare the next run while the current one is
+     * executing.
+     */
+    public CompletableFuture<PreparedRun> prepareAsync(DockerRunRequest dockerRunRequest) {
+        return CompletableFuture.supplyAsync(() -> prepare(dockerRunRequest), this::executeAsync);
+    }
+
+    /**
+     * Same as {@link #pullImage(String, Duration)}, on a thread of the current
+     * {@link ExecutionMode}.
+     */
+    public CompletableFuture<Boolean> pullImageAsync(String imageName, Duration timeout) {
+        return CompletableFuture.supplyAsync(() -> pullImage(imageName, timeout), this::executeAsync);
+    }
+
+    /**
+     * Same as {@link #getContainerLogs(String)}, on a thread of the current
+     * {@link ExecutionMode}.
+     */
+    public CompletableFuture<Optional<DockerLogs>> getContainerLogsAsync(String containerName) {
+        return CompletableFuture.supplyAsync(() -> getContainerLogs(containerName), this::executeAsync);
+    }
+
+    /**
+     * Same as {@link #exec(String, String...)}, on a thread of the current
+     * {@link ExecutionMode}.
+     */
+    public CompletableFuture<Optional<DockerLogs>> execAsync(String containerName, String... cmd) {
+        return CompletableFuture.supplyAsync(() -> exec(containerName, cmd), this::executeAsync);
+    }
+    //endregion
+
     //region exec
+    /**
+     * Same as {@link #exec(String, String...)}, aborted after the given timeout.
+     *
+     * @param containerName name of the container
+     * @param timeout       Duration to wait before timeout
+     * @param cmd           command to run in the container
+     * @return the output of the command, empty if it did not complete in time
+     */
+    public Optional<DockerLogs> exec(String containerName, Duration timeout, String... cmd) {
+        return callWithTimeout(timeout, () -> exec(containerName, cmd));
+    }
+
     public Optional<DockerLogs> exec(String containerName, String... cmd) {
         if (StringUtils.isBlank(containerName)) {
             return Optional.empty();
@@ -846,9 +2356,10 @@ public class DockerClientInstance {
                     .exec();
             // run 'docker exec' command
             try (ExecStartCmd execStartCmd = getClient().execStartCmd(execCreateCmdResponse.getId())) {
-                execStartCmd
-                        .exec(callback)
-                        .awaitCompletion();
+                if (!awaitCompletion(execStartCmd.exec(callback))) {
+                    log.error("Docker exec command reached timeout [name:{}, cmd:{}]", containerName, cmd);
+                    return Optional.empty();
+                }
             }
         } catch (InterruptedException e) {
             log.warn("Docker exec command was interrupted", e);
@@ -865,6 +2376,193 @@ public class DockerClientInstance {
     }
     //endregion
 
+    //region snapshot
+
+    /**
+     * Run an initialization command once in a container of the image and commit the
+     * resulting container to a local snapshot image, keyed by the image ID and the
+     * initialization command. Containers later created for the same image are
+     * transparently created from the snapshot, as long as the image name still
+     * resolves to the same image ID. Otherwise, the snapshot is dropped.
+     * <p>
+     * The initialization command is passed to the image like the cmd of a run request
+     * and must exit with code 0. The cmd of the image is restored on the snapshot,
+     * so run requests should specify their own cmd if the image does not have one.
+     *
+     * @param imageName Name of the local image to initialize
+     * @param initCmd   Initialization command
+     * @param timeout   Duration to wait for the initialization to complete
+     * @return the name of the snapshot image, or an empty string on failure.
+     */
+    public String createWarmSnapshot(String imageName, String initCmd, Duration timeout) {
+        if (StringUtils.isBlank(imageName) || StringUtils.isBlank(initCmd) || timeout == null) {
+            log.error("Invalid warm snapshot parameters [name:{}, initCmd:{}, timeout:{}]",
+                    imageName, initCmd, timeout);
+            return "";
+        }
+        Optional<ImageReference> oImageReference = parseImageReference(imageName);
+        if (oImageReference.isEmpty()) {
+            return "";
+        }
+        ImageReference imageReference = oImageReference.get();
+        String baseImageId = resolveImageId(imageReference);
+        if (baseImageId.isEmpty()) {
+            log.error("Cannot snapshot absent docker image [name:{}]", imageName);
+            return "";
+        }
+        String snapshotTag = getWarmSnapshotTag(baseImageId, initCmd);
+        String snapshotImage = WARM_SNAPSHOT_REPOSITORY + ":" + snapshotTag;
+        if (!isImagePresent(snapshotImage)
+                && !commitWarmSnapshot(imageReference, baseImageId, initCmd, snapshotTag, timeout)) {
+            return "";
+        }
+        warmSnapshots.put(imageReference, new WarmSnapshot(baseImageId, snapshotImage));
+        log.info("Registered warm snapshot [name:{}, snapshot:{}]", imageName, snapshotImage);
+        return snapshotImage;
+    }
+
+    /**
+     * Stop using the warm snapshot of an image and remove the snapshot image.
+     *
+     * @param imageName Name of the snapshotted image
+     * @return true if a snapshot was registered and removed, false otherwise.
+     */
+    public boolean removeWarmSnapshot(String imageName) {
+        if (StringUtils.isBlank(imageName)) {
+            log.error("Invalid docker image name [name:{}]", imageName);
+            return false;
+        }
+        return parseImageReference(imageName)
+                .map(warmSnapshots::remove)
+                .map(snapshot -> removeImage(snapshot.getImage()))
+                .orElse(false);
+    }
+
+    private boolean commitWarmSnapshot(ImageReference imageReference, String baseImageId,
+                                       String initCmd, String snapshotTag, Duration timeout) {
+        Optional<ImageMetadata> baseMetadata = getImageMetadata(imageReference);
+        if (baseMetadata.isEmpty()) {
+            return false;
+        }
+        String containerName = WARM_SNAPSHOT_REPOSITORY + "-init-" + snapshotTag;
+        DockerRunRequest initRequest = DockerRunRequest.builder()
+                .containerName(containerName)
+                .imageUri(imageReference.getFamiliarName())
+                .imageId(baseImageId)
+                .cmd(initCmd)
+                .build();
+        try {
+            if (createContainer(initRequest).isEmpty() || !startContainer(containerName)) {
+                log.error("Failed to start warm snapshot initialization [name:{}]", imageReference);
+                return false;
+            }
+            int exitCode = waitContainerUntilExitOrTimeout(containerName, Instant.now().plus(timeout));
+            if (exitCode != 0) {
+                log.error("Warm snapshot initialization failed [name:{}, exitCode:{}]",
+                        imageReference, exitCode);
+                return false;
+            }
+            try (CommitCmd commitCmd = getClient().commitCmd(containerName)) {
+                commitCmd.withRepository(WARM_SNAPSHOT_REPOSITORY)
+                        .withTag(snapshotTag)
+                        .withCmd(baseMetadata.get().getCmd().toArray(new String[0]))
+                        .withLabels(Map.of(WARM_SNAPSHOT_BASE_IMAGE_LABEL, baseImageId))
+                        .exec();
+            }
+            log.info("Committed warm snapshot [name:{}, tag:{}]", imageReference, snapshotTag);
+            return true;
+        } catch (TimeoutException e) {
+            log.error("Warm snapshot initialization reached timeout [name:{}]", imageReference);
+        } catch (Exception e) {
+            log.error("Error creating warm snapshot [name:{}]", imageReference, e);
+        } finally {
+            stopContainer(containerName);
+            removeContainer(containerName);
+        }
+        return false;
+    }
+
+    /**
+     * Get the image a container should be created from, which is the warm snapshot
+     * of the requested image if any and if still based on the current image ID.
+     * The base image is inspected, its tag may have been moved by another client.
+     * A snapshot based on another image than the one the request is resolved to is
+     * not used, but kept for other requests.
+     */
+    private String getImageToCreate(DockerRunRequest dockerRunRequest) {
+        if (warmSnapshots.isEmpty()) {
+            return dockerRunRequest.getImageToCreate();
+        }
+        ImageReference imageReference;
+        try {
+            imageReference = ImageReference.of(dockerRunRequest.getImageUri());
+        } catch (IllegalArgumentException e) {
+            return dockerRunRequest.getImageToCreate();
+        }
+        WarmSnapshot snapshot = warmSnapshots.get(imageReference);
+        if (snapshot == null) {
+            return dockerRunRequest.getImageToCreate();
+        }
+        String baseImageId = resolveImageId(imageReference);
+        if (snapshot.getBaseImageId().equals(baseImageId)) {
+            boolean isRequestedImage = StringUtils.isBlank(dockerRunRequest.getImageId())
+                    || baseImageId.equals(dockerRunRequest.getImageId());
+            return isRequestedImage ? snapshot.getImage() : dockerRunRequest.getImageToCreate();
+        }
+        log.info("Dropping outdated warm snapshot [name:{}, snapshot:{}, imageId:{}]",
+                imageReference, snapshot.getImage(), baseImageId);
+        if (warmSnapshots.remove(imageReference, snapshot)) {
+            removeImage(snapshot.getImage());
+        }
+        return dockerRunRequest.getImageToCreate();
+    }
+
+    static String getWarmSnapshotTag(String baseImageId, String initCmd) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest((baseImageId + "\n" + initCmd).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Value
+    private static class WarmSnapshot {
+        String baseImageId;
+        String image;
+    }
+    //endregion
+
+    /**
+     * Wait for the stream of a callback to complete, at most until the deadline of
+     * the current operation. The stream is closed on timeout, which releases its
+     * connection and its thread.
+     *
+     * @param callback callback of the streamed command
+     * @return true if the stream completed, false on timeout
+     */
+    private boolean awaitCompletion(ResultCallback.Adapter<?> callback) throws InterruptedException {
+        Optional<Duration> remaining = OperationDeadline.remaining();
+        if (remaining.isEmpty()) {
+            callback.awaitCompletion();
+            return true;
+        }
+        if (callback.awaitCompletion(remaining.get().toMillis(), TimeUnit.MILLISECONDS)) {
+            return true;
+        }
+        closeStream(callback);
+        return false;
+    }
+
+    private static void closeStream(ResultCallback.Adapter<?> callback) {
+        try {
+            callback.close();
+        } catch (IOException e) {
+            log.warn("Failed to close docker stream after timeout", e);
+        }
+    }
+
     /**
      * Build a new docker client instance. If credentials are provided, an authentication
      * attempt is made to the specified registry.
@@ -876,8 +2574,8 @@ public class DockerClientInstance {
      * @throws IllegalArgumentException if registry address is blank
      * @throws DockerException          if authentication fails
      */
-    private static DockerClient createClient(String registryAddress, String username,
-                                             String password) throws DockerException, IllegalArgumentException {
+    private DockerClient createClient(String registryAddress, String username, String password)
+            throws DockerException, IllegalArgumentException {
         if (StringUtils.isBlank(registryAddress)) {
             throw new IllegalArgumentException("Registry address must not be blank");
         }
@@ -891,11 +2589,18 @@ public class DockerClientInstance {
             configBuilder.withRegistryUsername(username)
                     .withRegistryPassword(password);
         }
+        if (dockerHost != null) {
+            configBuilder.withDockerHost(dockerHost.toString());
+        }
         DefaultDockerClientConfig config = configBuilder.build();
-        DockerHttpClient httpClient = new ZerodepDockerHttpClient.Builder()
-                .dockerHost(config.getDockerHost())
-                .sslConfig(config.getSSLConfig())
-                .build();
+        DockerHttpClient httpClient = new GuardedDockerHttpClient(
+                new ZerodepDockerHttpClient.Builder()
+                        .dockerHost(config.getDockerHost())
+                        .sslConfig(config.getSSLConfig())
+                        .build(),
+                admissionLimiter,
+                daemonCircuitBreaker,
+                deadlineWheel);
         DockerClient dockerClient = DockerClientImpl.getInstance(config, httpClient);
         if (shouldAuthenticate) {
             dockerClient.authCmd().exec();
@@ -919,14 +2624,37 @@ public class DockerClientInstance {
      * @return registry address
      */
     public static String parseRegistryAddress(String imageName) {
-        NameParser.ReposTag reposTag = NameParser.parseRepositoryTag(imageName);
-        NameParser.HostnameReposName hostnameReposName = NameParser.resolveRepositoryName(reposTag.repos);
-        String registry = hostnameReposName.hostname;
-        return AuthConfig.DEFAULT_SERVER_ADDRESS.equals(registry)
-                // to be consistent, we use common default address
-                // everywhere for the default DockerHub registry
-                ? DockerClientInstance.DEFAULT_DOCKER_REGISTRY
-                : registry;
+        return ImageReference.of(imageName).getRegistry();
+    }
+
+    /**
+     * Paused time of a container, on the monotonic clock.
+     */
+    private static class PauseClock {
+        private final AtomicLong totalPausedNanos = new AtomicLong();
+        // 0 while not paused
+        private final AtomicLong pausedSinceNanos = new AtomicLong();
+
+        private void pause() {
+            pausedSinceNanos.compareAndSet(0, System.nanoTime() | 1);
+        }
+
+        private void resume() {
+            long pausedSince = pausedSinceNanos.getAndSet(0);
+            if (pausedSince != 0) {
+                totalPausedNanos.addAndGet(System.nanoTime() - pausedSince);
+            }
+        }
+
+        private boolean isPaused() {
+            return pausedSinceNanos.get() != 0;
+        }
+
+        private Duration getPausedDuration() {
+            long pausedSince = pausedSinceNanos.get();
+            long currentPauseNanos = pausedSince != 0 ? System.nanoTime() - pausedSince : 0;
+            return Duration.ofNanos(totalPausedNanos.get() + currentPauseNanos);
+        }
     }
 
     static class FrameResultCallback extends ResultCallback.Adapter<Frame> {
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.github.dockerjava.api.exception.DockerException;
+
+/**
+ * Thrown instead of sending a request while the {@link DaemonCircuitBreaker} is open.
+ * <p>
+ * It is raised for every call during a daemon outage, so it carries no stack trace.
+ */
+public class DockerDaemonUnavailableException extends DockerException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DockerDaemonUnavailableException(String message) {
+        super(message, 503);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.github.dockerjava.api.exception.DockerException;
+
+/**
+ * Thrown when a Docker request is not sent or is aborted because the deadline of
+ * the operation it belongs to is reached.
+ */
+public class DockerDeadlineExceededException extends DockerException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DockerDeadlineExceededException(String message) {
+        super(message, 408);
+    }
+
+    public DockerDeadlineExceededException(String message, Throwable cause) {
+        super(message, 408, cause);
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.iexec.commons.containers.DockerLogs;
+import com.iexec.commons.containers.DockerRunFinalStatus;
+import com.iexec.commons.containers.DockerRunRequest;
+import com.iexec.commons.containers.DockerRunResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pool of Docker daemons driven from a single JVM, e.g. several local sockets or
+ * TCP endpoints of sibling machines.
+ * <p>
+ * Each run is placed on the least loaded healthy host, the load of a host being
+ * the number of containers of the pool living on it. A host is healthy while the
+ * circuit of its {@link DockerClientInstance} is closed. The pool remembers the
+ * host of each container, so that later calls on the container are routed to it.
+ * <p>
+ * A drained host gets no new container and is drained once its containers are
+ * removed.
+ * <p>
+ * The pool owns the {@link DockerClientInstance} of each host, closing the pool
+ * closes them.
+ */
+@Slf4j
+public class DockerHostPool implements AutoCloseable {
+
+    private final Map<URI, Host> hosts;
+    private final Map<String, Host> containerHosts = new ConcurrentHashMap<>();
+    // guards placements and loads
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * @param dockerHosts Docker daemon endpoints, e.g. unix:///var/run/docker.sock or tcp://10.0.0.2:2375
+     */
+    public DockerHostPool(Collection<URI> dockerHosts) {
+        this(createInstances(dockerHosts));
+    }
+
+    DockerHostPool(Map<URI, DockerClientInstance> instances) {
+        if (instances == null || instances.isEmpty()) {
+            throw new IllegalArgumentException("Docker host pool must not be empty");
+        }
+        Map<URI, Host> hostsByUri = new LinkedHashMap<>();
+        instances.forEach((uri, instance) -> hostsByUri.put(uri, new Host(uri, instance)));
+        this.hosts = Collections.unmodifiableMap(hostsByUri);
+    }
+
+    public Set<URI> getDockerHosts() {
+        return hosts.keySet();
+    }
+
+    /**
+     * Run a container on the least loaded healthy host.
+     * A container whose name is already known by the pool is run on the same host,
+     * which replaces the existing container.
+     *
+     * @param dockerRunRequest config of the run
+     * @return the response of the run, failed if no host is available
+     * @see DockerClientInstance#run(DockerRunRequest)
+     */
+    public DockerRunResponse run(DockerRunRequest dockerRunRequest) {
+        String containerName = dockerRunRequest.getContainerName();
+        Optional<Host> placement = place(containerName);
+        if (placement.isEmpty()) {
+            log.error("No Docker host available to run container [name:{}]", containerName);
+            return DockerRunResponse.builder()
+                    .finalStatus(DockerRunFinalStatus.FAILED)
+                    .containerExitCode(-1)
+                    .build();
+        }
+        Host host = placement.get();
+        DockerRunResponse dockerRunResponse = null;
+        try {
+            dockerRunResponse = host.instance.run(dockerRunRequest);
+            return dockerRunResponse;
+        } finally {
+            boolean isDetached = dockerRunRequest.getMaxExecutionTime() <= 0
+                    && dockerRunResponse != null
+                    && dockerRunResponse.getFinalStatus() == DockerRunFinalStatus.SUCCESS;
+            // an attached run removes its container, unless it failed to stop it
+            if (!isDetached && !host.instance.isContainerPresent(containerName)) {
+                release(containerName, host);
+            }
+        }
+    }
+
+    /**
+     * @param containerName name of a container run by the pool
+     * @return the client of the host of the container, empty if the container is unknown
+     */
+    public Optional<DockerClientInstance> getInstance(String containerName) {
+        return Optional.ofNullable(containerName)
+                .map(containerHosts::get)
+                .map(host -> host.instance);
+    }
+
+    public boolean stopContainer(String containerName) {
+        return getInstance(containerName)
+                .map(instance -> instance.stopContainer(containerName))
+                .orElse(false);
+    }
+
+    public Optional<DockerLogs> getContainerLogs(String containerName) {
+        return getInstance(containerName)
+                .flatMap(instance -> instance.getContainerLogs(containerName));
+    }
+
+    /**
+     * Remove a container from its host, which no longer counts it in its load.
+     *
+     * @param containerName name of a container run by the pool
+     * @return true if the container was removed, false otherwise
+     */
+    public boolean removeContainer(String containerName) {
+        Host host = containerName != null ? containerHosts.get(containerName) : null;
+        if (host == null) {
+            log.error("No Docker host known for container [name:{}]", containerName);
+            return false;
+        }
+        if (!host.instance.removeContainer(containerName)) {
+            return false;
+        }
+        release(containerName, host);
+        return true;
+    }
+
+    /**
+     * Stop placing new containers on a host. Its containers are still routed to it.
+     *
+     * @param dockerHost endpoint of a host of the pool
+     */
+    public void drain(URI dockerHost) {
+        Host host = getHost(dockerHost);
+        host.isDraining = true;
+        log.info("Draining Docker host [host:{}, containers:{}]", dockerHost, host.containers);
+    }
+
+    /**
+     * Place new containers on a drained host again.
+     *
+     * @param dockerHost endpoint of a host of the pool
+     */
+    public void resume(URI dockerHost) {
+        getHost(dockerHost).isDraining = false;
+        log.info("Resumed Docker host [host:{}]", dockerHost);
+    }
+
+    /**
+     * @param dockerHost endpoint of a host of the pool
+     * @return true if the host is drained and has no container left
+     */
+    public boolean isDrained(URI dockerHost) {
+        Host host = getHost(dockerHost);
+        return host.isDraining && host.containers == 0;
+    }
+
+    /**
+     * @param dockerHost endpoint of a host of the pool
+     * @return number of containers of the pool living on the host
+     */
+    public int getLoad(URI dockerHost) {
+        return getHost(dockerHost).containers;
+    }
+
+    Optional<Host> place(String containerName) {
+        lock.lock();
+        try {
+            Host owner = containerHosts.get(containerName);
+            if (owner != null) {
+                return owner.isAvailable() ? Optional.of(owner) : Optional.empty();
+            }
+            Optional<Host> leastLoaded = hosts.values().stream()
+                    .filter(Host::isAvailable)
+                    .min(Comparator.comparingInt(host -> host.containers));
+            leastLoaded.ifPresent(host -> {
+                host.containers++;
+                containerHosts.put(containerName, host);
+                log.info("Placed container on Docker host [name:{}, host:{}, load:{}]",
+                        containerName, host.uri, host.containers);
+            });
+            return leastLoaded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Close the client of each host, containers are left on their host.
+     *
+     * @see DockerClientInstance#close()
+     */
+    @Override
+    public void close() {
+        hosts.values().forEach(host -> host.instance.close());
+    }
+
+    private void release(String containerName, Host host) {
+        lock.lock();
+        try {
+            if (containerHosts.remove(containerName, host)) {
+                host.containers--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Map<URI, DockerClientInstance> createInstances(Collection<URI> dockerHosts) {
+        Map<URI, DockerClientInstance> instances = new LinkedHashMap<>();
+        for (URI dockerHost : dockerHosts) {
+            instances.computeIfAbsent(dockerHost, DockerClientInstance::new);
+        }
+        return instances;
+    }
+
+    private Host getHost(URI dockerHost) {
+        Host host = hosts.get(dockerHost);
+        if (host == null) {
+            throw new IllegalArgumentException("Unknown Docker host: " + dockerHost);
+        }
+        return host;
+    }
+
+    static class Host {
+        private final URI uri;
+        private final DockerClientInstance instance;
+        // written under the lock of the pool
+        private volatile int containers;
+        private volatile boolean isDraining;
+
+        private Host(URI uri, DockerClientInstance instance) {
+            this.uri = uri;
+            this.instance = instance;
+        }
+
+        private boolean isAvailable() {
+            return !isDraining
+                    && instance.getDaemonCircuitBreaker().getState() == DaemonCircuitBreaker.State.CLOSED;
+        }
+    }
+}
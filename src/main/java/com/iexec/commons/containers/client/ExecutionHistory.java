@@ -0,0 +1,305 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.iexec.commons.containers.DockerRunFinalStatus;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only store of the executions of containers, keyed by image ID and command.
+ * <p>
+ * Each run is appended to the file as a fixed-size record, so that recording a run
+ * costs a single small write. The file is replayed on startup into per-key
+ * aggregates: counts, the largest reserved resources and a histogram of durations
+ * with logarithmic buckets, each 5% wider than the previous one. Memory does not
+ * grow with the number of recorded runs and percentiles are read from the
+ * histogram without sorting.
+ */
+@Slf4j
+class ExecutionHistory implements Closeable {
+
+    private static final int MAGIC = 0x69455848;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+    // key, recorded at, duration, status, exit code, CPUs, memory, GPUs
+    static final int RECORD_SIZE = 3 * Long.BYTES + 1 + Integer.BYTES + 2 * Long.BYTES + Integer.BYTES;
+    private static final double LOG_BUCKET_GROWTH = Math.log(1.05);
+
+    private final Path file;
+    // guards the fields below
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, ExecutionStats> statsByKey = new HashMap<>();
+    private long recordCount;
+    private DataOutputStream out;
+
+    ExecutionHistory(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Replay the records of the file and open it for appending. A file of unknown
+     * format is replaced, a partially written last record is dropped. A file which
+     * cannot be read is left untouched.
+     *
+     * @throws IOException if the file cannot be read nor created
+     */
+    void load() throws IOException {
+        lock.lock();
+        try {
+            long validLength;
+            try {
+                validLength = replay();
+            } catch (IOException e) {
+                statsByKey.clear();
+                recordCount = 0;
+                throw e;
+            }
+            if (validLength < 0) {
+                try (DataOutputStream header = new DataOutputStream(Files.newOutputStream(file))) {
+                    header.writeInt(MAGIC);
+                    header.writeInt(VERSION);
+                }
+            } else {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    if (channel.size() > validLength) {
+                        log.warn("Dropping partially written execution record [file:{}]", file);
+                        channel.truncate(validLength);
+                    }
+                }
+            }
+            out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(file, StandardOpenOption.APPEND), RECORD_SIZE));
+            log.info("Loaded execution history [file:{}, records:{}, keys:{}]",
+                    file, recordCount, statsByKey.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Append the execution of a command in an image.
+     *
+     * @param imageId     ID of the image
+     * @param cmd         command of the container
+     * @param finalStatus final status of the run
+     * @param exitCode    exit code of the container
+     * @param duration    execution duration of the container
+     * @param reserved    resources reserved by the container
+     */
+    void record(String imageId, String cmd, DockerRunFinalStatus finalStatus, int exitCode,
+                Duration duration, RunResources reserved) {
+        long key = getKey(imageId, cmd);
+        long durationMillis = Math.max(0, duration.toMillis());
+        lock.lock();
+        try {
+            if (out == null) {
+                throw new IllegalStateException("Execution history is not loaded");
+            }
+            out.writeLong(key);
+            out.writeLong(System.currentTimeMillis());
+            out.writeLong(durationMillis);
+            out.writeByte(finalStatus.ordinal());
+            out.writeInt(exitCode);
+            out.writeLong(reserved.getNanoCpus());
+            out.writeLong(reserved.getMemoryBytes());
+            out.writeInt(reserved.getGpus());
+            out.flush();
+            add(key, finalStatus, durationMillis, reserved);
+        } catch (IOException e) {
+            log.error("Failed to record execution [file:{}, imageId:{}]", file, imageId, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param imageId ID of the image
+     * @param cmd     command of the container
+     * @return the prediction, empty if no successful run of the command is recorded
+     */
+    Optional<ExecutionPrediction> predict(String imageId, String cmd) {
+        lock.lock();
+        try {
+            ExecutionStats stats = statsByKey.get(getKey(imageId, cmd));
+            if (stats == null || stats.successfulRuns == 0) {
+                return Optional.empty();
+            }
+            return Optional.of(stats.toPrediction());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long size() {
+        lock.lock();
+        try {
+            return recordCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (out != null) {
+                out.close();
+                out = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the length of the valid records of the file, -1 if it has to be created
+     * or if its format is unknown
+     * @throws IOException if the file cannot be read, it must not be replaced then
+     */
+    private long replay() throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return -1;
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+            if (Files.size(file) < HEADER_SIZE || in.readInt() != MAGIC || in.readInt() != VERSION) {
+                log.warn("Replacing execution history with unknown format [file:{}]", file);
+                return -1;
+            }
+            long recordsToRead = (Files.size(file) - HEADER_SIZE) / RECORD_SIZE;
+            DockerRunFinalStatus[] statuses = DockerRunFinalStatus.values();
+            for (long i = 0; i < recordsToRead; i++) {
+                long key = in.readLong();
+                in.readLong();
+                long durationMillis = in.readLong();
+                int status = in.readUnsignedByte();
+                in.readInt();
+                RunResources reserved = RunResources.builder()
+                        .nanoCpus(in.readLong())
+                        .memoryBytes(in.readLong())
+                        .gpus(in.readInt())
+                        .build();
+                if (status < statuses.length) {
+                    add(key, statuses[status], durationMillis, reserved);
+                }
+            }
+            return HEADER_SIZE + recordsToRead * RECORD_SIZE;
+        }
+    }
+
+    /**
+     * Must be called with the lock held.
+     */
+    private void add(long key, DockerRunFinalStatus finalStatus, long durationMillis, RunResources reserved) {
+        statsByKey.computeIfAbsent(key, k -> new ExecutionStats()).add(finalStatus, durationMillis, reserved);
+        recordCount++;
+    }
+
+    static long getKey(String imageId, String cmd) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest((imageId + "\n" + (cmd != null ? cmd : "")).getBytes(StandardCharsets.UTF_8));
+            long key = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                key = (key << 8) | (hash[i] & 0xFF);
+            }
+            return key;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static int getBucket(long durationMillis) {
+        return (int) Math.ceil(Math.log1p(durationMillis) / LOG_BUCKET_GROWTH);
+    }
+
+    static long getBucketUpperBound(int bucket) {
+        return (long) Math.floor(Math.expm1(bucket * LOG_BUCKET_GROWTH));
+    }
+
+    private static class ExecutionStats {
+        private long successfulRuns;
+        private long failedRuns;
+        private long timedOutRuns;
+        private long maxDurationMillis;
+        // successful runs by duration bucket
+        private long[] durationBuckets = new long[0];
+        private RunResources maxReserved = RunResources.NONE;
+
+        private void add(DockerRunFinalStatus finalStatus, long durationMillis, RunResources reserved) {
+            switch (finalStatus) {
+                case SUCCESS -> {
+                    successfulRuns++;
+                    int bucket = getBucket(durationMillis);
+                    if (bucket >= durationBuckets.length) {
+                        long[] grown = new long[bucket + 1];
+                        System.arraycopy(durationBuckets, 0, grown, 0, durationBuckets.length);
+                        durationBuckets = grown;
+                    }
+                    durationBuckets[bucket]++;
+                    maxDurationMillis = Math.max(maxDurationMillis, durationMillis);
+                }
+                case TIMEOUT -> timedOutRuns++;
+                default -> failedRuns++;
+            }
+            maxReserved = RunResources.builder()
+                    .nanoCpus(Math.max(maxReserved.getNanoCpus(), reserved.getNanoCpus()))
+                    .memoryBytes(Math.max(maxReserved.getMemoryBytes(), reserved.getMemoryBytes()))
+                    .gpus(Math.max(maxReserved.getGpus(), reserved.getGpus()))
+                    .build();
+        }
+
+        private Duration getPercentile(double percentile) {
+            long rank = Math.max(1, (long) Math.ceil(percentile * successfulRuns));
+            long cumulated = 0;
+            for (int bucket = 0; bucket < durationBuckets.length; bucket++) {
+                cumulated += durationBuckets[bucket];
+                if (cumulated >= rank) {
+                    return Duration.ofMillis(Math.min(getBucketUpperBound(bucket), maxDurationMillis));
+                }
+            }
+            return Duration.ofMillis(maxDurationMillis);
+        }
+
+        private ExecutionPrediction toPrediction() {
+            return ExecutionPrediction.builder()
+                    .successfulRuns(successfulRuns)
+                    .failedRuns(failedRuns)
+                    .timedOutRuns(timedOutRuns)
+                    .medianDuration(getPercentile(0.5))
+                    .p95Duration(getPercentile(0.95))
+                    .maxDuration(Duration.ofMillis(maxDurationMillis))
+                    .maxReserved(maxReserved)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+/**
+ * Threads running the asynchronous methods of a {@link DockerClientInstance}.
+ */
+public enum ExecutionMode {
+    /**
+     * Daemon platform threads, created on demand and reused.
+     */
+    PLATFORM_THREADS,
+    /**
+     * One virtual thread per call, blocking waits release their carrier thread.
+     */
+    VIRTUAL_THREADS
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Expected execution of a command in an image, computed from the runs recorded in
+ * the execution history of a {@link DockerClientInstance}.
+ * <p>
+ * Durations are those of successful runs, within 5% of the recorded durations.
+ * Timed out runs are only counted, their actual duration is unknown.
+ */
+@Value
+@Builder
+public class ExecutionPrediction {
+    long successfulRuns;
+    long failedRuns;
+    long timedOutRuns;
+    Duration medianDuration;
+    Duration p95Duration;
+    Duration maxDuration;
+    /**
+     * Largest resources reserved by a recorded run, as read from its host config.
+     */
+    RunResources maxReserved;
+
+    public long getRecordedRuns() {
+        return successfulRuns + failedRuns + timedOutRuns;
+    }
+
+    /**
+     * @return the share of recorded runs which did not succeed
+     */
+    public double getFailureRate() {
+        long recordedRuns = getRecordedRuns();
+        return recordedRuns == 0 ? 0 : (double) (failedRuns + timedOutRuns) / recordedRuns;
+    }
+}
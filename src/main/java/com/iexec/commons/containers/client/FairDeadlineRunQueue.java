@@ -0,0 +1,162 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Earliest-deadline-first ordering of the runs of a requester, weighted fair
+ * sharing between requesters, and starvation protection.
+ * <p>
+ * Each requester has a virtual time, increased by the max execution time of each
+ * of its admitted runs divided by its weight. The requester with the lowest virtual
+ * time is served first, so that requesters get resources in proportion to their
+ * weights whatever the number of runs they submit. A requester keeps its virtual
+ * time while it has no queued run, and starts again at the lowest virtual time of
+ * the active requesters if it is behind: it is charged for the runs it got, even
+ * one at a time, but does not get credit for the time it was idle. Runs of a
+ * requester are admitted by earliest deadline, runs without deadline last.
+ * <p>
+ * A run waiting longer than the starvation threshold is admitted before any other
+ * run and, while it does not fit, no other run is admitted so that resources are
+ * freed for it.
+ */
+public class FairDeadlineRunQueue implements RunQueue {
+
+    /**
+     * Cost of a run without max execution time.
+     */
+    static final long DEFAULT_RUN_COST = Duration.ofMinutes(1).toMillis();
+    private static final Comparator<QueuedRun> EARLIEST_DEADLINE_FIRST = Comparator
+            .comparing(QueuedRun::getDeadline, Comparator.nullsLast(Comparator.<Instant>naturalOrder()))
+            .thenComparingLong(QueuedRun::getSequence);
+
+    private final Duration starvationThreshold;
+    private final Map<String, Integer> weights = new ConcurrentHashMap<>();
+    private final Map<String, List<QueuedRun>> runsByRequester = new HashMap<>();
+    // of active requesters and of idle requesters ahead of the active ones
+    private final Map<String, Double> virtualTimes = new HashMap<>();
+    // virtual time of the last admitted run, the floor while no requester is active
+    private double lastStartVirtualTime;
+    private int size;
+
+    /**
+     * @param starvationThreshold waiting time after which a run is admitted first
+     */
+    public FairDeadlineRunQueue(Duration starvationThreshold) {
+        if (starvationThreshold == null || starvationThreshold.isNegative()) {
+            throw new IllegalArgumentException("Starvation threshold must not be negative");
+        }
+        this.starvationThreshold = starvationThreshold;
+    }
+
+    /**
+     * Set the share of a requester, relative to other requesters. The default weight
+     * is 1.
+     *
+     * @param requester requester of runs
+     * @param weight    positive weight
+     */
+    public void setWeight(String requester, int weight) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("Weight must be positive");
+        }
+        weights.put(requester, weight);
+    }
+
+    @Override
+    public void add(QueuedRun run) {
+        List<QueuedRun> runs = runsByRequester.get(run.getRequester());
+        if (runs == null) {
+            double minVirtualTime = getMinActiveVirtualTime();
+            // idle requesters behind the active ones would start at the minimum anyway
+            virtualTimes.entrySet().removeIf(entry -> !runsByRequester.containsKey(entry.getKey())
+                    && !entry.getKey().equals(run.getRequester())
+                    && entry.getValue() <= minVirtualTime);
+            virtualTimes.merge(run.getRequester(), minVirtualTime, Math::max);
+            runs = new ArrayList<>();
+            runsByRequester.put(run.getRequester(), runs);
+        }
+        runs.add(run);
+        runs.sort(EARLIEST_DEADLINE_FIRST);
+        size++;
+    }
+
+    @Override
+    public boolean remove(QueuedRun run) {
+        List<QueuedRun> runs = runsByRequester.get(run.getRequester());
+        if (runs == null || !runs.remove(run)) {
+            return false;
+        }
+        size--;
+        if (runs.isEmpty()) {
+            runsByRequester.remove(run.getRequester());
+        }
+        return true;
+    }
+
+    @Override
+    public Optional<QueuedRun> poll(Predicate<QueuedRun> fits) {
+        Optional<QueuedRun> starvingRun = runsByRequester.values().stream()
+                .flatMap(List::stream)
+                .filter(run -> run.getWaitTime().compareTo(starvationThreshold) > 0)
+                .min(Comparator.comparingLong(QueuedRun::getSequence));
+        if (starvingRun.isPresent()) {
+            return fits.test(starvingRun.get()) ? admit(starvingRun.get()) : Optional.empty();
+        }
+        List<String> requesters = new ArrayList<>(runsByRequester.keySet());
+        requesters.sort(Comparator.comparingDouble((String requester) -> virtualTimes.get(requester))
+                .thenComparing(requester -> runsByRequester.get(requester).get(0), EARLIEST_DEADLINE_FIRST));
+        for (String requester : requesters) {
+            for (QueuedRun run : runsByRequester.get(requester)) {
+                if (fits.test(run)) {
+                    return admit(run);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    double getVirtualTime(String requester) {
+        return virtualTimes.getOrDefault(requester, 0d);
+    }
+
+    private Optional<QueuedRun> admit(QueuedRun run) {
+        String requester = run.getRequester();
+        long cost = run.getMaxExecutionTime() > 0 ? run.getMaxExecutionTime() : DEFAULT_RUN_COST;
+        lastStartVirtualTime = virtualTimes.get(requester);
+        virtualTimes.put(requester, lastStartVirtualTime + (double) cost / weights.getOrDefault(requester, 1));
+        remove(run);
+        return Optional.of(run);
+    }
+
+    private double getMinActiveVirtualTime() {
+        return runsByRequester.keySet().stream()
+                .mapToDouble(virtualTimes::get)
+                .min()
+                .orElse(lastStartVirtualTime);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Admits runs in arrival order, a run which does not fit yet lets smaller runs
+ * behind it be admitted.
+ */
+public class FifoRunQueue implements RunQueue {
+
+    private final Deque<QueuedRun> runs = new ArrayDeque<>();
+
+    @Override
+    public void add(QueuedRun run) {
+        runs.add(run);
+    }
+
+    @Override
+    public boolean remove(QueuedRun run) {
+        return runs.remove(run);
+    }
+
+    @Override
+    public Optional<QueuedRun> poll(Predicate<QueuedRun> fits) {
+        Iterator<QueuedRun> iterator = runs.iterator();
+        while (iterator.hasNext()) {
+            QueuedRun run = iterator.next();
+            if (fits.test(run)) {
+                iterator.remove();
+                return Optional.of(run);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public int size() {
+        return runs.size();
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.github.dockerjava.transport.DockerHttpClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link DockerHttpClient} decorator applying the circuit breaker, the admission
+ * control and the operation deadline of a {@link DockerClientInstance} to every
+ * request sent to the daemon.
+ * <p>
+ * Requests fail immediately while the circuit is open. A request throwing before
+ * any response is received counts as a daemon failure, any response as a success.
+ * <p>
+ * A request sent within an {@link OperationDeadline} is aborted, waiting for
+ * admission or for the daemon, once the deadline is reached. Aborted requests are
+ * not daemon failures. Such a request is sent from a virtual thread, interrupted
+ * along with the caller: interrupting a virtual thread blocked on a socket closes
+ * the socket, for the unix socket channel as for the blocking {@link java.net.Socket}
+ * of tcp:// hosts, which ignores the interruption of a platform thread. The deadline
+ * covers the request until its response headers are received, a response body is
+ * read by the caller.
+ * <p>
+ * GET and HEAD requests are reads, other requests are mutating calls. A permit is
+ * held until the response headers are received, which is when the daemon has done
+ * the work of most calls. Image pulls stream their progress and hold their permit
+ * until the response is closed, so that the number of concurrent pulls is bounded.
+ */
+class GuardedDockerHttpClient implements DockerHttpClient {
+
+    private static final ThreadFactory REQUEST_THREADS = Thread.ofVirtual().name("docker-request-", 0).factory();
+
+    private final DockerHttpClient delegate;
+    private final AdmissionLimiter admissionLimiter;
+    private final DaemonCircuitBreaker circuitBreaker;
+    private final TimingWheel deadlineWheel;
+
+    GuardedDockerHttpClient(DockerHttpClient delegate, AdmissionLimiter admissionLimiter,
+                            DaemonCircuitBreaker circuitBreaker, TimingWheel deadlineWheel) {
+        this.delegate = delegate;
+        this.admissionLimiter = admissionLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.deadlineWheel = deadlineWheel;
+    }
+
+    @Override
+    public Response execute(Request request) {
+        circuitBreaker.checkAvailable();
+        try (OperationDeadline.Guard deadline = OperationDeadline.guard(deadlineWheel)) {
+            return execute(request, deadline);
+        }
+    }
+
+    private Response execute(Request request, OperationDeadline.Guard deadline) {
+        AdmissionLimiter.CallType callType = getCallType(request);
+        try {
+            admissionLimiter.acquire(callType);
+        } catch (InterruptedException e) {
+            if (deadline.isExpired()) {
+                throw new DockerDeadlineExceededException("Deadline reached while waiting for Docker admission");
+            }
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Docker admission", e);
+        }
+        boolean isReleasedLater = false;
+        try {
+            Response response;
+            CompletableFuture<Response> pendingResponse = new CompletableFuture<>();
+            try {
+                response = deadline.isActive()
+                        ? executeInterruptibly(request, pendingResponse)
+                        : delegate.execute(request);
+            } catch (InterruptedException e) {
+                // the permit is held until the interrupted request is over
+                isReleasedLater = true;
+                pendingResponse.whenComplete((lateResponse, error) -> {
+                    if (lateResponse != null) {
+                        lateResponse.close();
+                    }
+                    admissionLimiter.release(callType);
+                });
+                if (deadline.isExpired()) {
+                    throw new DockerDeadlineExceededException("Deadline reached while waiting for Docker daemon");
+                }
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for Docker daemon", e);
+            } catch (RuntimeException e) {
+                if (deadline.isExpired()) {
+                    throw new DockerDeadlineExceededException("Deadline reached while waiting for Docker daemon", e);
+                }
+                circuitBreaker.recordFailure();
+                throw e;
+            }
+            circuitBreaker.recordSuccess();
+            if (isImagePull(request)) {
+                isReleasedLater = true;
+                return new ReleasingResponse(response, () -> admissionLimiter.release(callType));
+            }
+            return response;
+        } finally {
+            if (!isReleasedLater) {
+                admissionLimiter.release(callType);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    /**
+     * Send a request from a virtual thread, interrupted if the caller is interrupted
+     * while waiting for the response.
+     *
+     * @param pendingResponse completed with the response or the error of the request
+     */
+    private Response executeInterruptibly(Request request, CompletableFuture<Response> pendingResponse)
+            throws InterruptedException {
+        Thread requestThread = REQUEST_THREADS.newThread(() -> {
+            try {
+                pendingResponse.complete(delegate.execute(request));
+            } catch (Throwable e) {
+                pendingResponse.completeExceptionally(e);
+            }
+        });
+        requestThread.start();
+        try {
+            return pendingResponse.get();
+        } catch (InterruptedException e) {
+            requestThread.interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    static AdmissionLimiter.CallType getCallType(Request request) {
+        String method = request.method();
+        return "GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method)
+                ? AdmissionLimiter.CallType.READ
+                : AdmissionLimiter.CallType.MUTATING;
+    }
+
+    private static boolean isImagePull(Request request) {
+        return "POST".equalsIgnoreCase(request.method()) && request.path().contains("/images/create");
+    }
+
+    private static class ReleasingResponse implements Response {
+        private final Response delegate;
+        private final Runnable release;
+        private final AtomicBoolean isReleased = new AtomicBoolean();
+
+        private ReleasingResponse(Response delegate, Runnable release) {
+            this.delegate = delegate;
+            this.release = release;
+        }
+
+        @Override
+        public int getStatusCode() {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public Map<String, List<String>> getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (isReleased.compareAndSet(false, true)) {
+                    release.run();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Allocation of host ports to containers publishing a port, so that concurrent
+ * containers never get the same host port.
+ * <p>
+ * Ports of the range are bits of a bitmap set with compare-and-set, without lock.
+ * Searches start after the last allocated port, so that a released port is not
+ * reused right away. The range must be reserved for this allocator: ports used by
+ * other processes of the host are not detected.
+ */
+@Slf4j
+public final class HostPortAllocator {
+
+    private final int firstPort;
+    private final int portCount;
+    // bit i of the bitmap is set when firstPort + i is allocated
+    private final AtomicLongArray allocatedPorts;
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private final AtomicInteger freePortCount;
+    private final Map<String, Integer> allocations = new ConcurrentHashMap<>();
+
+    /**
+     * @param firstPort first host port of the range
+     * @param lastPort  last host port of the range, included
+     */
+    public HostPortAllocator(int firstPort, int lastPort) {
+        if (firstPort <= 0 || lastPort > 65535 || firstPort > lastPort) {
+            throw new IllegalArgumentException("Invalid host port range [" + firstPort + ", " + lastPort + "]");
+        }
+        this.firstPort = firstPort;
+        this.portCount = lastPort - firstPort + 1;
+        this.allocatedPorts = new AtomicLongArray((portCount + Long.SIZE - 1) / Long.SIZE);
+        this.freePortCount = new AtomicInteger(portCount);
+    }
+
+    /**
+     * Allocate a host port to a container, replacing its previous allocation.
+     *
+     * @param containerName name of the container
+     * @return the allocated port, empty if all ports of the range are allocated
+     */
+    public OptionalInt allocate(String containerName) {
+        release(containerName);
+        int start = Math.floorMod(nextIndex.get(), portCount);
+        for (int offset = 0; offset < portCount; offset++) {
+            int index = (start + offset) % portCount;
+            if (tryAllocate(index)) {
+                nextIndex.set(index + 1);
+                int port = firstPort + index;
+                Integer previous = allocations.put(containerName, port);
+                if (previous != null) {
+                    // concurrent allocation for the same container, keep the last one
+                    releasePort(previous);
+                }
+                return OptionalInt.of(port);
+            }
+        }
+        log.warn("No free host port to publish container port [name:{}, range:{}-{}]",
+                containerName, firstPort, firstPort + portCount - 1);
+        return OptionalInt.empty();
+    }
+
+    /**
+     * Give back the host port of a container, once it is stopped.
+     *
+     * @param containerName name of the container
+     * @return true if a port was allocated to the container, false otherwise
+     */
+    public boolean release(String containerName) {
+        Integer port = allocations.remove(containerName);
+        if (port == null) {
+            return false;
+        }
+        releasePort(port);
+        return true;
+    }
+
+    public OptionalInt getAllocation(String containerName) {
+        Integer port = allocations.get(containerName);
+        return port != null ? OptionalInt.of(port) : OptionalInt.empty();
+    }
+
+    public int getFreePortCount() {
+        return freePortCount.get();
+    }
+
+    private boolean tryAllocate(int index) {
+        int word = index / Long.SIZE;
+        long bit = 1L << (index % Long.SIZE);
+        long current = allocatedPorts.get(word);
+        while ((current & bit) == 0) {
+            long witness = allocatedPorts.compareAndExchange(word, current, current | bit);
+            if (witness == current) {
+                freePortCount.decrementAndGet();
+                return true;
+            }
+            current = witness;
+        }
+        return false;
+    }
+
+    private void releasePort(int port) {
+        int index = port - firstPort;
+        long bit = 1L << (index % Long.SIZE);
+        long previous = allocatedPorts.getAndUpdate(index / Long.SIZE, current -> current & ~bit);
+        if ((previous & bit) != 0) {
+            freePortCount.incrementAndGet();
+        }
+    }
+}
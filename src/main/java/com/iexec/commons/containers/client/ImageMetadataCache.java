@@ -0,0 +1,269 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.github.dockerjava.api.command.InspectImageResponse;
+import com.github.dockerjava.api.model.ContainerConfig;
+import com.github.dockerjava.api.model.Image;
+import com.iexec.commons.containers.ImageMetadata;
+import com.iexec.commons.containers.ImageReference;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * On-disk cache of image inspections keyed by image ID.
+ * <p>
+ * Entries are stored in a compact binary file which is read once on startup and
+ * validated against the images actually present on the daemon. Names are indexed
+ * from the daemon image list, so a tag moved while the worker was stopped is
+ * resolved to its new image.
+ */
+@Slf4j
+class ImageMetadataCache {
+
+    private static final int MAGIC = 0x69455843;
+    private static final int VERSION = 1;
+    // smallest serialized entry: empty id, 5 empty lists, 2 null strings and a size
+    private static final int MIN_ENTRY_BYTES = Short.BYTES + 5 * Integer.BYTES + 2 + Long.BYTES;
+    // smallest serialized list element: empty string
+    private static final int MIN_LIST_ELEMENT_BYTES = Short.BYTES;
+
+    private final Path file;
+    private final Map<String, ImageMetadata> metadataById = new ConcurrentHashMap<>();
+    // repo tag or repo digest (familiar form) to image ID
+    private final Map<String, String> idByName = new ConcurrentHashMap<>();
+    private final ReentrantLock persistLock = new ReentrantLock();
+
+    ImageMetadataCache(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Load the cache file and keep only entries of images still present on the daemon.
+     *
+     * @param presentImages images currently listed by the daemon
+     */
+    void load(Collection<Image> presentImages) {
+        Map<String, Image> presentById = new HashMap<>();
+        presentImages.forEach(image -> presentById.put(image.getId(), image));
+        List<ImageMetadata> stored = read();
+        int dropped = 0;
+        for (ImageMetadata metadata : stored) {
+            if (!presentById.containsKey(metadata.getId())) {
+                dropped++;
+                continue;
+            }
+            metadataById.put(metadata.getId(), metadata);
+        }
+        for (Image image : presentImages) {
+            indexNames(image.getId(), image.getRepoTags());
+            indexNames(image.getId(), image.getRepoDigests());
+        }
+        log.info("Loaded image metadata cache [file:{}, entries:{}, dropped:{}]",
+                file, metadataById.size(), dropped);
+        if (dropped > 0) {
+            persist();
+        }
+    }
+
+    Optional<ImageMetadata> get(ImageReference imageReference) {
+        String id = idByName.get(getIndexKey(imageReference));
+        return id != null ? Optional.ofNullable(metadataById.get(id)) : Optional.empty();
+    }
+
+    void put(ImageMetadata metadata) {
+        metadataById.put(metadata.getId(), metadata);
+        metadata.getRepoTags().forEach(name -> idByName.put(name, metadata.getId()));
+        metadata.getRepoDigests().forEach(name -> idByName.put(name, metadata.getId()));
+        persist();
+    }
+
+    void remove(ImageReference imageReference) {
+        String id = idByName.remove(getIndexKey(imageReference));
+        if (id == null) {
+            return;
+        }
+        if (!idByName.containsValue(id)) {
+            metadataById.remove(id);
+        }
+        persist();
+    }
+
+    int size() {
+        return metadataById.size();
+    }
+
+    static ImageMetadata toImageMetadata(InspectImageResponse inspectImageResponse) {
+        ContainerConfig config = inspectImageResponse.getConfig();
+        ImageMetadata.ImageMetadataBuilder builder = ImageMetadata.builder()
+                .id(inspectImageResponse.getId())
+                .repoTags(copyOf(inspectImageResponse.getRepoTags()))
+                .repoDigests(copyOf(inspectImageResponse.getRepoDigests()))
+                .size(inspectImageResponse.getSize() != null ? inspectImageResponse.getSize() : 0L)
+                .created(inspectImageResponse.getCreated());
+        if (config != null) {
+            builder.entrypoint(copyOf(config.getEntrypoint()))
+                    .cmd(copyOf(config.getCmd()))
+                    .env(copyOf(config.getEnv()))
+                    .workingDir(config.getWorkingDir());
+        }
+        return builder.build();
+    }
+
+    private void indexNames(String id, String[] names) {
+        if (names != null) {
+            Arrays.stream(names).forEach(name -> idByName.put(name, id));
+        }
+    }
+
+    private static String getIndexKey(ImageReference imageReference) {
+        return imageReference.hasDigest()
+                ? imageReference.getFamiliarRepository() + "@" + imageReference.getDigest()
+                : imageReference.getFamiliarName();
+    }
+
+    private static List<String> copyOf(List<String> values) {
+        return values != null ? List.copyOf(values) : List.of();
+    }
+
+    private static List<String> copyOf(String[] values) {
+        return values != null ? List.of(values) : List.of();
+    }
+
+    //region serialization
+    private List<ImageMetadata> read() {
+        if (!Files.isRegularFile(file)) {
+            return List.of();
+        }
+        // counts are checked against the bytes left, so a corrupted file cannot
+        // trigger a huge allocation
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                log.warn("Ignoring image metadata cache with unknown format [file:{}]", file);
+                return List.of();
+            }
+            int count = readCount(in, MIN_ENTRY_BYTES);
+            List<ImageMetadata> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                entries.add(ImageMetadata.builder()
+                        .id(in.readUTF())
+                        .repoTags(readList(in))
+                        .repoDigests(readList(in))
+                        .entrypoint(readList(in))
+                        .cmd(readList(in))
+                        .env(readList(in))
+                        .workingDir(readNullableString(in))
+                        .size(in.readLong())
+                        .created(readNullableString(in))
+                        .build());
+            }
+            return entries;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Discarding unreadable image metadata cache [file:{}]", file, e);
+            discard();
+            return List.of();
+        }
+    }
+
+    private void discard() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.error("Error deleting image metadata cache [file:{}]", file, e);
+        }
+    }
+
+    /**
+     * Read a count of serialized elements, checked against the bytes left in the
+     * stream.
+     *
+     * @param minElementBytes smallest serialized size of an element
+     * @throws IOException if the count is negative or exceeds the bytes left
+     */
+    private static int readCount(DataInputStream in, int minElementBytes) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > in.available() / minElementBytes) {
+            throw new IOException("Invalid element count: " + count);
+        }
+        return count;
+    }
+
+    private void persist() {
+        persistLock.lock();
+        try {
+            Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+                List<ImageMetadata> entries = new ArrayList<>(metadataById.values());
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(entries.size());
+                for (ImageMetadata metadata : entries) {
+                    out.writeUTF(metadata.getId());
+                    writeList(out, metadata.getRepoTags());
+                    writeList(out, metadata.getRepoDigests());
+                    writeList(out, metadata.getEntrypoint());
+                    writeList(out, metadata.getCmd());
+                    writeList(out, metadata.getEnv());
+                    writeNullableString(out, metadata.getWorkingDir());
+                    out.writeLong(metadata.getSize());
+                    writeNullableString(out, metadata.getCreated());
+                }
+            }
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Error writing image metadata cache [file:{}]", file, e);
+        } finally {
+            persistLock.unlock();
+        }
+    }
+
+    private static List<String> readList(DataInputStream in) throws IOException {
+        int size = readCount(in, MIN_LIST_ELEMENT_BYTES);
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(in.readUTF());
+        }
+        return List.copyOf(values);
+    }
+
+    private static void writeList(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+    //endregion
+}
@@ -0,0 +1,383 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reference-counted Docker networks, created once and removed lazily.
+ * <p>
+ * A network is created by its first {@link #acquire}, its ID is then cached and
+ * later acquisitions do not reach the daemon. A network no longer used by any
+ * caller is removed in the background once idle for the configured timeout, unless
+ * it is acquired again before.
+ * <p>
+ * Per-task bridge networks are created ahead of time and kept in a pool, so that
+ * isolating the containers of a task in their own network costs no daemon call.
+ * Callers must remove the containers of a task network before releasing it.
+ * <p>
+ * Daemon calls are made without holding the lock of the manager. Concurrent
+ * acquisitions of a network being created wait for its creation, and an
+ * acquisition of a network being removed waits for its removal before creating it
+ * again.
+ */
+@Slf4j
+public final class NetworkManager implements AutoCloseable {
+
+    static final String TASK_NETWORK_PREFIX = "iexec-task-network-";
+
+    private final DockerClientInstance dockerClientInstance;
+    private final NetworkManagerConfig config;
+    // guards the fields below
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, ManagedNetwork> networks = new HashMap<>();
+    private final Deque<String> pooledTaskNetworks = new ArrayDeque<>();
+    // networks being removed from the daemon, completed once removed
+    private final Map<String, CompletableFuture<Void>> removals = new HashMap<>();
+    private boolean isClosed;
+    private final ScheduledExecutorService executor;
+
+    public NetworkManager(DockerClientInstance dockerClientInstance, NetworkManagerConfig config) {
+        this.dockerClientInstance = Objects.requireNonNull(dockerClientInstance);
+        this.config = Objects.requireNonNull(config);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "network-manager");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepPeriodMillis = Math.max(1000L, config.getIdleTimeout().toMillis() / 2);
+        executor.scheduleWithFixedDelay(this::removeIdleNetworks,
+                sweepPeriodMillis, sweepPeriodMillis, TimeUnit.MILLISECONDS);
+        refillTaskPool();
+    }
+
+    /**
+     * Acquire a network, creating it if it is not yet known.
+     *
+     * @param networkName name of the network
+     * @return the ID of the network, an empty string if it cannot be created
+     */
+    public String acquire(String networkName) {
+        if (StringUtils.isBlank(networkName)) {
+            log.error("Invalid docker network name [name:{}]", networkName);
+            return "";
+        }
+        while (true) {
+            ManagedNetwork network;
+            CompletableFuture<Void> removal;
+            boolean isCreator = false;
+            lock.lock();
+            try {
+                removal = removals.get(networkName);
+                network = networks.get(networkName);
+                if (removal == null) {
+                    if (network == null) {
+                        network = new ManagedNetwork(new CompletableFuture<>(), false);
+                        networks.put(networkName, network);
+                        isCreator = true;
+                    }
+                    network.references++;
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (removal != null) {
+                removal.join();
+                continue;
+            }
+            if (isCreator) {
+                create(networkName, network);
+            }
+            return network.id.join();
+        }
+    }
+
+    /**
+     * Release a network acquired by {@link #acquire(String)}. It is removed once
+     * idle for the configured timeout.
+     *
+     * @param networkName name of the network
+     */
+    public void release(String networkName) {
+        lock.lock();
+        try {
+            ManagedNetwork network = networks.get(networkName);
+            if (network == null || network.references == 0) {
+                log.warn("No docker network to release [name:{}]", networkName);
+                return;
+            }
+            network.references--;
+            if (network.references == 0) {
+                network.idleSinceNanos = System.nanoTime();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Acquire a bridge network dedicated to a single task, from the pool when it is
+     * not empty. The pool is refilled in the background.
+     *
+     * @return the name of the network, an empty string if it cannot be created
+     */
+    public String acquireTaskNetwork() {
+        String networkName;
+        lock.lock();
+        try {
+            networkName = pooledTaskNetworks.pollFirst();
+            if (networkName != null) {
+                networks.get(networkName).references++;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (networkName == null) {
+            networkName = createTaskNetwork(false);
+        }
+        refillTaskPool();
+        return networkName;
+    }
+
+    /**
+     * Release a network acquired by {@link #acquireTaskNetwork()}, once the
+     * containers of its task are removed. It goes back to the pool if the pool is
+     * not full.
+     *
+     * @param networkName name of the network
+     */
+    public void releaseTaskNetwork(String networkName) {
+        lock.lock();
+        try {
+            ManagedNetwork network = networks.get(networkName);
+            if (network == null || !network.isTaskNetwork || network.references == 0) {
+                log.warn("No docker task network to release [name:{}]", networkName);
+                return;
+            }
+            network.references--;
+            if (pooledTaskNetworks.size() < config.getTaskPoolSize()) {
+                pooledTaskNetworks.addLast(networkName);
+            } else {
+                network.idleSinceNanos = System.nanoTime();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param networkName name of the network
+     * @return the cached ID of the network if it is acquired or pooled, empty otherwise
+     */
+    public Optional<String> getNetworkId(String networkName) {
+        lock.lock();
+        try {
+            ManagedNetwork network = networks.get(networkName);
+            if (network == null || (network.references == 0 && !pooledTaskNetworks.contains(networkName))) {
+                return Optional.empty();
+            }
+            // empty while the network is being created
+            return Optional.of(network.id.getNow("")).filter(StringUtils::isNotEmpty);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getReferences(String networkName) {
+        lock.lock();
+        try {
+            ManagedNetwork network = networks.get(networkName);
+            return network != null ? network.references : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getPooledTaskNetworkCount() {
+        lock.lock();
+        try {
+            return pooledTaskNetworks.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop the background work and remove the networks not in use, including the
+     * pooled task networks.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        List<String> unusedNetworks = new ArrayList<>();
+        CompletableFuture<Void> removal = new CompletableFuture<>();
+        lock.lock();
+        try {
+            isClosed = true;
+            pooledTaskNetworks.clear();
+            Iterator<Map.Entry<String, ManagedNetwork>> iterator = networks.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, ManagedNetwork> entry = iterator.next();
+                if (entry.getValue().references == 0) {
+                    iterator.remove();
+                    removals.put(entry.getKey(), removal);
+                    unusedNetworks.add(entry.getKey());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        remove(unusedNetworks, removal);
+    }
+
+    void removeIdleNetworks() {
+        long now = System.nanoTime();
+        long idleTimeoutNanos = config.getIdleTimeout().toNanos();
+        List<String> idleNetworks = new ArrayList<>();
+        CompletableFuture<Void> removal = new CompletableFuture<>();
+        lock.lock();
+        try {
+            Iterator<Map.Entry<String, ManagedNetwork>> iterator = networks.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, ManagedNetwork> entry = iterator.next();
+                ManagedNetwork network = entry.getValue();
+                if (network.references == 0
+                        && !pooledTaskNetworks.contains(entry.getKey())
+                        && now - network.idleSinceNanos >= idleTimeoutNanos) {
+                    iterator.remove();
+                    removals.put(entry.getKey(), removal);
+                    idleNetworks.add(entry.getKey());
+                    log.info("Removing idle docker network [name:{}]", entry.getKey());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        remove(idleNetworks, removal);
+    }
+
+    /**
+     * Create a network acquired by {@link #acquire(String)} without holding the lock,
+     * then complete its ID for the callers waiting for it.
+     */
+    private void create(String networkName, ManagedNetwork network) {
+        String networkId = "";
+        try {
+            networkId = dockerClientInstance.createNetwork(networkName);
+        } finally {
+            if (networkId.isEmpty()) {
+                lock.lock();
+                try {
+                    networks.remove(networkName, network);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            network.id.complete(networkId);
+        }
+    }
+
+    /**
+     * Remove networks from the daemon without holding the lock. They must have been
+     * registered in {@link #removals} with the given future, completed once they are
+     * removed.
+     */
+    private void remove(List<String> networkNames, CompletableFuture<Void> removal) {
+        try {
+            networkNames.forEach(dockerClientInstance::removeNetwork);
+        } finally {
+            lock.lock();
+            try {
+                networkNames.forEach(networkName -> removals.remove(networkName, removal));
+            } finally {
+                lock.unlock();
+            }
+            removal.complete(null);
+        }
+    }
+
+    private void refillTaskPool() {
+        try {
+            // a single refill runs at a time on the executor
+            executor.execute(() -> {
+                while (getPooledTaskNetworkCount() < config.getTaskPoolSize()) {
+                    if (createTaskNetwork(true).isEmpty()) {
+                        return;
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Cannot refill docker task network pool");
+        }
+    }
+
+    /**
+     * Create a task network without holding the lock, its name is unique.
+     *
+     * @param isPooled true to add the network to the pool, false to acquire it
+     * @return the name of the created network, an empty string if it cannot be created
+     */
+    private String createTaskNetwork(boolean isPooled) {
+        String networkName = TASK_NETWORK_PREFIX + RandomStringUtils.insecure().nextAlphanumeric(16);
+        String networkId = dockerClientInstance.createNetwork(networkName);
+        if (networkId.isEmpty()) {
+            log.error("Cannot create docker task network [name:{}]", networkName);
+            return "";
+        }
+        ManagedNetwork network = new ManagedNetwork(CompletableFuture.completedFuture(networkId), true);
+        lock.lock();
+        try {
+            // an acquired network is released by its caller, a pooled one by close
+            if (!isClosed || !isPooled) {
+                networks.put(networkName, network);
+                if (isPooled) {
+                    pooledTaskNetworks.addLast(networkName);
+                } else {
+                    network.references++;
+                }
+                return networkName;
+            }
+        } finally {
+            lock.unlock();
+        }
+        dockerClientInstance.removeNetwork(networkName);
+        return "";
+    }
+
+    private static class ManagedNetwork {
+        // completed once the network is created, empty if it cannot be created
+        private final CompletableFuture<String> id;
+        private final boolean isTaskNetwork;
+        private int references;
+        private long idleSinceNanos = System.nanoTime();
+
+        private ManagedNetwork(CompletableFuture<String> id, boolean isTaskNetwork) {
+            this.id = id;
+            this.isTaskNetwork = isTaskNetwork;
+        }
+    }
+}
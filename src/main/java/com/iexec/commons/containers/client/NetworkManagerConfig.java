@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Configuration of a {@link NetworkManager}.
+ */
+@Value
+@Builder
+public class NetworkManagerConfig {
+
+    /**
+     * Number of per-task bridge networks to keep created and unused.
+     */
+    @Builder.Default
+    int taskPoolSize = 4;
+    /**
+     * Networks unused for this duration are removed, except pooled task networks.
+     */
+    @Builder.Default
+    Duration idleTimeout = Duration.ofMinutes(5);
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Deadline of the operation running on the current thread.
+ * <p>
+ * Docker requests sent synchronously by the operation run on the same thread, so
+ * the deadline is kept in a thread local and propagated to every request without
+ * threading it through the docker-java commands. A nested deadline never extends
+ * the enclosing one.
+ */
+final class OperationDeadline {
+
+    private static final ThreadLocal<Long> DEADLINE_NANOS = new ThreadLocal<>();
+
+    private OperationDeadline() {
+    }
+
+    /**
+     * Run an operation which must complete within the given timeout.
+     *
+     * @param timeout   time budget of the operation, no deadline if null
+     * @param operation operation to run on the current thread
+     * @return the result of the operation
+     */
+    static <T> T callWithin(Duration timeout, Supplier<T> operation) {
+        if (timeout == null) {
+            return operation.get();
+        }
+        Long enclosingDeadline = DEADLINE_NANOS.get();
+        long deadline = System.nanoTime() + saturatedNanos(timeout);
+        if (enclosingDeadline != null && enclosingDeadline - deadline < 0) {
+            deadline = enclosingDeadline;
+        }
+        DEADLINE_NANOS.set(deadline);
+        try {
+            return operation.get();
+        } finally {
+            if (enclosingDeadline == null) {
+                DEADLINE_NANOS.remove();
+            } else {
+                DEADLINE_NANOS.set(enclosingDeadline);
+            }
+        }
+    }
+
+    /**
+     * @return time left before the deadline of the current thread, empty if there is
+     * no deadline
+     */
+    static Optional<Duration> remaining() {
+        Long deadline = DEADLINE_NANOS.get();
+        if (deadline == null) {
+            return Optional.empty();
+        }
+        return Optional.of(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())));
+    }
+
+    /**
+     * Interrupt the current thread once its deadline is reached, until the returned
+     * guard is closed. A guarded request waiting for the daemon passes the
+     * interruption to the virtual thread sending it, whose socket is then closed, so
+     * that an expired request does not hold a connection.
+     *
+     * @param wheel timing wheel tracking the deadline
+     * @return a guard to close when the guarded call is over
+     * @throws DockerDeadlineExceededException if the deadline is already reached
+     */
+    static Guard guard(TimingWheel wheel) {
+        Optional<Duration> remaining = remaining();
+        if (remaining.isEmpty()) {
+            return Guard.NONE;
+        }
+        if (remaining.get().isZero()) {
+            throw new DockerDeadlineExceededException("Deadline reached before sending Docker request");
+        }
+        Guard guard = new Guard(Thread.currentThread());
+        guard.timeout = wheel.schedule(guard::expire, remaining.get());
+        return guard;
+    }
+
+    private static long saturatedNanos(Duration duration) {
+        try {
+            return Math.max(0, duration.toNanos());
+        } catch (ArithmeticException e) {
+            return duration.isNegative() ? 0 : Long.MAX_VALUE / 2;
+        }
+    }
+
+    static class Guard implements AutoCloseable {
+        private static final Guard NONE = new Guard(null);
+        private static final int ACTIVE = 0;
+        private static final int INTERRUPTING = 1;
+        private static final int EXPIRED = 2;
+        private static final int CLOSED = 3;
+
+        private final Thread thread;
+        private final AtomicInteger state = new AtomicInteger(ACTIVE);
+        private TimingWheel.Timeout timeout;
+
+        private Guard(Thread thread) {
+            this.thread = thread;
+        }
+
+        /**
+         * @return false if there is no deadline to guard
+         */
+        boolean isActive() {
+            return this != NONE;
+        }
+
+        boolean isExpired() {
+            int currentState = state.get();
+            return currentState == INTERRUPTING || currentState == EXPIRED;
+        }
+
+        private void expire() {
+            if (state.compareAndSet(ACTIVE, INTERRUPTING)) {
+                thread.interrupt();
+                state.set(EXPIRED);
+            }
+        }
+
+        /**
+         * Stop watching the deadline. The interruption raised by an expired deadline
+         * is cleared, it must not leak to the caller.
+         */
+        @Override
+        public void close() {
+            if (this == NONE) {
+                return;
+            }
+            timeout.cancel();
+            if (state.compareAndSet(ACTIVE, CLOSED)) {
+                return;
+            }
+            while (state.get() == INTERRUPTING) {
+                Thread.onSpinWait();
+            }
+            Thread.interrupted();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.github.dockerjava.api.exception.DockerException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Retries Docker operations failing with a transient daemon error, following a
+ * {@link RetryPolicy}.
+ * <p>
+ * Transient errors are 5xx responses and I/O errors (e.g. a connection reset by a
+ * busy daemon). Client errors, an open circuit and a reached deadline are not
+ * retried, and the backoff never goes past the deadline of the operation.
+ * <p>
+ * Only operations which are safe to send again may be retried. An operation whose
+ * previous attempt may have been applied by the daemon before failing, such as a
+ * creation, provides a check run before each retry to find the result of the
+ * previous attempt instead of applying it twice.
+ * <p>
+ * The backoff is spent on the calling thread with its locks held, since these
+ * checks only hold while no other caller can apply the same operation meanwhile.
+ */
+@Slf4j
+final class OperationRetrier {
+
+    private volatile RetryPolicy policy;
+    private final Map<String, LongAdder> retryCounts = new ConcurrentHashMap<>();
+
+    OperationRetrier(RetryPolicy policy) {
+        setPolicy(policy);
+    }
+
+    void setPolicy(RetryPolicy policy) {
+        if (policy == null || policy.getMaxAttempts() < 1) {
+            throw new IllegalArgumentException("Retry policy must allow at least one attempt");
+        }
+        this.policy = policy;
+    }
+
+    RetryPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @return the number of retries by operation since the creation of this retrier
+     */
+    Map<String, Long> getRetryCounts() {
+        return retryCounts.entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> entry.getValue().sum()));
+    }
+
+    /**
+     * Run an operation which can be sent again as is, such as a stop.
+     */
+    void run(String operation, Runnable call) {
+        call(operation, () -> {
+            call.run();
+            return Boolean.TRUE;
+        });
+    }
+
+    /**
+     * Run an operation, checking before each retry whether the previous attempt has
+     * been applied by the daemon.
+     */
+    void run(String operation, Runnable call, BooleanSupplier isPreviousAttemptApplied) {
+        call(operation, () -> {
+            call.run();
+            return Boolean.TRUE;
+        }, () -> isPreviousAttemptApplied.getAsBoolean() ? Optional.of(Boolean.TRUE) : Optional.empty());
+    }
+
+    /**
+     * Call an operation which can be sent again as is, such as a read.
+     */
+    <T> T call(String operation, Supplier<T> call) {
+        return call(operation, call, Optional::empty);
+    }
+
+    /**
+     * Call an operation, checking before each retry whether the previous attempt has
+     * been applied by the daemon.
+     *
+     * @param operation             name of the operation in logs and retry counts
+     * @param call                  one attempt of the operation
+     * @param previousAttemptResult result of a previous attempt if it was applied,
+     *                              empty otherwise
+     * @return the result of the first successful attempt
+     * @throws RuntimeException the error of the last attempt
+     */
+    <T> T call(String operation, Supplier<T> call, Supplier<Optional<T>> previousAttemptResult) {
+        RetryPolicy currentPolicy = policy;
+        int attempt = 1;
+        while (true) {
+            try {
+                return call.get();
+            } catch (RuntimeException e) {
+                if (attempt >= currentPolicy.getMaxAttempts() || !isTransient(e)) {
+                    throw e;
+                }
+                Duration backoff = getBackoff(currentPolicy, attempt);
+                if (!sleepWithinDeadline(backoff)) {
+                    throw e;
+                }
+                attempt++;
+                retryCounts.computeIfAbsent(operation, key -> new LongAdder()).increment();
+                log.warn("Retrying Docker operation after transient error [operation:{}, attempt:{}, error:{}]",
+                        operation, attempt, e.getMessage());
+            }
+            Optional<T> previousResult = previousAttemptResult.get();
+            if (previousResult.isPresent()) {
+                log.info("Previous attempt of Docker operation was applied [operation:{}]", operation);
+                return previousResult.get();
+            }
+        }
+    }
+
+    static boolean isTransient(RuntimeException e) {
+        if (e instanceof DockerDaemonUnavailableException || e instanceof DockerDeadlineExceededException) {
+            return false;
+        }
+        if (e instanceof DockerException dockerException) {
+            return dockerException.getHttpStatus() >= 500;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static Duration getBackoff(RetryPolicy policy, int attempt) {
+        long maxBackoffMillis = policy.getMaxBackoff().toMillis();
+        long backoffMillis = policy.getInitialBackoff().toMillis() << Math.min(attempt - 1, 30);
+        if (backoffMillis < 0 || backoffMillis > maxBackoffMillis) {
+            backoffMillis = maxBackoffMillis;
+        }
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(backoffMillis / 2, backoffMillis + 1));
+    }
+
+    /**
+     * @return false if the backoff would go past the deadline of the operation or
+     * the thread is interrupted
+     */
+    private static boolean sleepWithinDeadline(Duration backoff) {
+        Optional<Duration> remaining = OperationDeadline.remaining();
+        if (remaining.isPresent() && remaining.get().compareTo(backoff) <= 0) {
+            return false;
+        }
+        try {
+            Thread.sleep(backoff);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
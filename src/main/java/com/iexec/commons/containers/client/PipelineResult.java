@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.iexec.commons.containers.DockerRunResponse;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Result of a task run through a {@link StagedPipeline}.
+ */
+@Value
+public class PipelineResult {
+
+    String taskId;
+    /**
+     * Response of each stage run for the task, in stage order. Stages after a
+     * failed stage are not run.
+     */
+    Map<String, DockerRunResponse> responses;
+    /**
+     * Time spent by the task waiting for each stage run for it.
+     */
+    Map<String, Duration> queueWaits;
+    /**
+     * Duration of each stage run for the task.
+     */
+    Map<String, Duration> runDurations;
+    boolean isSuccessful;
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.iexec.commons.containers.DockerRunRequest;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * A stage of a {@link StagedPipeline}, e.g. the pre-compute, the app or the
+ * post-compute of tasks.
+ */
+@Value
+@Builder
+public class PipelineStage {
+
+    /**
+     * Creates the container of the stage for a task.
+     */
+    @FunctionalInterface
+    public interface RequestFactory {
+        /**
+         * @param taskId        ID of the task
+         * @param handOffVolume name of the volume shared by all stages of the task,
+         *                      to mount in the container to read the outputs of the
+         *                      previous stage and to write its own outputs
+         * @return the config of the container of the stage
+         */
+        DockerRunRequest create(String taskId, String handOffVolume);
+    }
+
+    String name;
+    RequestFactory requestFactory;
+    /**
+     * Containers of the stage running at the same time.
+     */
+    @Builder.Default
+    int concurrency = 1;
+    /**
+     * Tasks waiting for the stage. Once full, the previous stage waits before
+     * handing off its tasks, and so on up to the submission of new tasks.
+     */
+    @Builder.Default
+    int queueCapacity = 1;
+}
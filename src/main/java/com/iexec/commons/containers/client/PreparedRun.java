@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.iexec.commons.containers.DockerRunRequest;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * A run whose image, network, volumes and container are ready, see
+ * {@link DockerClientInstance#prepare(DockerRunRequest)}. Its container only has to
+ * be started by {@link DockerClientInstance#runPrepared(PreparedRun)}.
+ */
+@Getter
+public final class PreparedRun {
+
+    private final DockerRunRequest dockerRunRequest;
+    /**
+     * False if the preparation failed, in which case nothing is left to clean up.
+     */
+    private final boolean prepared;
+    @Getter(AccessLevel.NONE)
+    final Duration phaseTimeout;
+    @Getter(AccessLevel.NONE)
+    final boolean isPinned;
+    /**
+     * Host port publishing the container port, 0 if it is not published.
+     */
+    private final int hostPort;
+
+    PreparedRun(DockerRunRequest dockerRunRequest, boolean prepared, Duration phaseTimeout, boolean isPinned) {
+        this(dockerRunRequest, prepared, phaseTimeout, isPinned, 0);
+    }
+
+    PreparedRun(DockerRunRequest dockerRunRequest, boolean prepared, Duration phaseTimeout, boolean isPinned,
+                int hostPort) {
+        this.dockerRunRequest = dockerRunRequest;
+        this.prepared = prepared;
+        this.phaseTimeout = phaseTimeout;
+        this.isPinned = isPinned;
+        this.hostPort = hostPort;
+    }
+
+    public String getContainerName() {
+        return dockerRunRequest.getContainerName();
+    }
+}
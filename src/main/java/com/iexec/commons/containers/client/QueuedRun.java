@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.iexec.commons.containers.DockerRunRequest;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link DockerRunRequest} waiting in a {@link RunQueue} for resources.
+ */
+@Getter
+public final class QueuedRun {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final String containerName;
+    /**
+     * Requester of the run, empty if unknown.
+     */
+    private final String requester;
+    /**
+     * Date by which the run must be completed, null if none.
+     */
+    private final Instant deadline;
+    private final long maxExecutionTime;
+    /**
+     * Priority of the run, higher is more urgent.
+     */
+    private final int priority;
+    private final RunResources demand;
+    /**
+     * Arrival order of the run.
+     */
+    private final long sequence = SEQUENCE.getAndIncrement();
+    private final long enqueuedNanos = System.nanoTime();
+    @Getter(AccessLevel.NONE)
+    final CountDownLatch admission = new CountDownLatch(1);
+
+    QueuedRun(DockerRunRequest dockerRunRequest, RunResources demand) {
+        this.containerName = dockerRunRequest.getContainerName();
+        this.requester = dockerRunRequest.getRequester() != null ? dockerRunRequest.getRequester() : "";
+        this.deadline = dockerRunRequest.getDeadline();
+        this.maxExecutionTime = dockerRunRequest.getMaxExecutionTime();
+        this.priority = dockerRunRequest.getPriority();
+        this.demand = demand;
+    }
+
+    public Duration getWaitTime() {
+        return Duration.ofNanos(System.nanoTime() - enqueuedNanos);
+    }
+
+    /**
+     * @return true if the run can no longer complete before its deadline when
+     * started now
+     */
+    public boolean isLate() {
+        return deadline != null
+                && Instant.now().plusMillis(Math.max(0, maxExecutionTime)).isAfter(deadline);
+    }
+}
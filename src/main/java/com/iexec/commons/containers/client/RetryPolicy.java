@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Retries of a {@link DockerClientInstance} on transient daemon errors.
+ * <p>
+ * The n-th retry waits a random delay between half and all of
+ * {@code min(maxBackoff, initialBackoff * 2^(n-1))}. Set {@code maxAttempts} to 1
+ * to disable retries.
+ */
+@Value
+@Builder
+public class RetryPolicy {
+
+    /**
+     * Maximum number of attempts of an operation, first attempt included.
+     */
+    @Builder.Default
+    int maxAttempts = 3;
+    /**
+     * Backoff before the first retry.
+     */
+    @Builder.Default
+    Duration initialBackoff = Duration.ofMillis(100);
+    /**
+     * Upper bound of the backoff between two attempts.
+     */
+    @Builder.Default
+    Duration maxBackoff = Duration.ofSeconds(2);
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Ordering of the runs waiting for resources in a {@link RunScheduler}.
+ * <p>
+ * Implementations are called with the lock of the scheduler held and need no
+ * synchronization of their own.
+ */
+public interface RunQueue {
+
+    void add(QueuedRun run);
+
+    /**
+     * @return true if the run was waiting in the queue
+     */
+    boolean remove(QueuedRun run);
+
+    /**
+     * Remove the next run to admit. A queue may return no run although some fit,
+     * e.g. to keep resources for a starving run.
+     *
+     * @param fits whether the demand of a run fits in the resources left
+     * @return the next run to admit, empty if no run may be admitted now
+     */
+    Optional<QueuedRun> poll(Predicate<QueuedRun> fits);
+
+    int size();
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.github.dockerjava.api.model.DeviceRequest;
+import com.github.dockerjava.api.model.HostConfig;
+import com.github.dockerjava.api.model.Info;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Amount of host resources, either the capacity of a Docker host or the demand of
+ * a container.
+ */
+@Value
+@Builder
+public class RunResources {
+
+    public static final RunResources NONE = RunResources.builder().build();
+    static final long NANO_CPUS_PER_CPU = 1_000_000_000L;
+
+    /**
+     * CPUs in billionths of a CPU, as {@link HostConfig#getNanoCPUs()}.
+     */
+    @Builder.Default
+    long nanoCpus = 0;
+    @Builder.Default
+    long memoryBytes = 0;
+    @Builder.Default
+    int gpus = 0;
+
+    /**
+     * Capacity of a Docker host as reported by {@code docker info}. GPUs are not
+     * reported by the daemon.
+     *
+     * @param info response of the info command
+     * @return the CPUs and memory of the host
+     */
+    public static RunResources of(Info info) {
+        return RunResources.builder()
+                .nanoCpus(info.getNCPU() != null ? info.getNCPU() * NANO_CPUS_PER_CPU : 0)
+                .memoryBytes(info.getMemTotal() != null ? info.getMemTotal() : 0)
+                .build();
+    }
+
+    /**
+     * Demand of a container, read from the limits of its {@link HostConfig}.
+     * A resource without limit has no demand.
+     *
+     * @param hostConfig host config of the container
+     * @param capacity   capacity of the host, for requests of all GPUs
+     * @return the resources reserved by the container
+     */
+    public static RunResources of(HostConfig hostConfig, RunResources capacity) {
+        if (hostConfig == null) {
+            return NONE;
+        }
+        long nanoCpus = 0;
+        if (hostConfig.getNanoCPUs() != null && hostConfig.getNanoCPUs() > 0) {
+            nanoCpus = hostConfig.getNanoCPUs();
+        } else if (hostConfig.getCpuQuota() != null && hostConfig.getCpuQuota() > 0
+                && hostConfig.getCpuPeriod() != null && hostConfig.getCpuPeriod() > 0) {
+            nanoCpus = hostConfig.getCpuQuota() * NANO_CPUS_PER_CPU / hostConfig.getCpuPeriod();
+        }
+        long memoryBytes = hostConfig.getMemory() != null && hostConfig.getMemory() > 0
+                ? hostConfig.getMemory()
+                : 0;
+        return RunResources.builder()
+                .nanoCpus(nanoCpus)
+                .memoryBytes(memoryBytes)
+                .gpus(getGpus(hostConfig.getDeviceRequests(), capacity))
+                .build();
+    }
+
+    private static int getGpus(List<DeviceRequest> deviceRequests, RunResources capacity) {
+        if (deviceRequests == null) {
+            return 0;
+        }
+        int gpus = 0;
+        for (DeviceRequest deviceRequest : deviceRequests) {
+            boolean isGpuRequest = deviceRequest.getCapabilities() != null
+                    && deviceRequest.getCapabilities().stream().anyMatch(capabilities -> capabilities.contains("gpu"));
+            if (!isGpuRequest) {
+                continue;
+            }
+            if (deviceRequest.getDeviceIds() != null && !deviceRequest.getDeviceIds().isEmpty()) {
+                gpus += deviceRequest.getDeviceIds().size();
+            } else if (deviceRequest.getCount() != null && deviceRequest.getCount() < 0) {
+                // --gpus all
+                gpus += capacity.getGpus();
+            } else if (deviceRequest.getCount() != null) {
+                gpus += deviceRequest.getCount();
+            }
+        }
+        return gpus;
+    }
+
+    public RunResources plus(RunResources other) {
+        return new RunResources(nanoCpus + other.nanoCpus, memoryBytes + other.memoryBytes, gpus + other.gpus);
+    }
+
+    public RunResources minus(RunResources other) {
+        return new RunResources(nanoCpus - other.nanoCpus, memoryBytes - other.memoryBytes, gpus - other.gpus);
+    }
+
+    /**
+     * @param available resources left on a host
+     * @return true if these resources fit in the available ones
+     */
+    public boolean fitsIn(RunResources available) {
+        return nanoCpus <= available.nanoCpus
+                && memoryBytes <= available.memoryBytes
+                && gpus <= available.gpus;
+    }
+}
@@ -0,0 +1,542 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.github.dockerjava.api.command.InfoCmd;
+import com.iexec.commons.containers.DockerRunFinalStatus;
+import com.iexec.commons.containers.DockerRunRequest;
+import com.iexec.commons.containers.DockerRunResponse;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission of {@link DockerRunRequest}s against the capacity of a Docker host.
+ * <p>
+ * The demand of a run is read from the limits of its host config (CPUs, memory,
+ * GPU device requests, see {@link RunResources}). A run is started only while its
+ * demand fits in the resources left on the host, otherwise it waits in a queue.
+ * Resources are released when an attached run completes. A detached run keeps them
+ * until {@link #release(String)} is called once its container is removed.
+ * <p>
+ * Waiting runs are ordered by a pluggable {@link RunQueue}, in arrival order by
+ * default. Queue waits are reported by {@link #getQueueStats()}.
+ * <p>
+ * When preemption is enabled, a run which does not fit only for lack of CPUs is
+ * started at once by pausing running runs of lower priority, see
+ * {@link DockerRunRequest#getPriority()}. Paused runs free their CPUs but keep
+ * their memory and GPUs, and are resumed as soon as their CPUs are available again,
+ * before waiting runs are admitted. Their paused time does not count in their max
+ * execution time.
+ */
+@Slf4j
+public class RunScheduler {
+
+    private final DockerClientInstance dockerClientInstance;
+    private final RunResources capacity;
+    // guards the fields below
+    private final ReentrantLock lock = new ReentrantLock();
+    private final RunQueue waitingRuns;
+    private final Map<String, Reservation> reservations = new HashMap<>();
+    private RunResources reserved = RunResources.NONE;
+    private final WaitStats waitStats = new WaitStats();
+    private final Map<String, WaitStats> waitStatsByRequester = new HashMap<>();
+    private boolean isPreemptionEnabled;
+
+    /**
+     * Create a scheduler for the host of a client, with the capacity reported by
+     * {@code docker info}.
+     *
+     * @param dockerClientInstance client of the host
+     * @throws IllegalStateException if the capacity of the host cannot be read
+     */
+    public RunScheduler(DockerClientInstance dockerClientInstance) {
+        this(dockerClientInstance, readCapacity(dockerClientInstance));
+    }
+
+    /**
+     * @param dockerClientInstance client of the host
+     * @param capacity             resources of the host usable by runs
+     */
+    public RunScheduler(DockerClientInstance dockerClientInstance, RunResources capacity) {
+        this(dockerClientInstance, capacity, new FifoRunQueue());
+    }
+
+    /**
+     * @param dockerClientInstance client of the host
+     * @param capacity             resources of the host usable by runs
+     * @param runQueue             ordering of the runs waiting for resources, e.g. a
+     *                             {@link FairDeadlineRunQueue}
+     */
+    public RunScheduler(DockerClientInstance dockerClientInstance, RunResources capacity, RunQueue runQueue) {
+        this.dockerClientInstance = Objects.requireNonNull(dockerClientInstance);
+        this.capacity = Objects.requireNonNull(capacity);
+        this.waitingRuns = Objects.requireNonNull(runQueue);
+    }
+
+    /**
+     * Run a container once its demand fits in the resources left on the host.
+     *
+     * @param dockerRunRequest config of the run
+     * @return the response of the run, failed if the demand exceeds the capacity of
+     * the host or the thread is interrupted while waiting
+     * @see DockerClientInstance#run(DockerRunRequest)
+     */
+    public DockerRunResponse run(DockerRunRequest dockerRunRequest) {
+        String containerName = dockerRunRequest.getContainerName();
+        RunResources demand = RunResources.of(dockerRunRequest.getHostConfig(), capacity);
+        if (!demand.fitsIn(capacity)) {
+            log.error("Docker run exceeds host capacity [name:{}, demand:{}, capacity:{}]",
+                    containerName, demand, capacity);
+            return getFailedResponse();
+        }
+        try {
+            admit(new QueuedRun(dockerRunRequest, demand));
+        } catch (InterruptedException e) {
+            log.error("Docker run was interrupted while waiting for resources [name:{}]", containerName);
+            Thread.currentThread().interrupt();
+            return getFailedResponse();
+        }
+        DockerRunResponse dockerRunResponse = null;
+        try {
+            dockerRunResponse = dockerClientInstance.run(dockerRunRequest);
+            return dockerRunResponse;
+        } finally {
+            boolean isDetached = dockerRunRequest.getMaxExecutionTime() <= 0
+                    && dockerRunResponse != null
+                    && dockerRunResponse.isSuccessful();
+            if (!isDetached) {
+                release(containerName);
+            }
+        }
+    }
+
+    /**
+     * Release the resources of a detached run, once its container is removed.
+     *
+     * @param containerName name of the container
+     * @return true if resources were reserved for the container, false otherwise
+     */
+    public boolean release(String containerName) {
+        List<Reservation> runsToResume;
+        lock.lock();
+        try {
+            Reservation reservation = reservations.remove(containerName);
+            if (reservation == null) {
+                return false;
+            }
+            reserved = reserved.minus(reservation.getReserved());
+            runsToResume = selectRunsToResume();
+            admitWaitingRuns();
+        } finally {
+            lock.unlock();
+        }
+        resume(runsToResume);
+        return true;
+    }
+
+    /**
+     * Enable or disable the pause of running runs of lower priority to start a run
+     * lacking CPUs. Disabled by default.
+     *
+     * @param isPreemptionEnabled true to enable preemption
+     */
+    public void setPreemptionEnabled(boolean isPreemptionEnabled) {
+        lock.lock();
+        try {
+            this.isPreemptionEnabled = isPreemptionEnabled;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of runs currently paused to free CPUs
+     */
+    public int getPausedRuns() {
+        lock.lock();
+        try {
+            return (int) reservations.values().stream().filter(reservation -> reservation.isPaused).count();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public RunResources getCapacity() {
+        return capacity;
+    }
+
+    public RunResources getAvailable() {
+        lock.lock();
+        try {
+            return capacity.minus(reserved);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the queue waits of all admitted runs
+     */
+    public QueueStats getQueueStats() {
+        lock.lock();
+        try {
+            return waitStats.toQueueStats();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param requester requester of runs, see {@link DockerRunRequest#getRequester()}
+     * @return the queue waits of the admitted runs of the requester
+     */
+    public QueueStats getQueueStats(String requester) {
+        lock.lock();
+        try {
+            return waitStatsByRequester.getOrDefault(requester, new WaitStats()).toQueueStats();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueueLength() {
+        lock.lock();
+        try {
+            return waitingRuns.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void admit(QueuedRun run) throws InterruptedException {
+        String containerName = run.getContainerName();
+        List<Reservation> victims = List.of();
+        lock.lock();
+        try {
+            // a new run of a container name replaces the existing container
+            Reservation replaced = reservations.remove(containerName);
+            if (replaced != null) {
+                reserved = reserved.minus(replaced.getReserved());
+            }
+            waitingRuns.add(run);
+            admitWaitingRuns();
+            if (run.admission.getCount() > 0 && isPreemptionEnabled) {
+                victims = selectVictims(run);
+            }
+            if (run.admission.getCount() > 0 && victims.isEmpty()) {
+                logWaiting(run);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (!victims.isEmpty()) {
+            preempt(run, victims);
+        }
+        try {
+            run.admission.await();
+        } catch (InterruptedException e) {
+            boolean isAdmitted;
+            lock.lock();
+            try {
+                isAdmitted = !waitingRuns.remove(run);
+            } finally {
+                lock.unlock();
+            }
+            if (isAdmitted) {
+                release(containerName);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Must be called with the lock held.
+     */
+    private void logWaiting(QueuedRun run) {
+        log.info("Docker run is waiting for resources [name:{}, demand:{}, available:{}, queueLength:{}]",
+                run.getContainerName(), run.getDemand(), capacity.minus(reserved), waitingRuns.size());
+    }
+
+    /**
+     * Must be called with the lock held.
+     */
+    private void admitWaitingRuns() {
+        Optional<QueuedRun> next;
+        while ((next = waitingRuns.poll(run -> run.getDemand().fitsIn(capacity.minus(reserved)))).isPresent()) {
+            reserve(next.get());
+        }
+    }
+
+    /**
+     * Must be called with the lock held.
+     */
+    private void reserve(QueuedRun run) {
+        reserved = reserved.plus(run.getDemand());
+        reservations.put(run.getContainerName(), new Reservation(run));
+        Duration waitTime = run.getWaitTime();
+        boolean isLate = run.isLate();
+        waitStats.record(waitTime, isLate);
+        waitStatsByRequester.computeIfAbsent(run.getRequester(), requester -> new WaitStats())
+                .record(waitTime, isLate);
+        if (isLate) {
+            log.warn("Docker run admitted too late to meet its deadline [name:{}, deadline:{}, waitTime:{}]",
+                    run.getContainerName(), run.getDeadline(), waitTime);
+        }
+        run.admission.countDown();
+    }
+
+    /**
+     * Select running runs of lower priority than the given run, the lowest priority
+     * and most recently admitted first, until their CPUs cover the missing CPUs of
+     * the run. Nothing is selected if pausing all of them is not enough, or if the
+     * memory or GPUs of the run are not available since pausing does not free them.
+     * Selected runs are marked as transitioning until {@link #preempt} is over.
+     * Must be called with the lock held.
+     *
+     * @param run run lacking resources
+     * @return the runs to pause, empty if preempting them would not admit the run
+     */
+    private List<Reservation> selectVictims(QueuedRun run) {
+        RunResources demand = run.getDemand();
+        RunResources available = capacity.minus(reserved);
+        if (!getNonCpuPart(demand).fitsIn(available)) {
+            return List.of();
+        }
+        long missingNanoCpus = demand.getNanoCpus() - available.getNanoCpus();
+        List<Reservation> victims = new ArrayList<>();
+        long freedNanoCpus = 0;
+        List<Reservation> candidates = reservations.values().stream()
+                .filter(reservation -> !reservation.isPaused
+                        && !reservation.isTransitioning
+                        && reservation.priority < run.getPriority()
+                        && reservation.demand.getNanoCpus() > 0)
+                .sorted(Comparator.comparingInt((Reservation reservation) -> reservation.priority)
+                        .thenComparing(Comparator.comparingLong((Reservation reservation) -> reservation.sequence)
+                                .reversed()))
+                .toList();
+        for (Reservation candidate : candidates) {
+            if (freedNanoCpus >= missingNanoCpus) {
+                break;
+            }
+            victims.add(candidate);
+            freedNanoCpus += candidate.demand.getNanoCpus();
+        }
+        if (freedNanoCpus < missingNanoCpus) {
+            return List.of();
+        }
+        victims.forEach(victim -> victim.isTransitioning = true);
+        return victims;
+    }
+
+    /**
+     * Pause the selected runs without holding the lock, then admit the run if it
+     * fits. If a pause failed, the run waits and the paused runs are resumed.
+     *
+     * @param run     run lacking resources
+     * @param victims runs selected by {@link #selectVictims(QueuedRun)}
+     */
+    private void preempt(QueuedRun run, List<Reservation> victims) {
+        List<Reservation> pausedVictims = victims.stream()
+                .filter(victim -> dockerClientInstance.pauseContainer(victim.containerName))
+                .toList();
+        List<Reservation> runsToResume;
+        lock.lock();
+        try {
+            victims.forEach(victim -> victim.isTransitioning = false);
+            for (Reservation victim : pausedVictims) {
+                // a run released meanwhile holds nothing anymore
+                if (reservations.get(victim.containerName) == victim) {
+                    victim.isPaused = true;
+                    reserved = reserved.minus(getCpuPart(victim.demand));
+                    log.info("Paused docker run for a more urgent run [name:{}, priority:{}, urgentName:{}, urgentPriority:{}]",
+                            victim.containerName, victim.priority, run.getContainerName(), run.getPriority());
+                }
+            }
+            if (run.admission.getCount() > 0
+                    && run.getDemand().fitsIn(capacity.minus(reserved))
+                    && waitingRuns.remove(run)) {
+                reserve(run);
+            } else if (run.admission.getCount() > 0) {
+                logWaiting(run);
+            }
+            runsToResume = selectRunsToResume();
+            admitWaitingRuns();
+        } finally {
+            lock.unlock();
+        }
+        resume(runsToResume);
+    }
+
+    /**
+     * Select paused runs whose CPUs are available again, the highest priority and
+     * earliest admitted first. Their CPUs are reserved at once and they are marked
+     * as transitioning until {@link #resume(List)} is over.
+     * Must be called with the lock held.
+     *
+     * @return the runs to resume
+     */
+    private List<Reservation> selectRunsToResume() {
+        List<Reservation> pausedRuns = reservations.values().stream()
+                .filter(reservation -> reservation.isPaused && !reservation.isTransitioning)
+                .sorted(Comparator.comparingInt((Reservation reservation) -> reservation.priority).reversed()
+                        .thenComparingLong(reservation -> reservation.sequence))
+                .toList();
+        List<Reservation> runsToResume = new ArrayList<>();
+        for (Reservation pausedRun : pausedRuns) {
+            RunResources cpuPart = getCpuPart(pausedRun.demand);
+            if (cpuPart.fitsIn(capacity.minus(reserved))) {
+                pausedRun.isPaused = false;
+                pausedRun.isTransitioning = true;
+                reserved = reserved.plus(cpuPart);
+                runsToResume.add(pausedRun);
+            }
+        }
+        return runsToResume;
+    }
+
+    /**
+     * Resume runs selected by {@link #selectRunsToResume()} without holding the lock.
+     * Runs which cannot be resumed stay paused and give their CPUs back.
+     */
+    private void resume(List<Reservation> runsToResume) {
+        if (runsToResume.isEmpty()) {
+            return;
+        }
+        List<Reservation> failedRuns = runsToResume.stream()
+                .filter(run -> !dockerClientInstance.unpauseContainer(run.containerName))
+                .toList();
+        lock.lock();
+        try {
+            for (Reservation run : runsToResume) {
+                run.isTransitioning = false;
+                if (!failedRuns.contains(run)) {
+                    log.info("Resumed paused docker run [name:{}, priority:{}]", run.containerName, run.priority);
+                } else if (reservations.get(run.containerName) == run) {
+                    run.isPaused = true;
+                    reserved = reserved.minus(getCpuPart(run.demand));
+                }
+            }
+            if (!failedRuns.isEmpty()) {
+                admitWaitingRuns();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static RunResources getCpuPart(RunResources demand) {
+        return RunResources.builder().nanoCpus(demand.getNanoCpus()).build();
+    }
+
+    private static RunResources getNonCpuPart(RunResources demand) {
+        return demand.minus(getCpuPart(demand));
+    }
+
+    private static RunResources readCapacity(DockerClientInstance dockerClientInstance) {
+        try (InfoCmd infoCmd = dockerClientInstance.getClient().infoCmd()) {
+            RunResources capacity = RunResources.of(infoCmd.exec());
+            log.info("Read Docker host capacity [capacity:{}]", capacity);
+            return capacity;
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to read Docker host capacity", e);
+        }
+    }
+
+    private static DockerRunResponse getFailedResponse() {
+        return DockerRunResponse.builder()
+                .finalStatus(DockerRunFinalStatus.FAILED)
+                .containerExitCode(-1)
+                .build();
+    }
+
+    /**
+     * Queue waits of admitted runs.
+     */
+    @Value
+    public static class QueueStats {
+        long admittedRuns;
+        /**
+         * Runs admitted when they could no longer complete before their deadline.
+         */
+        long lateAdmissions;
+        Duration totalWait;
+        Duration maxWait;
+
+        public Duration getAverageWait() {
+            return admittedRuns == 0 ? Duration.ZERO : totalWait.dividedBy(admittedRuns);
+        }
+    }
+
+    /**
+     * Resources reserved by an admitted run. Must be accessed with the lock held.
+     */
+    private static class Reservation {
+        private final String containerName;
+        private final RunResources demand;
+        private final int priority;
+        private final long sequence;
+        private boolean isPaused;
+        // a pause or a resume is in progress, outside of the lock
+        private boolean isTransitioning;
+
+        private Reservation(QueuedRun run) {
+            this.containerName = run.getContainerName();
+            this.demand = run.getDemand();
+            this.priority = run.getPriority();
+            this.sequence = run.getSequence();
+        }
+
+        /**
+         * @return the resources held, a paused run holds no CPUs
+         */
+        private RunResources getReserved() {
+            return isPaused ? getNonCpuPart(demand) : demand;
+        }
+    }
+
+    private static class WaitStats {
+        private long admittedRuns;
+        private long lateAdmissions;
+        private Duration totalWait = Duration.ZERO;
+        private Duration maxWait = Duration.ZERO;
+
+        private void record(Duration waitTime, boolean isLate) {
+            admittedRuns++;
+            if (isLate) {
+                lateAdmissions++;
+            }
+            totalWait = totalWait.plus(waitTime);
+            if (waitTime.compareTo(maxWait) > 0) {
+                maxWait = waitTime;
+            }
+        }
+
+        private QueueStats toQueueStats() {
+            return new QueueStats(admittedRuns, lateAdmissions, totalWait, maxWait);
+        }
+    }
+}
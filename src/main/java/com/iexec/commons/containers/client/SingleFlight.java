@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical calls of an idempotent read.
+ * <p>
+ * The first caller of a key runs the read, callers arriving while it is in flight
+ * wait for and share its result. With a positive TTL, a result is also reused by
+ * calls arriving shortly after, until it expires or is invalidated by a write.
+ *
+ * @param <K> key identifying identical calls
+ * @param <V> result of the read
+ */
+final class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlightCalls = new ConcurrentHashMap<>();
+    private final Map<K, Result<V>> recentResults = new ConcurrentHashMap<>();
+    private volatile long ttlNanos;
+
+    /**
+     * @param ttl duration a result is reused for, zero to only share in-flight calls
+     */
+    void setTtl(Duration ttl) {
+        if (ttl == null || ttl.isNegative()) {
+            throw new IllegalArgumentException("TTL must be positive or zero");
+        }
+        this.ttlNanos = ttl.toNanos();
+        if (ttlNanos == 0) {
+            recentResults.clear();
+        }
+    }
+
+    /**
+     * Run the read, or join the identical call in flight.
+     *
+     * @param key  key of the call
+     * @param read read to run if no identical call is in flight
+     * @return the result of the read
+     */
+    V execute(K key, Supplier<V> read) {
+        long ttl = ttlNanos;
+        if (ttl > 0) {
+            Result<V> result = recentResults.get(key);
+            if (result != null && System.nanoTime() - result.getCompletedAtNanos() < ttl) {
+                return result.getValue();
+            }
+        }
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> inFlightCall = inFlightCalls.putIfAbsent(key, call);
+        if (inFlightCall != null) {
+            return join(inFlightCall);
+        }
+        try {
+            V value = read.get();
+            if (ttl > 0) {
+                // atomic with invalidate, a result read before a write is never kept
+                inFlightCalls.computeIfPresent(key, (k, registeredCall) -> {
+                    if (registeredCall == call) {
+                        recentResults.put(key, new Result<>(value, System.nanoTime()));
+                    }
+                    return registeredCall;
+                });
+            }
+            call.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightCalls.remove(key, call);
+        }
+    }
+
+    /**
+     * Forget the reusable result of a key after a write, the next call reads again
+     * instead of joining a call started before the write.
+     */
+    void invalidate(K key) {
+        if (key == null) {
+            return;
+        }
+        inFlightCalls.remove(key);
+        recentResults.remove(key);
+    }
+
+    private static <V> V join(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    @Value
+    private static class Result<V> {
+        V value;
+        long completedAtNanos;
+    }
+}
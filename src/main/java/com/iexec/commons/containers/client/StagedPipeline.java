@@ -0,0 +1,426 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.iexec.commons.containers.DockerRunFinalStatus;
+import com.iexec.commons.containers.DockerRunRequest;
+import com.iexec.commons.containers.DockerRunResponse;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Assembly line of container stages, e.g. pre-compute, app and post-compute.
+ * <p>
+ * Each stage has its own workers and its own bounded queue of tasks. A task is run
+ * by a worker of a stage, then handed off to the queue of the next stage, so that
+ * stages of different tasks overlap: while a task is in the post-compute stage, the
+ * next one is in the app stage. The stages of a task share a volume created when
+ * the task is submitted and removed once its last stage is over. A task is not run
+ * by the stages following a failed stage.
+ * <p>
+ * Queues provide backpressure: a worker waits for room in the queue of the next
+ * stage before taking another task, and {@link #submit(String)} waits for room in
+ * the queue of the first stage. Stage timings are reported by {@link #getStageStats()}.
+ */
+@Slf4j
+public class StagedPipeline implements AutoCloseable {
+
+    // period at which waiting workers and submissions check whether the pipeline is closed
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+    // period at which close stops the containers of the runs still in progress
+    private static final Duration STOP_INTERVAL = Duration.ofSeconds(1);
+
+    private final String name;
+    private final DockerClientInstance dockerClientInstance;
+    private final List<Stage> stages = new ArrayList<>();
+    private volatile boolean isClosed;
+
+    /**
+     * Create the pipeline and start the workers of its stages.
+     *
+     * @param name                 name of the pipeline, prefix of the hand-off volumes
+     * @param dockerClientInstance client running the containers
+     * @param pipelineStages       stages in execution order
+     * @throws IllegalArgumentException if there is no stage or a stage is invalid
+     */
+    public StagedPipeline(String name, DockerClientInstance dockerClientInstance, List<PipelineStage> pipelineStages) {
+        if (pipelineStages == null || pipelineStages.isEmpty()) {
+            throw new IllegalArgumentException("Pipeline must have stages");
+        }
+        Set<String> stageNames = new HashSet<>();
+        for (PipelineStage pipelineStage : pipelineStages) {
+            if (pipelineStage.getName() == null || !stageNames.add(pipelineStage.getName())) {
+                throw new IllegalArgumentException("Stage names must be unique: " + pipelineStage.getName());
+            }
+            if (pipelineStage.getRequestFactory() == null) {
+                throw new IllegalArgumentException("Stage must have a request factory: " + pipelineStage.getName());
+            }
+            if (pipelineStage.getConcurrency() <= 0 || pipelineStage.getQueueCapacity() <= 0) {
+                throw new IllegalArgumentException("Stage concurrency and queue capacity must be positive: "
+                        + pipelineStage.getName());
+            }
+        }
+        this.name = Objects.requireNonNull(name);
+        this.dockerClientInstance = Objects.requireNonNull(dockerClientInstance);
+        for (PipelineStage pipelineStage : pipelineStages) {
+            stages.add(new Stage(pipelineStage, stages.size()));
+        }
+        stages.forEach(Stage::startWorkers);
+    }
+
+    /**
+     * Submit a task to the first stage, waiting while its queue is full.
+     *
+     * @param taskId ID of the task, unique among the tasks in the pipeline
+     * @return the result of the task, completed once its last stage is over
+     */
+    public CompletableFuture<PipelineResult> submit(String taskId) {
+        TaskRun taskRun = new TaskRun(taskId, getHandOffVolume(taskId));
+        if (isClosed) {
+            log.error("Pipeline is closed, task not submitted [pipeline:{}, taskId:{}]", name, taskId);
+            taskRun.complete(false);
+            return taskRun.result;
+        }
+        if (!dockerClientInstance.createVolume(taskRun.handOffVolume)) {
+            log.error("Failed to create hand-off volume [pipeline:{}, taskId:{}, volume:{}]",
+                    name, taskId, taskRun.handOffVolume);
+            taskRun.complete(false);
+            return taskRun.result;
+        }
+        try {
+            if (!stages.get(0).enqueue(taskRun)) {
+                log.error("Pipeline is closed, task not submitted [pipeline:{}, taskId:{}]", name, taskId);
+                finish(taskRun, false);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while submitting task [pipeline:{}, taskId:{}]", name, taskId);
+            finish(taskRun, false);
+        }
+        return taskRun.result;
+    }
+
+    /**
+     * @return timings and load of each stage, in stage order
+     */
+    public List<StageStats> getStageStats() {
+        return stages.stream().map(Stage::getStats).toList();
+    }
+
+    /**
+     * Fail the tasks waiting in queues, stop the containers running and wait for the
+     * workers to complete their tasks. Workers are not interrupted: the run of a
+     * stopped container ends as usual, with its logs retrieved and its container
+     * removed, and its task is not handed off to the next stage.
+     */
+    @Override
+    public void close() {
+        isClosed = true;
+        for (Stage stage : stages) {
+            List<TaskRun> pending = new ArrayList<>();
+            stage.queue.drainTo(pending);
+            pending.forEach(taskRun -> finish(taskRun, false));
+        }
+        try {
+            for (Stage stage : stages) {
+                for (Thread worker : stage.workers) {
+                    // close may be called by a task callback run by a worker
+                    while (worker.isAlive() && worker != Thread.currentThread()) {
+                        // a container created since the last round is stopped on this one
+                        stages.forEach(Stage::stopRunningContainers);
+                        worker.join(STOP_INTERVAL.toMillis());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while closing pipeline [pipeline:{}]", name);
+        }
+    }
+
+    String getHandOffVolume(String taskId) {
+        return name + "-" + taskId;
+    }
+
+    private void finish(TaskRun taskRun, boolean isSuccessful) {
+        if (!dockerClientInstance.removeVolume(taskRun.handOffVolume)) {
+            log.warn("Failed to remove hand-off volume [pipeline:{}, taskId:{}, volume:{}]",
+                    name, taskRun.taskId, taskRun.handOffVolume);
+        }
+        taskRun.complete(isSuccessful);
+    }
+
+    private static DockerRunResponse getFailedResponse() {
+        return DockerRunResponse.builder()
+                .finalStatus(DockerRunFinalStatus.FAILED)
+                .containerExitCode(-1)
+                .build();
+    }
+
+    /**
+     * Timings and load of a stage.
+     */
+    @Value
+    public static class StageStats {
+        String stageName;
+        int concurrency;
+        int queuedTasks;
+        int runningTasks;
+        long completedRuns;
+        long failedRuns;
+        /**
+         * Time tasks waited in the queue of the stage.
+         */
+        Duration totalQueueWait;
+        Duration totalRunDuration;
+        Duration maxRunDuration;
+        /**
+         * Time workers waited for room in the queue of the next stage, a high value
+         * shows that the next stage is the bottleneck.
+         */
+        Duration totalHandOffWait;
+
+        public Duration getAverageRunDuration() {
+            return completedRuns == 0 ? Duration.ZERO : totalRunDuration.dividedBy(completedRuns);
+        }
+
+        public Duration getAverageQueueWait() {
+            return completedRuns == 0 ? Duration.ZERO : totalQueueWait.dividedBy(completedRuns);
+        }
+    }
+
+    private class Stage {
+        private final PipelineStage pipelineStage;
+        private final int index;
+        private final BlockingQueue<TaskRun> queue;
+        private final List<Thread> workers = new ArrayList<>();
+        // guards the containers running and the stats below
+        private final ReentrantLock statsLock = new ReentrantLock();
+        private final Set<String> runningContainers = new HashSet<>();
+        private int runningTasks;
+        private long completedRuns;
+        private long failedRuns;
+        private long totalQueueWaitNanos;
+        private long totalRunNanos;
+        private long maxRunNanos;
+        private long totalHandOffWaitNanos;
+
+        private Stage(PipelineStage pipelineStage, int index) {
+            this.pipelineStage = pipelineStage;
+            this.index = index;
+            this.queue = new ArrayBlockingQueue<>(pipelineStage.getQueueCapacity());
+        }
+
+        private void startWorkers() {
+            for (int i = 0; i < pipelineStage.getConcurrency(); i++) {
+                Thread worker = new Thread(this::work, "pipeline-" + name + "-" + pipelineStage.getName() + "-" + i);
+                worker.setDaemon(true);
+                workers.add(worker);
+                worker.start();
+            }
+        }
+
+        /**
+         * Queue a task, waiting for room while the pipeline is open.
+         *
+         * @return true if the task is queued, false if the pipeline is closed and the
+         * task must be finished by the caller
+         */
+        private boolean enqueue(TaskRun taskRun) throws InterruptedException {
+            taskRun.enqueuedNanos = System.nanoTime();
+            while (!isClosed) {
+                if (queue.offer(taskRun, POLL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS)) {
+                    // close may have drained the queue before the task was queued,
+                    // the task is finished by whoever removes it from the queue
+                    return !isClosed || !queue.remove(taskRun);
+                }
+            }
+            return false;
+        }
+
+        private void work() {
+            while (!isClosed) {
+                TaskRun taskRun;
+                try {
+                    taskRun = queue.poll(POLL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (taskRun == null) {
+                    continue;
+                }
+                boolean isSuccessful = runStage(taskRun);
+                if (!isSuccessful || index == stages.size() - 1) {
+                    finish(taskRun, isSuccessful);
+                    continue;
+                }
+                long handOffStartNanos = System.nanoTime();
+                try {
+                    if (!stages.get(index + 1).enqueue(taskRun)) {
+                        finish(taskRun, false);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    finish(taskRun, false);
+                    return;
+                } finally {
+                    addHandOffWait(System.nanoTime() - handOffStartNanos);
+                }
+            }
+        }
+
+        private void stopRunningContainers() {
+            List<String> containerNames;
+            statsLock.lock();
+            try {
+                containerNames = new ArrayList<>(runningContainers);
+            } finally {
+                statsLock.unlock();
+            }
+            for (String containerName : containerNames) {
+                log.info("Stopping pipeline stage [pipeline:{}, stage:{}, name:{}]",
+                        name, pipelineStage.getName(), containerName);
+                dockerClientInstance.stopContainer(containerName);
+            }
+        }
+
+        private boolean runStage(TaskRun taskRun) {
+            long startNanos = System.nanoTime();
+            long queueWaitNanos = startNanos - taskRun.enqueuedNanos;
+            statsLock.lock();
+            try {
+                runningTasks++;
+            } finally {
+                statsLock.unlock();
+            }
+            DockerRunResponse dockerRunResponse;
+            String containerName = null;
+            try {
+                DockerRunRequest dockerRunRequest =
+                        pipelineStage.getRequestFactory().create(taskRun.taskId, taskRun.handOffVolume);
+                containerName = dockerRunRequest != null ? register(dockerRunRequest.getContainerName()) : null;
+                dockerRunResponse = containerName != null
+                        ? dockerClientInstance.run(dockerRunRequest)
+                        : getFailedResponse();
+            } catch (Exception e) {
+                log.error("Pipeline stage failed [pipeline:{}, stage:{}, taskId:{}]",
+                        name, pipelineStage.getName(), taskRun.taskId, e);
+                dockerRunResponse = getFailedResponse();
+            }
+            long runNanos = System.nanoTime() - startNanos;
+            boolean isSuccessful = dockerRunResponse.isSuccessful();
+            statsLock.lock();
+            try {
+                if (containerName != null) {
+                    runningContainers.remove(containerName);
+                }
+                runningTasks--;
+                completedRuns++;
+                if (!isSuccessful) {
+                    failedRuns++;
+                }
+                totalQueueWaitNanos += queueWaitNanos;
+                totalRunNanos += runNanos;
+                maxRunNanos = Math.max(maxRunNanos, runNanos);
+            } finally {
+                statsLock.unlock();
+            }
+            taskRun.responses.put(pipelineStage.getName(), dockerRunResponse);
+            taskRun.queueWaits.put(pipelineStage.getName(), Duration.ofNanos(queueWaitNanos));
+            taskRun.runDurations.put(pipelineStage.getName(), Duration.ofNanos(runNanos));
+            if (!isSuccessful) {
+                log.error("Pipeline stage failed, skipping next stages [pipeline:{}, stage:{}, taskId:{}]",
+                        name, pipelineStage.getName(), taskRun.taskId);
+            }
+            return isSuccessful;
+        }
+
+        /**
+         * Record the container of a run, unless the pipeline is closed. The closed
+         * flag is read under the lock, so close either sees the container or the run
+         * is not started.
+         *
+         * @return the container name, null if the pipeline is closed
+         */
+        private String register(String containerName) {
+            statsLock.lock();
+            try {
+                if (isClosed) {
+                    return null;
+                }
+                runningContainers.add(containerName);
+                return containerName;
+            } finally {
+                statsLock.unlock();
+            }
+        }
+
+        private void addHandOffWait(long handOffWaitNanos) {
+            statsLock.lock();
+            try {
+                totalHandOffWaitNanos += handOffWaitNanos;
+            } finally {
+                statsLock.unlock();
+            }
+        }
+
+        private StageStats getStats() {
+            statsLock.lock();
+            try {
+                return new StageStats(pipelineStage.getName(), pipelineStage.getConcurrency(), queue.size(),
+                        runningTasks, completedRuns, failedRuns, Duration.ofNanos(totalQueueWaitNanos),
+                        Duration.ofNanos(totalRunNanos), Duration.ofNanos(maxRunNanos),
+                        Duration.ofNanos(totalHandOffWaitNanos));
+            } finally {
+                statsLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * A task moving through the stages, accessed by one worker at a time.
+     */
+    private static class TaskRun {
+        private final String taskId;
+        private final String handOffVolume;
+        private final Map<String, DockerRunResponse> responses = new LinkedHashMap<>();
+        private final Map<String, Duration> queueWaits = new LinkedHashMap<>();
+        private final Map<String, Duration> runDurations = new LinkedHashMap<>();
+        private final CompletableFuture<PipelineResult> result = new CompletableFuture<>();
+        private volatile long enqueuedNanos;
+
+        private TaskRun(String taskId, String handOffVolume) {
+            this.taskId = taskId;
+            this.handOffVolume = handOffVolume;
+        }
+
+        private void complete(boolean isSuccessful) {
+            result.complete(new PipelineResult(taskId, Collections.unmodifiableMap(responses),
+                    Collections.unmodifiableMap(queueWaits), Collections.unmodifiableMap(runDurations),
+                    isSuccessful));
+        }
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.github.dockerjava.api.model.HostConfig;
+import com.iexec.commons.containers.*;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Run of a {@link TaskGroup}: its network and volumes are created concurrently,
+ * then all members are prepared concurrently and each one is started as soon as
+ * its dependencies are met. Once every member is over, detached members, the
+ * network and the volumes are removed concurrently.
+ */
+@Slf4j
+class TaskGroupRunner {
+
+    private final DockerClientInstance dockerClientInstance;
+    private final Executor executor;
+
+    TaskGroupRunner(DockerClientInstance dockerClientInstance, Executor executor) {
+        this.dockerClientInstance = dockerClientInstance;
+        this.executor = executor;
+    }
+
+    TaskGroupResult run(TaskGroup taskGroup) {
+        long startNanos = System.nanoTime();
+        Map<String, MemberRun> memberRuns = new LinkedHashMap<>();
+        Optional<String> validationError = validate(taskGroup);
+        if (validationError.isPresent()) {
+            log.error("Invalid task group [name:{}, error:{}]", taskGroup.getName(), validationError.get());
+            taskGroup.getMembers().stream()
+                    .filter(member -> member.getDockerRunRequest() != null)
+                    .forEach(member -> memberRuns.putIfAbsent(member.getContainerName(), MemberRun.failed(member)));
+            return toResult(taskGroup, memberRuns, startNanos, startNanos);
+        }
+        log.info("Running task group [name:{}, members:{}]", taskGroup.getName(), taskGroup.getMembers().size());
+        if (!setUp(taskGroup)) {
+            log.error("Failed to set up task group [name:{}]", taskGroup.getName());
+            taskGroup.getMembers().forEach(member -> memberRuns.put(member.getContainerName(),
+                    MemberRun.failed(member)));
+            tearDownShared(taskGroup);
+            return toResult(taskGroup, memberRuns, startNanos, startNanos);
+        }
+        AtomicLong lastStartNanos = new AtomicLong(startNanos);
+        for (TaskGroupMember member : taskGroup.getMembers()) {
+            DockerRunRequest dockerRunRequest = withGroupNetwork(taskGroup, member.getDockerRunRequest());
+            memberRuns.put(member.getContainerName(), new MemberRun(member,
+                    supplyAsync(() -> dockerClientInstance.prepare(dockerRunRequest))));
+        }
+        for (MemberRun memberRun : memberRuns.values()) {
+            List<CompletableFuture<Boolean>> dependencies = memberRun.member.getDependsOn().entrySet().stream()
+                    .map(dependency -> getCondition(memberRuns.get(dependency.getKey()), dependency.getValue()))
+                    .toList();
+            CompletableFuture.allOf(dependencies.toArray(CompletableFuture[]::new))
+                    .thenCombine(memberRun.preparation, (ignored, preparedRun) -> preparedRun)
+                    .thenAcceptAsync(preparedRun -> launch(taskGroup, memberRun, preparedRun, dependencies,
+                            lastStartNanos), executor)
+                    .exceptionally(throwable -> {
+                        log.error("Failed to run task group member [group:{}, name:{}]",
+                                taskGroup.getName(), memberRun.getContainerName(), throwable);
+                        memberRun.started.complete(false);
+                        memberRun.response.complete(getFailedResponse());
+                        return null;
+                    });
+        }
+        CompletableFuture.allOf(memberRuns.values().stream()
+                .map(memberRun -> memberRun.response)
+                .toArray(CompletableFuture[]::new)).join();
+        tearDown(taskGroup, memberRuns.values());
+        TaskGroupResult result = toResult(taskGroup, memberRuns, startNanos, lastStartNanos.get());
+        log.info("Finished task group [name:{}, isSuccessful:{}, setupDuration:{}, totalDuration:{}]",
+                taskGroup.getName(), result.isSuccessful(), result.getSetupDuration(), result.getTotalDuration());
+        return result;
+    }
+
+    private void launch(TaskGroup taskGroup, MemberRun memberRun, PreparedRun preparedRun,
+                        List<CompletableFuture<Boolean>> dependencies, AtomicLong lastStartNanos) {
+        if (!preparedRun.isPrepared()) {
+            log.error("Failed to prepare task group member [group:{}, name:{}]",
+                    taskGroup.getName(), memberRun.getContainerName());
+            memberRun.started.complete(false);
+            memberRun.response.complete(getFailedResponse());
+            return;
+        }
+        if (!dependencies.stream().allMatch(CompletableFuture::join)) {
+            log.error("Dependencies of task group member are not met, not running it [group:{}, name:{}]",
+                    taskGroup.getName(), memberRun.getContainerName());
+            dockerClientInstance.discard(preparedRun);
+            memberRun.started.complete(false);
+            memberRun.response.complete(getFailedResponse());
+            return;
+        }
+        dockerClientInstance.runPrepared(preparedRun, () -> {
+                    lastStartNanos.accumulateAndGet(System.nanoTime(), Math::max);
+                    memberRun.started.complete(true);
+                })
+                .whenComplete((dockerRunResponse, throwable) -> {
+                    memberRun.started.complete(false);
+                    memberRun.response.complete(dockerRunResponse != null ? dockerRunResponse : getFailedResponse());
+                });
+    }
+
+    private static CompletableFuture<Boolean> getCondition(MemberRun dependency, TaskGroupMember.Condition condition) {
+        return condition == TaskGroupMember.Condition.STARTED
+                ? dependency.started
+                : dependency.response.thenApply(DockerRunResponse::isSuccessful);
+    }
+
+    /**
+     * Create the network and volumes of the group concurrently.
+     */
+    private boolean setUp(TaskGroup taskGroup) {
+        List<CompletableFuture<Boolean>> creations = new ArrayList<>();
+        if (StringUtils.isNotBlank(taskGroup.getNetworkName())) {
+            creations.add(supplyAsync(() ->
+                    StringUtils.isNotBlank(dockerClientInstance.createNetwork(taskGroup.getNetworkName()))));
+        }
+        taskGroup.getVolumes().forEach(volumeName ->
+                creations.add(supplyAsync(() -> dockerClientInstance.createVolume(volumeName))));
+        return creations.stream().allMatch(this::isTrue);
+    }
+
+    /**
+     * Remove detached members, then the network and volumes they used, concurrently.
+     */
+    private void tearDown(TaskGroup taskGroup, Collection<MemberRun> memberRuns) {
+        memberRuns.stream()
+                .filter(memberRun -> memberRun.member.getDockerRunRequest().getMaxExecutionTime() <= 0
+                        && memberRun.started.join())
+                .map(memberRun -> supplyAsync(() -> {
+                    dockerClientInstance.stopContainer(memberRun.getContainerName());
+                    return dockerClientInstance.removeContainer(memberRun.getContainerName());
+                }))
+                .toList()
+                .forEach(this::isTrue);
+        tearDownShared(taskGroup);
+    }
+
+    private void tearDownShared(TaskGroup taskGroup) {
+        List<CompletableFuture<Boolean>> removals = new ArrayList<>();
+        if (StringUtils.isNotBlank(taskGroup.getNetworkName())) {
+            removals.add(supplyAsync(() -> dockerClientInstance.removeNetwork(taskGroup.getNetworkName())));
+        }
+        taskGroup.getVolumes().forEach(volumeName ->
+                removals.add(supplyAsync(() -> dockerClientInstance.removeVolume(volumeName))));
+        if (!removals.stream().allMatch(this::isTrue)) {
+            log.warn("Failed to remove network or volumes of task group [name:{}]", taskGroup.getName());
+        }
+    }
+
+    /**
+     * @return a copy of the request connected to the network of the group if it has
+     * no network of its own, the request itself otherwise
+     */
+    private static DockerRunRequest withGroupNetwork(TaskGroup taskGroup, DockerRunRequest dockerRunRequest) {
+        HostConfig hostConfig = dockerRunRequest.getHostConfig();
+        if (StringUtils.isBlank(taskGroup.getNetworkName()) || hostConfig == null
+                || StringUtils.isNotBlank(hostConfig.getNetworkMode())) {
+            return dockerRunRequest;
+        }
+        DockerRunRequest groupRequest = DockerClientInstance.withHostConfigCopy(dockerRunRequest);
+        groupRequest.getHostConfig().withNetworkMode(taskGroup.getNetworkName());
+        return groupRequest;
+    }
+
+    /**
+     * @return an error message if members are not uniquely named or if their
+     * dependencies are unknown or cyclic
+     */
+    static Optional<String> validate(TaskGroup taskGroup) {
+        Map<String, TaskGroupMember> membersByName = new LinkedHashMap<>();
+        for (TaskGroupMember member : taskGroup.getMembers()) {
+            if (member.getDockerRunRequest() == null || StringUtils.isBlank(member.getContainerName())) {
+                return Optional.of("member without container name");
+            }
+            if (membersByName.put(member.getContainerName(), member) != null) {
+                return Optional.of("duplicate member " + member.getContainerName());
+            }
+        }
+        for (TaskGroupMember member : taskGroup.getMembers()) {
+            for (String dependency : member.getDependsOn().keySet()) {
+                if (!membersByName.containsKey(dependency)) {
+                    return Optional.of("unknown dependency " + dependency + " of " + member.getContainerName());
+                }
+            }
+        }
+        // depth-first search of a dependency cycle
+        Map<String, Boolean> isVisitDone = new HashMap<>();
+        for (String name : membersByName.keySet()) {
+            if (hasCycle(name, membersByName, isVisitDone)) {
+                return Optional.of("dependency cycle through " + name);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static boolean hasCycle(String name, Map<String, TaskGroupMember> membersByName,
+                                    Map<String, Boolean> isVisitDone) {
+        Boolean isDone = isVisitDone.get(name);
+        if (isDone != null) {
+            // still being visited: back edge
+            return !isDone;
+        }
+        isVisitDone.put(name, false);
+        for (String dependency : membersByName.get(name).getDependsOn().keySet()) {
+            if (hasCycle(dependency, membersByName, isVisitDone)) {
+                return true;
+            }
+        }
+        isVisitDone.put(name, true);
+        return false;
+    }
+
+    private <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, executor);
+    }
+
+    private boolean isTrue(CompletableFuture<Boolean> future) {
+        try {
+            return Boolean.TRUE.equals(future.join());
+        } catch (Exception e) {
+            log.error("Task group operation failed", e);
+            return false;
+        }
+    }
+
+    private static TaskGroupResult toResult(TaskGroup taskGroup, Map<String, MemberRun> memberRuns,
+                                            long startNanos, long lastStartNanos) {
+        Map<String, DockerRunResponse> responses = new LinkedHashMap<>();
+        memberRuns.forEach((name, memberRun) -> responses.put(name, memberRun.response.join()));
+        return new TaskGroupResult(taskGroup.getName(), Collections.unmodifiableMap(responses),
+                Duration.ofNanos(lastStartNanos - startNanos),
+                Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+
+    private static DockerRunResponse getFailedResponse() {
+        return DockerRunResponse.builder()
+                .finalStatus(DockerRunFinalStatus.FAILED)
+                .containerExitCode(-1)
+                .build();
+    }
+
+    private static class MemberRun {
+        private final TaskGroupMember member;
+        private final CompletableFuture<PreparedRun> preparation;
+        // completed with false if the member is not started
+        private final CompletableFuture<Boolean> started = new CompletableFuture<>();
+        private final CompletableFuture<DockerRunResponse> response = new CompletableFuture<>();
+
+        private MemberRun(TaskGroupMember member, CompletableFuture<PreparedRun> preparation) {
+            this.member = member;
+            this.preparation = preparation;
+        }
+
+        private static MemberRun failed(TaskGroupMember member) {
+            MemberRun memberRun = new MemberRun(member, CompletableFuture.completedFuture(null));
+            memberRun.started.complete(false);
+            memberRun.response.complete(getFailedResponse());
+            return memberRun;
+        }
+
+        private String getContainerName() {
+            return member.getContainerName();
+        }
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hashed timing wheel driven by {@link System#nanoTime()}.
+ * <p>
+ * Timeouts are hashed into a fixed number of buckets by their deadline, so that
+ * scheduling and cancelling a timeout are O(1) whatever the number of pending
+ * timeouts. Cancelled timeouts are unlinked when the wheel next visits their
+ * bucket, at most one revolution later. A single daemon thread, started on the
+ * first schedule, advances the wheel every tick and runs expired tasks. Timeouts
+ * fire with a precision of one tick, and their tasks must be short since they run
+ * on the wheel thread.
+ */
+@Slf4j
+final class TimingWheel implements AutoCloseable {
+
+    private static final int STATE_INIT = 0;
+    private static final int STATE_STARTED = 1;
+    private static final int STATE_CLOSED = 2;
+    // bounds the work of a single tick when many timeouts are scheduled at once
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final Bucket[] buckets;
+    private final int mask;
+    private final Thread worker;
+    private final AtomicInteger state = new AtomicInteger(STATE_INIT);
+    private final AtomicLong pendingTimeouts = new AtomicLong();
+    private final Queue<Timeout> scheduledTimeouts = new ConcurrentLinkedQueue<>();
+    private final long startNanos;
+    // only accessed by the worker thread
+    private long tick;
+
+    /**
+     * @param tickDuration  precision of the wheel
+     * @param ticksPerWheel number of buckets, rounded up to a power of 2
+     * @param threadName    name of the wheel thread
+     */
+    TimingWheel(Duration tickDuration, int ticksPerWheel, String threadName) {
+        if (tickDuration.isNegative() || tickDuration.isZero()) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        if (ticksPerWheel <= 0 || ticksPerWheel > (1 << 30)) {
+            throw new IllegalArgumentException("Ticks per wheel must be in ]0, 2^30]");
+        }
+        this.tickNanos = tickDuration.toNanos();
+        int size = Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        this.buckets = new Bucket[Math.max(size, 1)];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket();
+        }
+        this.mask = buckets.length - 1;
+        this.worker = Thread.ofPlatform().daemon().name(threadName).unstarted(this::work);
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Schedule a task to run once the delay has elapsed.
+     *
+     * @param task  task to run on the wheel thread
+     * @param delay delay from now, negative delays expire on the next tick
+     * @return a handle to cancel the timeout
+     * @throws IllegalStateException if the wheel is closed
+     */
+    Timeout schedule(Runnable task, Duration delay) {
+        return schedule(task, saturatedNanos(delay), TimeUnit.NANOSECONDS);
+    }
+
+    Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (state.get() == STATE_INIT && state.compareAndSet(STATE_INIT, STATE_STARTED)) {
+            worker.start();
+        }
+        if (state.get() == STATE_CLOSED) {
+            throw new IllegalStateException("Timing wheel is closed");
+        }
+        long now = System.nanoTime() - startNanos;
+        long delayNanos = Math.max(0, unit.toNanos(delay));
+        // saturate instead of overflowing for very long delays
+        long deadline = now + delayNanos < now ? Long.MAX_VALUE : now + delayNanos;
+        Timeout timeout = new Timeout(this, task, deadline);
+        pendingTimeouts.incrementAndGet();
+        scheduledTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * @return number of scheduled timeouts that are neither expired nor cancelled
+     */
+    long getPendingTimeouts() {
+        return pendingTimeouts.get();
+    }
+
+    /**
+     * Stop the wheel thread, pending timeouts never fire.
+     */
+    @Override
+    public void close() {
+        if (state.getAndSet(STATE_CLOSED) == STATE_STARTED) {
+            worker.interrupt();
+        }
+    }
+
+    private void work() {
+        while (state.get() == STATE_STARTED) {
+            long deadline = waitForNextTick();
+            if (deadline < 0) {
+                continue;
+            }
+            transferScheduledTimeouts();
+            buckets[(int) (tick & mask)].expireTimeouts(deadline);
+            tick++;
+        }
+    }
+
+    /**
+     * @return the current time relative to the start of the wheel once the next tick
+     * is reached, or -1 if the wait was interrupted.
+     */
+    private long waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        while (true) {
+            long currentTime = System.nanoTime() - startNanos;
+            long sleepNanos = deadline - currentTime;
+            if (sleepNanos <= 0) {
+                return currentTime;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            } catch (InterruptedException e) {
+                if (state.get() == STATE_CLOSED) {
+                    Thread.currentThread().interrupt();
+                    return -1;
+                }
+            }
+        }
+    }
+
+    private void transferScheduledTimeouts() {
+        int transfers = 0;
+        while (transfers < MAX_TRANSFERS_PER_TICK) {
+            Timeout timeout = scheduledTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state != Timeout.STATE_PENDING) {
+                // cancelled before reaching the wheel, dropping it costs nothing
+                continue;
+            }
+            transfers++;
+            long expirationTick = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (expirationTick - tick) / buckets.length;
+            // a deadline already in the past expires on the current tick
+            long ticks = Math.max(expirationTick, tick);
+            buckets[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private static long saturatedNanos(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException e) {
+            return duration.isNegative() ? 0 : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Handle of a scheduled task.
+     */
+    static final class Timeout {
+        private static final int STATE_PENDING = 0;
+        private static final int STATE_CANCELLED = 1;
+        private static final int STATE_EXPIRED = 2;
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE_UPDATER =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final TimingWheel wheel;
+        private final Runnable task;
+        private final long deadline;
+        private volatile int state = STATE_PENDING;
+        // only accessed by the worker thread
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout previous;
+        private Timeout next;
+
+        private Timeout(TimingWheel wheel, Runnable task, long deadline) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancel the timeout so that its task never runs.
+         *
+         * @return true if the timeout was pending, false if it already expired or was cancelled.
+         */
+        boolean cancel() {
+            if (!STATE_UPDATER.compareAndSet(this, STATE_PENDING, STATE_CANCELLED)) {
+                return false;
+            }
+            wheel.pendingTimeouts.decrementAndGet();
+            return true;
+        }
+
+        boolean isCancelled() {
+            return state == STATE_CANCELLED;
+        }
+
+        boolean isExpired() {
+            return state == STATE_EXPIRED;
+        }
+
+        private void expire() {
+            if (!STATE_UPDATER.compareAndSet(this, STATE_PENDING, STATE_EXPIRED)) {
+                return;
+            }
+            wheel.pendingTimeouts.decrementAndGet();
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error("Error running timing wheel task", e);
+            }
+        }
+    }
+
+    /**
+     * Doubly-linked list of timeouts, only accessed by the worker thread.
+     */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.previous = tail;
+                tail = timeout;
+            }
+        }
+
+        private void expireTimeouts(long deadline) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else if (timeout.remainingRounds <= 0) {
+                    if (timeout.deadline <= deadline) {
+                        remove(timeout);
+                        timeout.expire();
+                    }
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            } else {
+                tail = timeout.previous;
+            }
+            timeout.previous = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.github.dockerjava.api.model.HostConfig;
+import com.iexec.commons.containers.DockerRunRequest;
+import com.iexec.commons.containers.SgxDriverMode;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.RandomStringUtils;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of containers created ahead of time but not started.
+ * <p>
+ * Containers are pooled per profile, which is everything a {@link DockerRunRequest}
+ * passes to the container creation except its name. Docker does not allow changing
+ * the configuration of a created container, so only requests matching a warmed
+ * profile exactly are served from the pool. A served container is renamed to the
+ * requested name and the pool is refilled in the background.
+ * <p>
+ * The pool only serves runs without env. The env of a run is specific to it, e.g.
+ * its task ID or secrets, so it cannot be set on a container created in advance.
+ * Runs with env are always created on demand.
+ */
+@Slf4j
+public class WarmContainerPool implements AutoCloseable {
+
+    static final String WARM_CONTAINER_PREFIX = "iexec-warm-";
+
+    private final DockerClientInstance dockerClientInstance;
+    private final WarmPoolConfig config;
+    private final Map<Profile, DockerRunRequest> templates = new ConcurrentHashMap<>();
+    private final Map<Profile, Deque<WarmContainer>> pools = new ConcurrentHashMap<>();
+    private final AtomicLong pooledMemoryBytes = new AtomicLong();
+    private final ScheduledExecutorService executor;
+
+    public WarmContainerPool(DockerClientInstance dockerClientInstance, WarmPoolConfig config) {
+        this.dockerClientInstance = Objects.requireNonNull(dockerClientInstance);
+        this.config = Objects.requireNonNull(config);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "warm-container-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepPeriodMillis = Math.max(1000L, config.getTtl().toMillis() / 2);
+        executor.scheduleWithFixedDelay(this::evictExpiredContainers,
+                sweepPeriodMillis, sweepPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Register the profile of a request and fill its pool in the background.
+     *
+     * @param template request whose profile should be kept warm, its name is ignored
+     * @return true if the profile is kept warm, false if the template has env
+     */
+    public boolean warm(DockerRunRequest template) {
+        if (hasEnv(template)) {
+            log.error("Cannot keep warm a profile with env [image:{}]", template.getImageUri());
+            return false;
+        }
+        Profile profile = Profile.of(template);
+        templates.putIfAbsent(profile, template);
+        refill(profile);
+        return true;
+    }
+
+    /**
+     * Take a warm container matching the profile of the request and rename it
+     * to the requested container name.
+     *
+     * @param dockerRunRequest request to serve
+     * @return the ID of the renamed container, {@link Optional#empty()} if no warm
+     * container matches the request or if the request has env.
+     */
+    public Optional<String> acquire(DockerRunRequest dockerRunRequest) {
+        if (hasEnv(dockerRunRequest)) {
+            return Optional.empty();
+        }
+        Profile profile = Profile.of(dockerRunRequest);
+        Deque<WarmContainer> pool = pools.get(profile);
+        if (pool == null) {
+            return Optional.empty();
+        }
+        String containerName = dockerRunRequest.getContainerName();
+        WarmContainer warmContainer;
+        while ((warmContainer = pool.pollFirst()) != null) {
+            pooledMemoryBytes.addAndGet(-warmContainer.getMemoryBytes());
+            if (warmContainer.isExpired(config.getTtl().toNanos())) {
+                discard(warmContainer);
+                continue;
+            }
+            if (rename(warmContainer, containerName)) {
+                log.info("Acquired warm container [name:{}, id:{}]", containerName, warmContainer.getId());
+                refill(profile);
+                return Optional.of(warmContainer.getId());
+            }
+            discard(warmContainer);
+        }
+        refill(profile);
+        return Optional.empty();
+    }
+
+    /**
+     * @return number of warm containers currently pooled for all profiles
+     */
+    public int size() {
+        return pools.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    public long getPooledMemoryBytes() {
+        return pooledMemoryBytes.get();
+    }
+
+    /**
+     * Stop refilling and remove all pooled containers.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        pools.values().forEach(pool -> {
+            WarmContainer warmContainer;
+            while ((warmContainer = pool.pollFirst()) != null) {
+                pooledMemoryBytes.addAndGet(-warmContainer.getMemoryBytes());
+                dockerClientInstance.removeContainer(warmContainer.getName());
+            }
+        });
+    }
+
+    private boolean rename(WarmContainer warmContainer, String containerName) {
+        if (dockerClientInstance.renameContainer(warmContainer.getName(), containerName)) {
+            return true;
+        }
+        // same behavior as createContainer: replace a duplicate container
+        if (dockerClientInstance.isContainerPresent(containerName)) {
+            dockerClientInstance.stopAndRemoveContainer(containerName);
+            return dockerClientInstance.renameContainer(warmContainer.getName(), containerName);
+        }
+        return false;
+    }
+
+    private void discard(WarmContainer warmContainer) {
+        submit(() -> dockerClientInstance.removeContainer(warmContainer.getName()));
+    }
+
+    private void refill(Profile profile) {
+        submit(() -> fill(profile));
+    }
+
+    private void submit(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.debug("Warm container pool is closed, skipping background task");
+        }
+    }
+
+    private void fill(Profile profile) {
+        DockerRunRequest template = templates.get(profile);
+        if (template == null) {
+            return;
+        }
+        Deque<WarmContainer> pool = pools.computeIfAbsent(profile, key -> new ConcurrentLinkedDeque<>());
+        long memoryBytes = getMemoryBytes(template);
+        while (pool.size() < config.getPoolSize()) {
+            if (config.getMaxMemoryBytes() > 0
+                    && pooledMemoryBytes.get() + memoryBytes > config.getMaxMemoryBytes()) {
+                log.debug("Warm container pool memory budget reached [image:{}, pooledMemoryBytes:{}]",
+                        template.getImageUri(), pooledMemoryBytes.get());
+                return;
+            }
+            String name = WARM_CONTAINER_PREFIX + RandomStringUtils.insecure().nextAlphanumeric(16);
+            String id = dockerClientInstance.createContainer(copyWithName(template, name), false);
+            if (id.isEmpty()) {
+                log.warn("Failed to create warm container [image:{}]", template.getImageUri());
+                return;
+            }
+            pooledMemoryBytes.addAndGet(memoryBytes);
+            pool.addLast(new WarmContainer(name, id, System.nanoTime(), memoryBytes));
+        }
+    }
+
+    private void evictExpiredContainers() {
+        long ttlNanos = config.getTtl().toNanos();
+        pools.forEach((profile, pool) -> {
+            boolean evicted = false;
+            for (WarmContainer warmContainer : pool) {
+                if (warmContainer.isExpired(ttlNanos) && pool.remove(warmContainer)) {
+                    pooledMemoryBytes.addAndGet(-warmContainer.getMemoryBytes());
+                    dockerClientInstance.removeContainer(warmContainer.getName());
+                    evicted = true;
+                }
+            }
+            if (evicted) {
+                fill(profile);
+            }
+        });
+    }
+
+    private static boolean hasEnv(DockerRunRequest dockerRunRequest) {
+        return dockerRunRequest.getEnv() != null && !dockerRunRequest.getEnv().isEmpty();
+    }
+
+    private static long getMemoryBytes(DockerRunRequest dockerRunRequest) {
+        Long memory = dockerRunRequest.getHostConfig() != null
+                ? dockerRunRequest.getHostConfig().getMemory()
+                : null;
+        return memory != null ? memory : 0L;
+    }
+
+    private static DockerRunRequest copyWithName(DockerRunRequest template, String containerName) {
+        return DockerRunRequest.builder()
+                .hostConfig(template.getHostConfig())
+                .containerName(containerName)
+                .containerPort(template.getContainerPort())
+                .imageUri(template.getImageUri())
+                .imageId(template.getImageId())
+                .entrypoint(template.getEntrypoint())
+                .cmd(template.getCmd())
+                .sgxDriverMode(template.getSgxDriverMode())
+                .workingDir(template.getWorkingDir())
+                .build();
+    }
+
+    @Value
+    private static class WarmContainer {
+        String name;
+        String id;
+        long createdAtNanos;
+        long memoryBytes;
+
+        boolean isExpired(long ttlNanos) {
+            return System.nanoTime() - createdAtNanos > ttlNanos;
+        }
+    }
+
+    @Value
+    private static class Profile {
+        String image;
+        HostConfig hostConfig;
+        String entrypoint;
+        String cmd;
+        String workingDir;
+        int containerPort;
+        SgxDriverMode sgxDriverMode;
+
+        static Profile of(DockerRunRequest dockerRunRequest) {
+            return new Profile(
+                    dockerRunRequest.getImageToCreate(),
+                    dockerRunRequest.getHostConfig(),
+                    dockerRunRequest.getEntrypoint(),
+                    dockerRunRequest.getCmd(),
+                    dockerRunRequest.getWorkingDir(),
+                    dockerRunRequest.getContainerPort(),
+                    dockerRunRequest.getSgxDriverMode());
+        }
+    }
+}
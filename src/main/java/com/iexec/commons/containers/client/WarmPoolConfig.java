@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Configuration of a {@link WarmContainerPool}.
+ */
+@Value
+@Builder
+public class WarmPoolConfig {
+
+    /**
+     * Number of created containers to keep ready per profile.
+     */
+    @Builder.Default
+    int poolSize = 2;
+    /**
+     * Pooled containers older than this duration are removed instead of being used.
+     */
+    @Builder.Default
+    Duration ttl = Duration.ofMinutes(10);
+    /**
+     * Maximum sum of {@code HostConfig} memory limits of all pooled containers,
+     * 0 for no limit.
+     */
+    @Builder.Default
+    long maxMemoryBytes = 0;
+
+}
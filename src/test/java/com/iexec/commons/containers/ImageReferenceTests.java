@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImageReferenceTests {
+
+    private static final String DIGEST = "sha256:4bcff63911fcb4448bd4fdacec207030997caf25e9bea4045fa6c8c44de311d1";
+
+    @BeforeEach
+    void beforeEach() {
+        ImageReference.purgeCache();
+    }
+
+    //region parse
+    @ParameterizedTest
+    @CsvSource({
+            "alpine:latest, docker.io, library, alpine, latest, alpine:latest",
+            "library/alpine:latest, docker.io, library, alpine, latest, alpine:latest",
+            "docker.io/library/alpine:latest, docker.io, library, alpine, latest, alpine:latest",
+            "index.docker.io/library/alpine:latest, docker.io, library, alpine, latest, alpine:latest",
+            "alpine/socat:latest, docker.io, alpine, socat, latest, alpine/socat:latest",
+            "docker.io/alpine/socat:latest, docker.io, alpine, socat, latest, alpine/socat:latest",
+            "registry.hub.docker.com/alpine/socat:latest, registry.hub.docker.com, alpine, socat, latest, registry.hub.docker.com/alpine/socat:latest",
+            "nexus.iex.ec/some-app:1.0.0, nexus.iex.ec, '', some-app, 1.0.0, nexus.iex.ec/some-app:1.0.0",
+            "localhost:5000/team/project/app:v1, localhost:5000, team/project, app, v1, localhost:5000/team/project/app:v1"
+    })
+    void shouldParseTaggedReference(String imageName, String registry, String namespace,
+                                    String repository, String tag, String familiarName) {
+        final ImageReference reference = ImageReference.of(imageName);
+        assertThat(reference.getRegistry()).isEqualTo(registry);
+        assertThat(reference.getNamespace()).isEqualTo(namespace);
+        assertThat(reference.getRepository()).isEqualTo(repository);
+        assertThat(reference.getTag()).isEqualTo(tag);
+        assertThat(reference.hasDigest()).isFalse();
+        assertThat(reference.getFamiliarName()).isEqualTo(familiarName);
+    }
+
+    @Test
+    void shouldParseReferenceWithoutTag() {
+        final ImageReference reference = ImageReference.of("alpine");
+        assertThat(reference.hasTag()).isFalse();
+        assertThat(reference.getFamiliarName()).isEqualTo("alpine");
+        assertThat(reference.getCanonicalName()).isEqualTo("docker.io/library/alpine");
+    }
+
+    @Test
+    void shouldParseReferenceWithDigest() {
+        final ImageReference reference = ImageReference.of("docker.io/library/alpine@" + DIGEST);
+        assertThat(reference.hasTag()).isFalse();
+        assertThat(reference.getDigest()).isEqualTo(DIGEST);
+        assertThat(reference.getFamiliarRepository()).isEqualTo("alpine");
+        assertThat(reference.getFamiliarName()).isEqualTo("alpine@" + DIGEST);
+    }
+
+    @Test
+    void shouldParseReferenceWithTagAndDigest() {
+        final ImageReference reference = ImageReference.of("nexus.iex.ec/some-app:1.0.0@" + DIGEST);
+        assertThat(reference.getTag()).isEqualTo("1.0.0");
+        assertThat(reference.getDigest()).isEqualTo(DIGEST);
+        assertThat(reference.getFamiliarRepository()).isEqualTo("nexus.iex.ec/some-app");
+        assertThat(reference.getCanonicalName()).isEqualTo("nexus.iex.ec/some-app:1.0.0@" + DIGEST);
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {" ", ":latest", "alpine:", "/alpine:latest", "alpine/:latest", "alpine@", "alpine@sha256:"})
+    void shouldNotParseInvalidReference(String imageName) {
+        assertThatThrownBy(() -> ImageReference.of(imageName))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    //endregion
+
+    //region cache
+    @Test
+    void shouldReuseCachedReference() {
+        final ImageReference reference = ImageReference.of("alpine:latest");
+        assertThat(ImageReference.of("alpine:latest")).isSameAs(reference);
+    }
+
+    @Test
+    void shouldBeEqualWhenNormalizedNamesMatch() {
+        assertThat(ImageReference.of("docker.io/library/alpine:latest"))
+                .isEqualTo(ImageReference.of("alpine:latest"))
+                .hasSameHashCodeAs(ImageReference.of("library/alpine:latest"));
+    }
+
+    @Test
+    void shouldNotGrowCacheBeyondBound() {
+        for (int i = 0; i < ImageReference.MAX_CACHED_REFERENCES + 10; i++) {
+            ImageReference.of("image-" + i + ":latest");
+        }
+        assertThat(ImageReference.cacheSize()).isEqualTo(ImageReference.MAX_CACHED_REFERENCES);
+        assertThat(ImageReference.of("image-" + (ImageReference.MAX_CACHED_REFERENCES + 5) + ":latest").getTag())
+                .isEqualTo("latest");
+    }
+    //endregion
+}
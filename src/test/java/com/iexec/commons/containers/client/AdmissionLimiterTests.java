@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.iexec.commons.containers.client.AdmissionLimiter.CallType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class AdmissionLimiterTests {
+
+    @Test
+    void shouldQueueCallsOverConcurrencyBudget() throws InterruptedException {
+        final AdmissionLimiter limiter = new AdmissionLimiter(AdmissionLimits.builder()
+                .maxConcurrentMutatingCalls(2)
+                .build());
+        limiter.acquire(CallType.MUTATING);
+        limiter.acquire(CallType.MUTATING);
+        final CompletableFuture<Void> queuedCall = CompletableFuture.runAsync(() -> acquire(limiter, CallType.MUTATING));
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> limiter.getStats(CallType.MUTATING).getQueueDepth() == 1);
+        assertThat(queuedCall).isNotDone();
+        // reads have their own budget
+        limiter.acquire(CallType.READ);
+        assertThat(limiter.getStats(CallType.READ).getInFlight()).isOne();
+
+        limiter.release(CallType.MUTATING);
+        queuedCall.join();
+        final AdmissionLimiter.Stats stats = limiter.getStats(CallType.MUTATING);
+        assertThat(stats.getQueueDepth()).isZero();
+        assertThat(stats.getInFlight()).isEqualTo(2);
+        assertThat(stats.getAdmittedCalls()).isEqualTo(3);
+        assertThat(stats.getMaxWait()).isPositive();
+    }
+
+    @Test
+    void shouldAdmitQueuedCallsInArrivalOrder() throws InterruptedException {
+        final AdmissionLimiter limiter = new AdmissionLimiter(AdmissionLimits.builder()
+                .maxConcurrentMutatingCalls(1)
+                .build());
+        final List<Integer> admissionOrder = new ArrayList<>();
+        limiter.acquire(CallType.MUTATING);
+        final List<CompletableFuture<Void>> calls = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final int callIndex = i;
+            calls.add(CompletableFuture.runAsync(() -> {
+                acquire(limiter, CallType.MUTATING);
+                admissionOrder.add(callIndex);
+                limiter.release(CallType.MUTATING);
+            }));
+            await().atMost(5, TimeUnit.SECONDS).until(() -> limiter.getStats(CallType.MUTATING).getQueueDepth() == callIndex + 1);
+        }
+
+        limiter.release(CallType.MUTATING);
+        calls.forEach(CompletableFuture::join);
+        assertThat(admissionOrder).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void shouldSpreadCallsOverRateBudget() throws InterruptedException {
+        final AdmissionLimiter limiter = new AdmissionLimiter(AdmissionLimits.builder()
+                .maxReadCallsPerSecond(10)
+                .build());
+        final long start = System.nanoTime();
+        // the first 10 calls are a burst, the next 5 are spaced by 100ms
+        for (int i = 0; i < 15; i++) {
+            limiter.acquire(CallType.READ);
+            limiter.release(CallType.READ);
+        }
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(450));
+    }
+
+    @Test
+    void shouldResizeConcurrencyBudget() throws InterruptedException {
+        final AdmissionLimiter limiter = new AdmissionLimiter(AdmissionLimits.builder()
+                .maxConcurrentMutatingCalls(1)
+                .build());
+        limiter.acquire(CallType.MUTATING);
+        final CompletableFuture<Void> queuedCall = CompletableFuture.runAsync(() -> acquire(limiter, CallType.MUTATING));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> limiter.getStats(CallType.MUTATING).getQueueDepth() == 1);
+
+        limiter.setLimits(AdmissionLimits.builder().maxConcurrentMutatingCalls(2).build());
+        queuedCall.join();
+        assertThat(limiter.getStats(CallType.MUTATING).getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRejectInvalidLimits() {
+        final AdmissionLimits limits = AdmissionLimits.builder().maxConcurrentReadCalls(0).build();
+        assertThatThrownBy(() -> new AdmissionLimiter(limits))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void acquire(AdmissionLimiter limiter, CallType callType) {
+        try {
+            limiter.acquire(callType);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.github.dockerjava.api.model.HostConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CpusetAllocatorTests {
+
+    @TempDir
+    Path sysfsRoot;
+
+    //region CpuTopology
+    @Test
+    void shouldParseAndFormatCpuList() {
+        assertThat(CpuTopology.toCpuList(CpuTopology.parseCpuList("0-3,8,10-11\n"))).isEqualTo("0-3,8,10-11");
+        assertThat(CpuTopology.parseCpuList(" ").isEmpty()).isTrue();
+        assertThatThrownBy(() -> CpuTopology.parseCpuList("3-1")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CpuTopology.parseCpuList("a")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldReadNumaNodesWithoutOfflineCpus() throws IOException {
+        writeSysfsFile("devices/system/cpu/online", "0-6\n");
+        writeSysfsFile("devices/system/node/node0/cpulist", "0-3\n");
+        writeSysfsFile("devices/system/node/node1/cpulist", "4-7\n");
+        writeSysfsFile("devices/system/node/possible", "0-1\n");
+
+        final CpuTopology topology = CpuTopology.read(sysfsRoot).orElseThrow();
+
+        assertThat(topology.getCpusByNode()).containsOnlyKeys(0, 1);
+        assertThat(CpuTopology.toCpuList(topology.getCpusByNode().get(1))).isEqualTo("4-6");
+        assertThat(topology.getCpuCount()).isEqualTo(7);
+    }
+
+    @Test
+    void shouldReadOnlineCpusAsSingleNodeWithoutNumaInformation() throws IOException {
+        writeSysfsFile("devices/system/cpu/online", "0-3\n");
+
+        final CpuTopology topology = CpuTopology.read(sysfsRoot).orElseThrow();
+
+        assertThat(topology.getCpusByNode()).containsOnlyKeys(0);
+        assertThat(topology.getCpuCount()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldNotReadTopologySinceNoCpuFound() {
+        assertThat(CpuTopology.read(sysfsRoot)).isEmpty();
+    }
+    //endregion
+
+    @Test
+    void shouldRoundUpRequestedCpus() {
+        assertThat(CpusetAllocator.getRequestedCpus(HostConfig.newHostConfig().withNanoCPUs(1_500_000_000L)))
+                .isEqualTo(2);
+        assertThat(CpusetAllocator.getRequestedCpus(HostConfig.newHostConfig())).isZero();
+    }
+
+    @Test
+    void shouldPlaceContainerOnSingleNodeWithBestFit() {
+        final CpusetAllocator allocator = getAllocator();
+
+        assertThat(allocator.allocate("first", 3).orElseThrow())
+                .isEqualTo(new CpusetAllocator.Cpuset("0-2", "0"));
+        // node 0 has 1 free CPU left, node 1 has 4
+        assertThat(allocator.allocate("second", 1).orElseThrow())
+                .isEqualTo(new CpusetAllocator.Cpuset("3", "0"));
+        assertThat(allocator.allocate("third", 2).orElseThrow())
+                .isEqualTo(new CpusetAllocator.Cpuset("4-5", "1"));
+        assertThat(allocator.getFreeCpuCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldSpreadContainerOverNodesSinceNoNodeFits() {
+        final CpusetAllocator allocator = getAllocator();
+        allocator.allocate("first", 2);
+
+        assertThat(allocator.allocate("wide", 5).orElseThrow())
+                .isEqualTo(new CpusetAllocator.Cpuset("2,4-7", "0-1"));
+        assertThat(allocator.allocate("tooWide", 2)).isEmpty();
+        assertThat(allocator.getAllocation("tooWide")).isEmpty();
+    }
+
+    @Test
+    void shouldReclaimCpusOnRelease() {
+        final CpusetAllocator allocator = getAllocator();
+        allocator.allocate("first", 4);
+        allocator.allocate("second", 4);
+
+        assertThat(allocator.release("first")).isTrue();
+        assertThat(allocator.release("first")).isFalse();
+        assertThat(allocator.getFreeCpuCount()).isEqualTo(4);
+        assertThat(allocator.allocate("third", 4).orElseThrow())
+                .isEqualTo(new CpusetAllocator.Cpuset("0-3", "0"));
+        // a new allocation of a container replaces its previous one
+        assertThat(allocator.allocate("third", 2).orElseThrow())
+                .isEqualTo(new CpusetAllocator.Cpuset("0-1", "0"));
+        assertThat(allocator.getFreeCpuCount()).isEqualTo(2);
+    }
+
+    private CpusetAllocator getAllocator() {
+        return new CpusetAllocator(new CpuTopology(new TreeMap<>(Map.of(
+                0, CpuTopology.parseCpuList("0-3"),
+                1, CpuTopology.parseCpuList("4-7")))));
+    }
+
+    private void writeSysfsFile(String path, String content) throws IOException {
+        final Path file = sysfsRoot.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.*;
+
+class DaemonCircuitBreakerTests {
+
+    private static final Duration OPEN_DURATION = Duration.ofMillis(50);
+
+    @Test
+    void shouldOpenAfterConsecutiveFailuresAndNotifyListener() {
+        final DaemonCircuitBreaker breaker = new DaemonCircuitBreaker(3, Duration.ofMinutes(1), () -> { });
+        final DaemonHealthListener listener = mock(DaemonHealthListener.class);
+        breaker.addListener(listener);
+
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertThat(breaker.getState()).isEqualTo(DaemonCircuitBreaker.State.CLOSED);
+        breaker.recordFailure();
+        assertThat(breaker.getState()).isEqualTo(DaemonCircuitBreaker.State.OPEN);
+        breaker.recordFailure();
+        verify(listener, times(1)).onDaemonUnavailable();
+        verify(listener, never()).onDaemonAvailable();
+    }
+
+    @Test
+    void shouldFailFastWithoutStackTraceWhenOpen() {
+        final DaemonCircuitBreaker breaker = new DaemonCircuitBreaker(1, Duration.ofMinutes(1), () -> { });
+        breaker.checkAvailable();
+
+        breaker.recordFailure();
+        assertThatThrownBy(breaker::checkAvailable)
+                .isInstanceOf(DockerDaemonUnavailableException.class)
+                .satisfies(e -> assertThat(e.getStackTrace()).isEmpty());
+    }
+
+    @Test
+    void shouldCloseWhenProbeSucceeds() {
+        final AtomicBoolean isDaemonUp = new AtomicBoolean(false);
+        final DaemonCircuitBreaker breaker = new DaemonCircuitBreaker(1, OPEN_DURATION, () -> {
+            if (!isDaemonUp.get()) {
+                throw new IllegalStateException("connection refused");
+            }
+        });
+        final DaemonHealthListener listener = mock(DaemonHealthListener.class);
+        breaker.addListener(listener);
+
+        breaker.recordFailure();
+        isDaemonUp.set(true);
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> breaker.getState() == DaemonCircuitBreaker.State.CLOSED);
+        breaker.checkAvailable();
+        verify(listener).onDaemonUnavailable();
+        verify(listener).onDaemonAvailable();
+    }
+
+    @Test
+    void shouldStayOpenAndProbeAgainWhenProbeFails() {
+        final AtomicInteger probes = new AtomicInteger();
+        final DaemonCircuitBreaker breaker = new DaemonCircuitBreaker(1, OPEN_DURATION, () -> {
+            probes.incrementAndGet();
+            throw new IllegalStateException("connection refused");
+        });
+
+        breaker.recordFailure();
+        await().atMost(Duration.ofSeconds(5)).until(() -> probes.get() >= 3);
+        assertThat(breaker.getState()).isNotEqualTo(DaemonCircuitBreaker.State.CLOSED);
+        assertThatThrownBy(breaker::checkAvailable).isInstanceOf(DockerDaemonUnavailableException.class);
+    }
+
+    @Test
+    void shouldNotProbeOnceClosed() throws InterruptedException {
+        final AtomicInteger probes = new AtomicInteger();
+        final DaemonCircuitBreaker breaker = new DaemonCircuitBreaker(1, OPEN_DURATION, probes::incrementAndGet);
+
+        breaker.close();
+        breaker.recordFailure();
+        Thread.sleep(OPEN_DURATION.multipliedBy(4).toMillis());
+        assertThat(probes).hasValue(0);
+        assertThat(breaker.getState()).isEqualTo(DaemonCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void shouldLetProbeThroughWhileHalfOpen() {
+        final AtomicBoolean isProbeAdmitted = new AtomicBoolean(false);
+        final DaemonCircuitBreaker[] breaker = new DaemonCircuitBreaker[1];
+        breaker[0] = new DaemonCircuitBreaker(1, OPEN_DURATION, () -> {
+            breaker[0].checkAvailable();
+            isProbeAdmitted.set(true);
+        });
+
+        breaker[0].recordFailure();
+        await().atMost(Duration.ofSeconds(5)).untilTrue(isProbeAdmitted);
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> breaker[0].getState() == DaemonCircuitBreaker.State.CLOSED);
+    }
+}
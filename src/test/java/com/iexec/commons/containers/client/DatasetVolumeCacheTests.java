@@ -0,0 +1,238 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.github.dockerjava.api.model.AccessMode;
+import com.github.dockerjava.api.model.Bind;
+import com.github.dockerjava.api.model.Volume;
+import com.iexec.commons.containers.DockerRunRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DatasetVolumeCacheTests {
+
+    private static final String HELPER_IMAGE = "alpine:3.20";
+    private static final String HASH_A = "0x" + "a".repeat(64);
+    private static final String HASH_B = "b".repeat(64);
+    private static final String HASH_C = "c".repeat(64);
+
+    private final DockerClientInstance dockerClientInstance = mock(DockerClientInstance.class);
+    private final DatasetVolumeCache cache = new DatasetVolumeCache(dockerClientInstance, HELPER_IMAGE, 100);
+
+    @Test
+    void shouldSeedDatasetOnceAndAttachItReadOnly() {
+        mockDocker();
+        assertThat(cache.seedFromTar(HASH_A, tar(), 40)).isTrue();
+        assertThat(cache.seedFromTar(HASH_A, tar(), 40)).isTrue();
+        verify(dockerClientInstance).copyArchiveToVolume(eq(cache.getVolumeName(HASH_A)), eq(HELPER_IMAGE), any());
+
+        DockerRunRequest request = DockerRunRequest.builder().containerName("task").build();
+        assertThat(cache.attach(HASH_A.substring(2).toUpperCase(), request, "/iexec_in")).isTrue();
+        assertThat(request.getHostConfig().getBinds())
+                .containsExactly(new Bind(cache.getVolumeName(HASH_A),
+                        new Volume("/iexec_in"), AccessMode.ro));
+        assertThat(cache.getReferences(HASH_A)).isOne();
+        assertThat(cache.getUsedBytes()).isEqualTo(40);
+    }
+
+    @Test
+    void shouldNotAttachDatasetNotCached() {
+        DockerRunRequest request = DockerRunRequest.builder().containerName("task").build();
+        assertThat(cache.attach(HASH_A, request, "/iexec_in")).isFalse();
+        assertThat(cache.attach("not-a-hash", request, "/iexec_in")).isFalse();
+        assertThat(request.getHostConfig().getBinds()).isNullOrEmpty();
+    }
+
+    @Test
+    void shouldNotReferenceDatasetSinceRequestHasNoHostConfig() {
+        mockDocker();
+        assertThat(cache.seedFromTar(HASH_A, tar(), 40)).isTrue();
+        DockerRunRequest request = DockerRunRequest.builder().containerName("task").build();
+        request.setHostConfig(null);
+
+        assertThat(cache.attach(HASH_A, request, "/iexec_in")).isFalse();
+        assertThat(cache.attach(HASH_A, null, "/iexec_in")).isFalse();
+        assertThat(cache.getReferences(HASH_A)).isZero();
+    }
+
+    @Test
+    void shouldRemoveOnlyVolumesOfPreviousCacheOfSameOwnerOnCreation() {
+        when(dockerClientInstance.getVolumeNames("iexec-dataset-worker-")).thenReturn(List.of(
+                "iexec-dataset-worker-" + "a".repeat(64),
+                "iexec-dataset-worker-2-" + "b".repeat(64),
+                "iexec-dataset-worker-backup"));
+        when(dockerClientInstance.removeVolume(anyString())).thenReturn(true);
+
+        final DatasetVolumeCache restartedCache =
+                new DatasetVolumeCache(dockerClientInstance, HELPER_IMAGE, 100, "worker");
+
+        assertThat(restartedCache.getVolumeName(HASH_A)).isEqualTo("iexec-dataset-worker-" + "a".repeat(64));
+        verify(dockerClientInstance).removeVolume(restartedCache.getVolumeName(HASH_A));
+        verify(dockerClientInstance, times(1)).removeVolume(anyString());
+        assertThat(restartedCache.isCached(HASH_A)).isFalse();
+        assertThat(restartedCache.getUsedBytes()).isZero();
+    }
+
+    @Test
+    void shouldNotShareVolumesWithCacheOfAnotherOwner() {
+        final DatasetVolumeCache otherCache = new DatasetVolumeCache(dockerClientInstance, HELPER_IMAGE, 100);
+
+        assertThat(otherCache.getVolumeName(HASH_A)).isNotEqualTo(cache.getVolumeName(HASH_A));
+        assertThatThrownBy(() -> new DatasetVolumeCache(dockerClientInstance, HELPER_IMAGE, 100, "-worker"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldForgetDatasetWhenSeedFails() {
+        when(dockerClientInstance.createVolume(anyString())).thenReturn(true);
+        when(dockerClientInstance.copyArchiveToVolume(anyString(), anyString(), any())).thenReturn(false);
+        assertThat(cache.seedFromTar(HASH_A, tar(), 40)).isFalse();
+        assertThat(cache.isCached(HASH_A)).isFalse();
+        assertThat(cache.getUsedBytes()).isZero();
+        verify(dockerClientInstance).removeVolume(cache.getVolumeName(HASH_A));
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedDatasetsNotInUse() {
+        mockDocker();
+        DockerRunRequest request = DockerRunRequest.builder().containerName("task").build();
+        cache.seedFromTar(HASH_A, tar(), 40);
+        cache.seedFromTar(HASH_B, tar(), 40);
+        cache.attach(HASH_A, request, "/a");
+        cache.release(HASH_A);
+        // A was used after B, B is evicted
+        assertThat(cache.seedFromTar(HASH_C, tar(), 40)).isTrue();
+        verify(dockerClientInstance).removeVolume(cache.getVolumeName(HASH_B));
+        assertThat(cache.isCached(HASH_A)).isTrue();
+        assertThat(cache.isCached(HASH_B)).isFalse();
+        assertThat(cache.getUsedBytes()).isEqualTo(80);
+    }
+
+    @Test
+    void shouldKeepDatasetsInUseOverBudgetUntilReleased() {
+        mockDocker();
+        DockerRunRequest request = DockerRunRequest.builder().containerName("task").build();
+        cache.seedFromTar(HASH_A, tar(), 60);
+        cache.attach(HASH_A, request, "/a");
+        assertThat(cache.seedFromTar(HASH_B, tar(), 60)).isTrue();
+        assertThat(cache.getUsedBytes()).isEqualTo(120);
+        verify(dockerClientInstance, never()).removeVolume(anyString());
+
+        // A was used last on release, B is evicted
+        cache.release(HASH_A);
+        verify(dockerClientInstance).removeVolume(cache.getVolumeName(HASH_B));
+        assertThat(cache.getUsedBytes()).isEqualTo(60);
+        assertThat(cache.isCached(HASH_A)).isTrue();
+        assertThat(cache.getReferences(HASH_A)).isZero();
+    }
+
+    @Test
+    void shouldCopyDatasetOnceForConcurrentSeeds() throws Exception {
+        CountDownLatch copyStarted = new CountDownLatch(1);
+        CountDownLatch copyAllowed = new CountDownLatch(1);
+        when(dockerClientInstance.createVolume(anyString())).thenReturn(true);
+        when(dockerClientInstance.copyArchiveToVolume(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            copyStarted.countDown();
+            return copyAllowed.await(5, TimeUnit.SECONDS);
+        });
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> cache.seedFromTar(HASH_A, tar(), 10));
+        assertThat(copyStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        List<CompletableFuture<Boolean>> others = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            others.add(CompletableFuture.supplyAsync(() -> cache.seedFromTar(HASH_A, tar(), 10)));
+        }
+        copyAllowed.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isTrue();
+        for (CompletableFuture<Boolean> other : others) {
+            assertThat(other.get(5, TimeUnit.SECONDS)).isTrue();
+        }
+        verify(dockerClientInstance, times(1)).copyArchiveToVolume(anyString(), anyString(), any());
+    }
+
+    @Test
+    void shouldSeedEvictedDatasetOnceItsVolumeIsRemoved() throws Exception {
+        final String volumeA = cache.getVolumeName(HASH_A);
+        final CountDownLatch removalStarted = new CountDownLatch(1);
+        final CountDownLatch removalAllowed = new CountDownLatch(1);
+        final List<String> calls = new CopyOnWriteArrayList<>();
+        when(dockerClientInstance.createVolume(anyString())).thenAnswer(invocation -> {
+            calls.add("create " + invocation.getArgument(0));
+            return true;
+        });
+        when(dockerClientInstance.copyArchiveToVolume(anyString(), anyString(), any())).thenReturn(true);
+        when(dockerClientInstance.removeVolume(anyString())).thenAnswer(invocation -> {
+            removalStarted.countDown();
+            assertThat(removalAllowed.await(5, TimeUnit.SECONDS)).isTrue();
+            calls.add("remove " + invocation.getArgument(0));
+            return true;
+        });
+        cache.seedFromTar(HASH_A, tar(), 60);
+
+        // A is evicted to make room for B
+        final CompletableFuture<Boolean> seedB = CompletableFuture.supplyAsync(() -> cache.seedFromTar(HASH_B, tar(), 60));
+        assertThat(removalStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        final CompletableFuture<Boolean> seedA = CompletableFuture.supplyAsync(() -> cache.seedFromTar(HASH_A, tar(), 30));
+        Thread.sleep(100);
+        assertThat(seedA).isNotDone();
+        removalAllowed.countDown();
+
+        assertThat(seedB.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(seedA.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(calls).containsSubsequence("remove " + volumeA, "create " + volumeA);
+        assertThat(cache.isCached(HASH_A)).isTrue();
+    }
+
+    @Test
+    void shouldSeedDatasetFromDirectoryWithItsSize(@TempDir Path directory) throws IOException {
+        Files.write(directory.resolve("file"), new byte[30]);
+        Files.createDirectory(directory.resolve("sub"));
+        Files.write(directory.resolve("sub").resolve("other"), new byte[12]);
+        when(dockerClientInstance.createVolume(anyString())).thenReturn(true);
+        when(dockerClientInstance.copyDirectoryToVolume(anyString(), anyString(), any())).thenReturn(true);
+
+        assertThat(cache.seedFromDirectory(HASH_A, directory)).isTrue();
+        verify(dockerClientInstance).copyDirectoryToVolume(cache.getVolumeName(HASH_A), HELPER_IMAGE, directory);
+        assertThat(cache.getUsedBytes()).isEqualTo(42);
+    }
+
+    private void mockDocker() {
+        when(dockerClientInstance.createVolume(anyString())).thenReturn(true);
+        when(dockerClientInstance.copyArchiveToVolume(anyString(), anyString(), any())).thenReturn(true);
+        when(dockerClientInstance.removeVolume(anyString())).thenReturn(true);
+    }
+
+    private static InputStream tar() {
+        return new ByteArrayInputStream(new byte[0]);
+    }
+}
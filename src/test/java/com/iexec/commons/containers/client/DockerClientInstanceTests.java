@@ -17,10 +17,18 @@
 package com.iexec.commons.containers.client;
 
 import com.github.dockerjava.api.DockerClient;
-import com.github.dockerjava.api.command.CreateContainerCmd;
-import com.github.dockerjava.api.command.LogContainerCmd;
-import com.github.dockerjava.api.command.PullImageCmd;
-import com.github.dockerjava.api.command.PullImageResultCallback;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.command.*;
+import com.github.dockerjava.api.exception.InternalServerErrorException;
+import com.github.dockerjava.api.exception.NotFoundException;
+import com.github.dockerjava.api.exception.NotModifiedException;
+import com.github.dockerjava.api.model.Bind;
+import com.github.dockerjava.api.model.ExposedPort;
+import com.github.dockerjava.api.model.HostConfig;
+import com.github.dockerjava.api.model.Network;
+import com.github.dockerjava.api.model.PortBinding;
+import com.github.dockerjava.api.model.Ports;
+import com.github.dockerjava.api.model.WaitResponse;
 import com.iexec.commons.containers.*;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -28,6 +36,7 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.NullSource;
 import org.junit.jupiter.params.provider.ValueSource;
@@ -35,16 +44,25 @@ import org.springframework.boot.test.system.CapturedOutput;
 import org.springframework.boot.test.system.OutputCaptureExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -218,6 +236,21 @@ class DockerClientInstanceTests extends AbstractDockerTests {
         dockerClientInstance.pullImage(ALPINE_LATEST);
         assertThat(stdout.getOut()).contains("Docker pull command was interrupted");
     }
+
+    @Test
+    void shouldStopPullOnTimeout() throws Exception {
+        final DockerClient dockerClient = mock(DockerClient.class);
+        final PullImageCmd pullImageCmd = mock(PullImageCmd.class);
+        final PullImageResultCallback resultCallback = mock(PullImageResultCallback.class);
+        ReflectionTestUtils.setField(dockerClientInstance, "client", dockerClient);
+        when(dockerClient.pullImageCmd("alpine")).thenReturn(pullImageCmd);
+        when(pullImageCmd.withTag("latest")).thenReturn(pullImageCmd);
+        when(pullImageCmd.exec(any())).thenReturn(resultCallback);
+        when(resultCallback.awaitCompletion(1, TimeUnit.SECONDS)).thenReturn(false);
+
+        assertThat(dockerClientInstance.pullImage(ALPINE_LATEST, Duration.ofSeconds(1))).isFalse();
+        verify(resultCallback).close();
+    }
     //endregion
 
     //region getImageId
@@ -325,6 +358,537 @@ class DockerClientInstanceTests extends AbstractDockerTests {
     }
     //endregion
 
+    //region resolveImageId
+    @Test
+    void shouldResolveImageIdsOncePerImage() {
+        final DockerClient dockerClient = mock(DockerClient.class);
+        final InspectImageCmd inspectImageCmd = mock(InspectImageCmd.class);
+        final InspectImageResponse inspectImageResponse = mock(InspectImageResponse.class);
+        ReflectionTestUtils.setField(dockerClientInstance, "client", dockerClient);
+        when(dockerClient.inspectImageCmd(ALPINE_LATEST)).thenReturn(inspectImageCmd);
+        when(inspectImageCmd.exec()).thenReturn(inspectImageResponse);
+        when(inspectImageResponse.getId()).thenReturn("sha256:alpine");
+        final DockerRunRequest request1 = getDefaultDockerRunRequest(SgxDriverMode.NONE);
+        final DockerRunRequest request2 = getDefaultDockerRunRequest(SgxDriverMode.NONE);
+        request2.setImageUri(DOCKER_IO_LIBRARY_IMAGE);
+
+        assertThat(dockerClientInstance.resolveImageIds(List.of(request1, request2))).isTrue();
+        assertThat(request1.getImageId()).isEqualTo("sha256:alpine");
+        assertThat(request1.getImageToCreate()).isEqualTo("sha256:alpine");
+        assertThat(request2.getImageId()).isEqualTo("sha256:alpine");
+        verify(dockerClient, times(1)).inspectImageCmd(ALPINE_LATEST);
+    }
+
+    @Test
+    void shouldResolveImageIdAgainSinceTagMovedByAnotherClient() {
+        final DockerClient dockerClient = mock(DockerClient.class);
+        final InspectImageCmd inspectImageCmd = mock(InspectImageCmd.class);
+        final InspectImageResponse inspectImageResponse = mock(InspectImageResponse.class);
+        ReflectionTestUtils.setField(dockerClientInstance, "client", dockerClient);
+        when(dockerClient.inspectImageCmd(ALPINE_LATEST)).thenReturn(inspectImageCmd);
+        when(inspectImageCmd.exec()).thenReturn(inspectImageResponse);
+        when(inspectImageResponse.getId()).thenReturn("sha256:old", "sha256:new");
+        final DockerRunRequest request1 = getDefaultDockerRunRequest(SgxDriverMode.NONE);
+        final DockerRunRequest request2 = getDefaultDockerRunRequest(SgxDriverMode.NONE);
+
+        assertThat(dockerClientInstance.resolveImageIds(List.of(request1))).isTrue();
+        assertThat(dockerClientInstance.resolveImageIds(List.of(request2))).isTrue();
+        assertThat(request1.getImageId()).isEqualTo("sha256:old");
+        assertThat(request2.getImageId()).isEqualTo("sha256:new");
+    }
+
+    @Test
+    void shouldNotResolveImageIdsSinceImageNotFound() {
+        final DockerClient dockerClient = mock(DockerClient.class);
+        final InspectImageCmd inspectImageCmd = mock(InspectImageCmd.class);
+        ReflectionTestUtils.setField(dockerClientInstance, "client", dockerClient);
+        when(dockerClient.inspectImageCmd(BLABLA_LATEST)).thenReturn(inspectImageCmd);
+        when(inspectImageCmd.exec()).thenThrow(new NotFoundException("not found"));
+        final DockerRunRequest request = getDefaultDockerRunRequest(SgxDriverMode.NONE);
+        request.setImageUri(BLABLA_LATEST);
+
+        assertThat(dockerClientInstance.resolveImageIds(List.of(request))).isFalse();
+        assertThat(request.getImageId()).isNull();
+        assertThat(request.getImageToCreate()).isEqualTo(BLABLA_LATEST);
+    }
+
+    @Test
+    void shouldResolveImageIdAgainAfterPull() throws InterruptedException {
+        final DockerClient dockerClient = mock(DockerClient.class);
+        final InspectImageCmd inspectImageCmd = mock(InspectImageCmd.class);
+        final InspectImageResponse inspectImageResponse = mock(InspectImageResponse.class);
+        final PullImageCmd pullImageCmd = mock(PullImageCmd.class);
+        final PullImageResultCallback resultCallback = mock(PullImageResultCallback.class);
+        ReflectionTestUtils.setField(dockerClientInstance, "client", dockerClient);
+        when(dockerClient.inspectImageCmd(ALPINE_LATEST)).thenReturn(inspectImageCmd);
+        when(inspectImageCmd.exec()).thenReturn(inspectImageResponse);
+        when(inspectImageResponse.getId()).thenReturn("sha256:old", "sha256:new");
+        when(dockerClient.pullImageCmd("alpine")).thenReturn(pullImageCmd);
+        when(pullImageCmd.withTag("latest")).thenReturn(pullImageCmd);
+        when(pullImageCmd.exec(any())).thenReturn(resultCallback);
+        when(resultCallback.awaitCompletion(60, TimeUnit.SECONDS)).thenReturn(true);
+
+        assertThat(dockerClientInstance.resolveImageId(ALPINE_LATEST)).isEqualTo("sha256:old");
+        assertThat(dockerClientInstance.pullImage(ALPINE_LATEST)).isTrue();
+        assertThat(dockerClientInstance.resolveImageId(ALPINE_LATEST)).isEqualTo("sha256:new");
+    }
+
+    @Test
+    void shouldCreateContainerFromResolvedImageId() {
+        final DockerClient dockerClient = mock(DockerClient.class);
+        final CreateContainerCmd createContainerCmd = mock(CreateContainerCmd.class, RETURNS_SELF);
+        final CreateContainerResponse createContainerResponse = mock(CreateContainerResponse.class);
+        ReflectionTestUtils.setField(dockerClientInstance, "client", dockerClient);
+        final DockerRunRequest request = getDefaultDockerRunRequest(SgxDriverMode.NONE);
+        request.setImageId("sha256:alpine");
+        doReturn(false).when(dockerClientInstance).isContainerPresent(request.getContainerName());
+        doReturn("networkId").when(dockerClientInstance).createNetwork(DOCKER_NETWORK);
+        when(dockerClient.createContainerCmd("sha256:alpine")).thenReturn(createContainerCmd);
+        when(createContainerCmd.exec()).thenReturn(createContainerResponse);
+        when(createContainerResponse.getId()).thenReturn("containerId");
+
+        assertThat(dockerClientInstance.createContainer(request)).isEqualTo("containerId");
+        verify(dockerClient, never()).createContainerCmd(ALPINE_LATEST);
+    }
+    //endregion
+
+    //region read coalescing
+    @Test
+    void shouldCoalesceConcurrentContainerStatusReads() throws InterruptedException {
+        final DockerClient dockerClient = mock(DockerClient.class);
+        final InspectContainerCmd inspectContainerCmd = mock(InspectContainerCmd.class);
+        final InspectContainerResponse inspectContainerResponse = mock(InspectContainerResponse.class);
+        final InspectContainerResponse.ContainerState containerState = mock(InspectContainerResponse.ContainerState.class);
+        final CountDownLatch release = new CountDownLatch(1);
+        ReflectionTestUtils.setField(dockerClientInstance, "client", dockerClient);
+        when(dockerClient.inspectContainerCmd("containerName")).thenReturn(inspectContainerCmd);
+        when(inspectContainerCmd.exec()).thenAnswer(invocation -> {
+            release.await();
+            return inspectContainerResponse;
+        });
+        when(inspectContainerResponse.getState()).thenReturn(containerState);
+        when(containerState.getStatus()).thenReturn(DockerClientInstance.RUNNING_STATUS);
+
+        final List<CompletableFuture<String>> statuses = IntStream.range(0, 4)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> dockerClientInstance.getContainerStatus("containerName")))
+                .toList();
+        verify(inspectContainerCmd, timeout(5000)).exec();
+        TimeUnit.MILLISECONDS.sleep(200);
+        release.countDown();
+
+        assertThat(statuses).allSatisfy(status -> assertThat(status.join()).isEqualTo(DockerClientInstance.RUNNING_STATUS));
+        verify(inspectContainerCmd, times(1)).exec();
+    }
+
+    @Test
+    void shouldReadNetworkIdAgainAfterRemovalDespiteTtl() {
+        final DockerClient dockerClient = mock(DockerClient.class);
+        final ListNetworksCmd listNetworksCmd = mock(ListNetworksCmd.class, RETURNS_SELF);
+        final RemoveNetworkCmd removeNetworkCmd = mock(RemoveNetworkCmd.class);
+        final Network network = mock(Network.class);
+        ReflectionTestUtils.setField(dockerClientInstance, "client", dockerClient);
+        dockerClientInstance.setReadCoalescingTtl(Duration.ofMinutes(1));
+        when(dockerClient.listNetworksCmd()).thenReturn(listNetworksCmd);
+        when(listNetworksCmd.exec()).thenReturn(List.of(network)).thenReturn(List.of());
+        when(network.getName()).thenReturn(DOCKER_NETWORK);
+        when(network.getId()).thenReturn("networkId");
+        when(dockerClient.removeNetworkCmd(DOCKER_NETWORK)).thenReturn(removeNetworkCmd);
+
+        assertThat(dockerClientInstance.getNetworkId(DOCKER_NETWORK)).isEqualTo("networkId");
+        assertThat(dockerClientInstance.getNetworkId(DOCKER_NETWORK)).isEqualTo("networkId");
+        verify(listNetworksCmd, times(1)).exec();
+        assertThat(dockerClientInstance.removeNetwork(DOCKER_NETWORK)).isTrue();
+        assertThat(dockerClientInstance.getNetworkId(DOCKER_NETWORK)).isEmpty();
+    }
+
+    @Test
+    void shouldListNetworksOnceWhenCreatingPresentNetwork() {
+        final DockerClient dockerClient = mock(DockerClient.class);
+        final ListNetworksCmd listNetworksCmd = mock(ListNetworksCmd.class, RETURNS_SELF);
+        final Network network = mock(Network.class);
+        ReflectionTestUtils.setField(dockerClientInstance, "client", dockerClient);
+        when(dockerClient.listNetworksCmd()).thenReturn(listNetworksCmd);
+        when(listNetworksCmd.exec()).thenReturn(List.of(network));
+        when(network.getName()).thenReturn(DOCKER_NETWORK);
+        when(network.getId()).thenReturn("networkId");
+
+        assertThat(dockerClientInstance.createNetwork(DOCKER_NETWORK)).isEqualTo("networkId");
+        verify(listNetworksCmd, times(1)).exec();
+        verify(dockerClient, never()).createNetworkCmd();
+    }
+    //endregion
+
+    //region async
+    @Test
+    void shouldRunAsyncOnPlatformThreadByDefault() {
+        final DockerRunRequest request = getDefaultDockerRunRequest(SgxDriverMode.NONE);
+        final List<Thread> threads = new ArrayList<>();
+        doAnswer(invocation -> {
+            threads.add(Thread.currentThread());
+            return DockerRunResponse.builder().finalStatus(DockerRunFinalStatus.SUCCESS).build();
+        }).when(dockerClientInstance).run(request);
+
+        assertThat(dockerClientInstance.getExecutionMode()).isEqualTo(ExecutionMode.PLATFORM_THREADS);
+        assertThat(dockerClientInstance.runAsync(request).join().isSuccessful()).isTrue();
+        assertThat(threads).singleElement().matches(thread -> !thread.isVirtual() && thread.isDaemon());
+    }
+
+    @Test
+    void shouldRunAsyncOnVirtualThread() {
+        final DockerRunRequest request = getDefaultDockerRunRequest(SgxDriverMode.NONE);
+        final List<Thread> threads = new ArrayList<>();
+        doAnswer(invocation -> {
+            threads.add(Thread.currentThread());
+            return DockerRunResponse.builder().finalStatus(DockerRunFinalStatus.SUCCESS).build();
+        }).when(dockerClientInstance).run(request);
+        dockerClientInstance.setExecutionMode(ExecutionMode.VIRTUAL_THREADS);
+
+        assertThat(dockerClientInstance.runAsync(request).join().isSuccessful()).isTrue();
+        assertThat(threads).singleElement().matches(Thread::isVirtual);
+    }
+
+    @Test
+    void shouldReleaseThreadsOnClose() {
+        final DockerClientInstance instance = new DockerClientInstance();
+        final TimingWheel deadlineWheel = (TimingWheel) ReflectionTestUtils.getField(instance, "deadlineWheel");
+
+        instance.close();
+        instance.close();
+        instance.setExecutionMode(ExecutionMode.VIRTUAL_THREADS);
+        assertThat(instance.getExecutionMode()).isEqualTo(ExecutionMode.PLATFORM_THREADS);
+        assertThat((ExecutorService) ReflectionTestUtils.getField(instance, "asyncExecutor"))
+                .matches(ExecutorService::isShutdown);
+        assertThrows(IllegalStateException.class, () -> deadlineWheel.schedule(() -> { }, Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void shouldNotWaitForContainerOnceClosed() throws TimeoutException {
+        final DockerClientInstance instance = new DockerClientInstance();
+        final DockerClient dockerClient = mock(DockerClient.class);
+        final WaitContainerCmd waitContainerCmd = mock(WaitContainerCmd.class);
+        ReflectionTestUtils.setField(instance, "client", dockerClient);
+        when(dockerClient.waitContainerCmd("container")).thenReturn(waitContainerCmd);
+        instance.close();
+
+        assertThat(instance.waitContainerUntilExitOrTimeout("container", Instant.now().plusSeconds(5))).isEqualTo(-1);
+        verify(waitContainerCmd, never()).exec(any());
+        verify(waitContainerCmd).close();
+    }
+
+    @Test
+    void shouldRunTaskGroupWhileExecutionModeChanges() {
+        final DockerRunRequest request = getDefaultDockerRunRequest(SgxDriverMode.NONE);
+        request.getHostConfig().withNetworkMode(null);
+        final List<Thread> launchThreads = new ArrayList<>();
+        doAnswer(invocation -> {
+            // the executor of the previous mode is shut down
+            dockerClientInstance.setExecutionMode(ExecutionMode.VIRTUAL_THREADS);
+            return new PreparedRun(invocation.getArgument(0), true, null, false);
+        }).when(dockerClientInstance).prepare(any(DockerRunRequest.class));
+        doAnswer(invocation -> {
+            launchThreads.add(Thread.currentThread());
+            invocation.<Runnable>getArgument(1).run();
+            return CompletableFuture.completedFuture(
+                    DockerRunResponse.builder().finalStatus(DockerRunFinalStatus.SUCCESS).build());
+        }).when(dockerClientInstance).runPrepared(any(PreparedRun.class), any(Runnable.class));
+        final TaskGroup taskGroup = TaskGroup.builder()
+                .name("task")
+                .member(TaskGroupMember.builder().dockerRunRequest(request).build())
+                .build();
+
+        assertThat(dockerClientInstance.runTaskGroup(taskGroup).isSuccessful()).isTrue();
+        assertThat(launchThreads).singleElement().matches(Thread::isVirtual);
+    }
+    //endregion
+
+    //region warm snapshot
+    @Test
+    void shouldCommitWarmSnapshot() throws TimeoutException {
+        final DockerClient dockerClient = mock(DockerClient.class);
+        final CommitCmd commitCmd = mock(CommitCmd.class, RETURNS_SELF);
+        ReflectionTestUtils.setField(dockerClientInstance, "client", dockerClient);
+        final String tag = DockerClientInstance.getWarmSnapshotTag("sha256:alpine", "init");
+        final String initContainerName = DockerClientInstance.WARM_SNAPSHOT_REPOSITORY + "-init-" + tag;
+        doReturn("sha256:alpine").when(dockerClientInstance).resolveImageId(ImageReference.of(ALPINE_LATEST));
+        doReturn(false).when(dockerClientInstance).isImagePresent(anyString());
+        doReturn(Optional.of(ImageMetadata.builder().id("sha256:alpine").cmd(List.of("/bin/sh")).build()))
+                .when(dockerClientInstance).getImageMetadata(ImageReference.of(ALPINE_LATEST));
+        doReturn("initContainerId").when(dockerClientInstance).createContainer(any(DockerRunRequest.class));
+        doReturn(true).when(dockerClientInstance).startContainer(initContainerName);
+        doReturn(0).when(dockerClientInstance).waitContainerUntilExitOrTimeout(eq(initContainerName), any());
+        when(dockerClient.commitCmd(initContainerName)).thenReturn(commitCmd);
+
+        assertThat(dockerClientInstance.createWarmSnapshot(ALPINE_LATEST, "init", Duration.ofMinutes(1)))
+                .isEqualTo(DockerClientInstance.WARM_SNAPSHOT_REPOSITORY + ":" + tag);
+        verify(dockerClientInstance).createContainer(argThat((DockerRunRequest request) ->
+                "sha256:alpine".equals(request.getImageToCreate()) && "init".equals(request.getCmd())));
+        verify(commitCmd).withRepository(DockerClientInstance.WARM_SNAPSHOT_REPOSITORY);
+        verify(commitCmd).withTag(tag);
+        verify(commitCmd).withCmd("/bin/sh");
+        verify(commitCmd).exec();
+        verify(dockerClientInstance).removeContainer(initContainerName);
+    }
+
+    @Test
+    void shouldNotCommitWarmSnapshotSinceInitializationFailed() throws TimeoutException {
+        final DockerClient dockerClient = mock(DockerClient.class);
+        ReflectionTestUtils.setField(dockerClientInstance, "client", dockerClient);
+        final String tag = DockerClientInstance.getWarmSnapshotTag("sha256:alpine", "init");
+        final String initContainerName = DockerClientInstance.WARM_SNAPSHOT_REPOSITORY + "-init-" + tag;
+        doReturn("sha256:alpine").when(dockerClientInstance).resolveImageId(ImageReference.of(ALPINE_LATEST));
+        doReturn(false).when(dockerClientInstance).isImagePresent(anyString());
+        doReturn(Optional.of(ImageMetadata.builder().id("sha256:alpine").build()))
+                .when(dockerClientInstance).getImageMetadata(ImageReference.of(ALPINE_LATEST));
+        doReturn("initContainerId").when(dockerClientInstance).createContainer(any(DockerRunRequest.class));
+        doReturn(true).when(dockerClientInstance).startContainer(initContainerName);
+        doReturn(1).when(dockerClientInstance).waitContainerUntilExitOrTimeout(eq(initContainerName), any());
+
+        assertThat(dockerClientInstance.createWarmSnapshot(ALPINE_LATEST, "init", Duration.ofMinutes(1))).isEmpty();
+        verify(dockerClient, never()).commitCmd(anyString());
+        verify(dockerClientInstance).removeContainer(initContainerName);
+    }
+
+    @Test
+    void shouldCreateContainerFromWarmSnapshot() {
+        final DockerClient dockerClient = mock(DockerClient.class);
+        final CreateContainerCmd createContainerCmd = mock(CreateContainerCmd.class, RETURNS_SELF);
+        final CreateContainerResponse createContainerResponse = mock(CreateContainerResponse.class);
+        ReflectionTestUtils.setField(dockerClientInstance, "client", dockerClient);
+        final String snapshotImage = registerWarmSnapshot();
+        final DockerRunRequest request = getDefaultDockerRunRequest(SgxDriverMode.NONE);
+        doReturn("sha256:alpine").when(dockerClientInstance).resolveImageId(ImageReference.of(ALPINE_LATEST));
+        doReturn(false).when(dockerClientInstance).isContainerPresent(request.getContainerName());
+        doReturn("networkId").when(dockerClientInstance).createNetwork(DOCKER_NETWORK);
+        when(dockerClient.createContainerCmd(snapshotImage)).thenReturn(createContainerCmd);
+        when(createContainerCmd.exec()).thenReturn(createContainerResponse);
+        when(createContainerResponse.getId()).thenReturn("containerId");
+
+        assertThat(dockerClientInstance.createContainer(request)).isEqualTo("containerId");
+        verify(dockerClient, never()).createContainerCmd(ALPINE_LATEST);
+    }
+
+    @Test
+    void shouldDropWarmSnapshotSinceImageChanged() {
+        final DockerClient dockerClient = mock(DockerClient.class);
+        final CreateContainerCmd createContainerCmd = mock(CreateContainerCmd.class, RETURNS_SELF);
+        final CreateContainerResponse createContainerResponse = mock(CreateContainerResponse.class);
+        ReflectionTestUtils.setField(dockerClientInstance, "client", dockerClient);
+        final String snapshotImage = registerWarmSnapshot();
+        final DockerRunRequest request = getDefaultDockerRunRequest(SgxDriverMode.NONE);
+        doReturn("sha256:other").when(dockerClientInstance).resolveImageId(ImageReference.of(ALPINE_LATEST));
+        doReturn(true).when(dockerClientInstance).removeImage(snapshotImage);
+        doReturn(false).when(dockerClientInstance).isContainerPresent(request.getContainerName());
+        doReturn("networkId").when(dockerClientInstance).createNetwork(DOCKER_NETWORK);
+        when(dockerClient.createContainerCmd(ALPINE_LATEST)).thenReturn(createContainerCmd);
+        when(createContainerCmd.exec()).thenReturn(createContainerResponse);
+        when(createContainerResponse.getId()).thenReturn("containerId");
+
+        assertThat(dockerClientInstance.createContainer(request)).isEqualTo("containerId");
+        verify(dockerClient, never()).createContainerCmd(snapshotImage);
+        verify(dockerClientInstance).removeImage(snapshotImage);
+        assertThat(dockerClientInstance.removeWarmSnapshot(ALPINE_LATEST)).isFalse();
+    }
+
+    @Test
+    void shouldDropWarmSnapshotSinceTagMovedAfterRequestWasResolved() {
+        final DockerClient dockerClient = mock(DockerClient.class);
+        final CreateContainerCmd createContainerCmd = mock(CreateContainerCmd.class, RETURNS_SELF);
+        final CreateContainerResponse createContainerResponse = mock(CreateContainerResponse.class);
+        ReflectionTestUtils.setField(dockerClientInstance, "client", dockerClient);
+        final String snapshotImage = registerWarmSnapshot();
+        final DockerRunRequest request = getDefaultDockerRunRequest(SgxDriverMode.NONE);
+        // resolved before the tag was moved by another client
+        request.setImageId("sha256:alpine");
+        doReturn("sha256:other").when(dockerClientInstance).resolveImageId(ImageReference.of(ALPINE_LATEST));
+        doReturn(true).when(dockerClientInstance).removeImage(snapshotImage);
+        doReturn(false).when(dockerClientInstance).isContainerPresent(request.getContainerName());
+        doReturn("networkId").when(dockerClientInstance).createNetwork(DOCKER_NETWORK);
+        when(dockerClient.createContainerCmd("sha256:alpine")).thenReturn(createContainerCmd);
+        when(createContainerCmd.exec()).thenReturn(createContainerResponse);
+        when(createContainerResponse.getId()).thenReturn("containerId");
+
+        assertThat(dockerClientInstance.createContainer(request)).isEqualTo("containerId");
+        verify(dockerClient, never()).createContainerCmd(snapshotImage);
+        verify(dockerClientInstance).removeImage(snapshotImage);
+    }
+
+    @Test
+    void shouldKeepWarmSnapshotSinceRequestResolvedToAnotherImage() {
+        final DockerClient dockerClient = mock(DockerClient.class);
+        final CreateContainerCmd createContainerCmd = mock(CreateContainerCmd.class, RETURNS_SELF);
+        final CreateContainerResponse createContainerResponse = mock(CreateContainerResponse.class);
+        ReflectionTestUtils.setField(dockerClientInstance, "client", dockerClient);
+        final String snapshotImage = registerWarmSnapshot();
+        final DockerRunRequest request = getDefaultDockerRunRequest(SgxDriverMode.NONE);
+        request.setImageId("sha256:older");
+        doReturn(false).when(dockerClientInstance).isContainerPresent(request.getContainerName());
+        doReturn("networkId").when(dockerClientInstance).createNetwork(DOCKER_NETWORK);
+        when(dockerClient.createContainerCmd("sha256:older")).thenReturn(createContainerCmd);
+        when(createContainerCmd.exec()).thenReturn(createContainerResponse);
+        when(createContainerResponse.getId()).thenReturn("containerId");
+
+        assertThat(dockerClientInstance.createContainer(request)).isEqualTo("containerId");
+        verify(dockerClient, never()).createContainerCmd(snapshotImage);
+        verify(dockerClientInstance, never()).removeImage(snapshotImage);
+    }
+
+    private String registerWarmSnapshot() {
+        doReturn("sha256:alpine").when(dockerClientInstance).resolveImageId(ImageReference.of(ALPINE_LATEST));
+        doReturn(true).when(dockerClientInstance).isImagePresent(anyString());
+        final String snapshotImage = dockerClientInstance.createWarmSnapshot(ALPINE_LATEST, "init", Duration.ofMinutes(1));
+        assertThat(snapshotImage).startsWith(DockerClientInstance.WARM_SNAPSHOT_REPOSITORY + ":");
+        return snapshotImage;
+    }
+    //endregion
+
+    //region pauseContainer
+    @Test
+    void shouldTrackPausedDurationUntilContainerRemoved() throws InterruptedException {
+        final DockerClient dockerClient = mock(DockerClient.class);
+        ReflectionTestUtils.setField(dockerClientInstance, "client", dockerClient);
+        when(dockerClient.pauseContainerCmd("containerName")).thenReturn(mock(PauseContainerCmd.class));
+        when(dockerClient.unpauseContainerCmd("containerName")).thenReturn(mock(UnpauseContainerCmd.class));
+        when(dockerClient.removeContainerCmd("containerName")).thenReturn(mock(RemoveContainerCmd.class));
+
+        assertThat(dockerClientInstance.getPausedDuration("containerName")).isZero();
+        assertThat(dockerClientInstance.pauseContainer("containerName")).isTrue();
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertThat(dockerClientInstance.unpauseContainer("containerName")).isTrue();
+        final Duration pausedDuration = dockerClientInstance.getPausedDuration("containerName");
+        assertThat(pausedDuration).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+        TimeUnit.MILLISECONDS.sleep(50);
+        assertThat(dockerClientInstance.getPausedDuration("containerName")).isEqualTo(pausedDuration);
+
+        assertThat(dockerClientInstance.removeContainer("containerName")).isTrue();
+        assertThat(dockerClientInstance.getPausedDuration("containerName")).isZero();
+    }
+
+    @Test
+    void shouldNotPauseContainerSinceDockerCmdException() {
+        final DockerClient dockerClient = mock(DockerClient.class);
+        ReflectionTestUtils.setField(dockerClientInstance, "client", dockerClient);
+        final PauseContainerCmd pauseContainerCmd = mock(PauseContainerCmd.class);
+        when(dockerClient.pauseContainerCmd("containerName")).thenReturn(pauseContainerCmd);
+        when(pauseContainerCmd.exec()).thenThrow(new NotFoundException("no such container"));
+
+        assertThat(dockerClientInstance.pauseContainer("containerName")).isFalse();
+        assertThat(dockerClientInstance.pauseContainer("")).isFalse();
+        assertThat(dockerClientInstance.getPausedDuration("containerName")).isZero();
+    }
+    //endregion
+
+    //region createVolume
+    @Test
+    void shouldCreateTmpfsVolume() {
+        final DockerClient dockerClient = mock(DockerClient.class);
+        ReflectionTestUtils.setField(dockerClientInstance, "client", dockerClient);
+        doReturn(Optional.empty()).when(dockerClientInstance).getVolume("scratch");
+        final CreateVolumeCmd createVolumeCmd = mock(CreateVolumeCmd.class, RETURNS_SELF);
+        final CreateVolumeResponse createVolumeResponse = new CreateVolumeResponse();
+        ReflectionTestUtils.setField(createVolumeResponse, "name", "scratch");
+        when(dockerClient.createVolumeCmd()).thenReturn(createVolumeCmd);
+        when(createVolumeCmd.exec()).thenReturn(createVolumeResponse);
+
+        assertThat(dockerClientInstance.createTmpfsVolume("scratch", "512m")).isTrue();
+        verify(createVolumeCmd).withName("scratch");
+        verify(createVolumeCmd).withDriver(DockerClientInstance.LOCAL_VOLUME_DRIVER);
+        verify(createVolumeCmd).withDriverOpts(Map.of("type", "tmpfs", "device", "tmpfs", "o", "size=512m"));
+        verify(createVolumeCmd).withLabels(Map.of());
+        assertThat(dockerClientInstance.createTmpfsVolume("scratch", "")).isFalse();
+    }
+
+    @Test
+    void shouldReusePresentVolumeOnlyWithSameOptions() {
+        final InspectVolumeResponse presentVolume = new InspectVolumeResponse();
+        ReflectionTestUtils.setField(presentVolume, "name", "scratch");
+        ReflectionTestUtils.setField(presentVolume, "driver", DockerClientInstance.LOCAL_VOLUME_DRIVER);
+        ReflectionTestUtils.setField(presentVolume, "options",
+                Map.of("type", "tmpfs", "device", "tmpfs", "o", "size=512m"));
+        ReflectionTestUtils.setField(presentVolume, "labels", Map.of("owner", "task", "stage", "1"));
+        doReturn(Optional.of(presentVolume)).when(dockerClientInstance).getVolume("scratch");
+
+        assertThat(dockerClientInstance.createTmpfsVolume("scratch", "512m")).isTrue();
+        assertThat(dockerClientInstance.createVolume("scratch", null,
+                Map.of("type", "tmpfs", "device", "tmpfs", "o", "size=512m"), Map.of("owner", "task"))).isTrue();
+        assertThat(dockerClientInstance.createTmpfsVolume("scratch", "1g")).isFalse();
+        assertThat(dockerClientInstance.createVolume("scratch", null, null, null)).isFalse();
+        assertThat(dockerClientInstance.createVolume("scratch", "nfs",
+                Map.of("type", "tmpfs", "device", "tmpfs", "o", "size=512m"), Map.of())).isFalse();
+        assertThat(dockerClientInstance.createVolume("scratch", null,
+                Map.of("type", "tmpfs", "device", "tmpfs", "o", "size=512m"), Map.of("owner", "other"))).isFalse();
+        // options are not checked without requested options
+        assertThat(dockerClientInstance.createVolume("scratch")).isTrue();
+    }
+
+    @Test
+    void shouldListVolumesStartingWithPrefix() {
+        final DockerClient dockerClient = mock(DockerClient.class);
+        ReflectionTestUtils.setField(dockerClientInstance, "client", dockerClient);
+        final ListVolumesCmd listVolumesCmd = mock(ListVolumesCmd.class, RETURNS_SELF);
+        final ListVolumesResponse listVolumesResponse = mock(ListVolumesResponse.class);
+        final InspectVolumeResponse datasetVolume = new InspectVolumeResponse();
+        ReflectionTestUtils.setField(datasetVolume, "name", "iexec-dataset-abc");
+        final InspectVolumeResponse otherVolume = new InspectVolumeResponse();
+        ReflectionTestUtils.setField(otherVolume, "name", "other-iexec-dataset-abc");
+        when(dockerClient.listVolumesCmd()).thenReturn(listVolumesCmd);
+        when(listVolumesCmd.exec()).thenReturn(listVolumesResponse);
+        when(listVolumesResponse.getVolumes()).thenReturn(List.of(datasetVolume, otherVolume));
+
+        assertThat(dockerClientInstance.getVolumeNames("iexec-dataset-")).containsExactly("iexec-dataset-abc");
+        verify(listVolumesCmd).withFilter("name", List.of("iexec-dataset-"));
+        assertThat(dockerClientInstance.getVolumeNames("")).isEmpty();
+    }
+    //endregion
+
+    //region copyArchiveToVolume
+    @Test
+    void shouldCopyArchiveToVolumeThroughHelperContainer() {
+        final DockerClient dockerClient = mock(DockerClient.class);
+        ReflectionTestUtils.setField(dockerClientInstance, "client", dockerClient);
+        doReturn(true).when(dockerClientInstance).isImagePresent(ALPINE_LATEST);
+        final CreateContainerCmd createContainerCmd = mock(CreateContainerCmd.class, RETURNS_SELF);
+        final CreateContainerResponse createContainerResponse = new CreateContainerResponse();
+        createContainerResponse.setId("helperId");
+        when(dockerClient.createContainerCmd(ALPINE_LATEST)).thenReturn(createContainerCmd);
+        when(createContainerCmd.exec()).thenReturn(createContainerResponse);
+        final CopyArchiveToContainerCmd copyCmd = mock(CopyArchiveToContainerCmd.class, RETURNS_SELF);
+        when(dockerClient.copyArchiveToContainerCmd("helperId")).thenReturn(copyCmd);
+        final RemoveContainerCmd removeContainerCmd = mock(RemoveContainerCmd.class, RETURNS_SELF);
+        when(dockerClient.removeContainerCmd("helperId")).thenReturn(removeContainerCmd);
+        final InputStream tarStream = new ByteArrayInputStream(new byte[0]);
+
+        assertThat(dockerClientInstance.copyArchiveToVolume("datasets", ALPINE_LATEST, tarStream)).isTrue();
+        verify(createContainerCmd).withHostConfig(argThat(hostConfig ->
+                hostConfig.getBinds()[0].getPath().equals("datasets")));
+        verify(copyCmd).withTarInputStream(tarStream);
+        verify(copyCmd).exec();
+        verify(removeContainerCmd).withForce(true);
+        verify(removeContainerCmd).exec();
+    }
+
+    @Test
+    void shouldRemoveHelperContainerWhenCopyToVolumeFails() {
+        final DockerClient dockerClient = mock(DockerClient.class);
+        ReflectionTestUtils.setField(dockerClientInstance, "client", dockerClient);
+        doReturn(true).when(dockerClientInstance).isImagePresent(ALPINE_LATEST);
+        final CreateContainerCmd createContainerCmd = mock(CreateContainerCmd.class, RETURNS_SELF);
+        final CreateContainerResponse createContainerResponse = new CreateContainerResponse();
+        createContainerResponse.setId("helperId");
+        when(dockerClient.createContainerCmd(ALPINE_LATEST)).thenReturn(createContainerCmd);
+        when(createContainerCmd.exec()).thenReturn(createContainerResponse);
+        final CopyArchiveToContainerCmd copyCmd = mock(CopyArchiveToContainerCmd.class, RETURNS_SELF);
+        when(dockerClient.copyArchiveToContainerCmd("helperId")).thenReturn(copyCmd);
+        doThrow(new NotFoundException("no such directory")).when(copyCmd).exec();
+        final RemoveContainerCmd removeContainerCmd = mock(RemoveContainerCmd.class, RETURNS_SELF);
+        when(dockerClient.removeContainerCmd("helperId")).thenReturn(removeContainerCmd);
+
+        assertThat(dockerClientInstance.copyDirectoryToVolume("datasets", ALPINE_LATEST, Path.of("/tmp"))).isFalse();
+        verify(copyCmd).withHostResource("/tmp");
+        verify(removeContainerCmd).exec();
+        assertThat(dockerClientInstance.copyDirectoryToVolume("", ALPINE_LATEST, Path.of("/tmp"))).isFalse();
+    }
+    //endregion
+
     //region removeImage
     @Test
     void shouldRemoveImage() {
@@ -344,6 +908,15 @@ class DockerClientInstanceTests extends AbstractDockerTests {
     //endregion
 
     //region run
+    @Test
+    void shouldDerivePhaseTimeoutFromMaxExecutionTime() {
+        assertThat(DockerClientInstance.getPhaseTimeout(5000)).isEqualTo(DockerClientInstance.MIN_PHASE_TIMEOUT);
+        assertThat(DockerClientInstance.getPhaseTimeout(Duration.ofMinutes(20).toMillis()))
+                .isEqualTo(Duration.ofMinutes(2));
+        assertThat(DockerClientInstance.getPhaseTimeout(Duration.ofDays(1).toMillis()))
+                .isEqualTo(DockerClientInstance.MAX_PHASE_TIMEOUT);
+    }
+
     @Test
     void shouldRunSuccessfullyAndWaitForContainerToFinish() throws TimeoutException {
         final DockerRunRequest dockerRunRequest = getDefaultDockerRunRequest(SgxDriverMode.NONE);
@@ -510,6 +1083,269 @@ class DockerClientInstanceTests extends AbstractDockerTests {
         verify(dockerClientInstance).removeContainer(containerName);
     }
 
+    @Test
+    void shouldPinRunToDedicatedCpusUntilCompletion() throws TimeoutException {
+        final CpusetAllocator allocator = new CpusetAllocator(new CpuTopology(new TreeMap<>(Map.of(
+                0, CpuTopology.parseCpuList("0-3"),
+                1, CpuTopology.parseCpuList("4-7")))));
+        dockerClientInstance.setCpusetAllocator(allocator);
+        final DockerRunRequest dockerRunRequest = getDefaultDockerRunRequest(SgxDriverMode.NONE);
+        dockerRunRequest.setMaxExecutionTime(5000);
+        dockerRunRequest.getHostConfig().withNanoCPUs(1_500_000_000L);
+        final String containerName = dockerRunRequest.getContainerName();
+        final List<String> pinnedCpusets = new ArrayList<>();
+        doReturn(false).when(dockerClientInstance).isContainerPresent(containerName);
+        doAnswer(invocation -> {
+            final HostConfig hostConfig = invocation.<DockerRunRequest>getArgument(0).getHostConfig();
+            pinnedCpusets.add(hostConfig.getCpusetCpus() + "/" + hostConfig.getCpusetMems());
+            return "containerId";
+        }).when(dockerClientInstance).createContainer(any(DockerRunRequest.class));
+        doReturn(true).when(dockerClientInstance).startContainer(containerName);
+        doReturn(0).when(dockerClientInstance).waitContainerUntilExitOrTimeout(eq(containerName), any());
+        doReturn(Optional.empty()).when(dockerClientInstance).getContainerLogs(containerName);
+        doReturn(Optional.empty()).when(dockerClientInstance).getContainerExecutionDuration(containerName);
+        doReturn(true).when(dockerClientInstance).removeContainer(containerName);
+
+        assertThat(dockerClientInstance.run(dockerRunRequest).isSuccessful()).isTrue();
+        // the request is not changed, so running it again pins it again
+        assertThat(dockerRunRequest.getHostConfig().getCpusetCpus()).isNull();
+        assertThat(dockerClientInstance.run(dockerRunRequest).isSuccessful()).isTrue();
+        assertThat(pinnedCpusets).containsExactly("0-1/0", "0-1/0");
+        assertThat(allocator.getFreeCpuCount()).isEqualTo(8);
+    }
+
+    @Test
+    void shouldCopyHostConfigOfRequest() {
+        final DockerRunRequest dockerRunRequest = getDefaultDockerRunRequest(SgxDriverMode.NONE);
+        dockerRunRequest.getHostConfig()
+                .withBinds(Bind.parse("datasets:/data:ro"), Bind.parse("/tmp:/tmp"))
+                .withPortBindings(PortBinding.parse("9000:8080"))
+                .withNanoCPUs(1_500_000_000L)
+                .withMemory(1024L * 1024 * 1024)
+                .withNetworkMode(DOCKER_NETWORK);
+
+        final DockerRunRequest copy = DockerClientInstance.withHostConfigCopy(dockerRunRequest);
+        assertThat(copy).usingRecursiveComparison().isEqualTo(dockerRunRequest);
+        assertThat(copy.getHostConfig()).isNotSameAs(dockerRunRequest.getHostConfig());
+        copy.getHostConfig().withCpusetCpus("0-1");
+        copy.getHostConfig().getPortBindings().bind(new ExposedPort(9090), Ports.Binding.bindPort(9090));
+        assertThat(dockerRunRequest.getHostConfig().getCpusetCpus()).isNull();
+        assertThat(dockerRunRequest.getHostConfig().getPortBindings().getBindings()).hasSize(1);
+    }
+
+    @Test
+    void shouldRemoveDuplicateContainerBeforePinningRun() {
+        final CpusetAllocator allocator = new CpusetAllocator(new CpuTopology(new TreeMap<>(Map.of(
+                0, CpuTopology.parseCpuList("0-3")))));
+        dockerClientInstance.setCpusetAllocator(allocator);
+        final DockerRunRequest dockerRunRequest = getDefaultDockerRunRequest(SgxDriverMode.NONE);
+        dockerRunRequest.getHostConfig().withNanoCPUs(2_000_000_000L);
+        final String containerName = dockerRunRequest.getContainerName();
+        // a detached run of the same name is still running
+        allocator.allocate(containerName, 2);
+        doReturn(true).when(dockerClientInstance).isImagePresent(dockerRunRequest.getImageUri());
+        doReturn(true).when(dockerClientInstance).isContainerPresent(containerName);
+        doReturn(true).when(dockerClientInstance).stopContainer(containerName);
+        doAnswer(invocation -> {
+            doReturn(false).when(dockerClientInstance).isContainerPresent(containerName);
+            // as releaseContainerResources does
+            return allocator.release(containerName);
+        }).when(dockerClientInstance).removeContainer(containerName);
+        final List<Optional<CpusetAllocator.Cpuset>> allocationsOnCreate = new ArrayList<>();
+        doAnswer(invocation -> {
+            allocationsOnCreate.add(allocator.getAllocation(containerName));
+            return "containerId";
+        }).when(dockerClientInstance).createContainer(any(DockerRunRequest.class));
+
+        final PreparedRun preparedRun = dockerClientInstance.prepare(dockerRunRequest);
+        assertThat(preparedRun.isPrepared()).isTrue();
+        assertThat(allocationsOnCreate).hasSize(1);
+        assertThat(allocationsOnCreate.get(0)).isPresent();
+        assertThat(allocator.getFreeCpuCount()).isEqualTo(2);
+        verify(dockerClientInstance).removeContainer(containerName);
+    }
+
+    @Test
+    void shouldPublishContainerPortOnAllocatedHostPortUntilCompletion() throws TimeoutException {
+        final HostPortAllocator allocator = new HostPortAllocator(20000, 20009);
+        dockerClientInstance.setHostPortAllocator(allocator);
+        final DockerRunRequest dockerRunRequest = getDefaultDockerRunRequest(SgxDriverMode.NONE);
+        dockerRunRequest.setMaxExecutionTime(5000);
+        dockerRunRequest.setContainerPort(8080);
+        final String containerName = dockerRunRequest.getContainerName();
+        final List<String> publishedPorts = new ArrayList<>();
+        doReturn(false).when(dockerClientInstance).isContainerPresent(containerName);
+        doAnswer(invocation -> {
+            final Ports.Binding[] bindings = invocation.<DockerRunRequest>getArgument(0).getHostConfig()
+                    .getPortBindings().getBindings().get(new ExposedPort(8080));
+            publishedPorts.add(bindings[0].getHostPortSpec());
+            return "containerId";
+        }).when(dockerClientInstance).createContainer(any(DockerRunRequest.class));
+        doReturn(true).when(dockerClientInstance).startContainer(containerName);
+        doReturn(0).when(dockerClientInstance).waitContainerUntilExitOrTimeout(eq(containerName), any());
+        doReturn(Optional.empty()).when(dockerClientInstance).getContainerLogs(containerName);
+        doReturn(Optional.empty()).when(dockerClientInstance).getContainerExecutionDuration(containerName);
+        doReturn(true).when(dockerClientInstance).removeContainer(containerName);
+
+        final DockerRunResponse dockerRunResponse = dockerClientInstance.run(dockerRunRequest);
+        assertThat(dockerRunResponse.isSuccessful()).isTrue();
+        assertThat(dockerRunResponse.getHostPort()).isEqualTo(20000);
+        // the request is not changed, so running it again publishes it again
+        assertThat(dockerRunRequest.getHostConfig().getPortBindings()).isNull();
+        assertThat(dockerClientInstance.run(dockerRunRequest).getHostPort()).isEqualTo(20001);
+        assertThat(publishedPorts).containsExactly("20000", "20001");
+        assertThat(allocator.getFreePortCount()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldNotPublishContainerPortAlreadyBound() throws TimeoutException {
+        final HostPortAllocator allocator = new HostPortAllocator(20000, 20009);
+        dockerClientInstance.setHostPortAllocator(allocator);
+        final DockerRunRequest dockerRunRequest = getDefaultDockerRunRequest(SgxDriverMode.NONE);
+        dockerRunRequest.setContainerPort(8080);
+        dockerRunRequest.setMaxExecutionTime(5000);
+        dockerRunRequest.getHostConfig().withPortBindings(PortBinding.parse("9000:8080"));
+        final String containerName = dockerRunRequest.getContainerName();
+        doReturn(false).when(dockerClientInstance).isContainerPresent(containerName);
+        doReturn("containerId").when(dockerClientInstance).createContainer(any(DockerRunRequest.class));
+        doReturn(true).when(dockerClientInstance).startContainer(containerName);
+        doReturn(0).when(dockerClientInstance).waitContainerUntilExitOrTimeout(eq(containerName), any());
+        doReturn(Optional.empty()).when(dockerClientInstance).getContainerLogs(containerName);
+        doReturn(Optional.empty()).when(dockerClientInstance).getContainerExecutionDuration(containerName);
+        doReturn(true).when(dockerClientInstance).removeContainer(containerName);
+
+        final DockerRunResponse dockerRunResponse = dockerClientInstance.run(dockerRunRequest);
+        assertThat(dockerRunResponse.isSuccessful()).isTrue();
+        assertThat(dockerRunResponse.getHostPort()).isZero();
+        assertThat(allocator.getFreePortCount()).isEqualTo(10);
+        assertThat(dockerRunRequest.getHostConfig().getPortBindings().getBindings()).hasSize(1);
+    }
+
+    @Test
+    void shouldNotServeRunWithContainerPortFromWarmPool() {
+        final HostPortAllocator allocator = new HostPortAllocator(20000, 20009);
+        dockerClientInstance.setHostPortAllocator(allocator);
+        final WarmContainerPool pool = mock(WarmContainerPool.class);
+        when(pool.acquire(any())).thenReturn(Optional.of("warm-container"));
+        dockerClientInstance.setWarmContainerPool(pool);
+        final DockerRunRequest dockerRunRequest = getDefaultDockerRunRequest(SgxDriverMode.NONE);
+        dockerRunRequest.setContainerPort(8080);
+        final String containerName = dockerRunRequest.getContainerName();
+        doReturn(true).when(dockerClientInstance).isImagePresent(dockerRunRequest.getImageUri());
+        doReturn(false).when(dockerClientInstance).isContainerPresent(containerName);
+        doReturn("containerId").when(dockerClientInstance).createContainer(any(DockerRunRequest.class));
+
+        final PreparedRun preparedRun = dockerClientInstance.prepare(dockerRunRequest);
+        assertThat(preparedRun.isPrepared()).isTrue();
+        assertThat(preparedRun.getHostPort()).isEqualTo(20000);
+        verify(pool, never()).acquire(any());
+        verify(dockerClientInstance).createContainer(any(DockerRunRequest.class));
+    }
+
+    @Test
+    void shouldRemoveDuplicateContainerBeforePublishingRun() {
+        final HostPortAllocator allocator = new HostPortAllocator(20000, 20009);
+        dockerClientInstance.setHostPortAllocator(allocator);
+        final DockerRunRequest dockerRunRequest = getDefaultDockerRunRequest(SgxDriverMode.NONE);
+        dockerRunRequest.setContainerPort(8080);
+        final String containerName = dockerRunRequest.getContainerName();
+        // a detached run of the same name is still running
+        allocator.allocate(containerName);
+        doReturn(true).when(dockerClientInstance).isImagePresent(dockerRunRequest.getImageUri());
+        doReturn(true).when(dockerClientInstance).isContainerPresent(containerName);
+        doReturn(true).when(dockerClientInstance).stopContainer(containerName);
+        doAnswer(invocation -> {
+            doReturn(false).when(dockerClientInstance).isContainerPresent(containerName);
+            // as releaseContainerResources does
+            return allocator.release(containerName);
+        }).when(dockerClientInstance).removeContainer(containerName);
+        final List<OptionalInt> allocationsOnCreate = new ArrayList<>();
+        doAnswer(invocation -> {
+            allocationsOnCreate.add(allocator.getAllocation(containerName));
+            return "containerId";
+        }).when(dockerClientInstance).createContainer(any(DockerRunRequest.class));
+
+        final PreparedRun preparedRun = dockerClientInstance.prepare(dockerRunRequest);
+        assertThat(preparedRun.isPrepared()).isTrue();
+        assertThat(preparedRun.getHostPort()).isEqualTo(20001);
+        assertThat(allocationsOnCreate).containsExactly(OptionalInt.of(20001));
+        assertThat(allocator.getFreePortCount()).isEqualTo(9);
+        assertThat(dockerRunRequest.getHostConfig().getPortBindings()).isNull();
+        verify(dockerClientInstance).removeContainer(containerName);
+    }
+
+    @Test
+    void shouldRecordRunInExecutionHistory(@TempDir Path directory) throws TimeoutException {
+        assertThat(dockerClientInstance.enableExecutionHistory(directory.resolve("history.bin"))).isTrue();
+        final DockerRunRequest dockerRunRequest = getDefaultDockerRunRequest(SgxDriverMode.NONE);
+        dockerRunRequest.setMaxExecutionTime(5000);
+        dockerRunRequest.setImageId("sha256:alpine");
+        final String containerName = dockerRunRequest.getContainerName();
+        doReturn("containerId").when(dockerClientInstance).createContainer(dockerRunRequest);
+        doReturn(true).when(dockerClientInstance).startContainer(containerName);
+        doReturn(0).when(dockerClientInstance).waitContainerUntilExitOrTimeout(eq(containerName), any());
+        doReturn(Optional.empty()).when(dockerClientInstance).getContainerLogs(containerName);
+        doReturn(Optional.of(Duration.ofSeconds(2))).when(dockerClientInstance).getContainerExecutionDuration(containerName);
+        doReturn(true).when(dockerClientInstance).removeContainer(containerName);
+        assertThat(dockerClientInstance.predictExecution(dockerRunRequest)).isEmpty();
+
+        assertThat(dockerClientInstance.run(dockerRunRequest).isSuccessful()).isTrue();
+        final ExecutionPrediction prediction = dockerClientInstance.predictExecution(dockerRunRequest).orElseThrow();
+        assertThat(prediction.getSuccessfulRuns()).isOne();
+        assertThat(prediction.getMaxDuration()).isEqualTo(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void shouldPrepareRunThenTearDownInBackground() throws Exception {
+        final DockerRunRequest dockerRunRequest = getDefaultDockerRunRequest(SgxDriverMode.NONE);
+        dockerRunRequest.setMaxExecutionTime(5000);
+        dockerRunRequest.getHostConfig().withBinds(Bind.parse("datasets:/data"), Bind.parse("/tmp:/tmp"));
+        final String containerName = dockerRunRequest.getContainerName();
+        final CountDownLatch logsRelease = new CountDownLatch(1);
+        doReturn(false).when(dockerClientInstance).isImagePresent(dockerRunRequest.getImageUri());
+        doReturn(true).when(dockerClientInstance).pullImage(dockerRunRequest.getImageUri());
+        doReturn(true).when(dockerClientInstance).createVolume("datasets");
+        doReturn("containerId").when(dockerClientInstance).createContainer(dockerRunRequest);
+        doReturn(true).when(dockerClientInstance).startContainer(containerName);
+        doReturn(0).when(dockerClientInstance).waitContainerUntilExitOrTimeout(eq(containerName), any());
+        doAnswer(invocation -> {
+            logsRelease.await(5, TimeUnit.SECONDS);
+            return Optional.empty();
+        }).when(dockerClientInstance).getContainerLogs(containerName);
+        doReturn(Optional.empty()).when(dockerClientInstance).getContainerExecutionDuration(containerName);
+        doReturn(true).when(dockerClientInstance).removeContainer(containerName);
+
+        final PreparedRun preparedRun = dockerClientInstance.prepareAsync(dockerRunRequest).get(5, TimeUnit.SECONDS);
+        assertThat(preparedRun.isPrepared()).isTrue();
+        verify(dockerClientInstance).createVolume("datasets");
+        verify(dockerClientInstance, never()).createVolume("/tmp");
+        verify(dockerClientInstance, never()).startContainer(containerName);
+
+        final CompletableFuture<DockerRunResponse> response = dockerClientInstance.runPrepared(preparedRun);
+        // the caller is released once the container exits, before its teardown
+        assertThat(response).isNotDone();
+        verify(dockerClientInstance, never()).removeContainer(containerName);
+        logsRelease.countDown();
+        assertThat(response.get(5, TimeUnit.SECONDS).isSuccessful()).isTrue();
+        verify(dockerClientInstance).removeContainer(containerName);
+    }
+
+    @Test
+    void shouldNotPrepareRunSinceImagePullFailed() {
+        final DockerRunRequest dockerRunRequest = getDefaultDockerRunRequest(SgxDriverMode.NONE);
+        doReturn(false).when(dockerClientInstance).isImagePresent(dockerRunRequest.getImageUri());
+        doReturn(false).when(dockerClientInstance).pullImage(dockerRunRequest.getImageUri());
+
+        final PreparedRun preparedRun = dockerClientInstance.prepare(dockerRunRequest);
+
+        assertThat(preparedRun.isPrepared()).isFalse();
+        assertThat(dockerClientInstance.runPrepared(preparedRun).join().getFinalStatus())
+                .isEqualTo(DockerRunFinalStatus.FAILED);
+        assertThat(dockerClientInstance.discard(preparedRun)).isTrue();
+        verify(dockerClientInstance, never()).createContainer(any(DockerRunRequest.class));
+        verify(dockerClientInstance, never()).startContainer(anyString());
+    }
+
     @Test
     void shouldReturnFailureSinceCantStopContainer() throws TimeoutException {
         final DockerRunRequest dockerRunRequest = getDefaultDockerRunRequest(SgxDriverMode.NONE);
@@ -865,6 +1701,23 @@ class DockerClientInstanceTests extends AbstractDockerTests {
         assertThat(corruptClientInstance.startContainer(containerName)).isFalse();
         dockerClientInstance.removeContainer(containerName);
     }
+
+    @Test
+    void shouldStartContainerAfterTransientError() {
+        final String containerName = getRandomString();
+        final DockerClient dockerClient = mock(DockerClient.class);
+        final StartContainerCmd startContainerCmd = mock(StartContainerCmd.class);
+        ReflectionTestUtils.setField(dockerClientInstance, "client", dockerClient);
+        dockerClientInstance.setRetryPolicy(RetryPolicy.builder().initialBackoff(Duration.ofMillis(1)).build());
+        when(dockerClient.startContainerCmd(containerName)).thenReturn(startContainerCmd);
+        when(startContainerCmd.exec())
+                .thenThrow(new InternalServerErrorException("i/o timeout"))
+                .thenThrow(new NotModifiedException("container already started"));
+
+        assertThat(dockerClientInstance.startContainer(containerName)).isTrue();
+        verify(startContainerCmd, times(2)).exec();
+        assertThat(dockerClientInstance.getRetryCounts()).containsEntry("startContainer", 1L);
+    }
     //endregion
 
     //region waitContainerUntilExitOrTimeout
@@ -884,6 +1737,69 @@ class DockerClientInstanceTests extends AbstractDockerTests {
         assertEquals("Timeout date cannot be null", message);
     }
 
+    @Test
+    void shouldReturnExitCodeNotifiedByDaemon() throws TimeoutException {
+        final DockerClient dockerClient = mock(DockerClient.class);
+        final WaitContainerCmd waitContainerCmd = mock(WaitContainerCmd.class);
+        final WaitResponse waitResponse = mock(WaitResponse.class);
+        ReflectionTestUtils.setField(dockerClientInstance, "client", dockerClient);
+        when(dockerClient.waitContainerCmd("containerName")).thenReturn(waitContainerCmd);
+        when(waitResponse.getStatusCode()).thenReturn(3);
+        when(waitContainerCmd.exec(any())).thenAnswer(invocation -> {
+            final ResultCallback<WaitResponse> callback = invocation.getArgument(0);
+            callback.onNext(waitResponse);
+            return callback;
+        });
+
+        assertThat(dockerClientInstance.waitContainerUntilExitOrTimeout("containerName",
+                Instant.now().plusSeconds(5))).isEqualTo(3);
+    }
+
+    @Test
+    void shouldTimeoutOnDeadlineWithoutPolling() {
+        final DockerClient dockerClient = mock(DockerClient.class);
+        final WaitContainerCmd waitContainerCmd = mock(WaitContainerCmd.class);
+        ReflectionTestUtils.setField(dockerClientInstance, "client", dockerClient);
+        when(dockerClient.waitContainerCmd("containerName")).thenReturn(waitContainerCmd);
+        when(waitContainerCmd.exec(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        final long start = System.nanoTime();
+
+        assertThrows(TimeoutException.class, () -> dockerClientInstance.waitContainerUntilExitOrTimeout(
+                "containerName", Instant.now().plusMillis(300)));
+        assertThat(Duration.ofNanos(System.nanoTime() - start))
+                .isGreaterThanOrEqualTo(Duration.ofMillis(300))
+                .isLessThan(Duration.ofSeconds(2));
+        verify(dockerClientInstance, never()).getContainerStatus("containerName");
+    }
+
+    @Test
+    void shouldPostponeTimeoutByPausedDuration() throws InterruptedException {
+        final DockerClient dockerClient = mock(DockerClient.class);
+        final WaitContainerCmd waitContainerCmd = mock(WaitContainerCmd.class);
+        ReflectionTestUtils.setField(dockerClientInstance, "client", dockerClient);
+        when(dockerClient.waitContainerCmd("containerName")).thenReturn(waitContainerCmd);
+        when(waitContainerCmd.exec(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(dockerClient.pauseContainerCmd("containerName")).thenReturn(mock(PauseContainerCmd.class));
+        when(dockerClient.unpauseContainerCmd("containerName")).thenReturn(mock(UnpauseContainerCmd.class));
+
+        final CompletableFuture<Integer> wait = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dockerClientInstance.waitContainerUntilExitOrTimeout(
+                        "containerName", Instant.now().plusMillis(300));
+            } catch (TimeoutException e) {
+                return -2;
+            }
+        });
+        assertThat(dockerClientInstance.pauseContainer("containerName")).isTrue();
+        TimeUnit.MILLISECONDS.sleep(600);
+        assertThat(wait).isNotDone();
+        assertThat(dockerClientInstance.unpauseContainer("containerName")).isTrue();
+
+        assertThat(wait.join()).isEqualTo(-2);
+        assertThat(dockerClientInstance.getPausedDuration("containerName"))
+                .isGreaterThanOrEqualTo(Duration.ofMillis(600));
+    }
+
     @Test
     void shouldTimeoutAfterWaitContainerUntilExitOrTimeout() {
         final DockerRunRequest request = getDefaultDockerRunRequest(SgxDriverMode.NONE);
@@ -1030,6 +1946,26 @@ class DockerClientInstanceTests extends AbstractDockerTests {
         verify(logContainerCmd).exec(any());
         verify(dockerClient).logContainerCmd(containerName);
     }
+
+    @Test
+    void shouldCloseLogsStreamWhenTimeoutIsReached() throws Exception {
+        final String containerName = getRandomString();
+        final DockerClient dockerClient = mock(DockerClient.class);
+        final LogContainerCmd logContainerCmd = mock(LogContainerCmd.class);
+        final DockerClientInstance.FrameResultCallback resultCallback = mock(DockerClientInstance.FrameResultCallback.class);
+        ReflectionTestUtils.setField(dockerClientInstance, "client", dockerClient);
+        doReturn(true).when(dockerClientInstance).isContainerPresent(containerName);
+        when(dockerClient.logContainerCmd(containerName)).thenReturn(logContainerCmd);
+        when(logContainerCmd.withStdOut(true)).thenReturn(logContainerCmd);
+        when(logContainerCmd.withStdErr(true)).thenReturn(logContainerCmd);
+        when(logContainerCmd.exec(any())).thenReturn(resultCallback);
+        when(resultCallback.awaitCompletion(anyLong(), eq(TimeUnit.MILLISECONDS))).thenReturn(false);
+
+        assertThat(dockerClientInstance.getContainerLogs(containerName, Duration.ofSeconds(1))).isEmpty();
+        verify(resultCallback).awaitCompletion(longThat(timeout -> timeout <= 1000), eq(TimeUnit.MILLISECONDS));
+        verify(resultCallback, never()).awaitCompletion();
+        verify(resultCallback).close();
+    }
     //endregion
 
     //region stopContainer
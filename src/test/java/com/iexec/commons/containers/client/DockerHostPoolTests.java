@@ -0,0 +1,173 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.iexec.commons.containers.DockerRunFinalStatus;
+import com.iexec.commons.containers.DockerRunRequest;
+import com.iexec.commons.containers.DockerRunResponse;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class DockerHostPoolTests {
+
+    private static final URI HOST_1 = URI.create("tcp://10.0.0.1:2375");
+    private static final URI HOST_2 = URI.create("tcp://10.0.0.2:2375");
+
+    private final DockerClientInstance instance1 = mock(DockerClientInstance.class);
+    private final DockerClientInstance instance2 = mock(DockerClientInstance.class);
+    private final DaemonCircuitBreaker breaker1 = new DaemonCircuitBreaker(1, Duration.ofMinutes(1), () -> { });
+    private final DaemonCircuitBreaker breaker2 = new DaemonCircuitBreaker(1, Duration.ofMinutes(1), () -> { });
+    private DockerHostPool pool;
+
+    @BeforeEach
+    void beforeEach() {
+        when(instance1.getDaemonCircuitBreaker()).thenReturn(breaker1);
+        when(instance2.getDaemonCircuitBreaker()).thenReturn(breaker2);
+        pool = new DockerHostPool(Map.of(HOST_1, instance1, HOST_2, instance2));
+    }
+
+    @Test
+    void shouldPlaceContainersOnLeastLoadedHost() {
+        mockDetachedRun(instance1);
+        mockDetachedRun(instance2);
+
+        pool.run(getRunRequest("c1", 0));
+        pool.run(getRunRequest("c2", 0));
+        pool.run(getRunRequest("c3", 0));
+
+        assertThat(pool.getLoad(HOST_1) + pool.getLoad(HOST_2)).isEqualTo(3);
+        assertThat(Math.abs(pool.getLoad(HOST_1) - pool.getLoad(HOST_2))).isOne();
+    }
+
+    @Test
+    void shouldRouteCallsToHostOfContainer() {
+        mockDetachedRun(instance1);
+        breaker2.recordFailure();
+
+        pool.run(getRunRequest("c1", 0));
+        when(instance1.removeContainer("c1")).thenReturn(true);
+
+        assertThat(pool.getInstance("c1")).containsSame(instance1);
+        pool.stopContainer("c1");
+        assertThat(pool.removeContainer("c1")).isTrue();
+        verify(instance1).stopContainer("c1");
+        verify(instance2, never()).stopContainer(any());
+        assertThat(pool.getInstance("c1")).isEmpty();
+        assertThat(pool.getLoad(HOST_1)).isZero();
+    }
+
+    @Test
+    void shouldNotPlaceOnUnhealthyOrDrainedHosts() {
+        breaker1.recordFailure();
+        pool.drain(HOST_2);
+
+        final DockerRunResponse response = pool.run(getRunRequest("c1", 0));
+
+        assertThat(response.getFinalStatus()).isEqualTo(DockerRunFinalStatus.FAILED);
+        verify(instance1, never()).run(any());
+        verify(instance2, never()).run(any());
+    }
+
+    @Test
+    void shouldBeDrainedOnceContainersAreRemoved() {
+        mockDetachedRun(instance1);
+        breaker2.recordFailure();
+        pool.run(getRunRequest("c1", 0));
+        when(instance1.removeContainer("c1")).thenReturn(true);
+
+        pool.drain(HOST_1);
+        assertThat(pool.isDrained(HOST_1)).isFalse();
+        pool.removeContainer("c1");
+        assertThat(pool.isDrained(HOST_1)).isTrue();
+        pool.resume(HOST_1);
+        assertThat(pool.isDrained(HOST_1)).isFalse();
+    }
+
+    @Test
+    void shouldReleaseHostAfterAttachedRun() {
+        when(instance1.run(any())).thenReturn(DockerRunResponse.builder()
+                .finalStatus(DockerRunFinalStatus.SUCCESS).build());
+        when(instance1.isContainerPresent("c1")).thenReturn(false);
+        breaker2.recordFailure();
+
+        pool.run(getRunRequest("c1", 5000));
+
+        assertThat(pool.getLoad(HOST_1)).isZero();
+        assertThat(pool.getInstance("c1")).isEmpty();
+    }
+
+    @Test
+    void shouldSendRequestsToDockerHostOfInstance() throws Exception {
+        final List<String> paths = new CopyOnWriteArrayList<>();
+        final HttpServer fakeDaemon = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        fakeDaemon.createContext("/", exchange -> {
+            paths.add(exchange.getRequestURI().getPath());
+            final byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        fakeDaemon.start();
+        try {
+            final URI dockerHost = URI.create("tcp://localhost:" + fakeDaemon.getAddress().getPort());
+            final DockerClientInstance instance = new DockerClientInstance(dockerHost);
+
+            assertThat(instance.getDockerHost()).contains(dockerHost);
+            assertThat(instance.getContainerId("c1")).isEmpty();
+            assertThat(paths).anyMatch(path -> path.endsWith("/containers/json"));
+        } finally {
+            fakeDaemon.stop(0);
+        }
+    }
+
+    @Test
+    void shouldCloseClientOfEachHost() {
+        pool.close();
+
+        verify(instance1).close();
+        verify(instance2).close();
+    }
+
+    private void mockDetachedRun(DockerClientInstance instance) {
+        when(instance.run(any())).thenReturn(DockerRunResponse.builder()
+                .finalStatus(DockerRunFinalStatus.SUCCESS).build());
+    }
+
+    private DockerRunRequest getRunRequest(String containerName, long maxExecutionTime) {
+        return DockerRunRequest.builder()
+                .containerName(containerName)
+                .imageUri("alpine:3.20")
+                .maxExecutionTime(maxExecutionTime)
+                .build();
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.iexec.commons.containers.DockerRunFinalStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.MockedStatic;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mockStatic;
+
+class ExecutionHistoryTests {
+
+    private static final String IMAGE_ID = "sha256:alpine";
+    private static final RunResources RESERVED = RunResources.builder()
+            .nanoCpus(1_000_000_000L)
+            .memoryBytes(1024L * 1024 * 1024)
+            .build();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldPredictPercentilesOfSuccessfulRuns() throws IOException {
+        try (ExecutionHistory history = loadHistory()) {
+            for (int i = 1; i <= 100; i++) {
+                history.record(IMAGE_ID, "cmd", DockerRunFinalStatus.SUCCESS, 0, Duration.ofSeconds(i), RESERVED);
+            }
+            history.record(IMAGE_ID, "cmd", DockerRunFinalStatus.FAILED, 1, Duration.ofSeconds(1), RESERVED);
+            history.record(IMAGE_ID, "cmd", DockerRunFinalStatus.TIMEOUT, -1, Duration.ofMinutes(5), RESERVED);
+
+            final ExecutionPrediction prediction = history.predict(IMAGE_ID, "cmd").orElseThrow();
+            assertThat(prediction.getSuccessfulRuns()).isEqualTo(100);
+            assertThat(prediction.getRecordedRuns()).isEqualTo(102);
+            assertThat(prediction.getFailureRate()).isCloseTo(2 / 102.0, within(1e-9));
+            assertThat(prediction.getMedianDuration().toMillis()).isCloseTo(50_000, within(2_500L));
+            assertThat(prediction.getP95Duration().toMillis()).isCloseTo(95_000, within(4_750L));
+            assertThat(prediction.getMaxDuration()).isEqualTo(Duration.ofSeconds(100));
+            assertThat(prediction.getMaxReserved()).isEqualTo(RESERVED);
+            assertThat(history.predict(IMAGE_ID, "other")).isEmpty();
+            assertThat(history.predict("sha256:other", "cmd")).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldReplayRecordsOnLoad() throws IOException {
+        try (ExecutionHistory history = loadHistory()) {
+            history.record(IMAGE_ID, "cmd", DockerRunFinalStatus.SUCCESS, 0, Duration.ofSeconds(3), RESERVED);
+            history.record(IMAGE_ID, null, DockerRunFinalStatus.SUCCESS, 0, Duration.ofSeconds(7), RESERVED);
+        }
+
+        try (ExecutionHistory history = loadHistory()) {
+            assertThat(history.size()).isEqualTo(2);
+            assertThat(history.predict(IMAGE_ID, "cmd").orElseThrow().getMaxDuration())
+                    .isEqualTo(Duration.ofSeconds(3));
+            assertThat(history.predict(IMAGE_ID, "").orElseThrow().getMaxDuration())
+                    .isEqualTo(Duration.ofSeconds(7));
+        }
+        assertThat(Files.size(getFile())).isEqualTo(8 + 2L * ExecutionHistory.RECORD_SIZE);
+    }
+
+    @Test
+    void shouldDropPartiallyWrittenRecordOnLoad() throws IOException {
+        try (ExecutionHistory history = loadHistory()) {
+            history.record(IMAGE_ID, "cmd", DockerRunFinalStatus.SUCCESS, 0, Duration.ofSeconds(3), RESERVED);
+        }
+        Files.write(getFile(), new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (ExecutionHistory history = loadHistory()) {
+            assertThat(history.size()).isOne();
+            history.record(IMAGE_ID, "cmd", DockerRunFinalStatus.SUCCESS, 0, Duration.ofSeconds(5), RESERVED);
+        }
+        try (ExecutionHistory history = loadHistory()) {
+            assertThat(history.size()).isEqualTo(2);
+            assertThat(history.predict(IMAGE_ID, "cmd").orElseThrow().getMaxDuration())
+                    .isEqualTo(Duration.ofSeconds(5));
+        }
+    }
+
+    @Test
+    void shouldReplaceFileWithUnknownFormat() throws IOException {
+        Files.writeString(getFile(), "not an execution history");
+
+        try (ExecutionHistory history = loadHistory()) {
+            assertThat(history.size()).isZero();
+            history.record(IMAGE_ID, "cmd", DockerRunFinalStatus.SUCCESS, 0, Duration.ofSeconds(3), RESERVED);
+        }
+        try (ExecutionHistory history = loadHistory()) {
+            assertThat(history.size()).isOne();
+        }
+    }
+
+    @Test
+    void shouldNotReplaceFileWhichCannotBeRead() throws IOException {
+        try (ExecutionHistory history = loadHistory()) {
+            history.record(IMAGE_ID, "cmd", DockerRunFinalStatus.SUCCESS, 0, Duration.ofSeconds(3), RESERVED);
+        }
+        final byte[] content = Files.readAllBytes(getFile());
+
+        try (MockedStatic<Files> files = mockStatic(Files.class, CALLS_REAL_METHODS)) {
+            files.when(() -> Files.newInputStream(getFile())).thenThrow(new IOException("read error"));
+            final ExecutionHistory history = new ExecutionHistory(getFile());
+            assertThatThrownBy(history::load).isInstanceOf(IOException.class);
+            assertThat(history.size()).isZero();
+        }
+        assertThat(Files.readAllBytes(getFile())).isEqualTo(content);
+    }
+
+    @Test
+    void shouldBoundDurationBucketsWithinFivePercent() {
+        for (long durationMillis : new long[]{0, 1, 999, 60_000, 3_600_000, 86_400_000}) {
+            final long upperBound = ExecutionHistory.getBucketUpperBound(ExecutionHistory.getBucket(durationMillis));
+            assertThat(upperBound).isBetween(durationMillis, (long) Math.ceil(durationMillis * 1.05) + 1);
+        }
+    }
+
+    private ExecutionHistory loadHistory() throws IOException {
+        final ExecutionHistory history = new ExecutionHistory(getFile());
+        history.load();
+        return history;
+    }
+
+    private Path getFile() {
+        return directory.resolve("execution-history.bin");
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.iexec.commons.containers.DockerRunRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FairDeadlineRunQueueTests {
+
+    private final FairDeadlineRunQueue queue = new FairDeadlineRunQueue(Duration.ofHours(1));
+
+    @Test
+    void shouldAdmitRunsOfRequesterByEarliestDeadline() {
+        final Instant now = Instant.now();
+        queue.add(getRun("no-deadline", "alice", null, 1000));
+        queue.add(getRun("late", "alice", now.plusSeconds(600), 1000));
+        queue.add(getRun("urgent", "alice", now.plusSeconds(60), 1000));
+
+        assertThat(pollAll()).containsExactly("urgent", "late", "no-deadline");
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void shouldShareAdmissionsByRequesterWeight() {
+        queue.setWeight("alice", 2);
+        IntStream.range(0, 6).forEach(i -> {
+            queue.add(getRun("alice-" + i, "alice", null, 1000));
+            queue.add(getRun("bob-" + i, "bob", null, 1000));
+        });
+
+        final List<String> firstSix = pollAll().subList(0, 6);
+
+        assertThat(firstSix.stream().filter(name -> name.startsWith("alice"))).hasSize(4);
+        assertThat(firstSix.stream().filter(name -> name.startsWith("bob"))).hasSize(2);
+    }
+
+    @Test
+    void shouldNotLetLongRunsOfOneRequesterDelayShortRunsOfAnother() {
+        queue.add(getRun("long-1", "alice", null, 60_000));
+        queue.add(getRun("long-2", "alice", null, 60_000));
+        queue.add(getRun("short-1", "bob", null, 1000));
+        queue.add(getRun("short-2", "bob", null, 1000));
+
+        assertThat(pollAll()).containsExactly("long-1", "short-1", "short-2", "long-2");
+    }
+
+    @Test
+    void shouldStartNewRequesterAtLowestActiveVirtualTime() {
+        queue.add(getRun("alice-1", "alice", null, 1000));
+        queue.add(getRun("alice-2", "alice", null, 1000));
+        queue.poll(run -> true);
+
+        queue.add(getRun("bob-1", "bob", null, 1000));
+
+        assertThat(queue.getVirtualTime("bob")).isEqualTo(queue.getVirtualTime("alice"));
+    }
+
+    @Test
+    void shouldChargeRequesterSubmittingOneRunAtATime() {
+        queue.setWeight("alice", 10);
+        IntStream.range(0, 40).forEach(i -> queue.add(getRun("alice-" + i, "alice", null, 1000)));
+        queue.add(getRun("bob-0", "bob", null, 1000));
+        int bobRuns = 0;
+
+        for (int i = 0; i < 33; i++) {
+            final String name = queue.poll(run -> true).orElseThrow().getContainerName();
+            if (name.startsWith("bob")) {
+                bobRuns++;
+                queue.add(getRun("bob-" + bobRuns, "bob", null, 1000));
+            }
+        }
+
+        assertThat(bobRuns).isBetween(2, 4);
+    }
+
+    @Test
+    void shouldNotCreditIdleRequester() {
+        queue.add(getRun("alice-0", "alice", null, 1000));
+        queue.poll(run -> true);
+        IntStream.range(1, 4).forEach(i -> queue.add(getRun("bob-" + i, "bob", null, 1000)));
+        queue.poll(run -> true);
+        queue.poll(run -> true);
+
+        queue.add(getRun("alice-1", "alice", null, 1000));
+
+        assertThat(queue.getVirtualTime("alice")).isEqualTo(queue.getVirtualTime("bob"));
+    }
+
+    @Test
+    void shouldKeepResourcesForStarvingRun() throws InterruptedException {
+        final FairDeadlineRunQueue starvingQueue = new FairDeadlineRunQueue(Duration.ofMillis(10));
+        starvingQueue.add(getRun("big", "alice", null, 1000));
+        Thread.sleep(20);
+        starvingQueue.add(getRun("small", "bob", null, 1000));
+
+        assertThat(starvingQueue.poll(run -> run.getContainerName().equals("small"))).isEmpty();
+        assertThat(starvingQueue.poll(run -> true)).map(QueuedRun::getContainerName).contains("big");
+        assertThat(starvingQueue.poll(run -> true)).map(QueuedRun::getContainerName).contains("small");
+    }
+
+    @Test
+    void shouldRemoveWaitingRun() {
+        final QueuedRun run = getRun("c1", "alice", null, 1000);
+        queue.add(run);
+
+        assertThat(queue.remove(run)).isTrue();
+        assertThat(queue.remove(run)).isFalse();
+        assertThat(queue.size()).isZero();
+        assertThat(queue.poll(waitingRun -> true)).isEmpty();
+    }
+
+    @Test
+    void shouldNotAcceptInvalidWeight() {
+        assertThatThrownBy(() -> queue.setWeight("alice", 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<String> pollAll() {
+        final List<String> names = new ArrayList<>();
+        Optional<QueuedRun> run;
+        while ((run = queue.poll(waitingRun -> true)).isPresent()) {
+            names.add(run.get().getContainerName());
+        }
+        return names;
+    }
+
+    private QueuedRun getRun(String containerName, String requester, Instant deadline, long maxExecutionTime) {
+        return new QueuedRun(DockerRunRequest.builder()
+                .containerName(containerName)
+                .requester(requester)
+                .deadline(deadline)
+                .maxExecutionTime(maxExecutionTime)
+                .build(), RunResources.NONE);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.github.dockerjava.transport.DockerHttpClient;
+import com.iexec.commons.containers.client.AdmissionLimiter.CallType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.channels.ClosedByInterruptException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.*;
+
+class GuardedDockerHttpClientTests {
+
+    private final DockerHttpClient delegate = mock(DockerHttpClient.class);
+    private final AdmissionLimiter limiter = new AdmissionLimiter(AdmissionLimits.builder().build());
+    private final DaemonCircuitBreaker circuitBreaker = new DaemonCircuitBreaker(2, Duration.ofMinutes(1), () -> { });
+    private final TimingWheel deadlineWheel = new TimingWheel(Duration.ofMillis(10), 8, "guarded-client-tests");
+    private final GuardedDockerHttpClient httpClient =
+            new GuardedDockerHttpClient(delegate, limiter, circuitBreaker, deadlineWheel);
+
+    @AfterEach
+    void afterEach() {
+        deadlineWheel.close();
+    }
+
+    @Test
+    void shouldReleaseReadPermitOnceResponseReceived() {
+        final DockerHttpClient.Request request = getRequest("GET", "/v1.41/containers/json");
+        when(delegate.execute(request)).thenReturn(mock(DockerHttpClient.Response.class));
+
+        httpClient.execute(request);
+        assertThat(limiter.getStats(CallType.READ).getAdmittedCalls()).isOne();
+        assertThat(limiter.getStats(CallType.READ).getInFlight()).isZero();
+        assertThat(limiter.getStats(CallType.MUTATING).getAdmittedCalls()).isZero();
+    }
+
+    @Test
+    void shouldReleaseMutatingPermitOnFailure() {
+        final DockerHttpClient.Request request = getRequest("POST", "/v1.41/containers/create");
+        when(delegate.execute(request)).thenThrow(new IllegalStateException("daemon error"));
+
+        assertThatThrownBy(() -> httpClient.execute(request)).isInstanceOf(IllegalStateException.class);
+        assertThat(limiter.getStats(CallType.MUTATING).getAdmittedCalls()).isOne();
+        assertThat(limiter.getStats(CallType.MUTATING).getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldHoldPullPermitUntilResponseClosed() {
+        final DockerHttpClient.Request request = getRequest("POST", "/v1.41/images/create?fromImage=alpine&tag=latest");
+        when(delegate.execute(request)).thenReturn(mock(DockerHttpClient.Response.class));
+
+        final DockerHttpClient.Response response = httpClient.execute(request);
+        assertThat(limiter.getStats(CallType.MUTATING).getInFlight()).isOne();
+        response.close();
+        response.close();
+        assertThat(limiter.getStats(CallType.MUTATING).getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldFailFastWithoutSendingRequestWhenCircuitIsOpen() {
+        final DockerHttpClient.Request request = getRequest("GET", "/v1.41/containers/json");
+        when(delegate.execute(request)).thenThrow(new IllegalStateException("connection refused"));
+
+        assertThatThrownBy(() -> httpClient.execute(request)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> httpClient.execute(request)).isInstanceOf(IllegalStateException.class);
+        assertThat(circuitBreaker.getState()).isEqualTo(DaemonCircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> httpClient.execute(request)).isInstanceOf(DockerDaemonUnavailableException.class);
+        verify(delegate, times(2)).execute(request);
+        assertThat(limiter.getStats(CallType.READ).getAdmittedCalls()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldAbortRequestOnDeadlineWithoutRecordingDaemonFailure() {
+        final DockerHttpClient.Request request = getRequest("DELETE", "/v1.41/containers/abc");
+        when(delegate.execute(request)).thenAnswer(invocation -> {
+            // stands for a blocking socket read aborted by the interruption
+            try {
+                Thread.sleep(Duration.ofSeconds(5));
+            } catch (InterruptedException e) {
+                throw new UncheckedIOException(new ClosedByInterruptException());
+            }
+            return mock(DockerHttpClient.Response.class);
+        });
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> OperationDeadline.callWithin(Duration.ofMillis(30),
+                    () -> httpClient.execute(request)))
+                    .isInstanceOf(DockerDeadlineExceededException.class);
+        }
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+        assertThat(circuitBreaker.getState()).isEqualTo(DaemonCircuitBreaker.State.CLOSED);
+        // released once the aborted requests are over
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> limiter.getStats(CallType.MUTATING).getInFlight() == 0);
+    }
+
+    @Test
+    void shouldCloseBlockingSocketOfRequestOnDeadline() throws Exception {
+        final DockerHttpClient.Request request = getRequest("GET", "/v1.41/containers/abc/json");
+        try (ServerSocket daemon = new ServerSocket(0)) {
+            // stands for a request to a tcp:// host, read from a blocking socket
+            when(delegate.execute(request)).thenAnswer(invocation -> {
+                try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), daemon.getLocalPort())) {
+                    socket.getInputStream().read();
+                }
+                return mock(DockerHttpClient.Response.class);
+            });
+            final CompletableFuture<Throwable> error = CompletableFuture.supplyAsync(() -> {
+                try {
+                    OperationDeadline.callWithin(Duration.ofMillis(100), () -> httpClient.execute(request));
+                    return null;
+                } catch (RuntimeException e) {
+                    return e;
+                }
+            });
+
+            try (Socket accepted = daemon.accept()) {
+                assertThat(error.get(5, TimeUnit.SECONDS)).isInstanceOf(DockerDeadlineExceededException.class);
+                accepted.setSoTimeout(5000);
+                // the connection is closed by the client
+                assertThat(accepted.getInputStream().read()).isEqualTo(-1);
+            }
+        }
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> limiter.getStats(CallType.READ).getInFlight() == 0);
+        assertThat(circuitBreaker.getState()).isEqualTo(DaemonCircuitBreaker.State.CLOSED);
+    }
+
+    private DockerHttpClient.Request getRequest(String method, String path) {
+        final DockerHttpClient.Request request = mock(DockerHttpClient.Request.class);
+        when(request.method()).thenReturn(method);
+        when(request.path()).thenReturn(path);
+        return request;
+    }
+}
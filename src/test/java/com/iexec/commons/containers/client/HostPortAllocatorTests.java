@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HostPortAllocatorTests {
+
+    @Test
+    void shouldAllocateDistinctPortsUntilRangeIsExhausted() {
+        final HostPortAllocator allocator = new HostPortAllocator(30000, 30002);
+        assertThat(allocator.allocate("a")).hasValue(30000);
+        assertThat(allocator.allocate("b")).hasValue(30001);
+        assertThat(allocator.allocate("c")).hasValue(30002);
+        assertThat(allocator.allocate("d")).isEmpty();
+        assertThat(allocator.getFreePortCount()).isZero();
+
+        assertThat(allocator.release("b")).isTrue();
+        assertThat(allocator.release("b")).isFalse();
+        assertThat(allocator.allocate("d")).hasValue(30001);
+        assertThat(allocator.getAllocation("d")).hasValue(30001);
+    }
+
+    @Test
+    void shouldNotReuseReleasedPortRightAway() {
+        final HostPortAllocator allocator = new HostPortAllocator(30000, 30099);
+        assertThat(allocator.allocate("a")).hasValue(30000);
+        allocator.release("a");
+        assertThat(allocator.allocate("b")).hasValue(30001);
+    }
+
+    @Test
+    void shouldReplacePreviousAllocationOfContainer() {
+        final HostPortAllocator allocator = new HostPortAllocator(30000, 30099);
+        allocator.allocate("a");
+        assertThat(allocator.allocate("a")).hasValue(30001);
+        assertThat(allocator.getFreePortCount()).isEqualTo(99);
+    }
+
+    @Test
+    void shouldNeverAllocateSamePortConcurrently() throws InterruptedException {
+        final HostPortAllocator allocator = new HostPortAllocator(40000, 40199);
+        final Set<Integer> allocatedPorts = ConcurrentHashMap.newKeySet();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        final List<String> containerNames = IntStream.range(0, 200).mapToObj(i -> "container-" + i).toList();
+        containerNames.forEach(name -> executor.execute(() -> {
+            try {
+                start.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            allocator.allocate(name).ifPresent(allocatedPorts::add);
+        }));
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(allocatedPorts).hasSize(200);
+        assertThat(allocator.getFreePortCount()).isZero();
+        assertThat(allocator.allocate("one-too-many")).isEmpty();
+        containerNames.forEach(allocator::release);
+        assertThat(allocator.getFreePortCount()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldNotCreateAllocatorWithInvalidRange() {
+        assertThatThrownBy(() -> new HostPortAllocator(0, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HostPortAllocator(30001, 30000)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HostPortAllocator(65000, 65536)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.github.dockerjava.api.model.Image;
+import com.iexec.commons.containers.ImageMetadata;
+import com.iexec.commons.containers.ImageReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ImageMetadataCacheTests {
+
+    private static final ImageReference ALPINE = ImageReference.of("alpine:latest");
+    private static final ImageReference SOCAT = ImageReference.of("alpine/socat:latest");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldReloadPersistedEntries() {
+        final Path file = tempDir.resolve("images.bin");
+        final ImageMetadata alpine = getImageMetadata("sha256:alpine", "alpine:latest");
+        final ImageMetadataCache cache = new ImageMetadataCache(file);
+        cache.load(List.of());
+        cache.put(alpine);
+
+        final ImageMetadataCache reloadedCache = new ImageMetadataCache(file);
+        reloadedCache.load(List.of(getImage("sha256:alpine", "alpine:latest")));
+
+        assertThat(reloadedCache.size()).isOne();
+        assertThat(reloadedCache.get(ALPINE)).contains(alpine);
+    }
+
+    @Test
+    void shouldDropEntriesOfImagesNoLongerPresent() {
+        final Path file = tempDir.resolve("images.bin");
+        final ImageMetadataCache cache = new ImageMetadataCache(file);
+        cache.load(List.of());
+        cache.put(getImageMetadata("sha256:alpine", "alpine:latest"));
+        cache.put(getImageMetadata("sha256:socat", "alpine/socat:latest"));
+
+        final ImageMetadataCache reloadedCache = new ImageMetadataCache(file);
+        reloadedCache.load(List.of(getImage("sha256:socat", "alpine/socat:latest")));
+
+        assertThat(reloadedCache.size()).isOne();
+        assertThat(reloadedCache.get(ALPINE)).isEmpty();
+        assertThat(reloadedCache.get(SOCAT)).isPresent();
+        // the dropped entry is not persisted anymore
+        final ImageMetadataCache thirdCache = new ImageMetadataCache(file);
+        thirdCache.load(List.of(getImage("sha256:alpine", "alpine:latest"), getImage("sha256:socat", "alpine/socat:latest")));
+        assertThat(thirdCache.size()).isOne();
+    }
+
+    @Test
+    void shouldIndexTagMovedToAnotherImage() {
+        final Path file = tempDir.resolve("images.bin");
+        final ImageMetadataCache cache = new ImageMetadataCache(file);
+        cache.load(List.of());
+        cache.put(getImageMetadata("sha256:old", "alpine:latest"));
+        cache.put(getImageMetadata("sha256:new", "alpine:3"));
+
+        final ImageMetadataCache reloadedCache = new ImageMetadataCache(file);
+        reloadedCache.load(List.of(getImage("sha256:old"), getImage("sha256:new", "alpine:latest", "alpine:3")));
+
+        assertThat(reloadedCache.get(ALPINE)).map(ImageMetadata::getId).contains("sha256:new");
+    }
+
+    @Test
+    void shouldRemoveEntry() {
+        final ImageMetadataCache cache = new ImageMetadataCache(tempDir.resolve("images.bin"));
+        cache.load(List.of());
+        cache.put(getImageMetadata("sha256:alpine", "alpine:latest"));
+        cache.remove(ALPINE);
+        assertThat(cache.get(ALPINE)).isEmpty();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void shouldIgnoreUnreadableFile() throws IOException {
+        final Path file = tempDir.resolve("images.bin");
+        Files.write(file, new byte[]{1, 2, 3});
+        final ImageMetadataCache cache = new ImageMetadataCache(file);
+        cache.load(List.of(getImage("sha256:alpine", "alpine:latest")));
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void shouldDiscardFileSinceEntryCountExceedsFileLength() throws IOException {
+        final Path file = tempDir.resolve("images.bin");
+        Files.write(file, ByteBuffer.allocate(12).putInt(0x69455843).putInt(1).putInt(Integer.MAX_VALUE).array());
+        final ImageMetadataCache cache = new ImageMetadataCache(file);
+        cache.load(List.of(getImage("sha256:alpine", "alpine:latest")));
+        assertThat(cache.size()).isZero();
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    void shouldDiscardFileSinceListSizeExceedsFileLength() throws IOException {
+        final Path file = tempDir.resolve("images.bin");
+        final ImageMetadataCache cache = new ImageMetadataCache(file);
+        cache.load(List.of());
+        cache.put(getImageMetadata("sha256:alpine", "alpine:latest"));
+        final byte[] content = Files.readAllBytes(file);
+        // size of the repo tags, after the header and the ID
+        ByteBuffer.wrap(content).putInt(12 + 2 + "sha256:alpine".length(), Integer.MAX_VALUE);
+        Files.write(file, content);
+
+        final ImageMetadataCache reloadedCache = new ImageMetadataCache(file);
+        reloadedCache.load(List.of(getImage("sha256:alpine", "alpine:latest")));
+        assertThat(reloadedCache.size()).isZero();
+        assertThat(file).doesNotExist();
+        reloadedCache.put(getImageMetadata("sha256:alpine", "alpine:latest"));
+        assertThat(file).exists();
+    }
+
+    private ImageMetadata getImageMetadata(String id, String repoTag) {
+        return ImageMetadata.builder()
+                .id(id)
+                .repoTags(List.of(repoTag))
+                .entrypoint(List.of("/bin/sh", "-c"))
+                .env(List.of("PATH=/usr/bin"))
+                .workingDir("/")
+                .size(1024L)
+                .created("2026-01-01T00:00:00Z")
+                .build();
+    }
+
+    private Image getImage(String id, String... repoTags) {
+        final Image image = mock(Image.class);
+        when(image.getId()).thenReturn(id);
+        when(image.getRepoTags()).thenReturn(repoTags);
+        return image;
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NetworkManagerTests {
+
+    private static final String NETWORK_NAME = "iexec-network";
+
+    private final DockerClientInstance dockerClientInstance = mock(DockerClientInstance.class);
+    private NetworkManager networkManager;
+
+    @BeforeEach
+    void beforeEach() {
+        when(dockerClientInstance.createNetwork(anyString()))
+                .thenAnswer(invocation -> "id-" + invocation.getArgument(0));
+        when(dockerClientInstance.removeNetwork(anyString())).thenReturn(true);
+    }
+
+    @AfterEach
+    void afterEach() {
+        if (networkManager != null) {
+            networkManager.close();
+        }
+    }
+
+    @Test
+    void shouldCreateNetworkOnceAndCacheItsId() {
+        networkManager = getNetworkManager(0, Duration.ofMinutes(1));
+        assertThat(networkManager.acquire(NETWORK_NAME)).isEqualTo("id-" + NETWORK_NAME);
+        assertThat(networkManager.acquire(NETWORK_NAME)).isEqualTo("id-" + NETWORK_NAME);
+        assertThat(networkManager.getReferences(NETWORK_NAME)).isEqualTo(2);
+        assertThat(networkManager.getNetworkId(NETWORK_NAME)).contains("id-" + NETWORK_NAME);
+        verify(dockerClientInstance, times(1)).createNetwork(NETWORK_NAME);
+    }
+
+    @Test
+    void shouldNotCacheNetworkWhichCannotBeCreated() {
+        networkManager = getNetworkManager(0, Duration.ofMinutes(1));
+        doReturn("").when(dockerClientInstance).createNetwork(NETWORK_NAME);
+        assertThat(networkManager.acquire(NETWORK_NAME)).isEmpty();
+        assertThat(networkManager.acquire("")).isEmpty();
+        assertThat(networkManager.getNetworkId(NETWORK_NAME)).isEmpty();
+    }
+
+    @Test
+    void shouldRemoveNetworkOnlyOnceIdleForTimeout() throws InterruptedException {
+        networkManager = getNetworkManager(0, Duration.ofMillis(100));
+        networkManager.acquire(NETWORK_NAME);
+        networkManager.acquire(NETWORK_NAME);
+        networkManager.release(NETWORK_NAME);
+        TimeUnit.MILLISECONDS.sleep(150);
+        networkManager.removeIdleNetworks();
+        verify(dockerClientInstance, never()).removeNetwork(NETWORK_NAME);
+
+        networkManager.release(NETWORK_NAME);
+        assertThat(networkManager.getNetworkId(NETWORK_NAME)).isEmpty();
+        networkManager.removeIdleNetworks();
+        verify(dockerClientInstance, never()).removeNetwork(NETWORK_NAME);
+        TimeUnit.MILLISECONDS.sleep(150);
+        networkManager.removeIdleNetworks();
+        verify(dockerClientInstance).removeNetwork(NETWORK_NAME);
+        // acquired again, so created again
+        networkManager.acquire(NETWORK_NAME);
+        verify(dockerClientInstance, times(2)).createNetwork(NETWORK_NAME);
+    }
+
+    @Test
+    void shouldKeepNetworkReacquiredBeforeTimeout() throws InterruptedException {
+        networkManager = getNetworkManager(0, Duration.ofMillis(100));
+        networkManager.acquire(NETWORK_NAME);
+        networkManager.release(NETWORK_NAME);
+        networkManager.acquire(NETWORK_NAME);
+        TimeUnit.MILLISECONDS.sleep(150);
+        networkManager.removeIdleNetworks();
+        verify(dockerClientInstance, never()).removeNetwork(anyString());
+        verify(dockerClientInstance, times(1)).createNetwork(NETWORK_NAME);
+    }
+
+    @Test
+    void shouldServeTaskNetworksFromPreCreatedPool() {
+        networkManager = getNetworkManager(2, Duration.ofMinutes(1));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> networkManager.getPooledTaskNetworkCount() == 2);
+        verify(dockerClientInstance, times(2)).createNetwork(startsWith(NetworkManager.TASK_NETWORK_PREFIX));
+
+        final String first = networkManager.acquireTaskNetwork();
+        final String second = networkManager.acquireTaskNetwork();
+        assertThat(first).startsWith(NetworkManager.TASK_NETWORK_PREFIX).isNotEqualTo(second);
+        assertThat(networkManager.getNetworkId(first)).contains("id-" + first);
+        assertThat(networkManager.getReferences(first)).isOne();
+        // the pool is refilled in the background
+        await().atMost(5, TimeUnit.SECONDS).until(() -> networkManager.getPooledTaskNetworkCount() == 2);
+
+        // the pool is full, released networks are removed once idle
+        networkManager.releaseTaskNetwork(first);
+        assertThat(networkManager.getPooledTaskNetworkCount()).isEqualTo(2);
+        assertThat(networkManager.getNetworkId(first)).isEmpty();
+    }
+
+    @Test
+    void shouldReturnReleasedTaskNetworkToPool() {
+        networkManager = getNetworkManager(1, Duration.ofMinutes(1));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> networkManager.getPooledTaskNetworkCount() == 1);
+        final String taskNetwork = networkManager.acquireTaskNetwork();
+        networkManager.releaseTaskNetwork(taskNetwork);
+        networkManager.releaseTaskNetwork(taskNetwork);
+        networkManager.releaseTaskNetwork(NETWORK_NAME);
+        assertThat(networkManager.getReferences(taskNetwork)).isZero();
+        assertThat(networkManager.getNetworkId(taskNetwork)).contains("id-" + taskNetwork);
+        assertThat(networkManager.acquireTaskNetwork()).isEqualTo(taskNetwork);
+    }
+
+    @Test
+    void shouldRemoveUnusedNetworksOnClose() {
+        networkManager = getNetworkManager(1, Duration.ofMinutes(1));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> networkManager.getPooledTaskNetworkCount() == 1);
+        networkManager.acquire(NETWORK_NAME);
+        networkManager.acquire("other-network");
+        networkManager.release("other-network");
+
+        networkManager.close();
+        verify(dockerClientInstance).removeNetwork("other-network");
+        verify(dockerClientInstance).removeNetwork(startsWith(NetworkManager.TASK_NETWORK_PREFIX));
+        verify(dockerClientInstance, never()).removeNetwork(NETWORK_NAME);
+    }
+
+    @Test
+    void shouldNotHoldLockWhileCreatingNetwork() throws Exception {
+        networkManager = getNetworkManager(0, Duration.ofMinutes(1));
+        final CountDownLatch creationStarted = new CountDownLatch(1);
+        final CountDownLatch creationReleased = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            creationStarted.countDown();
+            creationReleased.await(5, TimeUnit.SECONDS);
+            return "id-" + NETWORK_NAME;
+        }).when(dockerClientInstance).createNetwork(NETWORK_NAME);
+
+        final CompletableFuture<String> firstAcquisition =
+                CompletableFuture.supplyAsync(() -> networkManager.acquire(NETWORK_NAME));
+        assertThat(creationStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        final CompletableFuture<String> secondAcquisition =
+                CompletableFuture.supplyAsync(() -> networkManager.acquire(NETWORK_NAME));
+        // other networks are served while the network is created
+        assertThat(CompletableFuture.supplyAsync(() -> networkManager.acquire("other-network"))
+                .get(5, TimeUnit.SECONDS)).isEqualTo("id-other-network");
+        assertThat(networkManager.getNetworkId(NETWORK_NAME)).isEmpty();
+        assertThat(secondAcquisition).isNotDone();
+
+        creationReleased.countDown();
+        assertThat(firstAcquisition.get(5, TimeUnit.SECONDS)).isEqualTo("id-" + NETWORK_NAME);
+        assertThat(secondAcquisition.get(5, TimeUnit.SECONDS)).isEqualTo("id-" + NETWORK_NAME);
+        assertThat(networkManager.getReferences(NETWORK_NAME)).isEqualTo(2);
+        verify(dockerClientInstance, times(1)).createNetwork(NETWORK_NAME);
+    }
+
+    @Test
+    void shouldCreateNetworkAgainOnlyOnceRemoved() throws Exception {
+        networkManager = getNetworkManager(0, Duration.ZERO);
+        final CountDownLatch removalStarted = new CountDownLatch(1);
+        final CountDownLatch removalReleased = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            removalStarted.countDown();
+            removalReleased.await(5, TimeUnit.SECONDS);
+            return true;
+        }).when(dockerClientInstance).removeNetwork(NETWORK_NAME);
+        networkManager.acquire(NETWORK_NAME);
+        networkManager.release(NETWORK_NAME);
+
+        final CompletableFuture<Void> removal = CompletableFuture.runAsync(networkManager::removeIdleNetworks);
+        assertThat(removalStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        final CompletableFuture<String> acquisition =
+                CompletableFuture.supplyAsync(() -> networkManager.acquire(NETWORK_NAME));
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertThat(acquisition).isNotDone();
+        assertThat(networkManager.getPooledTaskNetworkCount()).isZero();
+
+        removalReleased.countDown();
+        removal.get(5, TimeUnit.SECONDS);
+        assertThat(acquisition.get(5, TimeUnit.SECONDS)).isEqualTo("id-" + NETWORK_NAME);
+        final InOrder inOrder = inOrder(dockerClientInstance);
+        inOrder.verify(dockerClientInstance).removeNetwork(NETWORK_NAME);
+        inOrder.verify(dockerClientInstance).createNetwork(NETWORK_NAME);
+    }
+
+    private NetworkManager getNetworkManager(int taskPoolSize, Duration idleTimeout) {
+        return new NetworkManager(dockerClientInstance, NetworkManagerConfig.builder()
+                .taskPoolSize(taskPoolSize)
+                .idleTimeout(idleTimeout)
+                .build());
+    }
+}
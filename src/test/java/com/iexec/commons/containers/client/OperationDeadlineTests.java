@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OperationDeadlineTests {
+
+    private final TimingWheel wheel = new TimingWheel(Duration.ofMillis(10), 8, "operation-deadline-tests");
+
+    @AfterEach
+    void afterEach() {
+        wheel.close();
+        Thread.interrupted();
+    }
+
+    @Test
+    void shouldHaveNoDeadlineOutsideOperation() {
+        assertThat(OperationDeadline.remaining()).isEmpty();
+        assertThat(OperationDeadline.callWithin(null, OperationDeadline::remaining)).isEmpty();
+    }
+
+    @Test
+    void shouldNotExtendEnclosingDeadline() {
+        final Optional<Duration> nestedRemaining = OperationDeadline.callWithin(Duration.ofSeconds(1),
+                () -> OperationDeadline.callWithin(Duration.ofHours(1), OperationDeadline::remaining));
+
+        assertThat(nestedRemaining).hasValueSatisfying(remaining ->
+                assertThat(remaining).isLessThanOrEqualTo(Duration.ofSeconds(1)));
+        assertThat(OperationDeadline.remaining()).isEmpty();
+    }
+
+    @Test
+    void shouldRestoreEnclosingDeadlineAfterNestedOperation() {
+        final Optional<Duration> remaining = OperationDeadline.callWithin(Duration.ofHours(1), () -> {
+            OperationDeadline.callWithin(Duration.ofMillis(1), OperationDeadline::remaining);
+            return OperationDeadline.remaining();
+        });
+
+        assertThat(remaining).hasValueSatisfying(duration ->
+                assertThat(duration).isGreaterThan(Duration.ofMinutes(59)));
+    }
+
+    @Test
+    void shouldNotGuardWhenDeadlineIsReached() {
+        assertThatThrownBy(() -> OperationDeadline.callWithin(Duration.ZERO, () -> OperationDeadline.guard(wheel)))
+                .isInstanceOf(DockerDeadlineExceededException.class);
+    }
+
+    @Test
+    void shouldInterruptBlockedCallAndClearInterruptionOnClose() {
+        final boolean isInterrupted = OperationDeadline.callWithin(Duration.ofMillis(50), () -> {
+            try (OperationDeadline.Guard guard = OperationDeadline.guard(wheel)) {
+                try {
+                    Thread.sleep(Duration.ofSeconds(5));
+                    return false;
+                } catch (InterruptedException e) {
+                    assertThat(guard.isExpired()).isTrue();
+                    return true;
+                }
+            }
+        });
+
+        assertThat(isInterrupted).isTrue();
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+
+    @Test
+    void shouldNotInterruptCallCompletedBeforeDeadline() throws InterruptedException {
+        OperationDeadline.callWithin(Duration.ofMillis(30), () -> {
+            try (OperationDeadline.Guard guard = OperationDeadline.guard(wheel)) {
+                return guard.isExpired();
+            }
+        });
+
+        Thread.sleep(100);
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+}
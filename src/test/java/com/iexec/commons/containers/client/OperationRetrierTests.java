@@ -0,0 +1,165 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.github.dockerjava.api.exception.BadRequestException;
+import com.github.dockerjava.api.exception.InternalServerErrorException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class OperationRetrierTests {
+
+    private final OperationRetrier retrier = new OperationRetrier(RetryPolicy.builder()
+            .maxAttempts(3)
+            .initialBackoff(Duration.ofMillis(1))
+            .maxBackoff(Duration.ofMillis(5))
+            .build());
+
+    @Test
+    void shouldRetryTransientErrorsUntilSuccess() {
+        final AtomicInteger attempts = new AtomicInteger();
+
+        final String result = retrier.call("getContainerId", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new InternalServerErrorException("i/o timeout");
+            }
+            return "id";
+        });
+
+        assertThat(result).isEqualTo("id");
+        assertThat(attempts).hasValue(3);
+        assertThat(retrier.getRetryCounts()).containsEntry("getContainerId", 2L);
+    }
+
+    @Test
+    void shouldThrowLastErrorWhenAttemptsAreExhausted() {
+        final AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retrier.run("startContainer", () -> {
+            attempts.incrementAndGet();
+            throw new RuntimeException(new IOException("Connection reset by peer"));
+        })).hasRootCauseInstanceOf(IOException.class);
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    void shouldNotRetryNonTransientErrors() {
+        final AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retrier.run("createNetwork", () -> {
+            attempts.incrementAndGet();
+            throw new BadRequestException("invalid name");
+        })).isInstanceOf(BadRequestException.class);
+        assertThat(attempts).hasValue(1);
+        assertThat(retrier.getRetryCounts()).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldReturnPreviousAttemptResultInsteadOfRetrying() {
+        final Supplier<String> create = mock(Supplier.class);
+        when(create.get()).thenThrow(new InternalServerErrorException("timeout"));
+
+        final String id = retrier.call("createContainer", create, () -> Optional.of("created-id"));
+
+        assertThat(id).isEqualTo("created-id");
+        verify(create, times(1)).get();
+        assertThat(retrier.getRetryCounts()).containsEntry("createContainer", 1L);
+    }
+
+    @Test
+    void shouldKeepLockOfCallerWhileBackingOff() throws Exception {
+        final OperationRetrier slowRetrier = new OperationRetrier(RetryPolicy.builder()
+                .maxAttempts(2)
+                .initialBackoff(Duration.ofMillis(200))
+                .maxBackoff(Duration.ofMillis(200))
+                .build());
+        final ReentrantLock lock = new ReentrantLock();
+        final AtomicInteger attempts = new AtomicInteger();
+        final CompletableFuture<Integer> attemptsWhenLockedByOther = new CompletableFuture<>();
+
+        lock.lock();
+        try {
+            final String result = slowRetrier.call("createContainer", () -> {
+                if (attempts.incrementAndGet() == 1) {
+                    CompletableFuture.runAsync(() -> {
+                        lock.lock();
+                        attemptsWhenLockedByOther.complete(attempts.get());
+                        lock.unlock();
+                    });
+                    throw new InternalServerErrorException("i/o timeout");
+                }
+                return "id";
+            });
+
+            assertThat(result).isEqualTo("id");
+        } finally {
+            lock.unlock();
+        }
+        // no other caller runs between the failed attempt and its retry
+        assertThat(attemptsWhenLockedByOther.get(5, TimeUnit.SECONDS)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotBackOffPastDeadline() {
+        retrier.setPolicy(RetryPolicy.builder()
+                .initialBackoff(Duration.ofSeconds(10))
+                .maxBackoff(Duration.ofSeconds(10))
+                .build());
+        final AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> OperationDeadline.callWithin(Duration.ofSeconds(1), () -> retrier.call("getImageId", () -> {
+            attempts.incrementAndGet();
+            throw new InternalServerErrorException("timeout");
+        }))).isInstanceOf(InternalServerErrorException.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void shouldClassifyTransientErrors() {
+        assertThat(OperationRetrier.isTransient(new InternalServerErrorException("error"))).isTrue();
+        assertThat(OperationRetrier.isTransient(new RuntimeException(new IOException("broken pipe")))).isTrue();
+        assertThat(OperationRetrier.isTransient(new BadRequestException("error"))).isFalse();
+        assertThat(OperationRetrier.isTransient(new DockerDaemonUnavailableException("open"))).isFalse();
+        assertThat(OperationRetrier.isTransient(new DockerDeadlineExceededException("deadline"))).isFalse();
+        assertThat(OperationRetrier.isTransient(new IllegalStateException("bug"))).isFalse();
+    }
+
+    @Test
+    void shouldBoundBackoff() {
+        final RetryPolicy policy = RetryPolicy.builder()
+                .initialBackoff(Duration.ofMillis(100))
+                .maxBackoff(Duration.ofSeconds(1))
+                .build();
+
+        assertThat(OperationRetrier.getBackoff(policy, 1)).isBetween(Duration.ofMillis(50), Duration.ofMillis(100));
+        assertThat(OperationRetrier.getBackoff(policy, 3)).isBetween(Duration.ofMillis(200), Duration.ofMillis(400));
+        assertThat(OperationRetrier.getBackoff(policy, 40)).isBetween(Duration.ofMillis(500), Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.command.InfoCmd;
+import com.github.dockerjava.api.model.DeviceRequest;
+import com.github.dockerjava.api.model.HostConfig;
+import com.github.dockerjava.api.model.Info;
+import com.iexec.commons.containers.DockerRunFinalStatus;
+import com.iexec.commons.containers.DockerRunRequest;
+import com.iexec.commons.containers.DockerRunResponse;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RunSchedulerTests {
+
+    private static final long CPU = 1_000_000_000L;
+    private static final long GB = 1024L * 1024 * 1024;
+    private static final RunResources CAPACITY = RunResources.builder()
+            .nanoCpus(2 * CPU)
+            .memoryBytes(4 * GB)
+            .gpus(1)
+            .build();
+
+    private final DockerClientInstance dockerClientInstance = mock(DockerClientInstance.class);
+    private final RunScheduler scheduler = new RunScheduler(dockerClientInstance, CAPACITY);
+
+    //region RunResources
+    @Test
+    void shouldReadDemandFromHostConfig() {
+        final HostConfig hostConfig = HostConfig.newHostConfig()
+                .withNanoCPUs(CPU / 2)
+                .withMemory(GB)
+                .withDeviceRequests(List.of(new DeviceRequest()
+                        .withCount(-1)
+                        .withCapabilities(List.of(List.of("gpu")))));
+
+        assertThat(RunResources.of(hostConfig, CAPACITY)).isEqualTo(RunResources.builder()
+                .nanoCpus(CPU / 2)
+                .memoryBytes(GB)
+                .gpus(1)
+                .build());
+    }
+
+    @Test
+    void shouldReadCpuDemandFromQuota() {
+        final HostConfig hostConfig = HostConfig.newHostConfig()
+                .withCpuQuota(150_000L)
+                .withCpuPeriod(100_000L);
+
+        assertThat(RunResources.of(hostConfig, CAPACITY).getNanoCpus()).isEqualTo(3 * CPU / 2);
+        assertThat(RunResources.of(HostConfig.newHostConfig(), CAPACITY)).isEqualTo(RunResources.NONE);
+    }
+
+    @Test
+    void shouldReadCapacityFromDockerInfo() {
+        final DockerClient dockerClient = mock(DockerClient.class);
+        final InfoCmd infoCmd = mock(InfoCmd.class);
+        when(dockerClientInstance.getClient()).thenReturn(dockerClient);
+        when(dockerClient.infoCmd()).thenReturn(infoCmd);
+        when(infoCmd.exec()).thenReturn(new Info().withNCPU(8).withMemTotal(16 * GB));
+
+        assertThat(new RunScheduler(dockerClientInstance).getCapacity()).isEqualTo(RunResources.builder()
+                .nanoCpus(8 * CPU)
+                .memoryBytes(16 * GB)
+                .build());
+    }
+    //endregion
+
+    @Test
+    void shouldQueueRunUntilResourcesAreReleased() throws Exception {
+        final CountDownLatch firstRunExit = new CountDownLatch(1);
+        when(dockerClientInstance.run(any())).thenAnswer(invocation -> {
+            if ("first".equals(invocation.<DockerRunRequest>getArgument(0).getContainerName())) {
+                firstRunExit.await(5, TimeUnit.SECONDS);
+            }
+            return getSuccessResponse();
+        });
+
+        final CompletableFuture<DockerRunResponse> firstRun =
+                CompletableFuture.supplyAsync(() -> scheduler.run(getRunRequest("first", 2 * CPU, GB)));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> scheduler.getAvailable().getNanoCpus() == 0);
+        final CompletableFuture<DockerRunResponse> secondRun =
+                CompletableFuture.supplyAsync(() -> scheduler.run(getRunRequest("second", CPU, GB)));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> scheduler.getQueueLength() == 1);
+        verify(dockerClientInstance, never()).run(argThat(request -> "second".equals(request.getContainerName())));
+
+        firstRunExit.countDown();
+        assertThat(firstRun.get(5, TimeUnit.SECONDS).isSuccessful()).isTrue();
+        assertThat(secondRun.get(5, TimeUnit.SECONDS).isSuccessful()).isTrue();
+        assertThat(scheduler.getAvailable()).isEqualTo(CAPACITY);
+        assertThat(scheduler.getQueueLength()).isZero();
+        final RunScheduler.QueueStats queueStats = scheduler.getQueueStats();
+        assertThat(queueStats.getAdmittedRuns()).isEqualTo(2);
+        assertThat(queueStats.getMaxWait()).isPositive();
+        assertThat(queueStats.getAverageWait()).isLessThanOrEqualTo(queueStats.getMaxWait());
+    }
+
+    @Test
+    void shouldReportLateAdmissionsByRequester() {
+        when(dockerClientInstance.run(any())).thenReturn(getSuccessResponse());
+        final RunScheduler fairScheduler = new RunScheduler(dockerClientInstance, CAPACITY,
+                new FairDeadlineRunQueue(Duration.ofMinutes(5)));
+        final DockerRunRequest request = getRunRequest("late", CPU, GB);
+        request.setRequester("alice");
+        request.setDeadline(Instant.now());
+
+        fairScheduler.run(request);
+
+        assertThat(fairScheduler.getQueueStats("alice").getAdmittedRuns()).isOne();
+        assertThat(fairScheduler.getQueueStats("alice").getLateAdmissions()).isOne();
+        assertThat(fairScheduler.getQueueStats("bob").getAdmittedRuns()).isZero();
+    }
+
+    @Test
+    void shouldNotRunSinceDemandExceedsCapacity() {
+        final DockerRunResponse response = scheduler.run(getRunRequest("too-big", 4 * CPU, GB));
+
+        assertThat(response.getFinalStatus()).isEqualTo(DockerRunFinalStatus.FAILED);
+        verify(dockerClientInstance, never()).run(any());
+    }
+
+    @Test
+    void shouldKeepResourcesOfDetachedRunUntilReleased() {
+        when(dockerClientInstance.run(any())).thenReturn(getSuccessResponse());
+        final DockerRunRequest request = getRunRequest("detached", CPU, GB);
+        request.setMaxExecutionTime(0);
+
+        scheduler.run(request);
+        assertThat(scheduler.getAvailable().getNanoCpus()).isEqualTo(CPU);
+        assertThat(scheduler.release("detached")).isTrue();
+        assertThat(scheduler.release("detached")).isFalse();
+        assertThat(scheduler.getAvailable()).isEqualTo(CAPACITY);
+    }
+
+    //region preemption
+    @Test
+    void shouldPauseLowerPriorityRunAndResumeItOnceUrgentRunCompleted() throws Exception {
+        final CountDownLatch lowRunExit = new CountDownLatch(1);
+        when(dockerClientInstance.run(any())).thenAnswer(invocation -> {
+            if ("low".equals(invocation.<DockerRunRequest>getArgument(0).getContainerName())) {
+                lowRunExit.await(5, TimeUnit.SECONDS);
+            }
+            return getSuccessResponse();
+        });
+        when(dockerClientInstance.pauseContainer("low")).thenReturn(true);
+        when(dockerClientInstance.unpauseContainer("low")).thenReturn(true);
+        scheduler.setPreemptionEnabled(true);
+
+        final CompletableFuture<DockerRunResponse> lowRun =
+                CompletableFuture.supplyAsync(() -> scheduler.run(getRunRequest("low", 2 * CPU, GB)));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> scheduler.getAvailable().getNanoCpus() == 0);
+        final DockerRunRequest urgentRequest = getRunRequest("urgent", CPU, GB);
+        urgentRequest.setPriority(1);
+
+        assertThat(scheduler.run(urgentRequest).isSuccessful()).isTrue();
+        final InOrder inOrder = inOrder(dockerClientInstance);
+        inOrder.verify(dockerClientInstance).pauseContainer("low");
+        inOrder.verify(dockerClientInstance).run(urgentRequest);
+        inOrder.verify(dockerClientInstance).unpauseContainer("low");
+        assertThat(scheduler.getPausedRuns()).isZero();
+        assertThat(scheduler.getAvailable().getNanoCpus()).isZero();
+        lowRunExit.countDown();
+        assertThat(lowRun.get(5, TimeUnit.SECONDS).isSuccessful()).isTrue();
+        assertThat(scheduler.getAvailable()).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    void shouldNotHoldSchedulerWhilePausingRun() throws Exception {
+        final CountDownLatch lowRunExit = new CountDownLatch(1);
+        final CountDownLatch pauseStarted = new CountDownLatch(1);
+        final CountDownLatch pauseAllowed = new CountDownLatch(1);
+        when(dockerClientInstance.run(any())).thenAnswer(invocation -> {
+            if ("low".equals(invocation.<DockerRunRequest>getArgument(0).getContainerName())) {
+                lowRunExit.await(5, TimeUnit.SECONDS);
+            }
+            return getSuccessResponse();
+        });
+        when(dockerClientInstance.pauseContainer("low")).thenAnswer(invocation -> {
+            pauseStarted.countDown();
+            return pauseAllowed.await(5, TimeUnit.SECONDS);
+        });
+        when(dockerClientInstance.unpauseContainer("low")).thenReturn(true);
+        scheduler.setPreemptionEnabled(true);
+
+        final CompletableFuture<DockerRunResponse> lowRun =
+                CompletableFuture.supplyAsync(() -> scheduler.run(getRunRequest("low", 2 * CPU, GB)));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> scheduler.getAvailable().getNanoCpus() == 0);
+        final DockerRunRequest urgentRequest = getRunRequest("urgent", CPU, GB);
+        urgentRequest.setPriority(1);
+        final CompletableFuture<DockerRunResponse> urgentRun =
+                CompletableFuture.supplyAsync(() -> scheduler.run(urgentRequest));
+        assertThat(pauseStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // the scheduler is not locked during the Docker call
+        assertThat(CompletableFuture.supplyAsync(scheduler::getQueueLength).get(1, TimeUnit.SECONDS)).isOne();
+        assertThat(scheduler.getPausedRuns()).isZero();
+        pauseAllowed.countDown();
+        assertThat(urgentRun.get(5, TimeUnit.SECONDS).isSuccessful()).isTrue();
+        verify(dockerClientInstance).unpauseContainer("low");
+        lowRunExit.countDown();
+        assertThat(lowRun.get(5, TimeUnit.SECONDS).isSuccessful()).isTrue();
+        assertThat(scheduler.getAvailable()).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    void shouldNotPauseRunSinceSamePriorityOrPreemptionDisabled() throws Exception {
+        final CountDownLatch firstRunExit = new CountDownLatch(1);
+        when(dockerClientInstance.run(any())).thenAnswer(invocation -> {
+            if ("first".equals(invocation.<DockerRunRequest>getArgument(0).getContainerName())) {
+                firstRunExit.await(5, TimeUnit.SECONDS);
+            }
+            return getSuccessResponse();
+        });
+
+        final CompletableFuture<DockerRunResponse> firstRun =
+                CompletableFuture.supplyAsync(() -> scheduler.run(getRunRequest("first", 2 * CPU, GB)));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> scheduler.getAvailable().getNanoCpus() == 0);
+        final DockerRunRequest urgentRequest = getRunRequest("urgent", CPU, GB);
+        urgentRequest.setPriority(1);
+        final CompletableFuture<DockerRunResponse> urgentRun =
+                CompletableFuture.supplyAsync(() -> scheduler.run(urgentRequest));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> scheduler.getQueueLength() == 1);
+        scheduler.setPreemptionEnabled(true);
+        final CompletableFuture<DockerRunResponse> samePriorityRun =
+                CompletableFuture.supplyAsync(() -> scheduler.run(getRunRequest("same", CPU, GB)));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> scheduler.getQueueLength() == 2);
+
+        verify(dockerClientInstance, never()).pauseContainer(any());
+        firstRunExit.countDown();
+        assertThat(firstRun.get(5, TimeUnit.SECONDS).isSuccessful()).isTrue();
+        assertThat(urgentRun.get(5, TimeUnit.SECONDS).isSuccessful()).isTrue();
+        assertThat(samePriorityRun.get(5, TimeUnit.SECONDS).isSuccessful()).isTrue();
+    }
+
+    @Test
+    void shouldNotPauseRunSinceUrgentRunLacksMemory() throws Exception {
+        final CountDownLatch lowRunExit = new CountDownLatch(1);
+        when(dockerClientInstance.run(any())).thenAnswer(invocation -> {
+            if ("low".equals(invocation.<DockerRunRequest>getArgument(0).getContainerName())) {
+                lowRunExit.await(5, TimeUnit.SECONDS);
+            }
+            return getSuccessResponse();
+        });
+        scheduler.setPreemptionEnabled(true);
+
+        final CompletableFuture<DockerRunResponse> lowRun =
+                CompletableFuture.supplyAsync(() -> scheduler.run(getRunRequest("low", 2 * CPU, 3 * GB)));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> scheduler.getAvailable().getNanoCpus() == 0);
+        final DockerRunRequest urgentRequest = getRunRequest("urgent", CPU, 2 * GB);
+        urgentRequest.setPriority(1);
+        final CompletableFuture<DockerRunResponse> urgentRun =
+                CompletableFuture.supplyAsync(() -> scheduler.run(urgentRequest));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> scheduler.getQueueLength() == 1);
+
+        verify(dockerClientInstance, never()).pauseContainer(any());
+        lowRunExit.countDown();
+        assertThat(lowRun.get(5, TimeUnit.SECONDS).isSuccessful()).isTrue();
+        assertThat(urgentRun.get(5, TimeUnit.SECONDS).isSuccessful()).isTrue();
+    }
+    //endregion
+
+    private DockerRunRequest getRunRequest(String containerName, long nanoCpus, long memoryBytes) {
+        return DockerRunRequest.builder()
+                .containerName(containerName)
+                .imageUri("alpine:3.20")
+                .maxExecutionTime(5000)
+                .hostConfig(HostConfig.newHostConfig()
+                        .withNanoCPUs(nanoCpus)
+                        .withMemory(memoryBytes))
+                .build();
+    }
+
+    private DockerRunResponse getSuccessResponse() {
+        return DockerRunResponse.builder().finalStatus(DockerRunFinalStatus.SUCCESS).build();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class SingleFlightTests {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    private final AtomicInteger reads = new AtomicInteger();
+
+    @Test
+    void shouldShareInFlightRead() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<String>> results = IntStream.range(0, 8)
+                    .mapToObj(i -> executor.submit(() -> singleFlight.execute("key", () -> {
+                        reads.incrementAndGet();
+                        awaitRelease(release);
+                        return "value";
+                    })))
+                    .toList();
+            await().atMost(5, TimeUnit.SECONDS).until(() -> reads.get() == 1);
+            // let the other callers reach the in-flight read
+            Thread.sleep(200);
+            release.countDown();
+
+            assertThat(results).allSatisfy(result -> assertThat(result.get()).isEqualTo("value"));
+            assertThat(reads).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldReadAgainWithoutTtl() {
+        assertThat(singleFlight.execute("key", this::read)).isEqualTo("value1");
+        assertThat(singleFlight.execute("key", this::read)).isEqualTo("value2");
+    }
+
+    @Test
+    void shouldReuseResultDuringTtl() {
+        singleFlight.setTtl(Duration.ofMinutes(1));
+        assertThat(singleFlight.execute("key", this::read)).isEqualTo("value1");
+        assertThat(singleFlight.execute("key", this::read)).isEqualTo("value1");
+        assertThat(singleFlight.execute("other", this::read)).isEqualTo("value2");
+    }
+
+    @Test
+    void shouldReadAgainAfterInvalidation() {
+        singleFlight.setTtl(Duration.ofMinutes(1));
+        assertThat(singleFlight.execute("key", this::read)).isEqualTo("value1");
+        singleFlight.invalidate("key");
+        assertThat(singleFlight.execute("key", this::read)).isEqualTo("value2");
+    }
+
+    @Test
+    void shouldPropagateReadFailureWithoutCachingIt() {
+        singleFlight.setTtl(Duration.ofMinutes(1));
+        assertThatThrownBy(() -> singleFlight.execute("key", () -> {
+            throw new IllegalStateException("daemon error");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(singleFlight.execute("key", this::read)).isEqualTo("value1");
+    }
+
+    private String read() {
+        return "value" + reads.incrementAndGet();
+    }
+
+    private static void awaitRelease(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.github.dockerjava.api.model.Bind;
+import com.github.dockerjava.api.model.HostConfig;
+import com.iexec.commons.containers.DockerRunFinalStatus;
+import com.iexec.commons.containers.DockerRunRequest;
+import com.iexec.commons.containers.DockerRunResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class StagedPipelineTests {
+
+    private final DockerClientInstance dockerClientInstance = mock(DockerClientInstance.class);
+    private StagedPipeline pipeline;
+
+    @BeforeEach
+    void beforeEach() {
+        when(dockerClientInstance.createVolume(anyString())).thenReturn(true);
+        when(dockerClientInstance.removeVolume(anyString())).thenReturn(true);
+    }
+
+    @AfterEach
+    void afterEach() {
+        if (pipeline != null) {
+            pipeline.close();
+        }
+    }
+
+    @Test
+    void shouldOverlapStagesOfConsecutiveTasks() throws Exception {
+        final CountDownLatch secondAppStarted = new CountDownLatch(1);
+        when(dockerClientInstance.run(any())).thenAnswer(invocation -> {
+            final String containerName = invocation.<DockerRunRequest>getArgument(0).getContainerName();
+            if ("app-task2".equals(containerName)) {
+                secondAppStarted.countDown();
+            }
+            if ("post-task1".equals(containerName) && !secondAppStarted.await(5, TimeUnit.SECONDS)) {
+                return getResponse(DockerRunFinalStatus.TIMEOUT);
+            }
+            return getResponse(DockerRunFinalStatus.SUCCESS);
+        });
+        pipeline = new StagedPipeline("pipeline", dockerClientInstance, List.of(getStage("app"), getStage("post")));
+
+        final CompletableFuture<PipelineResult> firstTask = pipeline.submit("task1");
+        final CompletableFuture<PipelineResult> secondTask = pipeline.submit("task2");
+
+        final PipelineResult firstResult = firstTask.get(5, TimeUnit.SECONDS);
+        assertThat(firstResult.isSuccessful()).isTrue();
+        assertThat(firstResult.getResponses()).containsOnlyKeys("app", "post");
+        assertThat(firstResult.getRunDurations()).containsOnlyKeys("app", "post");
+        assertThat(secondTask.get(5, TimeUnit.SECONDS).isSuccessful()).isTrue();
+        // both stages of a task mount the same hand-off volume
+        verify(dockerClientInstance).createVolume("pipeline-task1");
+        verify(dockerClientInstance, times(2)).run(argThat(request -> request.getContainerName().endsWith("task1")
+                && "pipeline-task1".equals(request.getHostConfig().getBinds()[0].getPath())));
+        verify(dockerClientInstance).removeVolume("pipeline-task1");
+        assertThat(pipeline.getStageStats()).extracting(StagedPipeline.StageStats::getCompletedRuns)
+                .containsExactly(2L, 2L);
+    }
+
+    @Test
+    void shouldNotRunNextStagesSinceStageFailed() throws Exception {
+        when(dockerClientInstance.run(any())).thenReturn(getResponse(DockerRunFinalStatus.FAILED));
+        pipeline = new StagedPipeline("pipeline", dockerClientInstance, List.of(getStage("app"), getStage("post")));
+
+        final PipelineResult result = pipeline.submit("task").get(5, TimeUnit.SECONDS);
+
+        assertThat(result.isSuccessful()).isFalse();
+        assertThat(result.getResponses()).containsOnlyKeys("app");
+        verify(dockerClientInstance, times(1)).run(any());
+        verify(dockerClientInstance).removeVolume("pipeline-task");
+        assertThat(pipeline.getStageStats().get(0).getFailedRuns()).isOne();
+    }
+
+    @Test
+    void shouldBlockSubmissionWhileFirstStageIsFull() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        when(dockerClientInstance.run(any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return getResponse(DockerRunFinalStatus.SUCCESS);
+        });
+        pipeline = new StagedPipeline("pipeline", dockerClientInstance, List.of(getStage("app")));
+
+        pipeline.submit("task1");
+        await().atMost(5, TimeUnit.SECONDS).until(() -> pipeline.getStageStats().get(0).getRunningTasks() == 1);
+        pipeline.submit("task2");
+        final CompletableFuture<CompletableFuture<PipelineResult>> thirdSubmission =
+                CompletableFuture.supplyAsync(() -> pipeline.submit("task3"));
+        TimeUnit.MILLISECONDS.sleep(200);
+        assertThat(thirdSubmission).isNotDone();
+        assertThat(pipeline.getStageStats().get(0).getQueuedTasks()).isOne();
+
+        release.countDown();
+        assertThat(thirdSubmission.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS).isSuccessful()).isTrue();
+        assertThat(pipeline.getStageStats().get(0).getTotalQueueWait()).isPositive();
+    }
+
+    @Test
+    void shouldStopRunningStagesAndFailQueuedTasksOnClose() throws Exception {
+        final CountDownLatch appStopped = new CountDownLatch(1);
+        final AtomicBoolean isWorkerInterrupted = new AtomicBoolean();
+        when(dockerClientInstance.run(any())).thenAnswer(invocation -> {
+            final boolean isStopped = appStopped.await(5, TimeUnit.SECONDS);
+            isWorkerInterrupted.set(Thread.currentThread().isInterrupted());
+            return getResponse(isStopped ? DockerRunFinalStatus.SUCCESS : DockerRunFinalStatus.TIMEOUT);
+        });
+        when(dockerClientInstance.stopContainer("app-task1")).thenAnswer(invocation -> {
+            appStopped.countDown();
+            return true;
+        });
+        pipeline = new StagedPipeline("pipeline", dockerClientInstance, List.of(getStage("app"), getStage("post")));
+
+        final CompletableFuture<PipelineResult> runningTask = pipeline.submit("task1");
+        await().atMost(5, TimeUnit.SECONDS).until(() -> pipeline.getStageStats().get(0).getRunningTasks() == 1);
+        final CompletableFuture<PipelineResult> queuedTask = pipeline.submit("task2");
+        pipeline.close();
+
+        // close returns once the running stage is over
+        assertThat(runningTask).isDone();
+        assertThat(runningTask.get().isSuccessful()).isFalse();
+        assertThat(runningTask.get().getResponses()).containsOnlyKeys("app");
+        assertThat(isWorkerInterrupted).isFalse();
+        assertThat(queuedTask).isDone();
+        assertThat(queuedTask.get().isSuccessful()).isFalse();
+        assertThat(pipeline.submit("task3").get().isSuccessful()).isFalse();
+        verify(dockerClientInstance, times(1)).run(any());
+        verify(dockerClientInstance).removeVolume("pipeline-task1");
+        verify(dockerClientInstance).removeVolume("pipeline-task2");
+    }
+
+    @Test
+    void shouldCompleteEveryTaskSubmittedWhileClosing() throws Exception {
+        when(dockerClientInstance.run(any())).thenReturn(getResponse(DockerRunFinalStatus.SUCCESS));
+        pipeline = new StagedPipeline("pipeline", dockerClientInstance, List.of(getStage("app"), getStage("post")));
+        final List<CompletableFuture<PipelineResult>> results = Collections.synchronizedList(new ArrayList<>());
+        final List<Thread> submitters = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            final int submitter = i;
+            submitters.add(Thread.ofPlatform().start(() -> {
+                for (int task = 0; task < 50; task++) {
+                    results.add(pipeline.submit("task" + submitter + "-" + task));
+                }
+            }));
+        }
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> results.size() >= 10);
+        pipeline.close();
+        for (Thread submitter : submitters) {
+            submitter.join(5000);
+        }
+
+        assertThat(results).hasSize(200);
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        // every hand-off volume created is removed
+        final ArgumentCaptor<String> createdVolumes = ArgumentCaptor.forClass(String.class);
+        final ArgumentCaptor<String> removedVolumes = ArgumentCaptor.forClass(String.class);
+        verify(dockerClientInstance, atLeastOnce()).createVolume(createdVolumes.capture());
+        verify(dockerClientInstance, atLeastOnce()).removeVolume(removedVolumes.capture());
+        assertThat(removedVolumes.getAllValues()).containsExactlyInAnyOrderElementsOf(createdVolumes.getAllValues());
+    }
+
+    @Test
+    void shouldNotCreatePipelineSinceDuplicateStages() {
+        final List<PipelineStage> stages = List.of(getStage("app"), getStage("app"));
+        assertThatThrownBy(() -> new StagedPipeline("pipeline", dockerClientInstance, stages))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private PipelineStage getStage(String stageName) {
+        return PipelineStage.builder()
+                .name(stageName)
+                .requestFactory((taskId, handOffVolume) -> DockerRunRequest.builder()
+                        .containerName(stageName + "-" + taskId)
+                        .imageUri("alpine:3.20")
+                        .maxExecutionTime(5000)
+                        .hostConfig(HostConfig.newHostConfig()
+                                .withBinds(Bind.parse(handOffVolume + ":/iexec_out")))
+                        .build())
+                .build();
+    }
+
+    private DockerRunResponse getResponse(DockerRunFinalStatus finalStatus) {
+        return DockerRunResponse.builder().finalStatus(finalStatus).build();
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.iexec.commons.containers.*;
+import com.iexec.commons.containers.TaskGroupMember.Condition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TaskGroupRunnerTests {
+
+    private static final String NETWORK = "task-network";
+    private static final String VOLUME = "task-volume";
+
+    private final DockerClientInstance dockerClientInstance = mock(DockerClientInstance.class);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final TaskGroupRunner runner = new TaskGroupRunner(dockerClientInstance, executor);
+    // container names in start order
+    private final List<String> startedContainers = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void beforeEach() {
+        when(dockerClientInstance.createNetwork(NETWORK)).thenReturn("networkId");
+        when(dockerClientInstance.createVolume(VOLUME)).thenReturn(true);
+        when(dockerClientInstance.prepare(any())).thenAnswer(invocation ->
+                new PreparedRun(invocation.getArgument(0), true, null, false));
+        when(dockerClientInstance.runPrepared(any(), any())).thenAnswer(invocation -> {
+            final PreparedRun preparedRun = invocation.getArgument(0);
+            startedContainers.add(preparedRun.getContainerName());
+            invocation.<Runnable>getArgument(1).run();
+            final boolean isSuccessful = !preparedRun.getContainerName().startsWith("failing");
+            return CompletableFuture.completedFuture(DockerRunResponse.builder()
+                    .finalStatus(isSuccessful ? DockerRunFinalStatus.SUCCESS : DockerRunFinalStatus.FAILED)
+                    .build());
+        });
+    }
+
+    @AfterEach
+    void afterEach() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldStartMembersOnceDependenciesAreMet() {
+        final TaskGroup taskGroup = TaskGroup.builder()
+                .name("task")
+                .networkName(NETWORK)
+                .volume(VOLUME)
+                .member(getMember("post", 5000, Map.of("app", Condition.COMPLETED_SUCCESSFULLY)))
+                .member(getMember("app", 5000, Map.of(
+                        "pre", Condition.COMPLETED_SUCCESSFULLY,
+                        "sidecar", Condition.STARTED)))
+                .member(getMember("pre", 5000, Map.of()))
+                .member(getMember("sidecar", 0, Map.of()))
+                .build();
+
+        final TaskGroupResult result = runner.run(taskGroup);
+
+        assertThat(result.isSuccessful()).isTrue();
+        assertThat(result.getResponses()).containsOnlyKeys("post", "app", "pre", "sidecar");
+        assertThat(startedContainers).hasSize(4);
+        assertThat(startedContainers.indexOf("app"))
+                .isGreaterThan(startedContainers.indexOf("pre"))
+                .isGreaterThan(startedContainers.indexOf("sidecar"))
+                .isLessThan(startedContainers.indexOf("post"));
+        verify(dockerClientInstance, times(4)).prepare(argThat(request ->
+                NETWORK.equals(request.getHostConfig().getNetworkMode())));
+        // the requests of the caller are not changed
+        assertThat(taskGroup.getMembers()).allSatisfy(member ->
+                assertThat(member.getDockerRunRequest().getHostConfig().getNetworkMode()).isNull());
+        verify(dockerClientInstance).createNetwork(NETWORK);
+        verify(dockerClientInstance).createVolume(VOLUME);
+        // only the detached member is left to remove
+        verify(dockerClientInstance).stopContainer("sidecar");
+        verify(dockerClientInstance).removeContainer("sidecar");
+        verify(dockerClientInstance, never()).removeContainer("app");
+        verify(dockerClientInstance).removeNetwork(NETWORK);
+        verify(dockerClientInstance).removeVolume(VOLUME);
+    }
+
+    @Test
+    void shouldNotRunMemberSinceDependencyFailed() {
+        final TaskGroup taskGroup = TaskGroup.builder()
+                .name("task")
+                .member(getMember("failing-pre", 5000, Map.of()))
+                .member(getMember("app", 5000, Map.of("failing-pre", Condition.COMPLETED_SUCCESSFULLY)))
+                .build();
+
+        final TaskGroupResult result = runner.run(taskGroup);
+
+        assertThat(result.isSuccessful()).isFalse();
+        assertThat(result.getFailedMembers()).containsExactly("failing-pre", "app");
+        assertThat(startedContainers).containsExactly("failing-pre");
+        verify(dockerClientInstance).discard(argThat(preparedRun -> "app".equals(preparedRun.getContainerName())));
+        verify(dockerClientInstance, never()).createNetwork(any());
+    }
+
+    @Test
+    void shouldPrepareIndependentMembersConcurrently() {
+        final CyclicBarrier barrier = new CyclicBarrier(3);
+        when(dockerClientInstance.prepare(any())).thenAnswer(invocation -> {
+            // fails unless the 3 members are prepared at the same time
+            barrier.await(5, TimeUnit.SECONDS);
+            return new PreparedRun(invocation.getArgument(0), true, null, false);
+        });
+        final TaskGroup taskGroup = TaskGroup.builder()
+                .name("task")
+                .member(getMember("first", 5000, Map.of()))
+                .member(getMember("second", 5000, Map.of()))
+                .member(getMember("third", 5000, Map.of("first", Condition.STARTED)))
+                .build();
+
+        assertThat(runner.run(taskGroup).isSuccessful()).isTrue();
+    }
+
+    @Test
+    void shouldRejectGroupWithDependencyCycle() {
+        final TaskGroup taskGroup = TaskGroup.builder()
+                .name("task")
+                .networkName(NETWORK)
+                .member(getMember("first", 5000, Map.of("second", Condition.STARTED)))
+                .member(getMember("second", 5000, Map.of("first", Condition.COMPLETED_SUCCESSFULLY)))
+                .build();
+
+        assertThat(TaskGroupRunner.validate(taskGroup)).contains("dependency cycle through first");
+        final TaskGroupResult result = runner.run(taskGroup);
+        assertThat(result.getFailedMembers()).containsExactly("first", "second");
+        verifyNoInteractions(dockerClientInstance);
+    }
+
+    private TaskGroupMember getMember(String containerName, long maxExecutionTime, Map<String, Condition> dependsOn) {
+        return TaskGroupMember.builder()
+                .dockerRunRequest(DockerRunRequest.builder()
+                        .containerName(containerName)
+                        .imageUri("alpine:3.20")
+                        .maxExecutionTime(maxExecutionTime)
+                        .build())
+                .dependsOn(dependsOn)
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class TimingWheelTests {
+
+    private final TimingWheel wheel = new TimingWheel(Duration.ofMillis(10), 8, "timing-wheel-tests");
+
+    @AfterEach
+    void afterEach() {
+        wheel.close();
+    }
+
+    @Test
+    void shouldExpireTimeoutAfterDelay() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicLong firedAfterNanos = new AtomicLong();
+        final long start = System.nanoTime();
+        final TimingWheel.Timeout timeout = wheel.schedule(() -> {
+            firedAfterNanos.set(System.nanoTime() - start);
+            latch.countDown();
+        }, Duration.ofMillis(100));
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(firedAfterNanos.get()).isGreaterThanOrEqualTo(Duration.ofMillis(100).toNanos());
+        assertThat(timeout.isExpired()).isTrue();
+        assertThat(wheel.getPendingTimeouts()).isZero();
+    }
+
+    @Test
+    void shouldExpireTimeoutSpanningSeveralRounds() throws InterruptedException {
+        // 8 buckets of 10ms, a 250ms delay needs 3 rounds
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long start = System.nanoTime();
+        wheel.schedule(latch::countDown, Duration.ofMillis(250));
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(Duration.ofMillis(250).toNanos());
+    }
+
+    @Test
+    void shouldNotRunCancelledTimeout() {
+        final AtomicInteger fired = new AtomicInteger();
+        final TimingWheel.Timeout timeout = wheel.schedule(fired::incrementAndGet, Duration.ofMillis(50));
+
+        assertThat(timeout.cancel()).isTrue();
+        assertThat(timeout.cancel()).isFalse();
+        assertThat(wheel.getPendingTimeouts()).isZero();
+        await().during(200, TimeUnit.MILLISECONDS).atMost(1, TimeUnit.SECONDS)
+                .until(() -> fired.get() == 0);
+        assertThat(timeout.isCancelled()).isTrue();
+    }
+
+    @Test
+    void shouldExpireManyTimeouts() {
+        final AtomicInteger fired = new AtomicInteger();
+        for (int i = 0; i < 10_000; i++) {
+            final TimingWheel.Timeout timeout = wheel.schedule(fired::incrementAndGet, Duration.ofMillis(i % 200));
+            if (i % 2 == 0) {
+                timeout.cancel();
+            }
+        }
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> fired.get() == 5_000);
+        assertThat(wheel.getPendingTimeouts()).isZero();
+    }
+
+    @Test
+    void shouldExpireTimeoutWithPastDeadlineOnNextTick() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        wheel.schedule(latch::countDown, Duration.ofSeconds(-1));
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void shouldNotScheduleSinceClosed() {
+        wheel.close();
+        assertThatThrownBy(() -> wheel.schedule(() -> { }, Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
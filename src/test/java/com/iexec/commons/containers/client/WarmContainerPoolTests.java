@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.commons.containers.client;
+
+import com.github.dockerjava.api.model.HostConfig;
+import com.iexec.commons.containers.DockerRunRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class WarmContainerPoolTests {
+
+    private DockerClientInstance dockerClientInstance;
+    private WarmContainerPool pool;
+    private final AtomicInteger createdContainers = new AtomicInteger();
+
+    @BeforeEach
+    void beforeEach() {
+        dockerClientInstance = mock(DockerClientInstance.class);
+        when(dockerClientInstance.createContainer(any(DockerRunRequest.class), eq(false)))
+                .thenAnswer(invocation -> "id" + createdContainers.incrementAndGet());
+        when(dockerClientInstance.renameContainer(anyString(), anyString())).thenReturn(true);
+    }
+
+    @AfterEach
+    void afterEach() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    void shouldFillPoolForWarmedProfile() {
+        pool = new WarmContainerPool(dockerClientInstance, WarmPoolConfig.builder().poolSize(3).build());
+        pool.warm(getRequest("template", List.of()));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> pool.size() == 3);
+        verify(dockerClientInstance, times(3)).createContainer(
+                argThat(request -> request.getContainerName().startsWith(WarmContainerPool.WARM_CONTAINER_PREFIX)),
+                eq(false));
+    }
+
+    @Test
+    void shouldAcquireRenameAndRefill() {
+        pool = new WarmContainerPool(dockerClientInstance, WarmPoolConfig.builder().poolSize(1).build());
+        pool.warm(getRequest("template", List.of()));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> pool.size() == 1);
+
+        assertThat(pool.acquire(getRequest("task1", List.of()))).contains("id1");
+        verify(dockerClientInstance).renameContainer(startsWith(WarmContainerPool.WARM_CONTAINER_PREFIX), eq("task1"));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> pool.size() == 1);
+        assertThat(pool.acquire(getRequest("task2", List.of()))).contains("id2");
+    }
+
+    @Test
+    void shouldNotAcquireSinceProfileDiffers() {
+        pool = new WarmContainerPool(dockerClientInstance, WarmPoolConfig.builder().poolSize(1).build());
+        pool.warm(getRequest("template", List.of()));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> pool.size() == 1);
+
+        final DockerRunRequest request = getRequest("task1", List.of());
+        request.setCmd("sh -c 'echo Other'");
+        assertThat(pool.acquire(request)).isEmpty();
+        assertThat(pool.size()).isOne();
+        verify(dockerClientInstance, never()).renameContainer(anyString(), anyString());
+    }
+
+    @Test
+    void shouldNotWarmNorServeRunsWithEnv() {
+        pool = new WarmContainerPool(dockerClientInstance, WarmPoolConfig.builder().poolSize(1).build());
+        assertThat(pool.warm(getRequest("template", List.of("FOO=bar")))).isFalse();
+        assertThat(pool.warm(getRequest("template", List.of()))).isTrue();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> pool.size() == 1);
+
+        assertThat(pool.acquire(getRequest("task1", List.of("FOO=bar")))).isEmpty();
+        assertThat(pool.size()).isOne();
+        verify(dockerClientInstance, never()).renameContainer(anyString(), anyString());
+        verify(dockerClientInstance).createContainer(argThat(request -> request.getEnv() == null), eq(false));
+    }
+
+    @Test
+    void shouldNotAcquireExpiredContainer() {
+        pool = new WarmContainerPool(dockerClientInstance, WarmPoolConfig.builder()
+                .poolSize(1)
+                .ttl(Duration.ofMillis(1))
+                .build());
+        pool.warm(getRequest("template", List.of()));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> createdContainers.get() >= 1);
+
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() ->
+                assertThat(pool.acquire(getRequest("task1", List.of()))).isEmpty());
+        verify(dockerClientInstance, timeout(5000).atLeastOnce()).removeContainer(startsWith(WarmContainerPool.WARM_CONTAINER_PREFIX));
+    }
+
+    @Test
+    void shouldRespectMemoryBudget() {
+        pool = new WarmContainerPool(dockerClientInstance, WarmPoolConfig.builder()
+                .poolSize(5)
+                .maxMemoryBytes(250)
+                .build());
+        final DockerRunRequest template = getRequest("template", List.of());
+        template.setHostConfig(HostConfig.newHostConfig().withMemory(100L));
+        pool.warm(template);
+        await().atMost(5, TimeUnit.SECONDS).until(() -> pool.size() == 2);
+        verify(dockerClientInstance, after(200).times(2)).createContainer(any(DockerRunRequest.class), eq(false));
+        assertThat(pool.getPooledMemoryBytes()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldRemovePooledContainersOnClose() {
+        pool = new WarmContainerPool(dockerClientInstance, WarmPoolConfig.builder().poolSize(2).build());
+        pool.warm(getRequest("template", List.of()));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> pool.size() == 2);
+        pool.close();
+        assertThat(pool.size()).isZero();
+        verify(dockerClientInstance, times(2)).removeContainer(startsWith(WarmContainerPool.WARM_CONTAINER_PREFIX));
+    }
+
+    private DockerRunRequest getRequest(String containerName, List<String> env) {
+        return DockerRunRequest.builder()
+                .containerName(containerName)
+                .imageUri("alpine:latest")
+                .cmd("sh -c 'echo Hello'")
+                .env(env)
+                .build();
+    }
+}